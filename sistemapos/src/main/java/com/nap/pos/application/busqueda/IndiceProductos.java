@@ -0,0 +1,189 @@
+package com.nap.pos.application.busqueda;
+
+import com.nap.pos.domain.model.Producto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda de productos para filtrar mientras se escribe.
+ *
+ * El nombre y el código de barras se separan en términos normalizados (minúsculas,
+ * sin tildes). Cada palabra de la consulta debe ser prefijo de algún término del
+ * producto: "arr dia" encuentra "Arroz Diana 500g". Los términos se guardan
+ * ordenados, así que un prefijo se resuelve con una búsqueda binaria; los productos
+ * que coinciden se combinan en BitSets, igual que el filtro por categoría.
+ *
+ * Es inmutable: se construye de nuevo cuando cambia la lista de productos.
+ */
+public final class IndiceProductos {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final Producto[] productos;
+    private final String[]   nombres;      // nombre normalizado por posición
+    private final String[]   codigos;      // código normalizado por posición, null si no tiene
+    private final String[]   terminos;     // términos distintos, ordenados
+    private final int[][]    posiciones;   // por término: posiciones de los productos que lo contienen
+    private final Map<Long, BitSet> porCategoria;
+
+    private IndiceProductos(Collection<Producto> lista) {
+        int n = lista.size();
+        productos = lista.toArray(new Producto[0]);
+        nombres   = new String[n];
+        codigos   = new String[n];
+        porCategoria = new HashMap<>();
+
+        Map<String, Posiciones> mapa = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Producto p = productos[i];
+            nombres[i] = normalizar(p.getNombre());
+            codigos[i] = p.getCodigoBarras() == null ? null : normalizar(p.getCodigoBarras());
+
+            for (String termino : tokenizar(nombres[i])) {
+                mapa.computeIfAbsent(termino, t -> new Posiciones()).agregar(i);
+            }
+            if (codigos[i] != null) {
+                for (String termino : tokenizar(codigos[i])) {
+                    mapa.computeIfAbsent(termino, t -> new Posiciones()).agregar(i);
+                }
+            }
+            if (p.getSubcategoria() != null && p.getSubcategoria().getCategoria() != null) {
+                porCategoria.computeIfAbsent(p.getSubcategoria().getCategoria().getId(), id -> new BitSet(n))
+                        .set(i);
+            }
+        }
+
+        terminos = mapa.keySet().toArray(new String[0]);
+        Arrays.sort(terminos);
+        posiciones = new int[terminos.length][];
+        for (int t = 0; t < terminos.length; t++) {
+            posiciones[t] = mapa.get(terminos[t]).toArray();
+        }
+    }
+
+    public static IndiceProductos de(Collection<Producto> productos) {
+        return new IndiceProductos(productos);
+    }
+
+    public int tamano() {
+        return productos.length;
+    }
+
+    /**
+     * Busca productos por nombre o código de barras.
+     *
+     * Orden del resultado: primero el código de barras idéntico a la consulta, luego
+     * los nombres que empiezan con la consulta y al final el resto; dentro de cada grupo
+     * se respeta el orden de la lista con que se construyó el índice.
+     *
+     * @param texto       consulta tal como la escribió el usuario; vacía devuelve todos
+     * @param categoriaId solo productos de esa categoría, o null para no filtrar
+     * @param limite      máximo de resultados
+     */
+    public List<Producto> buscar(String texto, Long categoriaId, int limite) {
+        String consulta = normalizar(texto);
+        List<String> tokens = tokenizar(consulta);
+
+        BitSet coincidencias;
+        if (tokens.isEmpty()) {
+            coincidencias = new BitSet(productos.length);
+            coincidencias.set(0, productos.length);
+        } else {
+            coincidencias = conPrefijo(tokens.get(0));
+            for (int i = 1; i < tokens.size() && !coincidencias.isEmpty(); i++) {
+                coincidencias.and(conPrefijo(tokens.get(i)));
+            }
+        }
+        if (categoriaId != null) {
+            BitSet categoria = porCategoria.get(categoriaId);
+            if (categoria == null) return List.of();
+            coincidencias.and(categoria);
+        }
+        if (tokens.isEmpty()) return tomar(coincidencias, limite);
+
+        // Ranking en tres grupos sin ordenar todo el resultado
+        List<Producto> exactos  = new ArrayList<>();
+        List<Producto> inicio   = new ArrayList<>();
+        List<Producto> resto    = new ArrayList<>();
+        for (int i = coincidencias.nextSetBit(0); i >= 0; i = coincidencias.nextSetBit(i + 1)) {
+            if (consulta.equals(codigos[i])) {
+                exactos.add(productos[i]);
+            } else if (nombres[i].startsWith(consulta)) {
+                if (inicio.size() < limite) inicio.add(productos[i]);
+            } else if (resto.size() < limite) {
+                resto.add(productos[i]);
+            }
+        }
+        List<Producto> resultado = new ArrayList<>(Math.min(limite, exactos.size() + inicio.size() + resto.size()));
+        for (List<Producto> grupo : List.of(exactos, inicio, resto)) {
+            for (Producto p : grupo) {
+                if (resultado.size() >= limite) return resultado;
+                resultado.add(p);
+            }
+        }
+        return resultado;
+    }
+
+    // ── Normalización ────────────────────────────────────────────────────────
+
+    /** Minúsculas, sin tildes y con espacios simples: "  Café  Águila " → "cafe aguila". */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isBlank()) return "";
+        String sinTildes = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase().trim().replaceAll("\\s+", " ");
+    }
+
+    private static List<String> tokenizar(String normalizado) {
+        if (normalizado.isEmpty()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String t : SEPARADORES.split(normalizado)) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private BitSet conPrefijo(String prefijo) {
+        BitSet bits = new BitSet(productos.length);
+        int desde = Arrays.binarySearch(terminos, prefijo);
+        if (desde < 0) desde = -desde - 1;
+        for (int t = desde; t < terminos.length && terminos[t].startsWith(prefijo); t++) {
+            for (int pos : posiciones[t]) bits.set(pos);
+        }
+        return bits;
+    }
+
+    private List<Producto> tomar(BitSet bits, int limite) {
+        List<Producto> resultado = new ArrayList<>(Math.min(limite, bits.cardinality()));
+        for (int i = bits.nextSetBit(0); i >= 0 && resultado.size() < limite; i = bits.nextSetBit(i + 1)) {
+            resultado.add(productos[i]);
+        }
+        return resultado;
+    }
+
+    /** Lista creciente de posiciones sin boxing; cada producto se agrega una sola vez por término. */
+    private static final class Posiciones {
+        private int[] datos = new int[2];
+        private int tamano;
+
+        void agregar(int pos) {
+            if (tamano > 0 && datos[tamano - 1] == pos) return;   // término repetido en el mismo nombre
+            if (tamano == datos.length) datos = Arrays.copyOf(datos, tamano * 2);
+            datos[tamano++] = pos;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(datos, tamano);
+        }
+    }
+}
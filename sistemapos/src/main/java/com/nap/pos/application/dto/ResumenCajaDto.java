@@ -0,0 +1,19 @@
+package com.nap.pos.application.dto;
+
+import com.nap.pos.domain.model.Caja;
+import com.nap.pos.domain.model.TotalesCaja;
+
+import java.math.BigDecimal;
+
+/**
+ * Una sesión de caja con sus ventas ya sumadas, para el historial y el resumen de cierre.
+ *
+ * @param esperadoEnCaja monto inicial más lo cobrado en efectivo
+ * @param diferencia     monto final contado menos el esperado; null si la caja sigue abierta
+ */
+public record ResumenCajaDto(
+        Caja caja,
+        TotalesCaja ventas,
+        BigDecimal esperadoEnCaja,
+        BigDecimal diferencia
+) {}
@@ -0,0 +1,25 @@
+package com.nap.pos.application.dto;
+
+import com.nap.pos.domain.model.FilaCompra;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard de compras armado con conteos y sumas en BD.
+ *
+ * @param gastoPorMes    total invertido en cada uno de los últimos meses, en orden; 0 si no hubo compras
+ * @param topProveedores total invertido por proveedor, de mayor a menor
+ * @param recientes      últimas compras, de la más reciente a la más antigua
+ */
+public record ResumenComprasDto(
+        long totalCompras,
+        BigDecimal totalGastado,
+        long proveedoresConCompras,
+        long productosComprados,
+        Map<YearMonth, BigDecimal> gastoPorMes,
+        Map<String, BigDecimal> topProveedores,
+        List<FilaCompra> recientes
+) {}
@@ -0,0 +1,22 @@
+package com.nap.pos.application.dto;
+
+import com.nap.pos.domain.model.Venta;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Foto del dashboard armada con conteos y sumas en BD.
+ *
+ * @param totalPorHora dinero de las ventas COMPLETADAS de hoy por hora del día (índice 0–23)
+ */
+public record ResumenDashboardDto(
+        long productosActivos,
+        long productosSinStock,
+        long clientes,
+        boolean cajaAbierta,
+        int ventasHoy,
+        BigDecimal totalHoy,
+        List<BigDecimal> totalPorHora,
+        List<Venta> ultimasVentas
+) {}
@@ -0,0 +1,41 @@
+package com.nap.pos.application.dto.importacion;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de recorrer el archivo de importación una sola vez: errores de validación,
+ * duplicados contra la BD y, para productos, categorías/subcategorías que no existen.
+ * Conserva las filas leídas para que la importación final no vuelva a leer el archivo.
+ *
+ * @param tipo             entidad que se importa
+ * @param mapeo            campo → índice de columna con el que se analizó el archivo
+ * @param filas            filas de datos en el orden del archivo
+ * @param errores          errores de validación; si hay alguno no se debe importar
+ * @param duplicados       filas cuyo código de barras o cédula ya existe en la BD
+ * @param categoriasNuevas pares categoría/subcategoría inexistentes (vacío para clientes)
+ */
+public record AnalisisImportacion(
+        TipoEntidad                      tipo,
+        Map<CampoImportacion, Integer>   mapeo,
+        List<FilaLeida>                  filas,
+        List<FilaError>                  errores,
+        List<DuplicadoEncontrado>        duplicados,
+        List<CategoriaSubcategoriaNueva> categoriasNuevas
+) {
+
+    /**
+     * Fila de datos tal como se leyó del archivo.
+     *
+     * @param numeroFila  número de fila en el archivo (la 1 es el encabezado)
+     * @param valores     celdas de la fila
+     * @param idExistente id del registro con el mismo código o cédula en BD, null si es nuevo
+     */
+    public record FilaLeida(int numeroFila, String[] valores, Long idExistente) {}
+
+    // Análisis que no llegó a leer filas (p. ej. falta mapear un campo requerido)
+    public static AnalisisImportacion soloErrores(TipoEntidad tipo, Map<CampoImportacion, Integer> mapeo,
+                                                  List<FilaError> errores) {
+        return new AnalisisImportacion(tipo, mapeo, List.of(), errores, List.of(), List.of());
+    }
+}
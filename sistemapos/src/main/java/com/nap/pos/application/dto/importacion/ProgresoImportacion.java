@@ -0,0 +1,13 @@
+package com.nap.pos.application.dto.importacion;
+
+/**
+ * Avance de una importación masiva, notificado tras confirmar cada lote.
+ * Se invoca desde el hilo que ejecuta la importación, no desde el hilo de JavaFX.
+ */
+@FunctionalInterface
+public interface ProgresoImportacion {
+
+    ProgresoImportacion NINGUNO = (procesadas, total) -> { };
+
+    void actualizar(int procesadas, int total);
+}
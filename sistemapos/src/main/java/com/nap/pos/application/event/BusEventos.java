@@ -0,0 +1,117 @@
+package com.nap.pos.application.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Reparto asíncrono de los {@link EventoDominio} confirmados.
+ *
+ * Recibe cada evento después del commit de la transacción que lo publicó (un rollback
+ * no reparte nada) y lo pasa a un hilo propio. Los eventos que llegan dentro de
+ * {@link #VENTANA_MS} se juntan en un lote: una venta con stock, crédito y resumen
+ * se entrega de una vez, y una ráfaga (importación, cambio de margen de un proveedor)
+ * no dispara una recarga por evento.
+ *
+ * Los oyentes corren en ese hilo, uno tras otro y en el orden de publicación: si
+ * consultan la base lo hacen ahí, y si tocan nodos pasan al hilo de JavaFX. Los cachés
+ * que deben verse al día en la siguiente lectura (p. ej. el catálogo de la pantalla de
+ * ventas) siguen escuchando con {@code @TransactionalEventListener}.
+ */
+@Slf4j
+@Component
+public class BusEventos {
+
+    static final long VENTANA_MS = 50;
+
+    private record Suscripcion<T>(Class<T> tipo, Consumer<List<T>> oyente) {
+
+        void entregar(List<EventoDominio> lote) {
+            List<T> propios = lote.stream().filter(tipo::isInstance).map(tipo::cast).toList();
+            if (!propios.isEmpty()) oyente.accept(propios);
+        }
+    }
+
+    private final BlockingQueue<EventoDominio> pendientes = new LinkedBlockingQueue<>();
+    private final List<Suscripcion<?>> suscripciones = new CopyOnWriteArrayList<>();
+    private final ExecutorService repartidor;
+    private final long ventanaMs;
+
+    public BusEventos() {
+        this(VENTANA_MS);
+        iniciar();
+    }
+
+    /**
+     * Crea el bus sin arrancar el reparto: lo que se publique queda en cola hasta
+     * {@link #iniciar()}, así una prueba puede armar la ráfaga antes de que corra el hilo.
+     */
+    BusEventos(long ventanaMs) {
+        this.ventanaMs = ventanaMs;
+        this.repartidor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "bus-eventos");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void iniciar() {
+        repartidor.execute(this::repartir);
+    }
+
+    /**
+     * Registra un oyente para los eventos de un tipo (o de sus subtipos).
+     * Recibe solo los de ese tipo de cada lote, y nada si el lote no trae ninguno.
+     */
+    public <T> void suscribir(Class<T> tipo, Consumer<List<T>> oyente) {
+        suscripciones.add(new Suscripcion<>(tipo, oyente));
+    }
+
+    // Tras el commit, o de inmediato si se publicó fuera de una transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmar(EventoDominio evento) {
+        pendientes.add(evento);
+    }
+
+    @PreDestroy
+    void detener() {
+        repartidor.shutdownNow();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void repartir() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<EventoDominio> lote = new ArrayList<>();
+                lote.add(pendientes.take());
+                // Espera a que termine la ráfaga antes de entregar
+                Thread.sleep(ventanaMs);
+                pendientes.drainTo(lote);
+                entregar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void entregar(List<EventoDominio> lote) {
+        for (Suscripcion<?> suscripcion : suscripciones) {
+            try {
+                suscripcion.entregar(lote);
+            } catch (Exception e) {
+                log.warn("Falló un oyente de {}: {}", suscripcion.tipo().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+}
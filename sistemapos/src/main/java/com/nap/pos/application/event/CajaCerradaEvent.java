@@ -0,0 +1,12 @@
+package com.nap.pos.application.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Se cerró la caja registradora.
+ *
+ * @param cajaId     caja cerrada
+ * @param montoFinal efectivo contado al cerrar
+ */
+public record CajaCerradaEvent(Long cajaId, BigDecimal montoFinal) implements EventoDominio {
+}
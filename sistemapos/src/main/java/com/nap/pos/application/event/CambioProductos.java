@@ -0,0 +1,18 @@
+package com.nap.pos.application.event;
+
+import java.util.Set;
+
+/**
+ * Cualquier cambio sobre productos. Los cachés que solo necesitan saber qué productos
+ * releer escuchan este tipo; los que distinguen stock de precio escuchan el evento concreto.
+ */
+public interface CambioProductos extends EventoDominio {
+
+    // Productos afectados; vacío si todos
+    Set<Long> productoIds();
+
+    // true cuando cambió el catálogo completo
+    default boolean todos() {
+        return false;
+    }
+}
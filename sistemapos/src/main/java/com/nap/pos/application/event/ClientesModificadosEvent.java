@@ -0,0 +1,21 @@
+package com.nap.pos.application.event;
+
+import java.util.Set;
+
+/**
+ * Aviso de que cambiaron datos de clientes: saldo de crédito, plazo de pago o estado.
+ * Los servicios lo publican dentro de su transacción; los oyentes lo reciben tras el commit.
+ *
+ * @param clienteIds clientes afectados (vacío si todos)
+ * @param todos      true tras un cambio masivo, p. ej. una importación
+ */
+public record ClientesModificadosEvent(Set<Long> clienteIds, boolean todos) implements EventoDominio {
+
+    public static ClientesModificadosEvent de(Long clienteId) {
+        return new ClientesModificadosEvent(Set.of(clienteId), false);
+    }
+
+    public static ClientesModificadosEvent todosLosClientes() {
+        return new ClientesModificadosEvent(Set.of(), true);
+    }
+}
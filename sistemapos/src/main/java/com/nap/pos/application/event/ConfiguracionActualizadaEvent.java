@@ -0,0 +1,11 @@
+package com.nap.pos.application.event;
+
+import com.nap.pos.domain.model.ConfiguracionTienda;
+
+/**
+ * Aviso de que se guardó la configuración del negocio (p. ej. cambió el stock mínimo global).
+ *
+ * @param configuracion configuración tal como quedó guardada
+ */
+public record ConfiguracionActualizadaEvent(ConfiguracionTienda configuracion) implements EventoDominio {
+}
@@ -0,0 +1,9 @@
+package com.nap.pos.application.event;
+
+/**
+ * Evento que los servicios publican con {@code ApplicationEventPublisher} dentro de su
+ * transacción. Además de llegar a los {@code @TransactionalEventListener} de su tipo,
+ * {@link BusEventos} lo reparte en lotes, tras el commit y fuera del hilo que lo publicó.
+ */
+public interface EventoDominio {
+}
@@ -0,0 +1,13 @@
+package com.nap.pos.application.event;
+
+/**
+ * Aviso de que cambió la imagen de un producto. La ruta puede ser la misma de antes
+ * (el archivo se reemplaza en su lugar), así que los cachés de imágenes deben
+ * descartar ambas rutas y no fiarse solo de que el nombre cambie.
+ *
+ * @param productoId  producto afectado
+ * @param rutaAnterior ruta que tenía antes, o null
+ * @param rutaNueva    ruta nueva, o null si se quitó la imagen
+ */
+public record ImagenProductoActualizadaEvent(Long productoId, String rutaAnterior, String rutaNueva) {
+}
@@ -0,0 +1,17 @@
+package com.nap.pos.application.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Cambió el precio de venta de los productos indicados, p. ej. al cambiar el
+ * porcentaje de ganancia de su proveedor.
+ *
+ * @param productoIds productos con precio nuevo
+ */
+public record PrecioModificadoEvent(Set<Long> productoIds) implements CambioProductos {
+
+    public static PrecioModificadoEvent de(Collection<Long> productoIds) {
+        return new PrecioModificadoEvent(Set.copyOf(productoIds));
+    }
+}
@@ -0,0 +1,28 @@
+package com.nap.pos.application.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Aviso de que cambiaron datos de productos: altas, ediciones, estado, o una compra que
+ * mueve stock y costo a la vez. Los cambios solo de stock o de precio tienen su propio
+ * evento ({@link StockModificadoEvent}, {@link PrecioModificadoEvent}).
+ * Los servicios lo publican dentro de su transacción; los oyentes lo reciben tras el commit.
+ *
+ * @param productoIds productos afectados (vacío si todos)
+ * @param todos       true cuando cambió el catálogo completo, p. ej. tras una importación masiva
+ */
+public record ProductosModificadosEvent(Set<Long> productoIds, boolean todos) implements CambioProductos {
+
+    public static ProductosModificadosEvent de(Long productoId) {
+        return new ProductosModificadosEvent(Set.of(productoId), false);
+    }
+
+    public static ProductosModificadosEvent de(Collection<Long> productoIds) {
+        return new ProductosModificadosEvent(Set.copyOf(productoIds), false);
+    }
+
+    public static ProductosModificadosEvent catalogoCompleto() {
+        return new ProductosModificadosEvent(Set.of(), true);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nap.pos.application.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Cambió el stock de los productos indicados (venta, anulación o ajuste manual).
+ *
+ * @param productoIds productos cuyo stock cambió
+ */
+public record StockModificadoEvent(Set<Long> productoIds) implements CambioProductos {
+
+    public static StockModificadoEvent de(Long productoId) {
+        return new StockModificadoEvent(Set.of(productoId));
+    }
+
+    public static StockModificadoEvent de(Collection<Long> productoIds) {
+        return new StockModificadoEvent(Set.copyOf(productoIds));
+    }
+}
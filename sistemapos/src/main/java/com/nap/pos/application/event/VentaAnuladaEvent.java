@@ -0,0 +1,16 @@
+package com.nap.pos.application.event;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+
+/**
+ * Se anuló una venta. La devolución de stock llega aparte como {@link StockModificadoEvent}.
+ *
+ * @param ventaId   venta anulada
+ * @param cajaId    caja en la que se había cobrado
+ * @param clienteId cliente de la venta; null en venta directa
+ */
+public record VentaAnuladaEvent(Long ventaId, Long cajaId, Long clienteId,
+                                MetodoPago metodoPago, BigDecimal total) implements EventoDominio {
+}
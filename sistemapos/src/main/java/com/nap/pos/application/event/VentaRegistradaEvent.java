@@ -0,0 +1,16 @@
+package com.nap.pos.application.event;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+
+/**
+ * Se registró una venta. El cambio de stock llega aparte como {@link StockModificadoEvent}.
+ *
+ * @param ventaId   venta registrada
+ * @param cajaId    caja en la que se cobró
+ * @param clienteId cliente de la venta; null en venta directa
+ */
+public record VentaRegistradaEvent(Long ventaId, Long cajaId, Long clienteId,
+                                   MetodoPago metodoPago, BigDecimal total) implements EventoDominio {
+}
@@ -1,23 +1,33 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.dto.ResumenCajaDto;
+import com.nap.pos.application.event.CajaCerradaEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Caja;
+import com.nap.pos.domain.model.TotalesCaja;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.EstadoCaja;
 import com.nap.pos.domain.repository.CajaRepository;
+import com.nap.pos.domain.repository.VentaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class CajaService {
 
     private final CajaRepository cajaRepository;
+    private final VentaRepository ventaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Abre una nueva caja registradora con el monto inicial en efectivo.
@@ -48,7 +58,9 @@ public class CajaService {
     public Caja cerrarCaja(BigDecimal montoFinal) {
         Caja caja = getCajaAbierta();
         caja.cerrar(montoFinal);
-        return cajaRepository.save(caja);
+        Caja cerrada = cajaRepository.save(caja);
+        eventPublisher.publishEvent(new CajaCerradaEvent(caja.getId(), montoFinal));
+        return cerrada;
     }
 
     /**
@@ -66,4 +78,36 @@ public class CajaService {
     public List<Caja> findAll() {
         return cajaRepository.findAll();
     }
+
+    /**
+     * Historial de cajas con sus ventas sumadas, de la apertura más reciente a la más antigua.
+     * Las ventas de todas las cajas se suman en una sola consulta agrupada.
+     */
+    @Transactional(readOnly = true)
+    public List<ResumenCajaDto> historial() {
+        List<Caja> cajas = cajaRepository.findAll().stream()
+                .filter(c -> c.getFechaApertura() != null)
+                .sorted(Comparator.comparing(Caja::getFechaApertura, Comparator.reverseOrder()))
+                .toList();
+        Map<Long, TotalesCaja> totales = ventaRepository.totalizarPorCaja(
+                cajas.stream().map(Caja::getId).filter(Objects::nonNull).toList());
+        return cajas.stream()
+                .map(c -> resumir(c, totales.getOrDefault(c.getId(), TotalesCaja.sinVentas(c.getId()))))
+                .toList();
+    }
+
+    // Resumen de una sola caja (p. ej. la última cerrada)
+    @Transactional(readOnly = true)
+    public ResumenCajaDto resumen(Caja caja) {
+        TotalesCaja totales = ventaRepository.totalizarPorCaja(List.of(caja.getId()))
+                .getOrDefault(caja.getId(), TotalesCaja.sinVentas(caja.getId()));
+        return resumir(caja, totales);
+    }
+
+    private static ResumenCajaDto resumir(Caja caja, TotalesCaja ventas) {
+        BigDecimal montoInicial = caja.getMontoInicial() != null ? caja.getMontoInicial() : BigDecimal.ZERO;
+        BigDecimal esperado = montoInicial.add(ventas.efectivo());
+        BigDecimal diferencia = caja.getMontoFinal() != null ? caja.getMontoFinal().subtract(esperado) : null;
+        return new ResumenCajaDto(caja, ventas, esperado, diferencia);
+    }
 }
@@ -0,0 +1,167 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.application.busqueda.IndiceProductos;
+import com.nap.pos.application.event.CambioProductos;
+import com.nap.pos.domain.model.Producto;
+import com.nap.pos.domain.repository.ProductoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Catálogo de productos activos en memoria, indexado por ID y por código de barras.
+ *
+ * Se carga completo la primera vez que se consulta y después se mantiene al día
+ * con {@link CambioProductos}: tras cada commit que toca productos se releen solo
+ * los afectados, en el mismo hilo, antes de que la pantalla vuelva a consultar.
+ * Así el scanner resuelve un código en O(1) y la pantalla de ventas ve el stock
+ * real sin recargar todo el catálogo.
+ *
+ * Los productos devueltos son compartidos: se leen, no se modifican.
+ */
+@Service
+public class CatalogoService {
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+
+    // Ordenado por ID: conserva el orden en que la BD devolvía los productos activos
+    private final Map<Long, Producto>   porId     = new ConcurrentSkipListMap<>();
+    private final Map<String, Producto> porCodigo = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+    // Se reconstruye al consultar si cambió un nombre, código, categoría o el conjunto de activos
+    private volatile IndiceProductos indice;
+
+    public CatalogoService(ProductoRepository productoRepository, PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        // Transacción propia: al recargar tras un commit no se reutiliza la sesión que acaba de cerrar
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Scanner de la pantalla de ventas: solo productos activos
+    public Optional<Producto> buscarPorCodigoBarras(String codigoBarras) {
+        if (codigoBarras == null || codigoBarras.isBlank()) return Optional.empty();
+        cargarSiHaceFalta();
+        return Optional.ofNullable(porCodigo.get(codigoBarras));
+    }
+
+    public Optional<Producto> buscarPorId(Long id) {
+        if (id == null) return Optional.empty();
+        cargarSiHaceFalta();
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    // Pantalla de ventas: copia de los productos activos, ordenados por ID
+    public List<Producto> findAllActivos() {
+        cargarSiHaceFalta();
+        return new ArrayList<>(porId.values());
+    }
+
+    /**
+     * Búsqueda mientras se escribe sobre los productos activos (ver {@link IndiceProductos}).
+     * Los productos devueltos traen el stock y precio vigentes.
+     */
+    public List<Producto> buscar(String texto, Long categoriaId, int limite) {
+        cargarSiHaceFalta();
+        IndiceProductos actual = indice;
+        if (actual == null) {
+            synchronized (this) {
+                if (indice == null) indice = IndiceProductos.de(porId.values());
+                actual = indice;
+            }
+        }
+        List<Producto> resultado = new ArrayList<>();
+        for (Producto p : actual.buscar(texto, categoriaId, limite)) {
+            Producto vigente = porId.get(p.getId());
+            if (vigente != null) resultado.add(vigente);
+        }
+        return resultado;
+    }
+
+    /**
+     * Relee los productos afectados después del commit (o de inmediato si se
+     * publicó fuera de una transacción). Si el catálogo aún no se cargó no hace
+     * nada: la primera consulta ya leerá los datos nuevos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductosModificados(CambioProductos evento) {
+        if (!cargado) return;
+        if (evento.todos()) {
+            recargarTodo();
+            return;
+        }
+        List<Producto> leidos = lectura.execute(s -> productoRepository.findAllByIds(evento.productoIds()));
+        synchronized (this) {
+            Set<Long> sinLeer = new HashSet<>(evento.productoIds());
+            for (Producto p : Objects.requireNonNull(leidos)) {
+                sinLeer.remove(p.getId());
+                if (cambiaBusqueda(porId.get(p.getId()), p)) indice = null;
+                if (p.isActivo()) poner(p); else quitar(p.getId());
+            }
+            for (Long id : sinLeer) {
+                quitar(id);
+                indice = null;
+            }
+        }
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void cargarSiHaceFalta() {
+        if (cargado) return;
+        synchronized (this) {
+            if (!cargado) recargarTodo();
+        }
+    }
+
+    private synchronized void recargarTodo() {
+        List<Producto> activos = lectura.execute(s -> productoRepository.findAllActivos());
+        porId.clear();
+        porCodigo.clear();
+        Objects.requireNonNull(activos).forEach(this::poner);
+        indice = null;
+        cargado = true;
+    }
+
+    // Un cambio solo de stock o precio no obliga a reconstruir el índice de búsqueda
+    private static boolean cambiaBusqueda(Producto anterior, Producto nuevo) {
+        return anterior == null
+                || !nuevo.isActivo()
+                || !Objects.equals(anterior.getNombre(), nuevo.getNombre())
+                || !Objects.equals(anterior.getCodigoBarras(), nuevo.getCodigoBarras())
+                || !Objects.equals(categoriaId(anterior), categoriaId(nuevo));
+    }
+
+    private static Long categoriaId(Producto p) {
+        return p.getSubcategoria() != null && p.getSubcategoria().getCategoria() != null
+                ? p.getSubcategoria().getCategoria().getId()
+                : null;
+    }
+
+    private void poner(Producto producto) {
+        quitar(producto.getId());   // el código de barras pudo haber cambiado
+        porId.put(producto.getId(), producto);
+        if (producto.getCodigoBarras() != null) porCodigo.put(producto.getCodigoBarras(), producto);
+    }
+
+    private void quitar(Long id) {
+        Producto anterior = porId.remove(id);
+        if (anterior != null && anterior.getCodigoBarras() != null) {
+            porCodigo.remove(anterior.getCodigoBarras(), anterior);
+        }
+    }
+}
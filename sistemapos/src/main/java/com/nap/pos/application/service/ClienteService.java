@@ -1,9 +1,14 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ClientesModificadosEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Cliente;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaCliente;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.repository.ClienteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +21,7 @@ import java.util.Optional;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Cliente crear(Cliente cliente) {
@@ -23,6 +29,7 @@ public class ClienteService {
                 .ifPresent(c -> {
                     throw new BusinessException("Ya existe un cliente con cédula '" + cliente.getCedula() + "'.");
                 });
+        // Un cliente nuevo no debe nada: no cambia las alertas de pago
         return clienteRepository.save(cliente);
     }
 
@@ -34,7 +41,9 @@ public class ClienteService {
                 .ifPresent(c -> {
                     throw new BusinessException("Ya existe un cliente con cédula '" + cliente.getCedula() + "'.");
                 });
-        return clienteRepository.save(cliente);
+        Cliente guardado = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(guardado.getId()));
+        return guardado;
     }
 
     /** Reactiva el cliente para que vuelva a aparecer disponible en ventas. */
@@ -43,6 +52,7 @@ public class ClienteService {
         Cliente cliente = findById(id);
         cliente.activar();
         clienteRepository.save(cliente);
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(id));
     }
 
     /** Desactiva el cliente sin eliminarlo — preserva el historial de ventas. */
@@ -51,6 +61,7 @@ public class ClienteService {
         Cliente cliente = findById(id);
         cliente.desactivar();
         clienteRepository.save(cliente);
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(id));
     }
 
     /**
@@ -61,7 +72,9 @@ public class ClienteService {
     public Cliente abonar(Long id, BigDecimal monto) {
         Cliente cliente = findById(id);
         cliente.abonar(monto);
-        return clienteRepository.save(cliente);
+        Cliente guardado = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(id));
+        return guardado;
     }
 
     // Búsqueda por cédula — usada para verificar duplicados y en la pantalla de ventas
@@ -83,4 +96,11 @@ public class ClienteService {
     public List<Cliente> findAllActivos() {
         return clienteRepository.findAllActivos();
     }
+
+    // Tabla de clientes: una página de filas planas, filtrada y ordenada en la base
+    @Transactional(readOnly = true)
+    public Pagina<FilaCliente> listarFilas(String texto, Boolean activo, boolean soloConCredito,
+                                           ConsultaPagina consulta) {
+        return clienteRepository.buscarFilas(texto, activo, soloConCredito, consulta);
+    }
 }
@@ -0,0 +1,176 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.domain.model.Venta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de impresión de tickets.
+ *
+ * Las ventas solo encolan el trabajo: el ticket se formatea, guarda e imprime
+ * en un hilo propio después del commit, así la transacción (y el bloqueo de
+ * escritura de SQLite) nunca espera a la impresora ni al visor de archivos.
+ *
+ * Un trabajo que falla se reintenta con espera creciente; si agota los intentos
+ * queda en la lista de fallidos, visible como notificación, hasta que se
+ * reintente o se descarte manualmente. Los oyentes de {@link #alCambiarFallidos}
+ * se enteran cada vez que esa lista cambia.
+ */
+@Slf4j
+@Service
+public class ColaImpresionService {
+
+    static final int  MAX_INTENTOS   = 3;
+    static final long ESPERA_BASE_MS = 2_000;
+
+    /**
+     * Ticket pendiente de imprimir.
+     *
+     * @param id            identificador del trabajo dentro de la cola
+     * @param venta         venta ya cargada (el hilo de impresión no accede a la BD por ella)
+     * @param montoRecibido efectivo recibido para calcular el cambio, puede ser null
+     * @param abrirCajon    true si el ticket debe disparar el cajón monedero
+     * @param intentos      intentos realizados hasta ahora
+     * @param ultimoError   mensaje del último fallo, null si no ha fallado
+     */
+    public record TrabajoImpresion(long id, Venta venta, BigDecimal montoRecibido, boolean abrirCajon,
+                                   int intentos, String ultimoError) {
+
+        TrabajoImpresion conFallo(String error) {
+            return new TrabajoImpresion(id, venta, montoRecibido, abrirCajon, intentos + 1, error);
+        }
+    }
+
+    private final ImpresionService impresionService;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong secuencia = new AtomicLong();
+    // Acceso sincronizado sobre el propio mapa; conserva el orden de llegada para la UI
+    private final Map<Long, TrabajoImpresion> fallidos = new LinkedHashMap<>();
+    private final List<Runnable> oyentesFallidos = new CopyOnWriteArrayList<>();
+
+    public ColaImpresionService(ImpresionService impresionService) {
+        this.impresionService = impresionService;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cola-impresion");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Encola el ticket de una venta. Si hay una transacción activa, el trabajo
+     * se entrega al hilo de impresión solo cuando ésta confirma: una venta que
+     * hace rollback nunca imprime ticket.
+     *
+     * @param abrirCajon true solo para ventas nuevas en efectivo; las reimpresiones no abren el cajón
+     */
+    public void encolar(Venta venta, BigDecimal montoRecibido, boolean abrirCajon) {
+        TrabajoImpresion trabajo = new TrabajoImpresion(
+                secuencia.incrementAndGet(), venta, montoRecibido, abrirCajon, 0, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    programar(trabajo, 0);
+                }
+            });
+        } else {
+            programar(trabajo, 0);
+        }
+    }
+
+    // Trabajos que agotaron sus reintentos, del más antiguo al más reciente
+    public List<TrabajoImpresion> getFallidos() {
+        synchronized (fallidos) {
+            return new ArrayList<>(fallidos.values());
+        }
+    }
+
+    public int contarFallidos() {
+        synchronized (fallidos) {
+            return fallidos.size();
+        }
+    }
+
+    // Se llama desde el hilo que cambió la lista (la cola de impresión o quien reintenta/descarta)
+    public void alCambiarFallidos(Runnable oyente) {
+        oyentesFallidos.add(oyente);
+    }
+
+    // Vuelve a poner en cola un trabajo fallido con el contador de intentos reiniciado
+    public void reintentar(long trabajoId) {
+        TrabajoImpresion trabajo;
+        synchronized (fallidos) {
+            trabajo = fallidos.remove(trabajoId);
+        }
+        if (trabajo != null) {
+            avisarFallidos();
+            // El cajón no se vuelve a abrir: la venta ya se cobró cuando falló la impresión
+            programar(new TrabajoImpresion(trabajo.id(), trabajo.venta(), trabajo.montoRecibido(),
+                    false, 0, null), 0);
+        }
+    }
+
+    public void descartar(long trabajoId) {
+        boolean quitado;
+        synchronized (fallidos) {
+            quitado = fallidos.remove(trabajoId) != null;
+        }
+        if (quitado) avisarFallidos();
+    }
+
+    @PreDestroy
+    void detener() {
+        worker.shutdown();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void avisarFallidos() {
+        for (Runnable oyente : oyentesFallidos) {
+            try {
+                oyente.run();
+            } catch (Exception e) {
+                log.warn("Falló un oyente de la cola de impresión: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void programar(TrabajoImpresion trabajo, long esperaMs) {
+        worker.schedule(() -> ejecutar(trabajo), esperaMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void ejecutar(TrabajoImpresion trabajo) {
+        try {
+            impresionService.imprimirTicket(trabajo.venta(), trabajo.montoRecibido(), trabajo.abrirCajon());
+        } catch (Exception e) {
+            TrabajoImpresion fallido = trabajo.conFallo(e.getMessage());
+            if (fallido.intentos() < MAX_INTENTOS) {
+                log.warn("Fallo al imprimir el ticket del comprobante {} (intento {}/{}): {}",
+                        trabajo.venta().getNumeroComprobante(), fallido.intentos(), MAX_INTENTOS, e.getMessage());
+                programar(fallido, ESPERA_BASE_MS * fallido.intentos());
+            } else {
+                log.error("No se pudo imprimir el ticket del comprobante {} tras {} intentos: {}",
+                        trabajo.venta().getNumeroComprobante(), MAX_INTENTOS, e.getMessage());
+                synchronized (fallidos) {
+                    fallidos.put(fallido.id(), fallido);
+                }
+                avisarFallidos();
+            }
+        }
+    }
+}
@@ -1,25 +1,36 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.dto.ResumenComprasDto;
+import com.nap.pos.application.event.ProductosModificadosEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.*;
 import com.nap.pos.domain.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CompraService {
 
+    static final int MESES_DASHBOARD   = 6;
+    static final int TOP_PROVEEDORES   = 5;
+    static final int COMPRAS_RECIENTES = 10;
+
     private final CompraRepository compraRepository;
     private final ProductoRepository productoRepository;
     private final ProveedorRepository proveedorRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Datos mínimos que la UI envía por cada producto en la compra.
@@ -66,7 +77,10 @@ public class CompraService {
         compra.calcularTotal();
         compra.validar();
 
-        return compraRepository.save(compra);
+        Compra guardada = compraRepository.save(compra);
+        eventPublisher.publishEvent(ProductosModificadosEvent.de(
+                items.stream().map(ItemCompra::productoId).toList()));
+        return guardada;
     }
 
     // Historial de compras filtrado por proveedor
@@ -81,8 +95,42 @@ public class CompraService {
         return compraRepository.findUltimaByProveedorId(proveedorId);
     }
 
+    // Detalle de una compra abierta desde el historial
+    @Transactional(readOnly = true)
+    public Compra findById(Long id) {
+        return compraRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("Compra con ID " + id + " no encontrada."));
+    }
+
+    // Historial de compras: un tramo de cabeceras filtrado en la base, siguiendo al anterior
+    @Transactional(readOnly = true)
+    public Tramo<FilaCompra> historial(FiltroCompras filtro, CursorHistorial despuesDe, int limite) {
+        return compraRepository.buscarHistorial(filtro, despuesDe, limite);
+    }
+
+    /**
+     * Dashboard de compras: conteos y sumas en BD más las últimas compras, así abrirlo
+     * cuesta lo mismo con diez compras registradas que con diez mil.
+     */
     @Transactional(readOnly = true)
-    public List<Compra> findAll() {
-        return compraRepository.findAll();
+    public ResumenComprasDto obtenerResumen() {
+        TotalesHistorial totales = compraRepository.totalizarHistorial(null);
+
+        YearMonth hasta = YearMonth.now();
+        YearMonth desde = hasta.minusMonths(MESES_DASHBOARD - 1);
+        Map<YearMonth, BigDecimal> porMes = compraRepository.sumarTotalPorMes(desde, hasta);
+        Map<YearMonth, BigDecimal> gastoPorMes = new LinkedHashMap<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            gastoPorMes.put(mes, porMes.getOrDefault(mes, BigDecimal.ZERO));
+        }
+
+        return new ResumenComprasDto(
+                totales.cantidad(),
+                totales.total(),
+                compraRepository.contarProveedoresConCompras(),
+                compraRepository.contarProductosComprados(),
+                gastoPorMes,
+                compraRepository.sumarTotalPorProveedor(TOP_PROVEEDORES),
+                compraRepository.buscarHistorial(null, null, COMPRAS_RECIENTES).elementos());
     }
 }
@@ -1,24 +1,46 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ConfiguracionActualizadaEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.ConfiguracionTienda;
 import com.nap.pos.domain.repository.ConfiguracionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Optional;
+
+/**
+ * Configuración del negocio (fila única).
+ *
+ * Se lee de la base una sola vez y se guarda en memoria: cada venta, ticket y pantalla
+ * que la consulta recibe la misma instancia sin ir a la base. {@link ConfiguracionTienda}
+ * no tiene setters, así que esa instancia se comparte sin copiarla; para cambiarla se
+ * arma una nueva con el builder y se pasa a {@link #guardar}.
+ *
+ * {@link #guardar} actualiza la copia en memoria cuando la transacción confirma y publica
+ * {@link ConfiguracionActualizadaEvent}; quien deba enterarse del cambio se suscribe a
+ * ese evento (con {@code BusEventos} o un {@code @TransactionalEventListener}).
+ */
 @Service
 @RequiredArgsConstructor
 public class ConfiguracionService {
 
     private final ConfiguracionRepository configuracionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // null = todavía no se leyó; vacío = el wizard no se ha completado
+    private volatile Optional<ConfiguracionTienda> actual;
 
     /**
      * Retorna true si la BD no tiene configuración guardada todavía.
      * Se usa en el arranque para decidir si mostrar el wizard inicial.
      */
     public boolean esPrimeraEjecucion() {
-        return configuracionRepository.obtener().isEmpty();
+        return leer().isEmpty();
     }
 
     /**
@@ -27,7 +49,20 @@ public class ConfiguracionService {
      */
     @Transactional
     public ConfiguracionTienda guardar(ConfiguracionTienda config) {
-        return configuracionRepository.guardar(config);
+        ConfiguracionTienda guardada = configuracionRepository.guardar(config);
+        // Se registra antes de publicar el evento: sus oyentes ya leen la configuración nueva
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reemplazar(guardada);
+                }
+            });
+        } else {
+            reemplazar(guardada);
+        }
+        eventPublisher.publishEvent(new ConfiguracionActualizadaEvent(guardada));
+        return guardada;
     }
 
     /**
@@ -35,8 +70,23 @@ public class ConfiguracionService {
      * Lanza BusinessException si el wizard todavía no se ha completado.
      */
     public ConfiguracionTienda obtener() {
-        return configuracionRepository.obtener()
-                .orElseThrow(() -> new BusinessException(
-                        "La configuración del negocio no ha sido completada."));
+        return leer().orElseThrow(() -> new BusinessException(
+                "La configuración del negocio no ha sido completada."));
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private Optional<ConfiguracionTienda> leer() {
+        Optional<ConfiguracionTienda> leida = actual;
+        if (leida != null) return leida;
+        synchronized (this) {
+            // Mientras se lee, un guardar confirmado espera y escribe después: no se pisa con la vieja
+            if (actual == null) actual = configuracionRepository.obtener();
+            return actual;
+        }
+    }
+
+    private synchronized void reemplazar(ConfiguracionTienda guardada) {
+        actual = Optional.of(guardada);
     }
 }
@@ -0,0 +1,61 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.application.dto.ResumenDashboardDto;
+import com.nap.pos.domain.model.ResumenVentaDiario;
+import com.nap.pos.domain.repository.CajaRepository;
+import com.nap.pos.domain.repository.ClienteRepository;
+import com.nap.pos.domain.repository.ProductoRepository;
+import com.nap.pos.domain.repository.ResumenVentaRepository;
+import com.nap.pos.domain.repository.VentaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Datos de la pantalla de inicio.
+ * Todo sale de conteos en BD y del resumen diario de ventas: abrir el dashboard
+ * cuesta las mismas pocas consultas sin importar cuántos productos o ventas haya.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    static final int ULTIMAS_VENTAS = 5;
+
+    private final ProductoRepository     productoRepository;
+    private final ClienteRepository      clienteRepository;
+    private final CajaRepository         cajaRepository;
+    private final VentaRepository        ventaRepository;
+    private final ResumenVentaRepository resumenVentaRepository;
+
+    @Transactional(readOnly = true)
+    public ResumenDashboardDto obtenerResumen() {
+        // Filas de hoy del resumen: hora × caja × método de pago, unas pocas decenas
+        BigDecimal[] porHora = new BigDecimal[24];
+        Arrays.fill(porHora, BigDecimal.ZERO);
+        int ventasHoy = 0;
+        BigDecimal totalHoy = BigDecimal.ZERO;
+        LocalDate hoy = LocalDate.now();
+        for (ResumenVentaDiario r : resumenVentaRepository.findVentasEntre(hoy, hoy)) {
+            BigDecimal total = r.total() != null ? r.total() : BigDecimal.ZERO;
+            porHora[r.hora()] = porHora[r.hora()].add(total);
+            ventasHoy += r.numeroVentas();
+            totalHoy = totalHoy.add(total);
+        }
+
+        return new ResumenDashboardDto(
+                productoRepository.contarActivos(),
+                productoRepository.contarActivosSinStock(),
+                clienteRepository.contar(),
+                cajaRepository.existeCajaAbierta(),
+                ventasHoy,
+                totalHoy,
+                List.of(porHora),
+                ventaRepository.findUltimas(ULTIMAS_VENTAS));
+    }
+}
@@ -1,6 +1,9 @@
 package com.nap.pos.application.service;
 
 import com.nap.pos.application.dto.importacion.*;
+import com.nap.pos.application.dto.importacion.AnalisisImportacion.FilaLeida;
+import com.nap.pos.application.event.ClientesModificadosEvent;
+import com.nap.pos.application.event.ProductosModificadosEvent;
 import com.nap.pos.domain.model.Categoria;
 import com.nap.pos.domain.model.Cliente;
 import com.nap.pos.domain.model.Producto;
@@ -15,18 +18,25 @@ import com.nap.pos.domain.repository.SubcategoriaRepository;
 import com.nap.pos.infrastructure.io.GeneradorPlantilla;
 import com.nap.pos.infrastructure.io.LectorArchivo;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.File;
 import java.math.BigDecimal;
 import java.text.Normalizer;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 @Service
 @RequiredArgsConstructor
 public class ImportacionService {
 
+    // Filas por transacción al importar: acota el rollback ante un error y el tamaño del lote JDBC
+    static final int TAMANO_LOTE = 1_000;
+
     private final LectorArchivo          lectorArchivo;
     private final GeneradorPlantilla     generadorPlantilla;
     private final ProductoRepository     productoRepository;
@@ -34,6 +44,8 @@ public class ImportacionService {
     private final ProveedorRepository    proveedorRepository;
     private final CategoriaRepository    categoriaRepository;
     private final SubcategoriaRepository subcategoriaRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher  eventPublisher;
 
     // ── Plantillas ──────────────────────────────────────────────────────
 
@@ -79,50 +91,100 @@ public class ImportacionService {
         return mapeo;
     }
 
-    // ── Validación (sin guardar) ────────────────────────────────────────
+    // ── Análisis (una sola pasada, sin guardar) ─────────────────────────
 
     /**
-     * Valida todas las filas del archivo con el mapeo indicado.
-     * Si algún campo requerido no está mapeado, se añade un error de configuración (fila 0).
-     * Retorna lista vacía si todo es correcto.
+     * Recorre el archivo una sola vez y devuelve, juntos, los errores de validación,
+     * los duplicados contra la BD y las categorías/subcategorías nuevas.
+     * Los códigos de barras y subcategorías existentes se cargan antes en memoria,
+     * así cada fila se resuelve sin consultar la BD.
+     * Si algún campo requerido no está mapeado, se devuelve un error de configuración (fila 0)
+     * sin leer el archivo.
      */
-    public List<FilaError> validarProductos(File archivo, Map<CampoImportacion, Integer> mapeo) {
-        List<FilaError> errores = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public AnalisisImportacion analizarProductos(File archivo, Map<CampoImportacion, Integer> mapeo) {
+        List<FilaError> errores = validarMapeo(TipoEntidad.PRODUCTO, mapeo);
+        if (!errores.isEmpty()) return AnalisisImportacion.soloErrores(TipoEntidad.PRODUCTO, mapeo, errores);
 
-        for (CampoImportacion campo : CampoImportacion.values()) {
-            if (campo.getTipo() == TipoEntidad.PRODUCTO
-                    && campo.isRequerido()
-                    && !mapeo.containsKey(campo)) {
-                errores.add(new FilaError(0, campo.getLabel(),
-                        "Campo requerido sin columna mapeada en el archivo"));
+        Map<String, Producto> existentes = productoRepository.indexarPorCodigoBarras();
+        IndiceSubcategorias subcategorias = mapeo.containsKey(CampoImportacion.NOMBRE_SUBCATEGORIA)
+                ? new IndiceSubcategorias(subcategoriaRepository.findAll())
+                : null;
+
+        List<FilaLeida> filas = new ArrayList<>();
+        List<DuplicadoEncontrado> duplicados = new ArrayList<>();
+        Set<CategoriaSubcategoriaNueva> nuevas = new LinkedHashSet<>();
+
+        lectorArchivo.recorrerFilas(archivo, (fila, numFila) -> {
+            validarFilaProducto(fila, mapeo, numFila, errores);
+
+            String codigo = getValor(fila, mapeo, CampoImportacion.CODIGO_BARRAS);
+            Producto existente = codigo.isBlank() ? null : existentes.get(codigo);
+            if (existente != null) {
+                String actuales = existente.getNombre() + " | $" + existente.getPrecioVenta();
+                String nuevos   = getValor(fila, mapeo, CampoImportacion.NOMBRE_PRODUCTO)
+                        + " | $" + getValor(fila, mapeo, CampoImportacion.PRECIO_VENTA);
+                duplicados.add(new DuplicadoEncontrado(numFila, codigo, actuales, nuevos));
             }
-        }
-        if (!errores.isEmpty()) return errores;
 
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-        for (int i = 0; i < filas.size(); i++) {
-            validarFilaProducto(filas.get(i), mapeo, i + 2, errores);
-        }
-        return errores;
+            if (subcategorias != null) {
+                String nombreSub = getValor(fila, mapeo, CampoImportacion.NOMBRE_SUBCATEGORIA);
+                String nombreCat = getValor(fila, mapeo, CampoImportacion.NOMBRE_CATEGORIA);
+                if (!nombreSub.isBlank() && subcategorias.buscar(nombreCat, nombreSub) == null) {
+                    nuevas.add(new CategoriaSubcategoriaNueva(nombreCat, nombreSub));
+                }
+            }
+
+            filas.add(new FilaLeida(numFila, fila, existente == null ? null : existente.getId()));
+        });
+
+        return new AnalisisImportacion(TipoEntidad.PRODUCTO, mapeo, filas, errores,
+                duplicados, new ArrayList<>(nuevas));
     }
 
-    public List<FilaError> validarClientes(File archivo, Map<CampoImportacion, Integer> mapeo) {
-        List<FilaError> errores = new ArrayList<>();
+    /**
+     * Igual que {@link #analizarProductos}, para clientes: valida y detecta cédulas
+     * ya registradas en una sola pasada.
+     */
+    @Transactional(readOnly = true)
+    public AnalisisImportacion analizarClientes(File archivo, Map<CampoImportacion, Integer> mapeo) {
+        List<FilaError> errores = validarMapeo(TipoEntidad.CLIENTE, mapeo);
+        if (!errores.isEmpty()) return AnalisisImportacion.soloErrores(TipoEntidad.CLIENTE, mapeo, errores);
 
+        Map<String, Cliente> existentes = clienteRepository.indexarPorCedula();
+        List<FilaLeida> filas = new ArrayList<>();
+        List<DuplicadoEncontrado> duplicados = new ArrayList<>();
+
+        lectorArchivo.recorrerFilas(archivo, (fila, numFila) -> {
+            validarFilaCliente(fila, mapeo, numFila, errores);
+
+            String cedula = getValor(fila, mapeo, CampoImportacion.CEDULA);
+            Cliente existente = cedula.isBlank() ? null : existentes.get(cedula);
+            if (existente != null) {
+                String actuales = existente.getNombre() + " | " + nvl(existente.getCelular());
+                String nuevos   = getValor(fila, mapeo, CampoImportacion.NOMBRE_CLIENTE)
+                        + " | " + getValor(fila, mapeo, CampoImportacion.CELULAR);
+                duplicados.add(new DuplicadoEncontrado(numFila, cedula, actuales, nuevos));
+            }
+
+            filas.add(new FilaLeida(numFila, fila, existente == null ? null : existente.getId()));
+        });
+
+        return new AnalisisImportacion(TipoEntidad.CLIENTE, mapeo, filas, errores, duplicados, List.of());
+    }
+
+    // ── Validación ──────────────────────────────────────────────────────
+
+    private List<FilaError> validarMapeo(TipoEntidad tipo, Map<CampoImportacion, Integer> mapeo) {
+        List<FilaError> errores = new ArrayList<>();
         for (CampoImportacion campo : CampoImportacion.values()) {
-            if (campo.getTipo() == TipoEntidad.CLIENTE
+            if (campo.getTipo() == tipo
                     && campo.isRequerido()
                     && !mapeo.containsKey(campo)) {
                 errores.add(new FilaError(0, campo.getLabel(),
                         "Campo requerido sin columna mapeada en el archivo"));
             }
         }
-        if (!errores.isEmpty()) return errores;
-
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-        for (int i = 0; i < filas.size(); i++) {
-            validarFilaCliente(filas.get(i), mapeo, i + 2, errores);
-        }
         return errores;
     }
 
@@ -190,162 +252,132 @@ public class ImportacionService {
         }
     }
 
-    // ── Detección de duplicados ─────────────────────────────────────────
-
-    @Transactional(readOnly = true)
-    public List<DuplicadoEncontrado> detectarDuplicadosProductos(
-            File archivo, Map<CampoImportacion, Integer> mapeo) {
-
-        List<DuplicadoEncontrado> duplicados = new ArrayList<>();
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-
-        for (int i = 0; i < filas.size(); i++) {
-            final String[] fila  = filas.get(i);
-            final int numFila    = i + 2;
-            String codigo        = getValor(fila, mapeo, CampoImportacion.CODIGO_BARRAS);
-
-            if (!codigo.isBlank()) {
-                productoRepository.findByCodigoBarras(codigo).ifPresent(existente -> {
-                    String actuales = existente.getNombre() + " | $" + existente.getPrecioVenta();
-                    String nuevos   = getValor(fila, mapeo, CampoImportacion.NOMBRE_PRODUCTO)
-                            + " | $" + getValor(fila, mapeo, CampoImportacion.PRECIO_VENTA);
-                    duplicados.add(new DuplicadoEncontrado(numFila, codigo, actuales, nuevos));
-                });
-            }
-        }
-        return duplicados;
-    }
-
-    @Transactional(readOnly = true)
-    public List<DuplicadoEncontrado> detectarDuplicadosClientes(
-            File archivo, Map<CampoImportacion, Integer> mapeo) {
-
-        List<DuplicadoEncontrado> duplicados = new ArrayList<>();
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-
-        for (int i = 0; i < filas.size(); i++) {
-            final String[] fila = filas.get(i);
-            final int numFila   = i + 2;
-            String cedula       = getValor(fila, mapeo, CampoImportacion.CEDULA);
-
-            if (!cedula.isBlank()) {
-                clienteRepository.findByCedula(cedula).ifPresent(existente -> {
-                    String actuales = existente.getNombre() + " | " + nvl(existente.getCelular());
-                    String nuevos   = getValor(fila, mapeo, CampoImportacion.NOMBRE_CLIENTE)
-                            + " | " + getValor(fila, mapeo, CampoImportacion.CELULAR);
-                    duplicados.add(new DuplicadoEncontrado(numFila, cedula, actuales, nuevos));
-                });
-            }
-        }
-        return duplicados;
-    }
-
     // ── Importación ─────────────────────────────────────────────────────
 
     /**
-     * Importa productos del archivo usando el mapeo dado.
+     * Importa los productos de un análisis previo sin volver a leer el archivo.
      * Las filas cuyo número esté en filasAActualizar se sobrescriben;
      * las demás filas duplicadas se omiten.
+     *
+     * Se confirma una transacción por cada {@link #TAMANO_LOTE} filas y las altas se
+     * envían como lote JDBC. Si un lote falla, los anteriores quedan guardados y el
+     * resultado indica la fila desde la que no se importó.
      */
-    @Transactional
-    public ResultadoImportacion importarProductos(File archivo,
-            Map<CampoImportacion, Integer> mapeo,
-            Set<Integer> filasAActualizar) {
-
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-        int importados = 0, actualizados = 0, omitidos = 0;
-
-        for (int i = 0; i < filas.size(); i++) {
-            String[] fila   = filas.get(i);
-            int numFila     = i + 2;
-            String codigo   = getValor(fila, mapeo, CampoImportacion.CODIGO_BARRAS);
-
-            Optional<Producto> existente = codigo.isBlank()
-                    ? Optional.empty()
-                    : productoRepository.findByCodigoBarras(codigo);
-
-            if (existente.isPresent()) {
-                if (filasAActualizar.contains(numFila)) {
-                    productoRepository.save(construirProducto(fila, mapeo, existente.get().getId()));
-                    actualizados++;
-                } else {
-                    omitidos++;
+    public ResultadoImportacion importarProductos(AnalisisImportacion analisis,
+            Set<Integer> filasAActualizar, ProgresoImportacion progreso) {
+
+        Map<CampoImportacion, Integer> mapeo = analisis.mapeo();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        // Se cargan aquí y no en el análisis: pueden haberse creado subcategorías en el paso intermedio
+        Map<String, Proveedor> proveedores = tx.execute(s -> indexarProveedoresPorNit());
+        IndiceSubcategorias subcategorias = tx.execute(s ->
+                new IndiceSubcategorias(subcategoriaRepository.findAll()));
+        Set<String> codigosInsertados = new HashSet<>();
+
+        ResultadoImportacion resultado = importarPorLotes(tx, analisis.filas(), progreso, (lote, conteo) -> {
+            List<Producto> nuevos = new ArrayList<>(lote.size());
+            for (FilaLeida fila : lote) {
+                if (fila.idExistente() != null) {
+                    if (filasAActualizar.contains(fila.numeroFila())) {
+                        productoRepository.save(construirProducto(fila.valores(), mapeo, fila.idExistente(),
+                                proveedores, subcategorias));
+                        conteo[1]++;
+                    } else {
+                        conteo[2]++;
+                    }
+                    continue;
+                }
+                // Un código repetido dentro del mismo archivo solo se inserta la primera vez
+                String codigo = getValor(fila.valores(), mapeo, CampoImportacion.CODIGO_BARRAS);
+                if (!codigo.isBlank() && !codigosInsertados.add(codigo)) {
+                    conteo[2]++;
+                    continue;
                 }
-            } else {
-                productoRepository.save(construirProducto(fila, mapeo, null));
-                importados++;
+                nuevos.add(construirProducto(fila.valores(), mapeo, null, proveedores, subcategorias));
+                conteo[0]++;
             }
+            productoRepository.insertarEnLote(nuevos);
+        });
+
+        // Las altas por lote no devuelven IDs: el catálogo en memoria se relee completo
+        if (resultado.importados() + resultado.actualizados() > 0) {
+            eventPublisher.publishEvent(ProductosModificadosEvent.catalogoCompleto());
         }
-        return new ResultadoImportacion(importados, actualizados, omitidos, List.of());
+        return resultado;
     }
 
     /**
-     * Importa clientes del archivo usando el mapeo dado.
+     * Importa los clientes de un análisis previo sin volver a leer el archivo,
+     * con el mismo esquema de lotes que {@link #importarProductos}.
      */
-    @Transactional
-    public ResultadoImportacion importarClientes(File archivo,
-            Map<CampoImportacion, Integer> mapeo,
-            Set<Integer> filasAActualizar) {
-
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-        int importados = 0, actualizados = 0, omitidos = 0;
-
-        for (int i = 0; i < filas.size(); i++) {
-            String[] fila   = filas.get(i);
-            int numFila     = i + 2;
-            String cedula   = getValor(fila, mapeo, CampoImportacion.CEDULA);
-
-            Optional<Cliente> existente = cedula.isBlank()
-                    ? Optional.empty()
-                    : clienteRepository.findByCedula(cedula);
-
-            if (existente.isPresent()) {
-                if (filasAActualizar.contains(numFila)) {
-                    clienteRepository.save(construirCliente(fila, mapeo, existente.get().getId()));
-                    actualizados++;
-                } else {
-                    omitidos++;
+    public ResultadoImportacion importarClientes(AnalisisImportacion analisis,
+            Set<Integer> filasAActualizar, ProgresoImportacion progreso) {
+
+        Map<CampoImportacion, Integer> mapeo = analisis.mapeo();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Set<String> cedulasInsertadas = new HashSet<>();
+
+        ResultadoImportacion resultado = importarPorLotes(tx, analisis.filas(), progreso, (lote, conteo) -> {
+            List<Cliente> nuevos = new ArrayList<>(lote.size());
+            for (FilaLeida fila : lote) {
+                if (fila.idExistente() != null) {
+                    if (filasAActualizar.contains(fila.numeroFila())) {
+                        clienteRepository.save(construirCliente(fila.valores(), mapeo, fila.idExistente()));
+                        conteo[1]++;
+                    } else {
+                        conteo[2]++;
+                    }
+                    continue;
+                }
+                String cedula = getValor(fila.valores(), mapeo, CampoImportacion.CEDULA);
+                if (!cedula.isBlank() && !cedulasInsertadas.add(cedula)) {
+                    conteo[2]++;
+                    continue;
                 }
-            } else {
-                clienteRepository.save(construirCliente(fila, mapeo, null));
-                importados++;
+                nuevos.add(construirCliente(fila.valores(), mapeo, null));
+                conteo[0]++;
             }
+            clienteRepository.insertarEnLote(nuevos);
+        });
+
+        // Los saldos y plazos importados pueden cambiar las alertas de pago
+        if (resultado.importados() + resultado.actualizados() > 0) {
+            eventPublisher.publishEvent(ClientesModificadosEvent.todosLosClientes());
         }
-        return new ResultadoImportacion(importados, actualizados, omitidos, List.of());
+        return resultado;
     }
 
-    // ── Categorías y subcategorías nuevas ──────────────────────────────
-
     /**
-     * Lee el archivo y devuelve los pares (categoría, subcategoría) que aparecen
-     * en alguna fila pero no existen en la base de datos.
-     * Solo aplica a importaciones de productos con la columna subcategoría mapeada.
+     * Recorre las filas en lotes de {@link #TAMANO_LOTE}, cada uno en su propia transacción.
+     * El procesador acumula en conteo[0..2] los importados, actualizados y omitidos del lote;
+     * solo se suman al total si el lote confirma.
      */
-    @Transactional(readOnly = true)
-    public List<CategoriaSubcategoriaNueva> detectarCategoriasNuevas(
-            File archivo, Map<CampoImportacion, Integer> mapeo) {
-
-        if (!mapeo.containsKey(CampoImportacion.NOMBRE_SUBCATEGORIA)) return List.of();
-
-        List<String[]> filas = lectorArchivo.leerFilas(archivo);
-        Set<CategoriaSubcategoriaNueva> nuevas = new LinkedHashSet<>();
-
-        for (String[] fila : filas) {
-            String nombreSub = getValor(fila, mapeo, CampoImportacion.NOMBRE_SUBCATEGORIA);
-            if (nombreSub.isBlank()) continue;
-
-            String nombreCat = getValor(fila, mapeo, CampoImportacion.NOMBRE_CATEGORIA);
-            boolean existe = nombreCat.isBlank()
-                    ? subcategoriaRepository.findByNombre(nombreSub).isPresent()
-                    : subcategoriaRepository.findByNombreAndCategoriaNombre(nombreSub, nombreCat).isPresent();
+    private ResultadoImportacion importarPorLotes(TransactionTemplate tx, List<FilaLeida> filas,
+                                                  ProgresoImportacion progreso,
+                                                  BiConsumer<List<FilaLeida>, int[]> procesador) {
+        int total = filas.size();
+        int importados = 0, actualizados = 0, omitidos = 0;
 
-            if (!existe) {
-                nuevas.add(new CategoriaSubcategoriaNueva(nombreCat, nombreSub));
+        for (int desde = 0; desde < total; desde += TAMANO_LOTE) {
+            List<FilaLeida> lote = filas.subList(desde, Math.min(desde + TAMANO_LOTE, total));
+            int[] conteo = new int[3];
+            try {
+                tx.executeWithoutResult(s -> procesador.accept(lote, conteo));
+            } catch (RuntimeException e) {
+                FilaError error = new FilaError(lote.get(0).numeroFila(), "",
+                        "No se importó desde esta fila: " + e.getMessage());
+                return new ResultadoImportacion(importados, actualizados, omitidos, List.of(error));
             }
+            importados   += conteo[0];
+            actualizados += conteo[1];
+            omitidos     += conteo[2];
+            progreso.actualizar(desde + lote.size(), total);
         }
-        return new ArrayList<>(nuevas);
+        return new ResultadoImportacion(importados, actualizados, omitidos, List.of());
     }
 
+    // ── Categorías y subcategorías nuevas ──────────────────────────────
+
     /**
      * Crea en la base de datos las categorías y subcategorías seleccionadas.
      * Si la categoría indicada no existe, la crea primero.
@@ -377,20 +409,15 @@ public class ImportacionService {
 
     // ── Constructores de dominio ────────────────────────────────────────
 
-    private Producto construirProducto(String[] fila, Map<CampoImportacion, Integer> mapeo, Long id) {
+    private Producto construirProducto(String[] fila, Map<CampoImportacion, Integer> mapeo, Long id,
+                                       Map<String, Proveedor> proveedores,
+                                       IndiceSubcategorias subcategorias) {
         String nit       = getValor(fila, mapeo, CampoImportacion.NIT_PROVEEDOR);
-        Proveedor proveedor = nit.isBlank()
-                ? null
-                : proveedorRepository.findByNit(nit).orElse(null);
+        Proveedor proveedor = nit.isBlank() ? null : proveedores.get(nit);
 
         String nombreSub = getValor(fila, mapeo, CampoImportacion.NOMBRE_SUBCATEGORIA);
         String nombreCat = getValor(fila, mapeo, CampoImportacion.NOMBRE_CATEGORIA);
-        Subcategoria subcategoria = null;
-        if (!nombreSub.isBlank()) {
-            subcategoria = nombreCat.isBlank()
-                    ? subcategoriaRepository.findByNombre(nombreSub).orElse(null)
-                    : subcategoriaRepository.findByNombreAndCategoriaNombre(nombreSub, nombreCat).orElse(null);
-        }
+        Subcategoria subcategoria = nombreSub.isBlank() ? null : subcategorias.buscar(nombreCat, nombreSub);
 
         return Producto.builder()
                 .id(id)
@@ -429,6 +456,14 @@ public class ImportacionService {
 
     // ── Utilidades ──────────────────────────────────────────────────────
 
+    private Map<String, Proveedor> indexarProveedoresPorNit() {
+        Map<String, Proveedor> indice = new HashMap<>();
+        for (Proveedor p : proveedorRepository.findAll()) {
+            if (p.getNit() != null && !p.getNit().isBlank()) indice.putIfAbsent(p.getNit(), p);
+        }
+        return indice;
+    }
+
     private String getValor(String[] fila, Map<CampoImportacion, Integer> mapeo, CampoImportacion campo) {
         Integer idx = mapeo.get(campo);
         if (idx == null || idx >= fila.length) return "";
@@ -479,4 +514,33 @@ public class ImportacionService {
             case PLAZO_PAGO      -> normalizado.contains("plazo")   || normalizado.contains("dias");
         };
     }
+
+    /**
+     * Subcategorías en memoria para resolver los nombres del archivo sin una consulta por fila.
+     * Sin categoría en el archivo se busca solo por nombre de subcategoría (la primera que coincida).
+     */
+    private static final class IndiceSubcategorias {
+
+        private final Map<String, Subcategoria> porNombre = new HashMap<>();
+        private final Map<String, Subcategoria> porCategoriaYNombre = new HashMap<>();
+
+        IndiceSubcategorias(List<Subcategoria> subcategorias) {
+            for (Subcategoria sub : subcategorias) {
+                porNombre.putIfAbsent(sub.getNombre(), sub);
+                if (sub.getCategoria() != null) {
+                    porCategoriaYNombre.putIfAbsent(clave(sub.getCategoria().getNombre(), sub.getNombre()), sub);
+                }
+            }
+        }
+
+        Subcategoria buscar(String nombreCategoria, String nombreSubcategoria) {
+            return nombreCategoria.isBlank()
+                    ? porNombre.get(nombreSubcategoria)
+                    : porCategoriaYNombre.get(clave(nombreCategoria, nombreSubcategoria));
+        }
+
+        private static String clave(String categoria, String subcategoria) {
+            return categoria + '\u0000' + subcategoria;
+        }
+    }
 }
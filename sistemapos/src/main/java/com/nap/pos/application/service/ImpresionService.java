@@ -2,98 +2,90 @@ package com.nap.pos.application.service;
 
 import com.nap.pos.domain.model.ConfiguracionTienda;
 import com.nap.pos.domain.model.DetalleVenta;
+import com.nap.pos.domain.model.Ticket;
 import com.nap.pos.domain.model.Venta;
 import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.domain.model.enums.TipoPersona;
 import com.nap.pos.domain.port.TicketPrinter;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
-@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ImpresionService {
 
-    private static final int ANCHO = 44;
     private static final DateTimeFormatter FMT_FECHA =
             DateTimeFormatter.ofPattern("dd/MM/yyyy  HH:mm:ss");
     private static final NumberFormat FMT_MONEDA =
             NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
 
-    private final TicketPrinter ticketPrinter;
+    private final Map<TipoImpresora, TicketPrinter> impresoras = new EnumMap<>(TipoImpresora.class);
     private final ConfiguracionService configuracionService;
 
-    public void imprimirTicket(Venta venta, BigDecimal montoRecibido) {
-        try {
-            ConfiguracionTienda config = configuracionService.obtener();
-            String texto = formatearTicket(venta, config, montoRecibido);
-            String nombreArchivo = config.getPrefijoComprobante().replaceAll("[^a-zA-Z0-9_-]", "")
-                    + String.format("%06d", venta.getNumeroComprobante());
-            ticketPrinter.imprimir(texto, nombreArchivo);
-        } catch (Exception e) {
-            log.warn("No se pudo imprimir el ticket de la venta {}: {}", venta.getId(), e.getMessage());
-        }
+    public ImpresionService(List<TicketPrinter> ticketPrinters, ConfiguracionService configuracionService) {
+        ticketPrinters.forEach(p -> impresoras.put(p.tipo(), p));
+        this.configuracionService = configuracionService;
     }
 
-    public String formatearTicket(Venta venta, ConfiguracionTienda cfg, BigDecimal montoRecibido) {
-        StringBuilder sb = new StringBuilder();
-        String sep  = "=".repeat(ANCHO);
-        String sepL = "-".repeat(ANCHO);
+    /**
+     * Construye e imprime el ticket con la impresora elegida en la configuración.
+     * Lo invoca el hilo de ColaImpresionService; los errores se propagan para que
+     * la cola decida si reintentar.
+     *
+     * @param abrirCajon true solo para ventas nuevas en efectivo (nunca en reimpresiones)
+     */
+    public void imprimirTicket(Venta venta, BigDecimal montoRecibido, boolean abrirCajon) {
+        ConfiguracionTienda config = configuracionService.obtener();
+        Ticket ticket = construirTicket(venta, config, montoRecibido, abrirCajon);
+        TicketPrinter impresora = impresoras.getOrDefault(config.getTipoImpresora(),
+                impresoras.get(TipoImpresora.ARCHIVO_TEXTO));
+        impresora.imprimir(ticket, config);
+    }
 
+    public Ticket construirTicket(Venta venta, ConfiguracionTienda cfg,
+                                  BigDecimal montoRecibido, boolean abrirCajon) {
         // ── Encabezado tienda ─────────────────────────────────────
-        sb.append(sep).append('\n');
-        sb.append(centrar(cfg.getNombreTienda())).append('\n');
-        if (str(cfg.getDireccion())) sb.append(centrar(truncar(cfg.getDireccion(), ANCHO))).append('\n');
+        List<String> encabezado = new ArrayList<>();
+        encabezado.add(cfg.getNombreTienda());
+        if (str(cfg.getDireccion())) encabezado.add(cfg.getDireccion());
 
         // ── Identificación fiscal ─────────────────────────────────
-        sb.append(sepL).append('\n');
+        List<String> identificacion = new ArrayList<>();
         if (cfg.getTipoPersona() == TipoPersona.JURIDICA) {
-            if (str(cfg.getNit()))
-                sb.append(centrar("NIT: " + cfg.getNit())).append('\n');
-            if (str(cfg.getRazonSocial()))
-                sb.append(centrar(truncar(cfg.getRazonSocial(), ANCHO))).append('\n');
+            if (str(cfg.getNit()))         identificacion.add("NIT: " + cfg.getNit());
+            if (str(cfg.getRazonSocial())) identificacion.add(cfg.getRazonSocial());
         } else {
-            if (str(cfg.getCedula()))
-                sb.append(centrar("CC: " + cfg.getCedula())).append('\n');
+            if (str(cfg.getCedula())) identificacion.add("CC: " + cfg.getCedula());
             String nombreTitular = joinNonEmpty(cfg.getNombre(), cfg.getApellido());
-            if (!nombreTitular.isBlank())
-                sb.append(centrar(truncar(nombreTitular, ANCHO))).append('\n');
+            if (!nombreTitular.isBlank()) identificacion.add(nombreTitular);
         }
         if (cfg.getRegimenTributario() != null)
-            sb.append(centrar(truncar(cfg.getRegimenTributario().getDescripcion(), ANCHO))).append('\n');
+            identificacion.add(cfg.getRegimenTributario().getDescripcion());
 
         // ── Datos del comprobante ────────────────────────────────
-        sb.append(sep).append('\n');
         String numComp = String.format("%s%06d", cfg.getPrefijoComprobante(), venta.getNumeroComprobante());
-        sb.append(columnas("Comprobante N°:", numComp)).append('\n');
-        sb.append(columnas("Fecha:", venta.getFecha().format(FMT_FECHA))).append('\n');
+        List<Ticket.Fila> datos = List.of(
+                new Ticket.Fila("Comprobante N°:", numComp),
+                new Ticket.Fila("Fecha:", venta.getFecha().format(FMT_FECHA)));
 
         // ── Detalle de productos ─────────────────────────────────
-        sb.append(sepL).append('\n');
-        sb.append(columnas("PRODUCTO", "CANT    V/UNIT    TOTAL")).append('\n');
-        sb.append(sepL).append('\n');
-
+        List<Ticket.Linea> lineas = new ArrayList<>();
         for (DetalleVenta d : venta.getDetalles()) {
-            String nombre = truncar(d.getProducto().getNombre(), ANCHO);
-            sb.append(nombre).append('\n');
-
-            String cant    = String.valueOf(d.getCantidad());
-            String unitStr = formatMoneda(d.getPrecioUnitario());
-            String subStr  = formatMoneda(d.getSubtotal());
-            // Línea de números alineada a la derecha
-            String numLine = cant + "  x  " + unitStr + "  =  " + subStr;
-            sb.append(derechaJustificar(numLine)).append('\n');
+            lineas.add(new Ticket.Linea(d.getProducto().getNombre(), d.getCantidad(),
+                    formatMoneda(d.getPrecioUnitario()), formatMoneda(d.getSubtotal())));
         }
 
         // ── Totales / IVA ────────────────────────────────────────
-        sb.append(sepL).append('\n');
+        List<Ticket.Fila> totales = new ArrayList<>();
         boolean responsableIva = cfg.isResponsableIva() && cfg.getIvaPorDefecto() > 0;
         if (responsableIva) {
             int pct = cfg.getIvaPorDefecto();
@@ -103,57 +95,54 @@ public class ImpresionService {
                         BigDecimal.valueOf(pct).divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP));
                 BigDecimal base = venta.getTotal().divide(divisor, 0, RoundingMode.HALF_UP);
                 BigDecimal ivaAmt = venta.getTotal().subtract(base);
-                sb.append(columnas("Subtotal (sin IVA):", formatMoneda(base))).append('\n');
-                sb.append(columnas("IVA " + pct + "% (incluido):", formatMoneda(ivaAmt))).append('\n');
+                totales.add(new Ticket.Fila("Subtotal (sin IVA):", formatMoneda(base)));
+                totales.add(new Ticket.Fila("IVA " + pct + "% (incluido):", formatMoneda(ivaAmt)));
             } else {
                 BigDecimal ivaAmt = venta.getTotal()
                         .multiply(BigDecimal.valueOf(pct))
                         .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP);
                 BigDecimal totalConIva = venta.getTotal().add(ivaAmt);
-                sb.append(columnas("Subtotal:", formatMoneda(venta.getTotal()))).append('\n');
-                sb.append(columnas("IVA " + pct + "%:", formatMoneda(ivaAmt))).append('\n');
-                sb.append(columnas("TOTAL:", formatMoneda(totalConIva))).append('\n');
+                totales.add(new Ticket.Fila("Subtotal:", formatMoneda(venta.getTotal())));
+                totales.add(new Ticket.Fila("IVA " + pct + "%:", formatMoneda(ivaAmt)));
+                totales.add(new Ticket.Fila("TOTAL:", formatMoneda(totalConIva), true));
             }
         }
         if (!responsableIva || cfg.isPrecioConIvaIncluido()) {
-            sb.append(columnas("TOTAL:", formatMoneda(venta.getTotal()))).append('\n');
+            totales.add(new Ticket.Fila("TOTAL:", formatMoneda(venta.getTotal()), true));
         }
 
         // ── Datos de la transacción ──────────────────────────────
-        sb.append(sepL).append('\n');
+        List<Ticket.Fila> pago = new ArrayList<>();
         String metodoPago = switch (venta.getMetodoPago()) {
             case EFECTIVO     -> "Efectivo";
             case TRANSFERENCIA -> "Transferencia";
             case CREDITO      -> "Crédito";
         };
-        sb.append(columnas("Forma de pago:", metodoPago)).append('\n');
+        pago.add(new Ticket.Fila("Forma de pago:", metodoPago));
 
         if (venta.getCliente() != null)
-            sb.append(columnas("Cliente:", truncar(venta.getCliente().getNombre(), 22))).append('\n');
+            pago.add(new Ticket.Fila("Cliente:", truncar(venta.getCliente().getNombre(), 22)));
 
         if (venta.getUsuario() != null) {
             String rol = venta.getUsuario().esAdmin() ? "Administrador" : "Cajero";
             String nombre = truncar(venta.getUsuario().getNombreCompleto(), 18);
-            sb.append(columnas("Atendido por:", nombre + " (" + rol + ")")).append('\n');
+            pago.add(new Ticket.Fila("Atendido por:", nombre + " (" + rol + ")"));
         }
 
         // ── Efectivo: recibido y cambio ──────────────────────────
-        if (MetodoPago.EFECTIVO.equals(venta.getMetodoPago()) && montoRecibido != null) {
-            sb.append(sepL).append('\n');
-            sb.append(columnas("Recibido:", formatMoneda(montoRecibido))).append('\n');
+        List<Ticket.Fila> efectivo = new ArrayList<>();
+        boolean esEfectivo = MetodoPago.EFECTIVO.equals(venta.getMetodoPago());
+        if (esEfectivo && montoRecibido != null) {
             BigDecimal cambio = montoRecibido.subtract(venta.getTotal()).max(BigDecimal.ZERO);
-            sb.append(columnas("Cambio:", formatMoneda(cambio))).append('\n');
+            efectivo.add(new Ticket.Fila("Recibido:", formatMoneda(montoRecibido)));
+            efectivo.add(new Ticket.Fila("Cambio:", formatMoneda(cambio)));
         }
 
-        // ── Pie legal ────────────────────────────────────────────
-        sb.append(sep).append('\n');
-        String textoLegal = textoLegal(cfg);
-        if (!textoLegal.isBlank())
-            sb.append(centrar(textoLegal)).append('\n');
-        sb.append(centrar("¡Gracias por su compra!")).append('\n');
-        sb.append(sep).append('\n');
+        String nombreArchivo = cfg.getPrefijoComprobante().replaceAll("[^a-zA-Z0-9_-]", "")
+                + String.format("%06d", venta.getNumeroComprobante());
 
-        return sb.toString();
+        return new Ticket(nombreArchivo, numComp, encabezado, identificacion, datos, lineas,
+                totales, pago, efectivo, textoLegal(cfg), abrirCajon && esEfectivo);
     }
 
     // ── Privados ─────────────────────────────────────────────────────────────
@@ -167,22 +156,6 @@ public class ImpresionService {
         };
     }
 
-    private String centrar(String texto) {
-        if (texto == null || texto.length() >= ANCHO) return texto == null ? "" : texto;
-        int pad = (ANCHO - texto.length()) / 2;
-        return " ".repeat(pad) + texto;
-    }
-
-    private String columnas(String izq, String der) {
-        int espacios = ANCHO - izq.length() - der.length();
-        return izq + " ".repeat(Math.max(1, espacios)) + der;
-    }
-
-    private String derechaJustificar(String texto) {
-        if (texto.length() >= ANCHO) return texto;
-        return " ".repeat(ANCHO - texto.length()) + texto;
-    }
-
     private String truncar(String texto, int max) {
         if (texto == null) return "";
         return texto.length() > max ? texto.substring(0, max - 1) + "…" : texto;
@@ -1,5 +1,10 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.BusEventos;
+import com.nap.pos.application.event.CambioProductos;
+import com.nap.pos.application.event.ClientesModificadosEvent;
+import com.nap.pos.application.event.ConfiguracionActualizadaEvent;
+import com.nap.pos.application.event.PrecioModificadoEvent;
 import com.nap.pos.domain.model.Cliente;
 import com.nap.pos.domain.model.Notificacion;
 import com.nap.pos.domain.model.Producto;
@@ -8,65 +13,297 @@ import com.nap.pos.domain.model.enums.Severidad;
 import com.nap.pos.domain.model.enums.TipoNotificacion;
 import com.nap.pos.domain.repository.ClienteRepository;
 import com.nap.pos.domain.repository.ProductoRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
+/**
+ * Notificaciones de stock bajo, pagos de crédito próximos e impresiones fallidas.
+ *
+ * Las alertas se calculan completas la primera vez que se consultan y después se
+ * mantienen en memoria: los lotes de {@link BusEventos} sobre productos, clientes o
+ * la configuración hacen releer solo los afectados (fuera del hilo de la venta), y un
+ * aviso diario al cambiar la fecha recalcula las alertas de pago sobre los deudores
+ * ya cargados.
+ * {@link #contarNotificaciones()} no consulta la base.
+ *
+ * Los oyentes registrados con {@link #suscribir} reciben el nuevo total cada vez
+ * que cambia, desde el hilo que produjo el cambio.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class NotificacionService {
 
+    private static final int DIAS_ANTICIPACION = 5;
+
     private final ProductoRepository    productoRepository;
     private final ClienteRepository     clienteRepository;
     private final ConfiguracionService  configuracionService;
+    private final ColaImpresionService  colaImpresionService;
+    private final TransactionTemplate   lectura;
+    private final Clock                 reloj;
+    private final ScheduledExecutorService cambioDeDia;
 
-    private static final int DIAS_ANTICIPACION = 5;
+    // Ordenados por ID, como los devolvía la consulta completa
+    private final Map<Long, Notificacion> alertasStock = new ConcurrentSkipListMap<>();
+    private final Map<Long, Notificacion> alertasPago  = new ConcurrentSkipListMap<>();
+    // Clientes activos con deuda y plazo de pago: candidatos a alerta cuando llegue su ventana
+    private final Map<Long, Cliente>      deudores     = new ConcurrentSkipListMap<>();
+    private final List<IntConsumer>       oyentes      = new CopyOnWriteArrayList<>();
+    private volatile boolean   cargado;
+    private volatile int       stockMinimo;
+    private volatile LocalDate diaCalculado;
+
+    @Autowired
+    public NotificacionService(ProductoRepository productoRepository, ClienteRepository clienteRepository,
+                               ConfiguracionService configuracionService, ColaImpresionService colaImpresionService,
+                               PlatformTransactionManager transactionManager, BusEventos busEventos) {
+        this(productoRepository, clienteRepository, configuracionService, colaImpresionService,
+                transactionManager, Clock.systemDefaultZone());
+        busEventos.suscribir(CambioProductos.class, this::alCambiarProductos);
+        busEventos.suscribir(ClientesModificadosEvent.class, this::alCambiarClientes);
+        busEventos.suscribir(ConfiguracionActualizadaEvent.class, this::alCambiarConfiguracion);
+    }
+
+    NotificacionService(ProductoRepository productoRepository, ClienteRepository clienteRepository,
+                        ConfiguracionService configuracionService, ColaImpresionService colaImpresionService,
+                        PlatformTransactionManager transactionManager, Clock reloj) {
+        this.productoRepository   = productoRepository;
+        this.clienteRepository    = clienteRepository;
+        this.configuracionService = configuracionService;
+        this.colaImpresionService = colaImpresionService;
+        this.reloj = reloj;
+        // Solo lectura: va al pool de lectores. Los lotes llegan en el hilo de BusEventos,
+        // fuera de toda transacción, así que no hace falta abrir una nueva
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.cambioDeDia = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notificaciones-dia");
+            t.setDaemon(true);
+            return t;
+        });
+        colaImpresionService.alCambiarFallidos(this::avisar);
+    }
 
     public List<Notificacion> getNotificaciones() {
-        List<Notificacion> resultado = new ArrayList<>();
-        resultado.addAll(generarAlertasStock());
-        resultado.addAll(generarAlertasPagos());
+        cargarSiHaceFalta();
+        recalcularPagosSiCambioElDia();
+        List<Notificacion> resultado = new ArrayList<>(alertasStock.values());
+        resultado.addAll(alertasPago.values());
+        resultado.addAll(generarAlertasImpresion());
         return resultado;
     }
 
     public int contarNotificaciones() {
-        return getNotificaciones().size();
+        cargarSiHaceFalta();
+        recalcularPagosSiCambioElDia();
+        return total();
     }
 
-    // ── privado ─────────────────────────────────────────────────────────
+    /**
+     * Registra un oyente que recibe el total de notificaciones cada vez que cambia.
+     * Se llama desde el hilo que produjo el cambio: la UI debe pasar al hilo de JavaFX.
+     */
+    public void suscribir(IntConsumer oyente) {
+        oyentes.add(oyente);
+    }
 
-    private List<Notificacion> generarAlertasStock() {
-        int stockMinimo = configuracionService.obtener().getStockMinimoGlobal();
-        return productoRepository.findByStockBajoYActivo(stockMinimo)
-                .stream()
-                .map(p -> toNotificacionStock(p, stockMinimo))
+    /**
+     * Actualiza las alertas de stock de los productos de un lote de cambios. Si aún no
+     * se cargaron no hace nada: la primera consulta ya leerá los datos nuevos.
+     */
+    void alCambiarProductos(List<CambioProductos> cambios) {
+        if (!cargadoTrasEsperar()) return;
+        // Un cambio solo de precio no mueve alertas de stock
+        List<CambioProductos> relevantes = cambios.stream()
+                .filter(c -> !(c instanceof PrecioModificadoEvent))
                 .toList();
+        if (relevantes.isEmpty()) return;
+        if (relevantes.stream().anyMatch(CambioProductos::todos)) {
+            lectura.executeWithoutResult(s -> recargarStock());
+        } else {
+            Set<Long> ids = new HashSet<>();
+            relevantes.forEach(c -> ids.addAll(c.productoIds()));
+            List<Producto> leidos = lectura.execute(s -> productoRepository.findAllByIds(ids));
+            synchronized (this) {
+                ids.forEach(alertasStock::remove);
+                for (Producto p : Objects.requireNonNull(leidos)) {
+                    if (p.isActivo() && p.getStock() <= stockMinimo) {
+                        alertasStock.put(p.getId(), toNotificacionStock(p));
+                    }
+                }
+            }
+        }
+        avisar();
+    }
+
+    // Abonos, ventas a crédito y sus anulaciones, cambios de plazo o de estado del cliente
+    void alCambiarClientes(List<ClientesModificadosEvent> cambios) {
+        if (!cargadoTrasEsperar()) return;
+        if (cambios.stream().anyMatch(ClientesModificadosEvent::todos)) {
+            lectura.executeWithoutResult(s -> recargarDeudores());
+        } else {
+            Set<Long> ids = new HashSet<>();
+            cambios.forEach(c -> ids.addAll(c.clienteIds()));
+            List<Cliente> leidos = lectura.execute(s -> ids.stream()
+                    .map(clienteRepository::findById)
+                    .flatMap(Optional::stream)
+                    .toList());
+            synchronized (this) {
+                ids.forEach(deudores::remove);
+                Objects.requireNonNull(leidos).stream().filter(NotificacionService::esDeudor)
+                        .forEach(c -> deudores.put(c.getId(), c));
+                calcularAlertasPago();
+            }
+        }
+        avisar();
+    }
+
+    // Cambió el stock mínimo global: las alertas de stock se recalculan completas
+    void alCambiarConfiguracion(List<ConfiguracionActualizadaEvent> cambios) {
+        ConfiguracionActualizadaEvent ultimo = cambios.get(cambios.size() - 1);
+        if (!cargadoTrasEsperar() || ultimo.configuracion().getStockMinimoGlobal() == stockMinimo) return;
+        lectura.executeWithoutResult(s -> recargarStock());
+        avisar();
+    }
+
+    @PreDestroy
+    void detener() {
+        cambioDeDia.shutdownNow();
+    }
+
+    // ── privado ─────────────────────────────────────────────────────────
+
+    private void cargarSiHaceFalta() {
+        if (cargado) return;
+        synchronized (this) {
+            if (cargado) return;
+            lectura.executeWithoutResult(s -> {
+                recargarStock();
+                recargarDeudores();
+            });
+            cargado = true;
+            programarCambioDeDia();
+        }
     }
 
-    private List<Notificacion> generarAlertasPagos() {
-        int diaActual = LocalDate.now().getDayOfMonth();
-        List<Notificacion> alertas = new ArrayList<>();
+    /**
+     * Si hay una carga en curso espera a que termine: esa carga pudo leer la base antes
+     * del commit que originó el lote, así que el lote se aplica encima. Sin carga ni en
+     * curso ni hecha, la primera consulta ya leerá los datos nuevos.
+     */
+    private synchronized boolean cargadoTrasEsperar() {
+        return cargado;
+    }
 
-        for (Cliente c : clienteRepository.findAllActivos()) {
-            if (c.getPlazoPago() == null) continue;
-            if (c.getSaldoUtilizado() == null || c.getSaldoUtilizado().compareTo(BigDecimal.ZERO) <= 0) continue;
+    private synchronized void recargarStock() {
+        stockMinimo = configuracionService.obtener().getStockMinimoGlobal();
+        alertasStock.clear();
+        productoRepository.findByStockBajoYActivo(stockMinimo)
+                .forEach(p -> alertasStock.put(p.getId(), toNotificacionStock(p)));
+    }
 
+    private synchronized void recargarDeudores() {
+        deudores.clear();
+        clienteRepository.findAllActivos().stream()
+                .filter(NotificacionService::esDeudor)
+                .forEach(c -> deudores.put(c.getId(), c));
+        calcularAlertasPago();
+    }
+
+    private static boolean esDeudor(Cliente c) {
+        return c.isActivo()
+                && c.getPlazoPago() != null
+                && c.getSaldoUtilizado() != null
+                && c.getSaldoUtilizado().compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    // Solo depende de los deudores en memoria y de la fecha: no consulta la base
+    private synchronized void calcularAlertasPago() {
+        LocalDate hoy = LocalDate.now(reloj);
+        int diaActual = hoy.getDayOfMonth();
+        alertasPago.clear();
+        for (Cliente c : deudores.values()) {
             boolean alertaDia30 = estaEnVentana(diaActual, 30);
             boolean alertaDia15 = PlazoPago.QUINCE_DIAS.equals(c.getPlazoPago()) && estaEnVentana(diaActual, 15);
 
             if (alertaDia30) {
-                alertas.add(toNotificacionPago(c, 30, diaActual));
+                alertasPago.put(c.getId(), toNotificacionPago(c, 30, diaActual));
             } else if (alertaDia15) {
-                alertas.add(toNotificacionPago(c, 15, diaActual));
+                alertasPago.put(c.getId(), toNotificacionPago(c, 15, diaActual));
             }
         }
-        return alertas;
+        diaCalculado = hoy;
+    }
+
+    // Respaldo del aviso diario (p. ej. si el equipo estuvo suspendido a medianoche)
+    private void recalcularPagosSiCambioElDia() {
+        if (LocalDate.now(reloj).equals(diaCalculado)) return;
+        calcularAlertasPago();
+        avisar();
+    }
+
+    private void programarCambioDeDia() {
+        LocalDateTime ahora = LocalDateTime.now(reloj);
+        long espera = Duration.between(ahora, ahora.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        cambioDeDia.schedule(() -> {
+            try {
+                recalcularPagosSiCambioElDia();
+            } catch (Exception e) {
+                log.warn("No se pudieron recalcular las alertas de pago: {}", e.getMessage());
+            }
+            programarCambioDeDia();
+        }, espera + 1_000, TimeUnit.MILLISECONDS);
+    }
+
+    private int total() {
+        return alertasStock.size() + alertasPago.size() + colaImpresionService.contarFallidos();
+    }
+
+    private void avisar() {
+        if (oyentes.isEmpty()) return;
+        int total = total();
+        for (IntConsumer oyente : oyentes) {
+            try {
+                oyente.accept(total);
+            } catch (Exception e) {
+                log.warn("Falló un oyente de notificaciones: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Tickets que la cola no logró imprimir; referenciaId es el ID del trabajo para reintentarlo
+    private List<Notificacion> generarAlertasImpresion() {
+        return colaImpresionService.getFallidos().stream()
+                .map(t -> new Notificacion(
+                        TipoNotificacion.IMPRESION_FALLIDA,
+                        "Ticket sin imprimir: comprobante " + t.venta().getNumeroComprobante(),
+                        t.ultimoError() != null ? t.ultimoError() : "Error desconocido de impresión",
+                        Severidad.CRITICA,
+                        t.id()))
+                .toList();
     }
 
     /**
@@ -78,7 +315,7 @@ public class NotificacionService {
         return diaActual >= inicio && diaActual <= diaVencimiento;
     }
 
-    private Notificacion toNotificacionStock(Producto p, int stockMinimo) {
+    private Notificacion toNotificacionStock(Producto p) {
         Severidad severidad = p.getStock() == 0 ? Severidad.CRITICA : Severidad.ADVERTENCIA;
         String titulo  = "Stock bajo: " + p.getNombre();
         String mensaje = "Stock actual: " + p.getStock();
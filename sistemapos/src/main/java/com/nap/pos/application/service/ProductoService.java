@@ -1,12 +1,20 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ImagenProductoActualizadaEvent;
+import com.nap.pos.application.event.ProductosModificadosEvent;
+import com.nap.pos.application.event.StockModificadoEvent;
 import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProducto;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.repository.ProductoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,13 +23,14 @@ import java.util.Optional;
 public class ProductoService {
 
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Producto crear(Producto producto) {
         if (productoRepository.findByCodigoBarras(producto.getCodigoBarras()).isPresent()) {
             throw new BusinessException("Ya existe un producto con código de barras '" + producto.getCodigoBarras() + "'.");
         }
-        return productoRepository.save(producto);
+        return guardar(producto);
     }
 
     @Transactional
@@ -32,7 +41,7 @@ public class ProductoService {
                 .ifPresent(p -> {
                     throw new BusinessException("Ya existe un producto con código de barras '" + producto.getCodigoBarras() + "'.");
                 });
-        return productoRepository.save(producto);
+        return guardar(producto);
     }
 
     /** Reactiva el producto para que vuelva a aparecer en la pantalla de ventas. */
@@ -40,7 +49,7 @@ public class ProductoService {
     public void activar(Long id) {
         Producto producto = findById(id);
         producto.activar();
-        productoRepository.save(producto);
+        guardar(producto);
     }
 
     /** Desactiva el producto sin eliminarlo — preserva el historial de ventas. */
@@ -48,15 +57,17 @@ public class ProductoService {
     public void desactivar(Long id) {
         Producto producto = findById(id);
         producto.desactivar();
-        productoRepository.save(producto);
+        guardar(producto);
     }
 
-    /** Actualiza la ruta de imagen del producto. */
+    /** Actualiza la ruta de imagen del producto y avisa para regenerar su miniatura. */
     @Transactional
     public void actualizarImagen(Long id, String rutaImagen) {
         Producto producto = findById(id);
+        String rutaAnterior = producto.getImagenPath();
         producto.actualizarImagen(rutaImagen);
-        productoRepository.save(producto);
+        guardar(producto);
+        eventPublisher.publishEvent(new ImagenProductoActualizadaEvent(id, rutaAnterior, rutaImagen));
     }
 
     /**
@@ -72,6 +83,7 @@ public class ProductoService {
             producto.descontarStock(cantidad);
         }
         productoRepository.save(producto);
+        eventPublisher.publishEvent(StockModificadoEvent.de(id));
     }
 
     // Búsqueda por scanner de código de barras — devuelve Optional para que la UI maneje "no encontrado"
@@ -86,15 +98,41 @@ public class ProductoService {
                 .orElseThrow(() -> new BusinessException("Producto con ID " + id + " no encontrado."));
     }
 
+    // Relectura de los productos que cambiaron, en una sola consulta
+    @Transactional(readOnly = true)
+    public List<Producto> findAllByIds(Collection<Long> ids) {
+        return productoRepository.findAllByIds(ids);
+    }
+
     // Módulo de inventario: todos los productos (activos e inactivos)
     @Transactional(readOnly = true)
     public List<Producto> findAll() {
         return productoRepository.findAll();
     }
 
+    // Resumen de inventario: activos e inactivos, sin cargarlos
+    @Transactional(readOnly = true)
+    public long contarTodos() {
+        return productoRepository.contarTodos();
+    }
+
     // Pantalla de ventas: solo productos activos
     @Transactional(readOnly = true)
     public List<Producto> findAllActivos() {
         return productoRepository.findAllActivos();
     }
+
+    // Tabla de inventario: una página de filas planas, filtrada y ordenada en la base
+    @Transactional(readOnly = true)
+    public Pagina<FilaProducto> listarFilas(String texto, Long categoriaId, Boolean activo,
+                                            ConsultaPagina consulta) {
+        return productoRepository.buscarFilas(texto, categoriaId, activo, consulta);
+    }
+
+    // Guarda y avisa del cambio; el catálogo en memoria lo relee tras el commit
+    private Producto guardar(Producto producto) {
+        Producto guardado = productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductosModificadosEvent.de(guardado.getId()));
+        return guardado;
+    }
 }
@@ -1,11 +1,16 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.PrecioModificadoEvent;
 import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProveedor;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.model.Proveedor;
 import com.nap.pos.domain.repository.ProductoRepository;
 import com.nap.pos.domain.repository.ProveedorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +23,7 @@ public class ProveedorService {
 
     private final ProveedorRepository proveedorRepository;
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Proveedor crear(Proveedor proveedor) {
@@ -47,6 +53,10 @@ public class ProveedorService {
             p.calcularPrecioVenta();
             productoRepository.save(p);
         });
+        if (!productos.isEmpty()) {
+            eventPublisher.publishEvent(PrecioModificadoEvent.de(
+                    productos.stream().map(Producto::getId).toList()));
+        }
     }
 
     @Transactional(readOnly = true)
@@ -65,6 +75,13 @@ public class ProveedorService {
         return proveedorRepository.findAllActivos();
     }
 
+    // Tabla de proveedores: una página de filas planas, filtrada y ordenada en la base
+    @Transactional(readOnly = true)
+    public Pagina<FilaProveedor> listarFilas(String texto, Boolean activo, boolean soloConGanancia,
+                                             ConsultaPagina consulta) {
+        return proveedorRepository.buscarFilas(texto, activo, soloConGanancia, consulta);
+    }
+
     @Transactional(readOnly = true)
     public Proveedor findByNit(String nit) {
         return proveedorRepository.findByNit(nit)
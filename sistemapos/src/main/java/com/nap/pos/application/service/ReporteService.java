@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 
 @Service
@@ -28,6 +29,7 @@ public class ReporteService {
     private final ProveedorRepository proveedorRepository;
     private final ProductoRepository productoRepository;
     private final GastoRepository gastoRepository;
+    private final ResumenVentaRepository resumenVentaRepository;
 
     /**
      * Reporte de ventas de un período de caja.
@@ -163,22 +165,22 @@ public class ReporteService {
     }
 
     /**
-     * Historial de compras (ventas) de un cliente.
-     * Incluye solo ventas a crédito asociadas al cliente,
-     * ordenadas de la más reciente a la más antigua.
+     * Historial de compras (ventas) a crédito de un cliente, por tramos
+     * de la más reciente a la más antigua. El filtro se resuelve en la base.
+     *
+     * @param despuesDe cursor del tramo anterior; null para empezar por la más reciente
      */
     @Transactional(readOnly = true)
-    public List<Venta> historialComprasCliente(Long clienteId) {
-        if (clienteId == null) return List.of();
-
-        return listaSegura(ventaRepository.findAll()).stream()
-                .filter(v -> v != null
-                        && v.getCliente() != null
-                        && MetodoPago.CREDITO.equals(v.getMetodoPago())
-                        && Objects.equals(v.getCliente().getId(), clienteId))
-                .sorted(Comparator.comparing(Venta::getFecha,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .toList();
+    public Tramo<Venta> historialComprasCliente(Long clienteId, CursorHistorial despuesDe, int limite) {
+        if (clienteId == null) return new Tramo<>(List.of(), null);
+        return ventaRepository.buscarHistorial(FiltroVentas.creditoDeCliente(clienteId), despuesDe, limite);
+    }
+
+    // Cantidad y total de las compras a crédito del cliente, sin cargar el historial
+    @Transactional(readOnly = true)
+    public TotalesHistorial totalesComprasCliente(Long clienteId) {
+        if (clienteId == null) return new TotalesHistorial(0, BigDecimal.ZERO);
+        return ventaRepository.totalizarHistorial(FiltroVentas.creditoDeCliente(clienteId));
     }
 
     /**
@@ -225,31 +227,16 @@ public class ReporteService {
      */
     @Transactional(readOnly = true)
     public ReporteRentabilidadDto reporteRentabilidad(int anio, int mes) {
-        List<Compra> compras = listaSegura(compraRepository.findAll());
-        List<Venta> ventas = listaSegura(ventaRepository.findAll());
-        List<Caja> cajas = listaSegura(cajaRepository.findAll());
+        YearMonth periodo = YearMonth.of(anio, mes);
 
-        BigDecimal totalInvertido = compras.stream()
-                .filter(c -> c.getFecha().getYear() == anio
-                          && c.getFecha().getMonthValue() == mes)
-                .map(Compra::getTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalVendido = ventas.stream()
-                .filter(v -> EstadoVenta.COMPLETADA.equals(v.getEstado())
-                          && v.getFecha().getYear() == anio
-                          && v.getFecha().getMonthValue() == mes)
-                .map(Venta::getTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalGastos = listaSegura(gastoRepository.findAll()).stream()
-                .filter(g -> g.getFecha() != null
-                          && g.getFecha().getYear() == anio
-                          && g.getFecha().getMonthValue() == mes)
-                .map(g -> g.getMonto() != null ? g.getMonto() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalInvertido = mapaSeguro(compraRepository.sumarTotalPorMes(periodo, periodo))
+                .getOrDefault(periodo, BigDecimal.ZERO);
+        BigDecimal totalVendido = mapaSeguro(resumenVentaRepository.sumarTotalPorMes(periodo, periodo))
+                .getOrDefault(periodo, BigDecimal.ZERO);
+        BigDecimal totalGastos = mapaSeguro(gastoRepository.sumarMontoPorMes(periodo, periodo))
+                .getOrDefault(periodo, BigDecimal.ZERO);
 
-        Map<Integer, BigDecimal> desajusteMes = calcularDesajusteCajaPorMes(anio, cajas, ventas);
+        Map<Integer, BigDecimal> desajusteMes = calcularDesajusteCajaPorMes(periodo, periodo);
         BigDecimal ajusteCaja = desajusteMes.getOrDefault(mes, BigDecimal.ZERO);
 
         BigDecimal gananciaBruta = totalVendido
@@ -283,7 +270,8 @@ public class ReporteService {
      * Siempre retorna los 12 meses (enero–diciembre); los meses sin actividad
      * aparecen con todos los valores en cero.
      *
-     * Carga compras y ventas una sola vez para evitar N consultas al repositorio.
+     * Los totales se obtienen ya agregados por mes (las ventas desde el resumen diario),
+     * así el costo depende de los meses reportados y no del historial completo.
      *
      * @param anio año completo (ej: 2026)
      */
@@ -292,22 +280,13 @@ public class ReporteService {
         final String[] NOMBRES = {"","Enero","Febrero","Marzo","Abril","Mayo","Junio",
                                   "Julio","Agosto","Septiembre","Octubre","Noviembre","Diciembre"};
 
-        List<Compra> comprasAnio = listaSegura(compraRepository.findAll()).stream()
-                .filter(c -> c.getFecha().getYear() == anio)
-                .toList();
+        YearMonth enero     = YearMonth.of(anio, 1);
+        YearMonth diciembre = YearMonth.of(anio, 12);
 
-        List<Venta> todasVentas = listaSegura(ventaRepository.findAll());
-        List<Venta> ventasAnio = todasVentas.stream()
-                .filter(v -> EstadoVenta.COMPLETADA.equals(v.getEstado())
-                          && v.getFecha().getYear() == anio)
-                .toList();
-
-        List<Gasto> gastosAnio = listaSegura(gastoRepository.findAll()).stream()
-                .filter(g -> g.getFecha() != null && g.getFecha().getYear() == anio)
-                .toList();
-
-        List<Caja> cajas = listaSegura(cajaRepository.findAll());
-        Map<Integer, BigDecimal> desajusteMes = calcularDesajusteCajaPorMes(anio, cajas, todasVentas);
+        Map<YearMonth, BigDecimal> invertidoPorMes = mapaSeguro(compraRepository.sumarTotalPorMes(enero, diciembre));
+        Map<YearMonth, BigDecimal> vendidoPorMes   = mapaSeguro(resumenVentaRepository.sumarTotalPorMes(enero, diciembre));
+        Map<YearMonth, BigDecimal> gastosPorMes    = mapaSeguro(gastoRepository.sumarMontoPorMes(enero, diciembre));
+        Map<Integer, BigDecimal> desajusteMes = calcularDesajusteCajaPorMes(enero, diciembre);
 
         List<RentabilidadMensualDto> meses = new ArrayList<>(12);
         BigDecimal totalInvertidoAnual  = BigDecimal.ZERO;
@@ -316,22 +295,11 @@ public class ReporteService {
         BigDecimal totalAjusteCajaAnual = BigDecimal.ZERO;
 
         for (int mes = 1; mes <= 12; mes++) {
-            final int m = mes;
-
-            BigDecimal invertidoMes = comprasAnio.stream()
-                    .filter(c -> c.getFecha().getMonthValue() == m)
-                    .map(Compra::getTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            YearMonth periodo = YearMonth.of(anio, mes);
 
-            BigDecimal vendidoMes = ventasAnio.stream()
-                    .filter(v -> v.getFecha().getMonthValue() == m)
-                    .map(Venta::getTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal gastosMes = gastosAnio.stream()
-                    .filter(g -> g.getFecha().getMonthValue() == m)
-                    .map(g -> g.getMonto() != null ? g.getMonto() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal invertidoMes = invertidoPorMes.getOrDefault(periodo, BigDecimal.ZERO);
+            BigDecimal vendidoMes   = vendidoPorMes.getOrDefault(periodo, BigDecimal.ZERO);
+            BigDecimal gastosMes    = gastosPorMes.getOrDefault(periodo, BigDecimal.ZERO);
 
             BigDecimal ajusteCaja = desajusteMes.getOrDefault(mes, BigDecimal.ZERO);
             BigDecimal gananciaMes = vendidoMes
@@ -403,30 +371,34 @@ public class ReporteService {
                 return lista != null ? lista : List.of();
         }
 
-        private Map<Integer, BigDecimal> calcularDesajusteCajaPorMes(int anio, List<Caja> cajas, List<Venta> ventas) {
+        private <K, V> Map<K, V> mapaSeguro(Map<K, V> mapa) {
+                return mapa != null ? mapa : Map.of();
+        }
+
+        /**
+         * Desajuste (monto final − esperado) de las cajas cerradas entre los meses indicados,
+         * agrupado por mes de cierre. El efectivo esperado de cada caja sale del resumen diario.
+         */
+        private Map<Integer, BigDecimal> calcularDesajusteCajaPorMes(YearMonth desde, YearMonth hasta) {
                 Map<Integer, BigDecimal> desajusteMes = new HashMap<>();
-                if (cajas == null || cajas.isEmpty()) return desajusteMes;
-
-                Map<Long, BigDecimal> efectivoPorCaja = new HashMap<>();
-                if (ventas != null) {
-                        for (Venta venta : ventas) {
-                                if (venta == null
-                                                || !EstadoVenta.COMPLETADA.equals(venta.getEstado())
-                                                || !MetodoPago.EFECTIVO.equals(venta.getMetodoPago())
-                                                || venta.getCaja() == null
-                                                || venta.getCaja().getId() == null) {
-                                        continue;
-                                }
-                                BigDecimal totalVenta = venta.getTotal() != null ? venta.getTotal() : BigDecimal.ZERO;
-                                efectivoPorCaja.merge(venta.getCaja().getId(), totalVenta, BigDecimal::add);
-                        }
-                }
+                LocalDateTime inicio = desde.atDay(1).atStartOfDay();
+                LocalDateTime fin    = hasta.plusMonths(1).atDay(1).atStartOfDay();
+
+                List<Caja> cajas = listaSegura(cajaRepository.findCerradasEntre(inicio, fin));
+                if (cajas.isEmpty()) return desajusteMes;
+
+                List<Long> cajaIds = cajas.stream()
+                                .filter(Objects::nonNull)
+                                .map(Caja::getId)
+                                .filter(Objects::nonNull)
+                                .toList();
+                Map<Long, BigDecimal> efectivoPorCaja =
+                                mapaSeguro(resumenVentaRepository.sumarTotalPorCaja(cajaIds, MetodoPago.EFECTIVO));
 
                 for (Caja caja : cajas) {
                         if (caja == null
                                         || caja.getId() == null
                                         || caja.getFechaCierre() == null
-                                        || caja.getFechaCierre().getYear() != anio
                                         || caja.getMontoFinal() == null) {
                                 continue;
                         }
@@ -0,0 +1,59 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.domain.model.ResumenProductoDiario;
+import com.nap.pos.domain.model.ResumenVentaDiario;
+import com.nap.pos.domain.repository.ResumenVentaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lectura y mantenimiento del resumen diario de ventas.
+ * VentaService lo actualiza en cada venta y anulación; este servicio
+ * expone las consultas por rango y la reconstrucción completa.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumenVentaService {
+
+    private final ResumenVentaRepository resumenVentaRepository;
+
+    /**
+     * Regenera el resumen desde el historial de ventas.
+     * Útil si el resumen quedó desalineado (restauración de backup, edición manual de la BD).
+     */
+    @Transactional
+    public void reconstruir() {
+        resumenVentaRepository.reconstruir();
+    }
+
+    /**
+     * Al arrancar, si el resumen está vacío (instalación existente que recién
+     * incorpora la tabla), se llena una sola vez a partir del historial.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializarSiVacio() {
+        if (resumenVentaRepository.estaVacio()) {
+            log.info("Resumen de ventas vacío — reconstruyendo desde el historial");
+            resumenVentaRepository.reconstruir();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ResumenVentaDiario> findVentasEntre(LocalDate desde, LocalDate hasta) {
+        return resumenVentaRepository.findVentasEntre(desde, hasta);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ResumenProductoDiario> findProductosEntre(LocalDate desde, LocalDate hasta) {
+        return resumenVentaRepository.findProductosEntre(desde, hasta);
+    }
+}
@@ -1,17 +1,27 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ClientesModificadosEvent;
+import com.nap.pos.application.event.StockModificadoEvent;
+import com.nap.pos.application.event.VentaAnuladaEvent;
+import com.nap.pos.application.event.VentaRegistradaEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.*;
 import com.nap.pos.domain.model.enums.EstadoVenta;
 import com.nap.pos.domain.model.enums.MetodoPago;
 import com.nap.pos.domain.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,8 +32,11 @@ public class VentaService {
     private final ClienteRepository clienteRepository;
     private final UsuarioRepository usuarioRepository;
     private final CajaRepository cajaRepository;
+    private final ResumenVentaRepository resumenVentaRepository;
+    private final SecuenciaComprobanteRepository secuenciaComprobanteRepository;
     private final ConfiguracionService configuracionService;
-    private final ImpresionService impresionService;
+    private final ColaImpresionService colaImpresionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Datos mínimos que la UI envía por cada producto en la venta.
@@ -36,7 +49,9 @@ public class VentaService {
      * 1. Construye los detalles y calcula el total en el dominio.
      * 2. Valida las reglas de negocio (caja abierta, crédito con cliente, etc.).
      * 3. Si es a crédito: registra el cargo en el saldo del cliente.
-     * 4. Descuenta el stock de cada producto vendido.
+     * 4. Descuenta el stock de todos los productos en un solo lote condicional.
+     * 5. Suma la venta al resumen diario en la misma transacción.
+     * 6. Encola el ticket; se imprime cuando la transacción confirma.
      */
     @Transactional
     public Venta registrarVenta(Long cajaId, Long usuarioId, Long clienteId,
@@ -51,17 +66,29 @@ public class VentaService {
                         .orElseThrow(() -> new BusinessException("Cliente con ID " + clienteId + " no encontrado."))
                 : null;
 
-        // Número de comprobante secuencial: max actual + 1 ó número inicial configurado
-        long numeroComprobante = ventaRepository.findMaxNumeroComprobante()
-                .map(n -> n + 1)
-                .orElseGet(() -> (long) configuracionService.obtener().getNumeroInicialComprobante());
+        // Número de comprobante: se reserva en el contador dentro de esta transacción.
+        // La primera venta lo inicializa con el número inicial configurado.
+        long numeroComprobante = secuenciaComprobanteRepository.siguiente()
+                .orElseGet(() -> secuenciaComprobanteRepository.inicializarYReservar(
+                        configuracionService.obtener().getNumeroInicialComprobante()));
 
-        // Construir detalles usando el precio de venta actual del producto
+        // Cargar todos los productos del carrito en una sola consulta
+        Map<Long, Producto> productos = productoRepository.findAllByIds(
+                        items.stream().map(ItemVenta::productoId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+        // Construir detalles usando el precio de venta actual del producto.
+        // Las líneas repetidas de un mismo producto se suman para descontar una sola vez.
         List<DetalleVenta> detalles = new ArrayList<>();
+        Map<Long, Integer> cantidadesPorProducto = new LinkedHashMap<>();
         for (ItemVenta item : items) {
-            Producto producto = productoRepository.findById(item.productoId())
-                    .orElseThrow(() -> new BusinessException("Producto con ID " + item.productoId() + " no encontrado."));
+            Producto producto = productos.get(item.productoId());
+            if (producto == null) {
+                throw new BusinessException("Producto con ID " + item.productoId() + " no encontrado.");
+            }
             detalles.add(new DetalleVenta(producto, item.cantidad(), producto.getPrecioVenta()));
+            cantidadesPorProducto.merge(producto.getId(), item.cantidad(), Integer::sum);
         }
 
         // El dominio calcula el total y valida las reglas de negocio
@@ -81,21 +108,31 @@ public class VentaService {
         if (MetodoPago.CREDITO.equals(metodoPago) && cliente != null) {
             cliente.utilizarCredito(venta.getTotal());
             clienteRepository.save(cliente);
+            eventPublisher.publishEvent(ClientesModificadosEvent.de(cliente.getId()));
         }
 
-        // Descontar stock de cada producto
-        detalles.forEach(detalle -> {
-            Producto p = detalle.getProducto();
-            p.descontarStock(detalle.getCantidad());
-            productoRepository.save(p);
-        });
+        // Validación en memoria con el stock leído (mensaje claro antes de tocar la BD)
+        detalles.forEach(detalle -> detalle.getProducto().descontarStock(detalle.getCantidad()));
+
+        // Descuento real en BD: un lote de UPDATE condicionales. Si otra caja vendió
+        // el mismo producto entretanto, la condición falla y se revierte toda la venta.
+        List<Long> sinStock = productoRepository.descontarStock(cantidadesPorProducto);
+        if (!sinStock.isEmpty()) {
+            throw new BusinessException("Stock insuficiente para el producto: "
+                    + productos.get(sinStock.get(0)).getNombre());
+        }
 
         Venta ventaGuardada = ventaRepository.save(venta);
+        resumenVentaRepository.acumular(venta);
+        eventPublisher.publishEvent(StockModificadoEvent.de(cantidadesPorProducto.keySet()));
+        eventPublisher.publishEvent(new VentaRegistradaEvent(ventaGuardada.getId(), cajaId, clienteId,
+                metodoPago, venta.getTotal()));
 
-        // Se imprime usando `venta` (pre-save) porque sus objetos anidados (producto, usuario)
+        // Se encola `venta` (pre-save) porque sus objetos anidados (producto, usuario)
         // están completamente cargados. `ventaGuardada` solo tiene proxies JPA con el ID.
         // `venta` ya tiene el numeroComprobante asignado antes del save.
-        impresionService.imprimirTicket(venta, montoRecibido);
+        // La cola imprime después del commit, fuera de esta transacción.
+        colaImpresionService.encolar(venta, montoRecibido, MetodoPago.EFECTIVO.equals(metodoPago));
 
         return ventaGuardada;
     }
@@ -104,7 +141,7 @@ public class VentaService {
      * Anula una venta en estado COMPLETADA:
      * 1. Restaura el crédito del cliente si fue venta a crédito.
      * 2. Devuelve el stock de cada producto.
-     * 3. Marca la venta como ANULADA.
+     * 3. Marca la venta como ANULADA y la descuenta del resumen diario.
      */
     @Transactional
     public Venta anularVenta(Long ventaId) {
@@ -119,6 +156,7 @@ public class VentaService {
                     .orElseThrow(() -> new BusinessException("Cliente no encontrado al anular la venta."));
             cliente.abonar(venta.getTotal());
             clienteRepository.save(cliente);
+            eventPublisher.publishEvent(ClientesModificadosEvent.de(cliente.getId()));
         }
 
         // Restaurar stock de cada producto
@@ -129,7 +167,15 @@ public class VentaService {
             productoRepository.save(producto);
         });
 
-        return ventaRepository.save(venta);
+        Venta ventaAnulada = ventaRepository.save(venta);
+        resumenVentaRepository.revertir(venta);
+        eventPublisher.publishEvent(StockModificadoEvent.de(
+                venta.getDetalles().stream().map(d -> d.getProducto().getId()).toList()));
+        eventPublisher.publishEvent(new VentaAnuladaEvent(venta.getId(),
+                venta.getCaja() != null ? venta.getCaja().getId() : null,
+                venta.getCliente() != null ? venta.getCliente().getId() : null,
+                venta.getMetodoPago(), venta.getTotal()));
+        return ventaAnulada;
     }
 
     // Usado al cerrar caja para calcular el resumen del período
@@ -154,11 +200,32 @@ public class VentaService {
                         throw new BusinessException("El monto recibido no puede ser menor al total de la venta.");
                 }
 
-                impresionService.imprimirTicket(venta, montoRecibido);
+                colaImpresionService.encolar(venta, montoRecibido, false);
         }
 
+    // Dashboard: últimas ventas registradas, más reciente primero
+    @Transactional(readOnly = true)
+    public List<Venta> findUltimas(int limite) {
+        return ventaRepository.findUltimas(limite);
+    }
+
+    // Historial de ventas: un tramo filtrado en la base, siguiendo al anterior
+    @Transactional(readOnly = true)
+    public Tramo<Venta> historial(FiltroVentas filtro, CursorHistorial despuesDe, int limite) {
+        return ventaRepository.buscarHistorial(filtro, despuesDe, limite);
+    }
+
+    /**
+     * Exportaciones: entrega una a una las líneas de las ventas del filtro mientras se leen.
+     * La transacción (y la conexión de lectura) queda abierta hasta terminar el recorrido.
+     */
+    @Transactional(readOnly = true)
+    public void recorrerLineas(FiltroVentas filtro, Consumer<FilaLineaVenta> alLeer) {
+        ventaRepository.recorrerLineas(filtro, alLeer);
+    }
+
     @Transactional(readOnly = true)
-    public List<Venta> findAll() {
-        return ventaRepository.findAll();
+    public long contarLineas(FiltroVentas filtro) {
+        return ventaRepository.contarLineas(filtro);
     }
 }
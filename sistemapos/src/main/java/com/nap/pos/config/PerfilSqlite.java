@@ -0,0 +1,27 @@
+package com.nap.pos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Ajustes de SQLite que se aplican al abrir cada conexión (propiedades nappos.sqlite.*).
+ *
+ * @param journalMode   WAL: los lectores no bloquean al escritor ni al revés
+ * @param synchronous   NORMAL: con WAL no corrompe la base ante un corte; solo puede perder
+ *                      la última transacción si se va la luz
+ * @param mmapSize      bytes de la base leídos por memoria mapeada
+ * @param cacheSize     caché de páginas por conexión; negativo = KiB (-16000 ≈ 16 MB)
+ * @param tempStore     MEMORY: ordenamientos y tablas temporales de los reportes sin tocar disco
+ * @param busyTimeout   ms que una conexión espera el bloqueo antes de fallar con SQLITE_BUSY
+ * @param lectores      conexiones de solo lectura (reportes, pantallas); el escritor es siempre una
+ */
+@ConfigurationProperties(prefix = "nappos.sqlite")
+public record PerfilSqlite(
+        @DefaultValue("WAL") String journalMode,
+        @DefaultValue("NORMAL") String synchronous,
+        @DefaultValue("268435456") long mmapSize,
+        @DefaultValue("-16000") int cacheSize,
+        @DefaultValue("MEMORY") String tempStore,
+        @DefaultValue("5000") int busyTimeout,
+        @DefaultValue("4") int lectores
+) {}
@@ -0,0 +1,74 @@
+package com.nap.pos.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig.Pragma;
+
+import javax.sql.DataSource;
+
+/**
+ * Conexiones a la base SQLite: un escritor y varios lectores.
+ *
+ * SQLite admite un solo escritor a la vez; con WAL los lectores leen la última versión
+ * confirmada sin esperarlo. El pool del escritor tiene una conexión (las escrituras se
+ * forman en el pool en lugar de chocar con SQLITE_BUSY) y el de lectores varias, abiertas
+ * con query_only. Las transacciones readOnly (reportes, historial, catálogo) van a los
+ * lectores, así un reporte largo ya no frena el cobro en caja.
+ *
+ * Ninguna transacción de escritura abre otra de escritura anidada (REQUIRES_NEW):
+ * con un solo escritor se quedaría esperando a sí misma.
+ */
+@Configuration
+@EnableConfigurationProperties(PerfilSqlite.class)
+public class SqliteConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteEscritor(DataSourceProperties propiedades, PerfilSqlite perfil) {
+        HikariConfig config = base(propiedades, perfil, "sqlite-escritor");
+        config.addDataSourceProperty(Pragma.JOURNAL_MODE.pragmaName, perfil.journalMode());
+        config.setMaximumPoolSize(1);
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteLectores(DataSourceProperties propiedades, PerfilSqlite perfil) {
+        HikariConfig config = base(propiedades, perfil, "sqlite-lectores");
+        // journal_mode queda guardado en el archivo: lo fija el escritor
+        config.setConnectionInitSql("PRAGMA query_only = true");
+        config.setMaximumPoolSize(Math.max(1, perfil.lectores()));
+        config.setMinimumIdle(1);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * DataSource que usan JPA y JdbcTemplate. La conexión real se pide recién en la primera
+     * sentencia: para entonces la transacción ya marcó si es readOnly y se elige el pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource sqliteEscritor, HikariDataSource sqliteLectores) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(sqliteEscritor);
+        proxy.setReadOnlyDataSource(sqliteLectores);
+        return proxy;
+    }
+
+    private static HikariConfig base(DataSourceProperties propiedades, PerfilSqlite perfil, String nombre) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nombre);
+        config.setJdbcUrl(propiedades.determineUrl());
+        config.setDriverClassName(propiedades.determineDriverClassName());
+        // El driver aplica estos PRAGMA al abrir cada conexión
+        config.addDataSourceProperty(Pragma.SYNCHRONOUS.pragmaName, perfil.synchronous());
+        config.addDataSourceProperty(Pragma.MMAP_SIZE.pragmaName, String.valueOf(perfil.mmapSize()));
+        config.addDataSourceProperty(Pragma.CACHE_SIZE.pragmaName, String.valueOf(perfil.cacheSize()));
+        config.addDataSourceProperty(Pragma.TEMP_STORE.pragmaName, perfil.tempStore());
+        config.addDataSourceProperty(Pragma.BUSY_TIMEOUT.pragmaName, String.valueOf(perfil.busyTimeout()));
+        return config;
+    }
+}
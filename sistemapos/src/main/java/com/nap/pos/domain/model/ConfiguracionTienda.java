@@ -1,6 +1,7 @@
 package com.nap.pos.domain.model;
 
 import com.nap.pos.domain.model.enums.RegimenTributario;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.domain.model.enums.TipoPersona;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -78,6 +79,16 @@ public class ConfiguracionTienda {
     @Builder.Default
     private int numeroInicialComprobante = 1;
 
+    /** Cómo se emiten los tickets: archivo de texto o impresora térmica ESC/POS. */
+    @Builder.Default
+    private TipoImpresora tipoImpresora = TipoImpresora.ARCHIVO_TEXTO;
+
+    /**
+     * Destino de la impresora ESC/POS: tcp://host:puerto, ruta de dispositivo/archivo
+     * o carpeta. null usa ~/.nappos/tickets.
+     */
+    private String destinoImpresora;
+
     /**
      * Mes (1-12) y día (1-31) programados para el inventario general anual.
      * null si el usuario no los configuró. El sistema entiende que es anual
@@ -0,0 +1,31 @@
+package com.nap.pos.domain.model;
+
+/**
+ * Qué página pide una pantalla de listado y en qué orden.
+ *
+ * @param numero     número de página, empezando en 0
+ * @param tamano     filas por página
+ * @param orden      clave de la columna por la que se ordena; cada repositorio
+ *                   tiene su lista de claves y usa su orden por defecto si no la reconoce
+ * @param ascendente sentido del orden
+ */
+public record ConsultaPagina(
+        int numero,
+        int tamano,
+        String orden,
+        boolean ascendente
+) {
+
+    public ConsultaPagina {
+        numero = Math.max(0, numero);
+        tamano = Math.max(1, tamano);
+    }
+
+    public long desplazamiento() {
+        return (long) numero * tamano;
+    }
+
+    public ConsultaPagina enPagina(int otroNumero) {
+        return new ConsultaPagina(otroNumero, tamano, orden, ascendente);
+    }
+}
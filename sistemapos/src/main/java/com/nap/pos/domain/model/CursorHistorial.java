@@ -0,0 +1,17 @@
+package com.nap.pos.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición en un historial ordenado de la más reciente a la más antigua.
+ * El siguiente tramo empieza justo después de este registro: fecha anterior, o la
+ * misma fecha con un id menor. Así no importa cuántos registros haya antes, la
+ * base salta directo por el índice de fecha en lugar de contar filas como un OFFSET.
+ *
+ * @param fecha fecha del último registro mostrado
+ * @param id    id del último registro mostrado; desempata registros de la misma fecha
+ */
+public record CursorHistorial(
+        LocalDateTime fecha,
+        Long id
+) {}
@@ -0,0 +1,25 @@
+package com.nap.pos.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de la tabla de clientes: solo las columnas que se muestran.
+ * Para editar un cliente se carga el agregado completo por id.
+ *
+ * @param montoCredito   límite de crédito; null o cero si no tiene crédito
+ * @param saldoUtilizado lo que el cliente debe hoy
+ */
+public record FilaCliente(
+        Long id,
+        String nombre,
+        String cedula,
+        String celular,
+        BigDecimal montoCredito,
+        BigDecimal saldoUtilizado,
+        boolean activo
+) {
+
+    public boolean tieneCreditoHabilitado() {
+        return montoCredito != null && montoCredito.compareTo(BigDecimal.ZERO) > 0;
+    }
+}
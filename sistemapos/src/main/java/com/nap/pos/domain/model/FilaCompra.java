@@ -0,0 +1,21 @@
+package com.nap.pos.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del historial de compras: la cabecera con el nombre del proveedor y la
+ * cantidad de líneas, sin cargar los detalles ni sus productos.
+ * Para ver el detalle se carga la compra completa por id.
+ *
+ * @param numeroProductos líneas de detalle de la compra
+ */
+public record FilaCompra(
+        Long id,
+        LocalDateTime fecha,
+        Long proveedorId,
+        String proveedor,
+        String numeroFactura,
+        int numeroProductos,
+        BigDecimal total
+) {}
@@ -0,0 +1,32 @@
+package com.nap.pos.domain.model;
+
+import com.nap.pos.domain.model.enums.EstadoVenta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Una línea de detalle de venta junto con los datos de su cabecera, leída en una sola
+ * consulta para exportaciones. Las líneas de una misma venta llegan seguidas.
+ * Una venta sin detalles llega como una sola fila con los campos de la línea en null.
+ *
+ * @param cliente   nombre del cliente; null en venta directa
+ * @param detalleId id de la línea; null si la venta no tiene detalles
+ */
+public record FilaLineaVenta(
+        Long ventaId,
+        Long numeroComprobante,
+        LocalDateTime fecha,
+        String cliente,
+        String cedula,
+        MetodoPago metodoPago,
+        EstadoVenta estado,
+        BigDecimal totalVenta,
+        Long detalleId,
+        String producto,
+        String codigoBarras,
+        int cantidad,
+        BigDecimal precioUnitario,
+        BigDecimal subtotal
+) {}
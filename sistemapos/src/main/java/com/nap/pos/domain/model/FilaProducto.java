@@ -0,0 +1,23 @@
+package com.nap.pos.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de la tabla de inventario: columnas del producto más los nombres de su
+ * categoría y subcategoría, leídos con un JOIN en la misma consulta.
+ * Para ver el detalle o editar se carga el producto completo por id.
+ *
+ * @param categoria    nombre de la categoría; null si el producto no tiene subcategoría
+ * @param subcategoria nombre de la subcategoría; null si no tiene
+ */
+public record FilaProducto(
+        Long id,
+        String codigoBarras,
+        String nombre,
+        String categoria,
+        String subcategoria,
+        BigDecimal precioVenta,
+        int stock,
+        boolean activo,
+        String imagenPath
+) {}
@@ -0,0 +1,17 @@
+package com.nap.pos.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de la tabla de proveedores: solo las columnas que se muestran.
+ * Para editar un proveedor se carga el agregado completo por id.
+ */
+public record FilaProveedor(
+        Long id,
+        String nombre,
+        String nit,
+        String celular,
+        String direccion,
+        BigDecimal porcentajeGanancia,
+        boolean activo
+) {}
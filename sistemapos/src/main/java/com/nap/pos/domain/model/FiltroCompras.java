@@ -0,0 +1,22 @@
+package com.nap.pos.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros del historial de compras; los campos null no filtran.
+ *
+ * @param texto nombre del proveedor o número de factura, contenido en cualquier parte
+ * @param desde fecha mínima, inclusive
+ * @param hasta fecha máxima, exclusiva
+ */
+public record FiltroCompras(
+        Long proveedorId,
+        String texto,
+        LocalDateTime desde,
+        LocalDateTime hasta
+) {
+
+    public static FiltroCompras porTexto(String texto) {
+        return new FiltroCompras(null, texto, null, null);
+    }
+}
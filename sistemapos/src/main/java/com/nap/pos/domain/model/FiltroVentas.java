@@ -0,0 +1,24 @@
+package com.nap.pos.domain.model;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros del historial de ventas; los campos null no filtran.
+ *
+ * @param desde fecha mínima, inclusive
+ * @param hasta fecha máxima, exclusiva
+ */
+public record FiltroVentas(
+        Long cajaId,
+        Long clienteId,
+        MetodoPago metodoPago,
+        LocalDateTime desde,
+        LocalDateTime hasta
+) {
+
+    public static FiltroVentas creditoDeCliente(Long clienteId) {
+        return new FiltroVentas(null, clienteId, MetodoPago.CREDITO, null, null);
+    }
+}
@@ -11,7 +11,7 @@ import com.nap.pos.domain.model.enums.TipoNotificacion;
  * @param titulo       texto corto para mostrar en el badge/campana
  * @param mensaje      descripción detallada para el panel
  * @param severidad    nivel de urgencia (INFO, ADVERTENCIA, CRITICA)
- * @param referenciaId ID de la entidad relacionada (producto, etc.), puede ser null
+ * @param referenciaId ID de la entidad relacionada (producto, cliente o trabajo de impresión), puede ser null
  */
 public record Notificacion(
         TipoNotificacion tipo,
@@ -0,0 +1,31 @@
+package com.nap.pos.domain.model;
+
+import java.util.List;
+
+/**
+ * Una página de resultados de una consulta de listado.
+ *
+ * @param elementos filas de esta página, ya ordenadas
+ * @param numero    número de página, empezando en 0
+ * @param tamano    filas por página solicitadas
+ * @param total     filas que cumplen el filtro en todas las páginas
+ */
+public record Pagina<T>(
+        List<T> elementos,
+        int numero,
+        int tamano,
+        long total
+) {
+
+    public int totalPaginas() {
+        return tamano <= 0 ? 1 : (int) Math.max(1, (total + tamano - 1) / tamano);
+    }
+
+    public boolean hayAnterior() {
+        return numero > 0;
+    }
+
+    public boolean haySiguiente() {
+        return numero + 1 < totalPaginas();
+    }
+}
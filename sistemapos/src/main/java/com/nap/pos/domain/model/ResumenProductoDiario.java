@@ -0,0 +1,26 @@
+package com.nap.pos.domain.model;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Unidades y dinero vendidos de un producto en un día, por caja y método de pago.
+ * Solo refleja ventas COMPLETADAS — al anular una venta se descuentan sus líneas.
+ *
+ * @param dia        día calendario de la venta
+ * @param cajaId     caja en la que se registró la venta
+ * @param metodoPago método de pago de la venta
+ * @param productoId producto vendido
+ * @param unidades   unidades vendidas
+ * @param total      suma de los subtotales de las líneas
+ */
+public record ResumenProductoDiario(
+        LocalDate dia,
+        Long cajaId,
+        MetodoPago metodoPago,
+        Long productoId,
+        int unidades,
+        BigDecimal total
+) {}
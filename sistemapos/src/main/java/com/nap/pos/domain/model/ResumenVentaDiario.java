@@ -0,0 +1,29 @@
+package com.nap.pos.domain.model;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Acumulado de ventas de una hora del día, para una caja y un método de pago.
+ * Se mantiene de forma incremental al registrar y anular ventas, así los
+ * reportes leen pocas filas por día en lugar de recorrer todo el historial.
+ *
+ * @param dia            día calendario de la venta
+ * @param hora           hora del día (0–23) en que se registró la venta
+ * @param cajaId         caja en la que se registró la venta
+ * @param metodoPago     método de pago de la venta
+ * @param numeroVentas   ventas COMPLETADAS (las anuladas se descuentan)
+ * @param numeroAnuladas ventas que fueron anuladas después de registrarse
+ * @param total          dinero de las ventas COMPLETADAS
+ */
+public record ResumenVentaDiario(
+        LocalDate dia,
+        int hora,
+        Long cajaId,
+        MetodoPago metodoPago,
+        int numeroVentas,
+        int numeroAnuladas,
+        BigDecimal total
+) {}
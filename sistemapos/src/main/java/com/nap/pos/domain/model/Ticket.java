@@ -0,0 +1,46 @@
+package com.nap.pos.domain.model;
+
+import java.util.List;
+
+/**
+ * Contenido de un ticket de venta ya resuelto (montos formateados, IVA desglosado,
+ * textos legales), independiente del medio de impresión.
+ * Lo construye ImpresionService; cada TicketPrinter decide cómo dibujarlo.
+ *
+ * @param nombreArchivo  nombre base para guardar el ticket (sin extensión)
+ * @param comprobante    número completo con prefijo (ej. FAC-000123), también impreso como código de barras
+ * @param encabezado     nombre y dirección de la tienda, centrados
+ * @param identificacion datos fiscales (NIT/CC, titular, régimen), centrados
+ * @param datos          filas de comprobante y fecha
+ * @param lineas         productos vendidos
+ * @param totales        subtotal, IVA y total; la fila destacada es el total a pagar
+ * @param pago           forma de pago, cliente y usuario que atendió
+ * @param efectivo       recibido y cambio; vacío si no aplica
+ * @param textoLegal     leyenda del régimen tributario, puede ser vacía
+ * @param abrirCajon     true para disparar el cajón monedero (solo ventas nuevas en efectivo)
+ */
+public record Ticket(
+        String nombreArchivo,
+        String comprobante,
+        List<String> encabezado,
+        List<String> identificacion,
+        List<Fila> datos,
+        List<Linea> lineas,
+        List<Fila> totales,
+        List<Fila> pago,
+        List<Fila> efectivo,
+        String textoLegal,
+        boolean abrirCajon
+) {
+
+    /** Línea de producto: nombre y sus montos ya formateados. */
+    public record Linea(String producto, int cantidad, String precioUnitario, String subtotal) {}
+
+    /** Par etiqueta/valor alineado a ambos lados del papel. */
+    public record Fila(String etiqueta, String valor, boolean destacada) {
+
+        public Fila(String etiqueta, String valor) {
+            this(etiqueta, valor, false);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.nap.pos.domain.model;
+
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+
+/**
+ * Ventas de una caja sumadas en la base: cantidades por estado y montos de las
+ * completadas por método de pago. Las anuladas solo se cuentan, no suman.
+ */
+public record TotalesCaja(
+        Long cajaId,
+        long completadas,
+        long anuladas,
+        BigDecimal efectivo,
+        BigDecimal transferencia,
+        BigDecimal credito
+) {
+
+    /** Caja sin ventas registradas. */
+    public static TotalesCaja sinVentas(Long cajaId) {
+        return new TotalesCaja(cajaId, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /** Total cobrado en ventas completadas, con todos los métodos de pago. */
+    public BigDecimal total() {
+        return efectivo.add(transferencia).add(credito);
+    }
+
+    public BigDecimal porMetodo(MetodoPago metodoPago) {
+        return switch (metodoPago) {
+            case EFECTIVO      -> efectivo;
+            case TRANSFERENCIA -> transferencia;
+            case CREDITO       -> credito;
+        };
+    }
+}
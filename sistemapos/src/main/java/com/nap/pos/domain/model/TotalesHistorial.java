@@ -0,0 +1,12 @@
+package com.nap.pos.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Cantidad y suma de los registros de un historial filtrado, calculadas en la base
+ * para mostrar el resumen sin tener que cargar todos los tramos.
+ */
+public record TotalesHistorial(
+        long cantidad,
+        BigDecimal total
+) {}
@@ -0,0 +1,19 @@
+package com.nap.pos.domain.model;
+
+import java.util.List;
+
+/**
+ * Un tramo de un historial recorrido con {@link CursorHistorial}.
+ *
+ * @param elementos registros del tramo, de la más reciente a la más antigua
+ * @param siguiente desde dónde pedir el tramo siguiente; null si no hay más registros
+ */
+public record Tramo<T>(
+        List<T> elementos,
+        CursorHistorial siguiente
+) {
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.nap.pos.domain.model.enums;
+
+/**
+ * Forma de emitir los tickets de venta.
+ *
+ * <ul>
+ *   <li>{@link #ARCHIVO_TEXTO} — guarda un .txt en ~/.nappos/tickets y lo abre en el
+ *       visor del sistema; el operador imprime desde allí si lo necesita.</li>
+ *   <li>{@link #ESC_POS} — envía comandos ESC/POS directamente a una impresora térmica
+ *       (dispositivo, archivo o socket), con corte de papel, apertura de cajón y código de barras
+ *       (CODE128) del comprobante.</li>
+ * </ul>
+ */
+public enum TipoImpresora {
+
+    ARCHIVO_TEXTO("Archivo de texto (visor del sistema)"),
+    ESC_POS("Impresora térmica ESC/POS");
+
+    private final String descripcion;
+
+    TipoImpresora(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
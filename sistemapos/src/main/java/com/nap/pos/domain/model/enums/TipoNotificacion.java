@@ -2,5 +2,6 @@ package com.nap.pos.domain.model.enums;
 
 public enum TipoNotificacion {
     STOCK_BAJO,
-    PAGO_CREDITO_PROXIMO
+    PAGO_CREDITO_PROXIMO,
+    IMPRESION_FALLIDA
 }
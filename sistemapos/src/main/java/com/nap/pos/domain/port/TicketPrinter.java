@@ -1,18 +1,26 @@
 package com.nap.pos.domain.port;
 
+import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.Ticket;
+import com.nap.pos.domain.model.enums.TipoImpresora;
+
 /**
  * Puerto de salida para impresión de tickets de venta.
- * Recibe el texto del ticket ya formateado — la responsabilidad de formatear
+ * Recibe el contenido del ticket ya resuelto — calcular montos, IVA y textos
  * pertenece a ImpresionService (capa de aplicación), no a este puerto.
- * La implementación concreta reside en infrastructure/printing.
+ * Cada implementación decide el formato final (texto plano, ESC/POS, ...).
+ * Las implementaciones concretas residen en infrastructure/printing.
  */
 public interface TicketPrinter {
 
+    /** Tipo de impresora que atiende esta implementación; se elige en ConfiguracionTienda. */
+    TipoImpresora tipo();
+
     /**
-     * Guarda y/o envía el texto del ticket.
+     * Dibuja y envía el ticket.
      *
-     * @param textoTicket   contenido del ticket ya formateado como texto plano
-     * @param nombreArchivo nombre base del archivo a guardar (sin extensión)
+     * @param ticket contenido del ticket
+     * @param config configuración de la tienda (destino de impresión, entre otros)
      */
-    void imprimir(String textoTicket, String nombreArchivo);
+    void imprimir(Ticket ticket, ConfiguracionTienda config);
 }
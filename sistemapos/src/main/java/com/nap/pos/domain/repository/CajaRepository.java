@@ -2,6 +2,7 @@ package com.nap.pos.domain.repository;
 
 import com.nap.pos.domain.model.Caja;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +21,11 @@ public interface CajaRepository {
     // y para obtener la caja activa al registrar una venta.
     Optional<Caja> findCajaAbierta();
 
+    // Dashboard: solo saber si hay caja abierta, sin cargarla
+    boolean existeCajaAbierta();
+
     List<Caja> findAll();
+
+    // Rentabilidad: cajas cerradas cuyo cierre cae en [desde, hasta)
+    List<Caja> findCerradasEntre(LocalDateTime desde, LocalDateTime hasta);
 }
@@ -1,8 +1,12 @@
 package com.nap.pos.domain.repository;
 
 import com.nap.pos.domain.model.Cliente;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaCliente;
+import com.nap.pos.domain.model.Pagina;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,10 +22,35 @@ public interface ClienteRepository {
     // Usado para evitar duplicados al registrar un nuevo cliente
     Optional<Cliente> findByCedula(String cedula);
 
+    /**
+     * Importación masiva: cédula → cliente, en una sola consulta.
+     * Los clientes solo traen id, cédula, nombre y celular.
+     */
+    Map<String, Cliente> indexarPorCedula();
+
+    /**
+     * Alta masiva: inserta los clientes con sentencias JDBC por lotes, dentro de la
+     * transacción del llamador. Los IDs generados no se leen.
+     */
+    void insertarEnLote(List<Cliente> clientes);
+
     // Módulo de gestión: muestra TODOS los clientes, activos e inactivos
     // Permite al ADMIN reactivar un cliente desactivado
     List<Cliente> findAll();
 
     // Pantalla de ventas: solo clientes activos disponibles para asignar a una venta
     List<Cliente> findAllActivos();
+
+    /**
+     * Tabla de clientes paginada en la base, sin cargar los agregados.
+     *
+     * @param texto          filtra por nombre o cédula que lo contengan; null = sin filtro
+     * @param activo         solo activos (true), solo inactivos (false) o todos (null)
+     * @param soloConCredito solo clientes con límite de crédito mayor a cero
+     * @param consulta       página y orden; claves: nombre, cedula, celular, credito, saldo, estado
+     */
+    Pagina<FilaCliente> buscarFilas(String texto, Boolean activo, boolean soloConCredito, ConsultaPagina consulta);
+
+    // Dashboard: total de clientes registrados (activos e inactivos)
+    long contar();
 }
@@ -1,8 +1,16 @@
 package com.nap.pos.domain.repository;
 
 import com.nap.pos.domain.model.Compra;
-
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaCompra;
+import com.nap.pos.domain.model.FiltroCompras;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -23,4 +31,27 @@ public interface CompraRepository {
     Optional<Compra> findUltimaByProveedorId(Long proveedorId);
 
     List<Compra> findAll();
+
+    /**
+     * Historial de compras por tramos, de la más reciente a la más antigua: cabeceras sin detalles.
+     *
+     * @param despuesDe cursor devuelto por el tramo anterior; null para empezar por la más reciente
+     * @param limite    compras por tramo
+     */
+    Tramo<FilaCompra> buscarHistorial(FiltroCompras filtro, CursorHistorial despuesDe, int limite);
+
+    // Cantidad y suma de todas las compras que cumplen el filtro, sin cargarlas
+    TotalesHistorial totalizarHistorial(FiltroCompras filtro);
+
+    // Dashboard de compras: productos distintos que aparecen en alguna compra
+    long contarProductosComprados();
+
+    // Dashboard de compras: proveedores con al menos una compra
+    long contarProveedoresConCompras();
+
+    // Dashboard de compras: total invertido por proveedor, los {@code limite} de mayor gasto
+    Map<String, BigDecimal> sumarTotalPorProveedor(int limite);
+
+    // Rentabilidad: total invertido por mes en [desde, hasta] — solo meses con compras
+    Map<YearMonth, BigDecimal> sumarTotalPorMes(YearMonth desde, YearMonth hasta);
 }
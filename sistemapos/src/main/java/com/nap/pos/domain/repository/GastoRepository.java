@@ -4,7 +4,10 @@ import com.nap.pos.domain.model.Gasto;
 import com.nap.pos.domain.model.enums.FuenteGasto;
 import com.nap.pos.domain.model.enums.TipoGasto;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface GastoRepository {
@@ -14,4 +17,6 @@ public interface GastoRepository {
     List<Gasto> findByTipo(TipoGasto tipo);
     List<Gasto> findByFuentePago(FuenteGasto fuentePago);
     void deleteById(Long id);
+    // Rentabilidad: total de gastos por mes en [desde, hasta] — solo meses con gastos
+    Map<YearMonth, BigDecimal> sumarMontoPorMes(YearMonth desde, YearMonth hasta);
 }
@@ -1,8 +1,13 @@
 package com.nap.pos.domain.repository;
 
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProducto;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Producto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,12 +20,44 @@ public interface ProductoRepository {
 
     Optional<Producto> findById(Long id);
 
+    // Carga en una sola consulta todos los productos de un carrito; los IDs inexistentes se omiten
+    List<Producto> findAllByIds(Collection<Long> ids);
+
+    /**
+     * Descuenta stock en lote solo donde alcanza (stock >= cantidad), de forma atómica en BD.
+     * Devuelve los IDs cuyo stock no alcanzó; la lista vacía significa que todo se descontó.
+     */
+    List<Long> descontarStock(Map<Long, Integer> cantidadesPorProducto);
+
     // Usado para búsqueda por scanner de código de barras en la pantalla de ventas
     Optional<Producto> findByCodigoBarras(String codigoBarras);
 
+    /**
+     * Importación masiva: código de barras → producto, en una sola consulta.
+     * Los productos solo traen id, código, nombre y precio de venta.
+     */
+    Map<String, Producto> indexarPorCodigoBarras();
+
+    /**
+     * Alta masiva: inserta los productos con sentencias JDBC por lotes, dentro de la
+     * transacción del llamador. Los IDs generados no se leen.
+     */
+    void insertarEnLote(List<Producto> productos);
+
     // Módulo de inventario: muestra TODOS los productos, activos e inactivos
     List<Producto> findAll();
 
+    /**
+     * Tabla de inventario paginada en la base, sin cargar proveedor ni subcategoría completos.
+     *
+     * @param texto       filtra por nombre o código de barras que lo contengan; null = sin filtro
+     * @param categoriaId solo productos de esa categoría; null = todas
+     * @param activo      solo activos (true), solo inactivos (false) o todos (null)
+     * @param consulta    página y orden; claves: codigo, nombre, categoria, subcategoria,
+     *                    precioVenta, stock, estado
+     */
+    Pagina<FilaProducto> buscarFilas(String texto, Long categoriaId, Boolean activo, ConsultaPagina consulta);
+
     // Pantalla de ventas: solo productos activos disponibles para vender
     List<Producto> findAllActivos();
 
@@ -29,4 +66,11 @@ public interface ProductoRepository {
 
     // Productos activos cuyo stock está en o por debajo del umbral mínimo global
     List<Producto> findByStockBajoYActivo(int stockMinimo);
+
+    // Dashboard e inventario: conteos con SELECT COUNT, sin cargar productos
+    long contarTodos();
+
+    long contarActivos();
+
+    long contarActivosSinStock();
 }
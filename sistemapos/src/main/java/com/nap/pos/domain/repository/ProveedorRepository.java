@@ -1,5 +1,8 @@
 package com.nap.pos.domain.repository;
 
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProveedor;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Proveedor;
 
 import java.util.List;
@@ -25,4 +28,14 @@ public interface ProveedorRepository {
 
     // Usado para advertir si ya existe un proveedor con el mismo nombre
     Optional<Proveedor> findByNombre(String nombre);
+
+    /**
+     * Tabla de proveedores paginada en la base, sin cargar los agregados.
+     *
+     * @param texto           filtra por nombre o NIT que lo contengan; null = sin filtro
+     * @param activo          solo activos (true), solo inactivos (false) o todos (null)
+     * @param soloConGanancia solo proveedores con porcentaje de ganancia mayor a cero
+     * @param consulta        página y orden; claves: nombre, nit, celular, direccion, ganancia, estado
+     */
+    Pagina<FilaProveedor> buscarFilas(String texto, Boolean activo, boolean soloConGanancia, ConsultaPagina consulta);
 }
@@ -0,0 +1,43 @@
+package com.nap.pos.domain.repository;
+
+import com.nap.pos.domain.model.ResumenProductoDiario;
+import com.nap.pos.domain.model.ResumenVentaDiario;
+import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contrato de acceso al resumen diario de ventas (acumulados por día, hora,
+ * caja, método de pago y producto).
+ * La implementación concreta vive en infrastructure/persistence.
+ */
+public interface ResumenVentaRepository {
+
+    // Suma una venta COMPLETADA recién registrada — se llama dentro de la misma transacción
+    void acumular(Venta venta);
+
+    // Descuenta una venta que acaba de anularse
+    void revertir(Venta venta);
+
+    // Borra el resumen y lo regenera recorriendo todo el historial de ventas
+    void reconstruir();
+
+    // true si el resumen no tiene filas (instalación nueva o tabla recién creada)
+    boolean estaVacio();
+
+    List<ResumenVentaDiario> findVentasEntre(LocalDate desde, LocalDate hasta);
+
+    List<ResumenProductoDiario> findProductosEntre(LocalDate desde, LocalDate hasta);
+
+    // Rentabilidad: total vendido por mes en [desde, hasta] — solo meses con ventas
+    Map<YearMonth, BigDecimal> sumarTotalPorMes(YearMonth desde, YearMonth hasta);
+
+    // Desajuste de caja: total vendido con un método de pago, agrupado por caja
+    Map<Long, BigDecimal> sumarTotalPorCaja(Collection<Long> cajaIds, MetodoPago metodoPago);
+}
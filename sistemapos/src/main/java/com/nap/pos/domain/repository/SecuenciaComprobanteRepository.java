@@ -0,0 +1,22 @@
+package com.nap.pos.domain.repository;
+
+import java.util.Optional;
+
+/**
+ * Contrato del contador de números de comprobante.
+ * Cada llamada reserva el número dentro de la transacción actual: si la venta
+ * hace rollback, el número vuelve a quedar libre y la numeración no tiene huecos.
+ * La implementación concreta vive en infrastructure/persistence.
+ */
+public interface SecuenciaComprobanteRepository {
+
+    // Reserva y devuelve el siguiente número; vacío si el contador aún no se ha inicializado
+    Optional<Long> siguiente();
+
+    /**
+     * Crea el contador (si nadie lo creó antes) y reserva el primer número.
+     * Arranca en el mayor entre numeroInicial y el último comprobante ya emitido + 1,
+     * para que las bases de datos con ventas previas continúen su numeración.
+     */
+    long inicializarYReservar(long numeroInicial);
+}
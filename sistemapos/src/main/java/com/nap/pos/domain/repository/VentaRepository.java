@@ -1,9 +1,18 @@
 package com.nap.pos.domain.repository;
 
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaLineaVenta;
+import com.nap.pos.domain.model.FiltroVentas;
+import com.nap.pos.domain.model.TotalesCaja;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
 import com.nap.pos.domain.model.Venta;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Contrato de acceso a datos para Venta.
@@ -20,6 +29,33 @@ public interface VentaRepository {
 
     List<Venta> findAll();
 
-    // Para generar el siguiente número de comprobante secuencial
-    Optional<Long> findMaxNumeroComprobante();
+    // Dashboard: las últimas N ventas registradas, de la más reciente a la más antigua
+    List<Venta> findUltimas(int limite);
+
+    /**
+     * Historial de ventas por tramos, de la más reciente a la más antigua, con sus detalles.
+     *
+     * @param despuesDe cursor devuelto por el tramo anterior; null para empezar por la más reciente
+     * @param limite    ventas por tramo
+     */
+    Tramo<Venta> buscarHistorial(FiltroVentas filtro, CursorHistorial despuesDe, int limite);
+
+    // Cantidad y suma de todas las ventas que cumplen el filtro, sin cargarlas
+    TotalesHistorial totalizarHistorial(FiltroVentas filtro);
+
+    /**
+     * Recorre las líneas de las ventas que cumplen el filtro con un cursor, sin armar
+     * una lista: cada fila se entrega a {@code alLeer} apenas se lee. Mismo orden que el
+     * historial; las líneas de una venta llegan seguidas.
+     */
+    void recorrerLineas(FiltroVentas filtro, Consumer<FilaLineaVenta> alLeer);
+
+    // Filas que entregará recorrerLineas (una por línea, o una por venta sin detalles)
+    long contarLineas(FiltroVentas filtro);
+
+    /**
+     * Ventas de varias cajas sumadas en la base, sin cargarlas. Las cajas sin ventas
+     * no aparecen en el mapa.
+     */
+    Map<Long, TotalesCaja> totalizarPorCaja(Collection<Long> cajaIds);
 }
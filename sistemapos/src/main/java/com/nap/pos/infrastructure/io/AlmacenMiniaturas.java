@@ -0,0 +1,189 @@
+package com.nap.pos.infrastructure.io;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Miniaturas de las imágenes de producto guardadas en ~/.nappos/cache/miniaturas.
+ *
+ * Las fotos originales suelen venir de una cámara o de internet y pesan varios MB;
+ * decodificarlas cada vez que se pinta una tarjeta es lo más lento de la UI.
+ * Aquí se reducen una sola vez a {@value #LADO_MAXIMO} px por lado y se guardan en PNG.
+ * Una miniatura más antigua que su original se considera vencida y se regenera,
+ * porque la app reemplaza la imagen de un producto en la misma ruta.
+ *
+ * Si el original no necesita miniatura (ya es pequeño, o ImageIO no lo sabe leer, p. ej.
+ * WEBP) se deja una marca vacía con el mismo nombre: las siguientes consultas devuelven
+ * el original sin volver a abrirlo, hasta que el original cambie.
+ *
+ * Los métodos hacen E/S de disco: no llamarlos desde el hilo de JavaFX.
+ */
+@Slf4j
+@Component
+public class AlmacenMiniaturas {
+
+    /** Lado mayor de la miniatura: cubre la ficha de inventario (178 px) y las tarjetas de ventas. */
+    public static final int LADO_MAXIMO = 256;
+
+    private final Path carpeta;
+
+    @Autowired
+    public AlmacenMiniaturas() {
+        this(Paths.get(System.getProperty("user.home"), ".nappos", "cache", "miniaturas"));
+    }
+
+    AlmacenMiniaturas(Path carpeta) {
+        this.carpeta = carpeta;
+    }
+
+    /**
+     * Ruta desde la que conviene cargar la imagen: la miniatura si está al día
+     * (generándola si hace falta) o el original si no se pudo reducir.
+     * Devuelve null si el original no existe.
+     */
+    public Path obtener(String rutaOriginal) {
+        Path original = Paths.get(rutaOriginal);
+        if (!Files.isRegularFile(original)) return null;
+        Path miniatura = rutaMiniatura(rutaOriginal);
+        try {
+            if (alDia(miniatura, original)) return miniatura;
+            if (alDia(marcaSinMiniatura(miniatura), original)) return original;
+        } catch (IOException e) {
+            return original;
+        }
+        Path generada = generar(rutaOriginal);
+        return generada != null ? generada : original;
+    }
+
+    /**
+     * Genera (o reemplaza) la miniatura del original. Devuelve null si el original no
+     * existe, si ImageIO no lo sabe leer (p. ej. WEBP) o si ya es más pequeño que una miniatura;
+     * en los dos últimos casos deja la marca que evita volver a intentarlo.
+     */
+    public Path generar(String rutaOriginal) {
+        Path original = Paths.get(rutaOriginal);
+        Path miniatura = rutaMiniatura(rutaOriginal);
+        try {
+            if (!Files.isRegularFile(original)) return null;
+            // Solo la cabecera: para decidir no hace falta decodificar una foto de varios MB
+            int[] lados = dimensiones(original);
+            if (lados == null || (lados[0] <= LADO_MAXIMO && lados[1] <= LADO_MAXIMO)) {
+                marcarSinMiniatura(miniatura);
+                return null;
+            }
+            BufferedImage imagen = ImageIO.read(original.toFile());
+            if (imagen == null) {
+                marcarSinMiniatura(miniatura);
+                return null;
+            }
+
+            double escala = (double) LADO_MAXIMO / Math.max(imagen.getWidth(), imagen.getHeight());
+            int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * escala));
+            int alto  = Math.max(1, (int) Math.round(imagen.getHeight() * escala));
+
+            BufferedImage reducida = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = reducida.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(imagen, 0, 0, ancho, alto, null);
+            } finally {
+                g.dispose();
+            }
+
+            // Se escribe aparte y se mueve: quien lea en paralelo nunca ve un PNG a medias
+            Files.createDirectories(carpeta);
+            Path temporal = Files.createTempFile(carpeta, "mini", ".tmp");
+            try {
+                ImageIO.write(reducida, "png", temporal.toFile());
+                Files.move(temporal, miniatura, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+            Files.deleteIfExists(marcaSinMiniatura(miniatura));
+            return miniatura;
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo generar la miniatura de {}: {}", rutaOriginal, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Borra la miniatura de una imagen que ya no se usa. */
+    public void eliminar(String rutaOriginal) {
+        try {
+            Path miniatura = rutaMiniatura(rutaOriginal);
+            Files.deleteIfExists(miniatura);
+            Files.deleteIfExists(marcaSinMiniatura(miniatura));
+        } catch (IOException e) {
+            log.warn("No se pudo borrar la miniatura de {}: {}", rutaOriginal, e.getMessage());
+        }
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private static boolean alDia(Path derivado, Path original) throws IOException {
+        return Files.isRegularFile(derivado)
+                && Files.getLastModifiedTime(derivado).compareTo(Files.getLastModifiedTime(original)) >= 0;
+    }
+
+    /** Ancho y alto leídos de la cabecera, sin decodificar los píxeles; null si ningún lector lo reconoce. */
+    private static int[] dimensiones(Path original) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+            if (entrada == null) return null;
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) return null;
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                return new int[]{lector.getWidth(0), lector.getHeight(0)};
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    private void marcarSinMiniatura(Path miniatura) throws IOException {
+        Files.createDirectories(carpeta);
+        Path marca = marcaSinMiniatura(miniatura);
+        if (Files.exists(marca)) {
+            Files.setLastModifiedTime(marca, FileTime.fromMillis(System.currentTimeMillis()));
+        } else {
+            Files.createFile(marca);
+        }
+        Files.deleteIfExists(miniatura);
+    }
+
+    private static Path marcaSinMiniatura(Path miniatura) {
+        return miniatura.resolveSibling(miniatura.getFileName().toString().replace(".png", ".original"));
+    }
+
+    // El nombre se deriva de la ruta absoluta del original: sin colisiones entre carpetas
+    private Path rutaMiniatura(String rutaOriginal) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    Paths.get(rutaOriginal).toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+            return carpeta.resolve(HexFormat.of().formatHex(hash, 0, 16) + ".png");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,78 +2,157 @@ package com.nap.pos.infrastructure.io;
 
 import com.nap.pos.domain.exception.TechnicalException;
 import com.opencsv.CSVReader;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 /**
- * Lee archivos CSV y Excel (.xlsx/.xls) y devuelve su contenido como listas de strings.
+ * Lee archivos CSV y Excel (.xlsx/.xls) fila por fila, sin cargar el archivo completo.
  * La detección del formato es automática por extensión de archivo.
+ *
+ * - CSV: lectura incremental con OpenCSV.
+ * - XLSX: parser SAX de POI (XSSFReader); la memoria no depende del número de filas.
+ * - XLS: formato binario antiguo (máx. 65.536 filas), se lee con el modelo completo de POI.
  */
 @Component
 public class LectorArchivo {
 
+    /**
+     * Recibe cada fila leída. numFila es 1 para el encabezado, 2 para la primera fila de datos, etc.
+     * Cada fila llega en un arreglo nuevo, así que el consumidor puede conservarlo.
+     */
+    @FunctionalInterface
+    public interface ConsumidorFila {
+        void aceptar(String[] fila, int numFila);
+    }
+
     /**
      * Devuelve la primera fila del archivo (encabezados de columnas).
+     * Deja de leer en cuanto la obtiene, sin recorrer el resto del archivo.
      */
     public List<String> leerEncabezados(File archivo) {
-        List<String[]> todas = leerTodasLasFilas(archivo);
-        if (todas.isEmpty()) return List.of();
-        return Arrays.asList(todas.get(0));
+        List<String> encabezados = new ArrayList<>();
+        try {
+            recorrer(archivo, (fila, numFila) -> {
+                encabezados.addAll(Arrays.asList(fila));
+                throw new DetenerLectura();
+            });
+        } catch (DetenerLectura ignored) {
+            // Fin anticipado: ya se tiene el encabezado
+        }
+        return encabezados;
     }
 
     /**
-     * Devuelve todas las filas del archivo excepto la primera (encabezado).
+     * Recorre todas las filas excepto la primera (encabezado), entregándolas una a una.
+     * Cada arreglo tiene tantas posiciones como columnas tiene el encabezado.
      */
-    public List<String[]> leerFilas(File archivo) {
-        List<String[]> todas = leerTodasLasFilas(archivo);
-        if (todas.size() <= 1) return List.of();
-        return new ArrayList<>(todas.subList(1, todas.size()));
+    public void recorrerFilas(File archivo, ConsumidorFila consumidor) {
+        recorrer(archivo, (fila, numFila) -> {
+            if (numFila > 1) consumidor.aceptar(fila, numFila);
+        });
     }
 
-    private List<String[]> leerTodasLasFilas(File archivo) {
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void recorrer(File archivo, ConsumidorFila consumidor) {
         String nombre = archivo.getName().toLowerCase();
+        // Los errores del consumidor viajan envueltos para no confundirlos con errores de lectura
+        ConsumidorFila aislado = (fila, numFila) -> {
+            try {
+                consumidor.aceptar(fila, numFila);
+            } catch (RuntimeException e) {
+                throw new FalloConsumidor(e);
+            }
+        };
         try {
             if (nombre.endsWith(".csv")) {
-                return leerCsv(archivo);
-            } else if (nombre.endsWith(".xlsx") || nombre.endsWith(".xls")) {
-                return leerExcel(archivo);
+                recorrerCsv(archivo, aislado);
+            } else if (nombre.endsWith(".xlsx")) {
+                recorrerXlsx(archivo, aislado);
+            } else if (nombre.endsWith(".xls")) {
+                recorrerXls(archivo, aislado);
             } else {
                 throw new TechnicalException(
                         "Formato no soportado. Use .csv, .xlsx o .xls");
             }
         } catch (TechnicalException e) {
             throw e;
+        } catch (FalloConsumidor e) {
+            throw e.causa;
+        } catch (SAXException e) {
+            if (e.getException() instanceof FalloConsumidor f) throw f.causa;
+            throw new TechnicalException("Error al leer el archivo: " + e.getMessage(), e);
         } catch (Exception e) {
-            throw new TechnicalException("Error al leer el archivo: " + e.getMessage());
+            throw new TechnicalException("Error al leer el archivo: " + e.getMessage(), e);
         }
     }
 
-    private List<String[]> leerCsv(File archivo) throws Exception {
-        List<String[]> filas = new ArrayList<>();
+    private void recorrerCsv(File archivo, ConsumidorFila consumidor) throws Exception {
         try (CSVReader reader = new CSVReader(new FileReader(archivo))) {
             String[] fila;
+            int numCols = 0;
+            int numFila = 0;
             while ((fila = reader.readNext()) != null) {
-                filas.add(fila);
+                // OpenCSV entrega cada línea con sus propios campos: se lleva al ancho del encabezado
+                if (numCols == 0) {
+                    numCols = Math.max(fila.length, 1);
+                } else if (fila.length != numCols) {
+                    int anterior = fila.length;
+                    fila = Arrays.copyOf(fila, numCols);
+                    if (anterior < numCols) Arrays.fill(fila, anterior, numCols, "");
+                }
+                consumidor.aceptar(fila, ++numFila);
+            }
+        }
+    }
+
+    private void recorrerXlsx(File archivo, ConsumidorFila consumidor) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(archivo, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable estilos = reader.getStylesTable();
+
+            Iterator<InputStream> hojas = reader.getSheetsData();
+            if (!hojas.hasNext()) return;
+
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(
+                    estilos, null, strings, new FilasXlsx(consumidor), new DataFormatter(), false));
+            try (InputStream hoja = hojas.next()) {
+                parser.parse(new InputSource(hoja));
             }
         }
-        return filas;
     }
 
-    private List<String[]> leerExcel(File archivo) throws Exception {
-        List<String[]> filas = new ArrayList<>();
+    private void recorrerXls(File archivo, ConsumidorFila consumidor) throws Exception {
         try (FileInputStream fis = new FileInputStream(archivo);
              Workbook workbook = WorkbookFactory.create(fis)) {
 
             Sheet sheet = workbook.getSheetAt(0);
             DataFormatter formatter = new DataFormatter();
             int numCols = 0;
+            int numFila = 0;
 
             for (Row row : sheet) {
                 // Determinar ancho de columnas por la primera fila
@@ -85,9 +164,71 @@ public class LectorArchivo {
                     Cell cell = row.getCell(i, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
                     valores[i] = (cell == null) ? "" : formatter.formatCellValue(cell).trim();
                 }
-                filas.add(valores);
+                consumidor.aceptar(valores, ++numFila);
             }
         }
-        return filas;
+    }
+
+    /**
+     * Arma cada fila a partir de los eventos SAX de la hoja.
+     * El ancho lo fija la primera fila (encabezado), igual que en .xls.
+     */
+    private static final class FilasXlsx implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ConsumidorFila consumidor;
+        private int numCols;
+        private int numFila;
+        private String[] actual;
+
+        FilasXlsx(ConsumidorFila consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            actual = numCols == 0 ? new String[16] : new String[numCols];
+            Arrays.fill(actual, "");
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            int col = referencia != null ? new CellReference(referencia).getCol() : 0;
+            if (col >= actual.length) {
+                // Solo el encabezado puede crecer; en filas de datos se ignoran columnas extra
+                if (numCols != 0) return;
+                int anterior = actual.length;
+                actual = Arrays.copyOf(actual, Math.max(col + 1, anterior * 2));
+                Arrays.fill(actual, anterior, actual.length, "");
+            }
+            actual[col] = valor == null ? "" : valor.trim();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (numCols == 0) {
+                int ancho = actual.length;
+                while (ancho > 0 && actual[ancho - 1].isEmpty()) ancho--;
+                numCols = Math.max(ancho, 1);
+                actual = Arrays.copyOf(actual, numCols);
+            }
+            consumidor.aceptar(actual, ++numFila);
+        }
+    }
+
+    /** Señal interna para cortar la lectura en cuanto ya no se necesitan más filas. */
+    private static final class DetenerLectura extends RuntimeException {
+        DetenerLectura() {
+            super(null, null, false, false);
+        }
+    }
+
+    /** Transporta una excepción lanzada por el consumidor a través del parser. */
+    private static final class FalloConsumidor extends RuntimeException {
+        final RuntimeException causa;
+
+        FalloConsumidor(RuntimeException causa) {
+            super(null, causa, false, false);
+            this.causa = causa;
+        }
     }
 }
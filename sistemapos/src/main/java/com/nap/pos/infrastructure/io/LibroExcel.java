@@ -0,0 +1,350 @@
+package com.nap.pos.infrastructure.io;
+
+import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.exception.TechnicalException;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Libro Excel (.xlsx) que se escribe fila a fila sin tenerlo entero en memoria.
+ *
+ * Usa un {@link SXSSFWorkbook}: en memoria quedan solo las últimas {@link #FILAS_EN_MEMORIA}
+ * filas de cada hoja y las anteriores se bajan a un archivo temporal comprimido, así un
+ * año de líneas de venta ocupa lo mismo que una caja. Por eso las filas se escriben
+ * en orden y no se vuelve a las ya escritas: el ancho de las columnas se estima con
+ * el texto más largo de cada una en lugar de autoSizeColumn.
+ *
+ * Los estilos se crean una sola vez por libro y todas las celdas los comparten
+ * (Excel admite pocos miles por archivo). Una hoja no pasa de {@link #FILAS_POR_HOJA}
+ * filas: al llegar al límite la escritura se corta con un mensaje para acotar el reporte.
+ *
+ * No es seguro entre hilos: lo escribe un solo hilo de principio a fin.
+ */
+public class LibroExcel implements AutoCloseable {
+
+    /** Filas por hoja que se conservan en memoria antes de bajarlas a disco. */
+    public static final int FILAS_EN_MEMORIA = 200;
+
+    /** Filas que admite una hoja de Excel, encabezado incluido (1.048.576). */
+    public static final int FILAS_POR_HOJA = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    // Cada cuántas filas se informa el avance y se mira si se canceló
+    private static final int CADA_FILAS = 500;
+
+    // Ancho máximo de columna, en caracteres
+    private static final int ANCHO_MAXIMO = 60;
+
+    private static final String FORMATO_MONEDA = "$#,##0.00";
+
+    /**
+     * Recibe el avance de la escritura y decide si seguir.
+     * Se llama desde el hilo que escribe el libro.
+     */
+    public interface Avance {
+
+        Avance NINGUNO = new Avance() {
+            @Override public void filas(long escritas, long previstas) {}
+            @Override public boolean cancelado() { return false; }
+        };
+
+        /** @param previstas total anunciado con {@link LibroExcel#prever}; 0 si no se conoce */
+        void filas(long escritas, long previstas);
+
+        /** true para cortar la escritura con {@link CancellationException}. */
+        boolean cancelado();
+    }
+
+    private enum Estilo { ENCABEZADO, TEXTO, MONEDA, GRUPO }
+
+    private final SXSSFWorkbook wb;
+    private final Avance avance;
+    private final Map<Estilo, CellStyle> estilos  = new EnumMap<>(Estilo.class);
+    private final Map<Estilo, CellStyle> alternos = new EnumMap<>(Estilo.class);
+    private final List<Hoja> hojas = new ArrayList<>();
+    private final int filasPorHoja;
+    private long previstas;
+    private long escritas;
+
+    public LibroExcel() {
+        this(Avance.NINGUNO);
+    }
+
+    public LibroExcel(Avance avance) {
+        this(avance, FILAS_POR_HOJA);
+    }
+
+    // Las pruebas bajan el límite para no escribir un millón de filas
+    LibroExcel(Avance avance, int filasPorHoja) {
+        this.avance = avance;
+        this.filasPorHoja = filasPorHoja;
+        this.wb = new SXSSFWorkbook(FILAS_EN_MEMORIA);
+        wb.setCompressTempFiles(true);
+        crearEstilos();
+    }
+
+    /** Suma filas al total esperado, para que el avance se pueda mostrar como fracción. */
+    public void prever(long filas) {
+        previstas += Math.max(0, filas);
+    }
+
+    /** Filas de datos escritas hasta ahora en todas las hojas (sin encabezados). */
+    public long escritas() {
+        return escritas;
+    }
+
+    /** Crea una hoja con su fila de encabezados; las filas de datos empiezan en la segunda. */
+    public Hoja hoja(String nombre, String... encabezados) {
+        Hoja hoja = new Hoja(wb.createSheet(nombre), encabezados.length);
+        Row fila = hoja.sheet.createRow(0);
+        fila.setHeight((short) 400);
+        for (int i = 0; i < encabezados.length; i++) {
+            Cell celda = fila.createCell(i);
+            celda.setCellValue(encabezados[i]);
+            celda.setCellStyle(estilos.get(Estilo.ENCABEZADO));
+            hoja.medir(i, encabezados[i].length());
+        }
+        hojas.add(hoja);
+        return hoja;
+    }
+
+    /** Aplica los anchos de columna y escribe el libro en {@code destino}. */
+    public void guardar(File destino) {
+        try (OutputStream out = new FileOutputStream(destino)) {
+            guardar(out);
+        } catch (IOException e) {
+            throw new TechnicalException("No se pudo guardar el archivo Excel: " + e.getMessage(), e);
+        }
+    }
+
+    public void guardar(OutputStream out) throws IOException {
+        hojas.forEach(Hoja::aplicarAnchos);
+        wb.write(out);
+        avance.filas(escritas, Math.max(previstas, escritas));
+    }
+
+    /** Borra los archivos temporales de las filas ya bajadas a disco. */
+    @Override
+    public void close() {
+        wb.dispose();
+        try {
+            wb.close();
+        } catch (IOException ignored) {
+            // Solo se cierra lo que quedó en memoria; los temporales ya se borraron
+        }
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void contarFila() {
+        escritas++;
+        if (escritas % CADA_FILAS == 0) {
+            if (avance.cancelado()) throw new CancellationException("Exportación cancelada");
+            avance.filas(escritas, previstas);
+        }
+    }
+
+    private void crearEstilos() {
+        Font negrita = wb.createFont();
+        negrita.setBold(true);
+        negrita.setFontHeightInPoints((short) 11);
+        negrita.setColor(IndexedColors.WHITE.getIndex());
+
+        Font normal = wb.createFont();
+        normal.setFontHeightInPoints((short) 10);
+
+        CellStyle encabezado = wb.createCellStyle();
+        encabezado.setFont(negrita);
+        encabezado.setFillForegroundColor(color(90, 106, 207));
+        encabezado.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        encabezado.setBorderBottom(BorderStyle.THIN);
+        encabezado.setBottomBorderColor(IndexedColors.GREY_50_PERCENT.getIndex());
+        encabezado.setAlignment(HorizontalAlignment.LEFT);
+        encabezado.setVerticalAlignment(VerticalAlignment.CENTER);
+        estilos.put(Estilo.ENCABEZADO, encabezado);
+
+        CellStyle texto = wb.createCellStyle();
+        texto.setFont(normal);
+        texto.setBorderBottom(BorderStyle.THIN);
+        texto.setBottomBorderColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        texto.setVerticalAlignment(VerticalAlignment.CENTER);
+        estilos.put(Estilo.TEXTO, texto);
+
+        CellStyle moneda = wb.createCellStyle();
+        moneda.cloneStyleFrom(texto);
+        moneda.setDataFormat(wb.createDataFormat().getFormat(FORMATO_MONEDA));
+        estilos.put(Estilo.MONEDA, moneda);
+
+        CellStyle grupo = wb.createCellStyle();
+        grupo.cloneStyleFrom(texto);
+        grupo.setAlignment(HorizontalAlignment.CENTER);
+        estilos.put(Estilo.GRUPO, grupo);
+
+        // Variantes con fondo para distinguir bloques de filas (p. ej. una venta de la siguiente)
+        XSSFColor fondoAlterno = color(247, 249, 255);
+        for (Estilo estilo : List.of(Estilo.TEXTO, Estilo.MONEDA, Estilo.GRUPO)) {
+            CellStyle alterno = wb.createCellStyle();
+            alterno.cloneStyleFrom(estilos.get(estilo));
+            alterno.setFillForegroundColor(fondoAlterno);
+            alterno.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            alternos.put(estilo, alterno);
+        }
+    }
+
+    private static XSSFColor color(int r, int g, int b) {
+        return new XSSFColor(new byte[]{(byte) r, (byte) g, (byte) b}, null);
+    }
+
+    // ── hojas y filas ────────────────────────────────────────────────────────
+
+    /** Hoja del libro; las filas se agregan en orden debajo de la última. */
+    public final class Hoja {
+
+        private final SXSSFSheet sheet;
+        private final int[] anchos;
+        private int siguiente = 1;
+
+        private Hoja(SXSSFSheet sheet, int columnas) {
+            this.sheet  = sheet;
+            this.anchos = new int[Math.max(columnas, 1)];
+        }
+
+        /** Agrega una fila de datos con los estilos normales. */
+        public Fila fila() {
+            return fila(false);
+        }
+
+        /** Agrega una fila de datos; {@code alterna} la pinta con el fondo de bloque alterno. */
+        public Fila fila(boolean alterna) {
+            if (siguiente >= filasPorHoja) {
+                throw new BusinessException("El reporte no cabe en Excel: la hoja \"" + sheet.getSheetName()
+                        + "\" supera el máximo de " + String.format("%,d", filasPorHoja)
+                        + " filas. Acote el rango de fechas o los filtros y vuelva a exportar.");
+            }
+            Row row = sheet.createRow(siguiente++);
+            contarFila();
+            return new Fila(this, row, alterna ? alternos : estilos);
+        }
+
+        /** Filas de datos escritas en esta hoja. */
+        public int filas() {
+            return siguiente - 1;
+        }
+
+        /**
+         * Combina una columna entre dos filas ya escritas (índices de {@link Fila#indice()}).
+         * Solo registra la región: no hace falta volver a tocar las filas bajadas a disco.
+         */
+        public void combinar(int desde, int hasta, int columna) {
+            if (hasta > desde) {
+                sheet.addMergedRegion(new CellRangeAddress(desde, hasta, columna, columna));
+            }
+        }
+
+        /** Si la hoja quedó sin datos, deja {@code mensaje} en la primera fila. */
+        public void siVacia(String mensaje) {
+            if (filas() == 0) fila().texto(mensaje);
+        }
+
+        private void medir(int columna, int caracteres) {
+            if (columna < anchos.length) anchos[columna] = Math.max(anchos[columna], caracteres);
+        }
+
+        private void aplicarAnchos() {
+            for (int i = 0; i < anchos.length; i++) {
+                sheet.setColumnWidth(i, (Math.min(anchos[i], ANCHO_MAXIMO) + 3) * 256);
+            }
+        }
+    }
+
+    /** Fila en escritura: cada llamada llena la celda siguiente, de izquierda a derecha. */
+    public static final class Fila {
+
+        private final Hoja hoja;
+        private final Row row;
+        private final Map<Estilo, CellStyle> estilos;
+        private int columna;
+
+        private Fila(Hoja hoja, Row row, Map<Estilo, CellStyle> estilos) {
+            this.hoja    = hoja;
+            this.row     = row;
+            this.estilos = estilos;
+        }
+
+        /** Índice de la fila en la hoja (0 = encabezados). */
+        public int indice() {
+            return row.getRowNum();
+        }
+
+        /** Número de la fila como se ve en Excel, para armar fórmulas. */
+        public int numeroExcel() {
+            return row.getRowNum() + 1;
+        }
+
+        public Fila texto(String valor) {
+            String texto = valor != null ? valor : "";
+            celda(Estilo.TEXTO, texto.length()).setCellValue(texto);
+            return this;
+        }
+
+        /** Texto centrado, para las columnas que se combinan por bloque con {@link Hoja#combinar}. */
+        public Fila grupo(String valor) {
+            String texto = valor != null ? valor : "";
+            celda(Estilo.GRUPO, texto.length()).setCellValue(texto);
+            return this;
+        }
+
+        public Fila numero(long valor) {
+            celda(Estilo.TEXTO, String.valueOf(valor).length()).setCellValue(valor);
+            return this;
+        }
+
+        public Fila numero(BigDecimal valor) {
+            BigDecimal numero = valor != null ? valor : BigDecimal.ZERO;
+            celda(Estilo.TEXTO, numero.toPlainString().length()).setCellValue(numero.doubleValue());
+            return this;
+        }
+
+        public Fila moneda(BigDecimal valor) {
+            BigDecimal monto = valor != null ? valor : BigDecimal.ZERO;
+            // "$" y separadores de miles
+            celda(Estilo.MONEDA, monto.toBigInteger().toString().length() * 4 / 3 + 4).setCellValue(monto.doubleValue());
+            return this;
+        }
+
+        /** Fórmula con formato de moneda, p. ej. {@code "E2*F2"}. */
+        public Fila formulaMoneda(String formula) {
+            celda(Estilo.MONEDA, 12).setCellFormula(formula);
+            return this;
+        }
+
+        private Cell celda(Estilo estilo, int caracteres) {
+            hoja.medir(columna, caracteres);
+            Cell cell = row.createCell(columna++);
+            cell.setCellStyle(estilos.get(estilo));
+            return cell;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.nap.pos.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations, run once per startup by {@link MigrateBeforeJpaPostProcessor}.
+ *
+ * Scripts live in {@code db/migration} and are named {@code V<version>__<description>.sql}.
+ * Each pending script runs in its own transaction together with its row in
+ * {@code schema_version}, so a failed script leaves no trace and is retried on the next start.
+ * The CRC32 of every applied script is stored and checked on each start: editing a script
+ * that already ran is a startup error — add a new version instead.
+ *
+ * Before the scripts it also adds columns that the Hibernate Community SQLite dialect
+ * silently skips during ddl-auto=update; those depend on what Hibernate created, not on
+ * a version, so they are checked on every start.
+ */
+@Slf4j
+@Component
+public class DatabaseMigrator {
+
+    static final String DEFAULT_LOCATION = "classpath:db/migration/V*__*.sql";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final String location;
+
+    /** A versioned script found on the classpath. */
+    record Migration(int version, String description, Resource script, int checksum) {}
+
+    @Autowired
+    public DatabaseMigrator(DataSource dataSource) {
+        this(dataSource, DEFAULT_LOCATION);
+    }
+
+    DatabaseMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.location = location;
+    }
+
+    public void migrate() {
+        addColumnIfMissing("usuarios", "nombre",   "VARCHAR(60)");
+        addColumnIfMissing("usuarios", "apellido",  "VARCHAR(60)");
+        addColumnIfMissing("usuarios", "creado_por", "INTEGER REFERENCES usuarios(id)");
+        addColumnIfMissing("configuracion_tienda", "tipo_impresora",    "TEXT NOT NULL DEFAULT 'ARCHIVO_TEXTO'");
+        addColumnIfMissing("configuracion_tienda", "destino_impresora", "VARCHAR(255)");
+
+        jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version     INTEGER NOT NULL PRIMARY KEY,
+                    description TEXT    NOT NULL,
+                    checksum    INTEGER NOT NULL,
+                    applied_at  TEXT    NOT NULL,
+                    duration_ms INTEGER NOT NULL
+                )
+                """);
+
+        List<Migration> migrations = findMigrations();
+        Map<Integer, Integer> applied = appliedChecksums();
+        validate(migrations, applied);
+
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        for (Migration migration : migrations) {
+            if (applied.containsKey(migration.version())) continue;
+            long start = System.currentTimeMillis();
+            tx.executeWithoutResult(status -> apply(migration, start));
+            log.info("DB migration: applied V{} {} in {} ms", migration.version(), migration.description(),
+                    System.currentTimeMillis() - start);
+        }
+
+        // Not a versioned script: a legacy database with duplicated numbers would fail the
+        // UNIQUE index, and that must not block startup
+        createIndexIfPossible("CREATE UNIQUE INDEX IF NOT EXISTS ux_ventas_numero_comprobante "
+                + "ON ventas (numero_comprobante)");
+    }
+
+    List<Migration> findMigrations() {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(location);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list migration scripts at " + location, e);
+        }
+        List<Migration> migrations = new ArrayList<>();
+        Map<Integer, String> seen = new HashMap<>();
+        for (Resource resource : resources) {
+            Matcher m = SCRIPT_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+            if (!m.matches()) continue;
+            int version = Integer.parseInt(m.group(1));
+            String previous = seen.put(version, resource.getFilename());
+            if (previous != null) {
+                throw new IllegalStateException("Duplicated migration version " + version
+                        + ": " + previous + " and " + resource.getFilename());
+            }
+            migrations.add(new Migration(version, m.group(2).replace('_', ' '), resource, checksum(resource)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    // ── private ──────────────────────────────────────────────────────────────
+
+    private void apply(Migration migration, long start) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+        jdbc.update("INSERT INTO schema_version (version, description, checksum, applied_at, duration_ms) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum(),
+                LocalDateTime.now().toString(), System.currentTimeMillis() - start);
+    }
+
+    private Map<Integer, Integer> appliedChecksums() {
+        Map<Integer, Integer> applied = new HashMap<>();
+        jdbc.query("SELECT version, checksum FROM schema_version",
+                rs -> { applied.put(rs.getInt("version"), rs.getInt("checksum")); });
+        return applied;
+    }
+
+    private void validate(List<Migration> migrations, Map<Integer, Integer> applied) {
+        for (Migration migration : migrations) {
+            Integer stored = applied.get(migration.version());
+            if (stored != null && stored != migration.checksum()) {
+                throw new IllegalStateException("Migration V" + migration.version() + " ("
+                        + migration.script().getFilename() + ") was modified after being applied");
+            }
+        }
+        applied.keySet().stream()
+                .filter(v -> migrations.stream().noneMatch(m -> m.version() == v))
+                .forEach(v -> log.warn("DB migration: V{} is applied but its script no longer exists", v));
+    }
+
+    // Line endings are normalised so a checkout with CRLF does not look like an edited script
+    private static int checksum(Resource resource) {
+        try {
+            String content = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            CRC32 crc = new CRC32();
+            crc.update(content.getBytes(StandardCharsets.UTF_8));
+            return (int) crc.getValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read migration " + resource.getFilename(), e);
+        }
+    }
+
+    private void createIndexIfPossible(String ddl) {
+        try {
+            jdbc.execute(ddl);
+        } catch (DataAccessException e) {
+            log.warn("DB migration: could not create index ({}): {}", ddl, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void addColumnIfMissing(String table, String column, String definition) {
+        List<Map<String, Object>> columns = jdbc.queryForList("PRAGMA table_info(" + table + ")");
+        // PRAGMA returns nothing for a table that does not exist yet: nothing to patch
+        if (columns.isEmpty()) return;
+        boolean exists = columns.stream()
+                .anyMatch(row -> column.equalsIgnoreCase((String) row.get("name")));
+        if (!exists) {
+            jdbc.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            log.info("DB migration: added column {}.{}", table, column);
+        }
+    }
+}
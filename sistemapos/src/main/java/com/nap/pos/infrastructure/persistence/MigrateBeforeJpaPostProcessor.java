@@ -0,0 +1,36 @@
+package com.nap.pos.infrastructure.persistence;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link DatabaseMigrator} as soon as the EntityManagerFactory is built.
+ *
+ * At that point Hibernate's ddl-auto=update has created or updated the entity tables
+ * (the index scripts need them on a fresh install), but no repository or service has
+ * received the factory yet: nothing reads or writes through JPA before the schema is
+ * at the latest version.
+ */
+@Component
+public class MigrateBeforeJpaPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<DatabaseMigrator> migrator;
+    private boolean migrated;
+
+    // ObjectProvider: a BeanPostProcessor is created before regular beans, so the
+    // migrator (and its DataSource) is resolved only when it is needed
+    public MigrateBeforeJpaPostProcessor(ObjectProvider<DatabaseMigrator> migrator) {
+        this.migrator = migrator;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EntityManagerFactoryInfo && !migrated) {
+            migrated = true;
+            migrator.getObject().migrate();
+        }
+        return bean;
+    }
+}
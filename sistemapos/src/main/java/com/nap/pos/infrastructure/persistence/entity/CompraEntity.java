@@ -15,8 +15,23 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "compras")
+// Todo lo que recorre CompraMapper, para traerlo en una sola consulta
+@NamedEntityGraph(name = CompraEntity.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("proveedor"),
+                @NamedAttributeNode("usuario"),
+                @NamedAttributeNode(value = "detalles", subgraph = "detalles")},
+        subgraphs = {
+                @NamedSubgraph(name = "detalles",
+                        attributeNodes = @NamedAttributeNode(value = "producto", subgraph = "producto")),
+                @NamedSubgraph(name = "producto", attributeNodes = {
+                        @NamedAttributeNode("proveedorPrincipal"),
+                        @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")}),
+                @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))})
 public class CompraEntity {
 
+    public static final String GRAFO_COMPLETO = "Compra.completa";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
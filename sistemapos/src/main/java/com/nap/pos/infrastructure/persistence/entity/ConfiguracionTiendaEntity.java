@@ -1,6 +1,7 @@
 package com.nap.pos.infrastructure.persistence.entity;
 
 import com.nap.pos.domain.model.enums.RegimenTributario;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.domain.model.enums.TipoPersona;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -87,6 +88,14 @@ public class ConfiguracionTiendaEntity {
     @Column(name = "numero_inicial_comprobante", nullable = false, columnDefinition = "INTEGER DEFAULT 1")
     private int numeroInicialComprobante = 1;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_impresora", nullable = false, length = 20,
+            columnDefinition = "TEXT DEFAULT 'ARCHIVO_TEXTO'")
+    private TipoImpresora tipoImpresora = TipoImpresora.ARCHIVO_TEXTO;
+
+    @Column(name = "destino_impresora", length = 255)
+    private String destinoImpresora;
+
     @Column(name = "mes_inventario_anual")
     private Integer mesInventarioAnual;
 
@@ -17,8 +17,25 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "ventas")
+// Todo lo que recorre VentaMapper, para traerlo en una sola consulta
+@NamedEntityGraph(name = VentaEntity.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("cliente"),
+                @NamedAttributeNode("usuario"),
+                @NamedAttributeNode(value = "caja", subgraph = "caja"),
+                @NamedAttributeNode(value = "detalles", subgraph = "detalles")},
+        subgraphs = {
+                @NamedSubgraph(name = "caja", attributeNodes = @NamedAttributeNode("usuario")),
+                @NamedSubgraph(name = "detalles",
+                        attributeNodes = @NamedAttributeNode(value = "producto", subgraph = "producto")),
+                @NamedSubgraph(name = "producto", attributeNodes = {
+                        @NamedAttributeNode("proveedorPrincipal"),
+                        @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")}),
+                @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))})
 public class VentaEntity {
 
+    public static final String GRAFO_COMPLETO = "Venta.completa";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -1,6 +1,7 @@
 package com.nap.pos.infrastructure.persistence.mapper;
 
 import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.infrastructure.persistence.entity.ConfiguracionTiendaEntity;
 import com.nap.pos.infrastructure.persistence.entity.UsuarioEntity;
 import org.springframework.stereotype.Component;
@@ -31,6 +32,8 @@ public class ConfiguracionMapper {
         e.setPorcentajeGananciaGlobal(domain.getPorcentajeGananciaGlobal());
         e.setPrefijoComprobante(domain.getPrefijoComprobante());
         e.setNumeroInicialComprobante(domain.getNumeroInicialComprobante());
+        if (domain.getTipoImpresora() != null) e.setTipoImpresora(domain.getTipoImpresora());
+        e.setDestinoImpresora(domain.getDestinoImpresora());
         e.setMesInventarioAnual(domain.getMesInventarioAnual());
         e.setDiaInventarioAnual(domain.getDiaInventarioAnual());
         if (domain.getPropietarioId() != null) {
@@ -64,6 +67,8 @@ public class ConfiguracionMapper {
                 .porcentajeGananciaGlobal(e.getPorcentajeGananciaGlobal())
                 .prefijoComprobante(e.getPrefijoComprobante())
                 .numeroInicialComprobante(e.getNumeroInicialComprobante())
+                .tipoImpresora(e.getTipoImpresora() != null ? e.getTipoImpresora() : TipoImpresora.ARCHIVO_TEXTO)
+                .destinoImpresora(e.getDestinoImpresora())
                 .mesInventarioAnual(e.getMesInventarioAnual())
                 .diaInventarioAnual(e.getDiaInventarioAnual())
                 .propietarioId(e.getPropietario() != null ? e.getPropietario().getId() : null)
@@ -8,6 +8,7 @@ import com.nap.pos.infrastructure.persistence.repository.jpa.JpaCajaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,10 +45,22 @@ public class CajaRepositoryImpl implements CajaRepository {
                 .map(cajaMapper::toDomain);
     }
 
+    @Override
+    public boolean existeCajaAbierta() {
+        return jpaCajaRepository.existsByEstado(EstadoCaja.ABIERTA);
+    }
+
     @Override
     public List<Caja> findAll() {
         return jpaCajaRepository.findAll().stream()
                 .map(cajaMapper::toDomain)
                 .toList();
     }
+
+    @Override
+    public List<Caja> findCerradasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return jpaCajaRepository.findByFechaCierreGreaterThanEqualAndFechaCierreLessThan(desde, hasta).stream()
+                .map(cajaMapper::toDomain)
+                .toList();
+    }
 }
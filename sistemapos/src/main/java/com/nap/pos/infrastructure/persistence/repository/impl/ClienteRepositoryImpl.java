@@ -1,15 +1,29 @@
 package com.nap.pos.infrastructure.persistence.repository.impl;
 
 import com.nap.pos.domain.model.Cliente;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaCliente;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.repository.ClienteRepository;
 import com.nap.pos.infrastructure.persistence.mapper.ClienteMapper;
 import com.nap.pos.infrastructure.persistence.repository.jpa.JpaClienteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.contiene;
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.like;
+
 /**
  * Implementación concreta de ClienteRepository.
  * Traduce entre el modelo de dominio (Cliente) y la entidad JPA (ClienteEntity)
@@ -21,6 +35,26 @@ public class ClienteRepositoryImpl implements ClienteRepository {
 
     private final JpaClienteRepository jpaClienteRepository;
     private final ClienteMapper clienteMapper;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    // Claves de orden de la tabla de clientes → expresión SQL
+    private static final Map<String, String> ORDENES_FILAS = Map.of(
+            "nombre",  "nombre COLLATE NOCASE",
+            "cedula",  "cedula",
+            "celular", "celular",
+            "credito", "COALESCE(monto_credito, 0)",
+            "saldo",   "saldo_utilizado",
+            "estado",  "activo");
+
+    private static final RowMapper<FilaCliente> FILA_CLIENTE = (rs, i) -> new FilaCliente(
+            rs.getLong("id"),
+            rs.getString("nombre"),
+            rs.getString("cedula"),
+            rs.getString("celular"),
+            rs.getBigDecimal("monto_credito"),
+            rs.getBigDecimal("saldo_utilizado"),
+            rs.getBoolean("activo"));
 
     @Override
     public Cliente save(Cliente cliente) {
@@ -42,6 +76,42 @@ public class ClienteRepositoryImpl implements ClienteRepository {
                 .map(clienteMapper::toDomain);
     }
 
+    // Consulta directa de columnas: evita mapear la entidad completa por cada cliente
+    @Override
+    public Map<String, Cliente> indexarPorCedula() {
+        Map<String, Cliente> indice = new HashMap<>();
+        jdbc.query("SELECT id, cedula, nombre, celular FROM clientes WHERE cedula IS NOT NULL",
+                rs -> {
+                    String cedula = rs.getString("cedula");
+                    indice.put(cedula, Cliente.builder()
+                            .id(rs.getLong("id"))
+                            .cedula(cedula)
+                            .nombre(rs.getString("nombre"))
+                            .celular(rs.getString("celular"))
+                            .build());
+                });
+        return indice;
+    }
+
+    // INSERT parametrizado enviado como lote; corre dentro de la transacción del llamador
+    @Override
+    public void insertarEnLote(List<Cliente> clientes) {
+        if (clientes == null || clientes.isEmpty()) return;
+        List<Object[]> filas = new ArrayList<>(clientes.size());
+        for (Cliente c : clientes) {
+            filas.add(new Object[]{
+                    c.getNombre(), c.getCedula(), c.getCelular(), c.getDireccion(), c.getMontoCredito(),
+                    c.getPlazoPago() != null ? c.getPlazoPago().name() : null,
+                    c.getSaldoUtilizado() != null ? c.getSaldoUtilizado() : BigDecimal.ZERO,
+                    c.isActivo()});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO clientes (nombre, cedula, celular, direccion, monto_credito, plazo_pago,
+                                      saldo_utilizado, activo)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, filas);
+    }
+
     // Módulo de gestión: muestra TODOS los clientes (activos e inactivos)
     // Permite al ADMIN reactivar un cliente desactivado
     @Override
@@ -58,4 +128,33 @@ public class ClienteRepositoryImpl implements ClienteRepository {
                 .map(clienteMapper::toDomain)
                 .toList();
     }
+
+    // Tabla de clientes: solo las columnas visibles, una página a la vez
+    @Override
+    public Pagina<FilaCliente> buscarFilas(String texto, Boolean activo, boolean soloConCredito,
+                                           ConsultaPagina consulta) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> condiciones = new ArrayList<>();
+        String patron = contiene(texto);
+        if (patron != null) {
+            condiciones.add("(" + like("nombre", "texto") + " OR " + like("cedula", "texto") + ")");
+            params.addValue("texto", patron);
+        }
+        if (activo != null) {
+            condiciones.add("activo = :activo");
+            params.addValue("activo", activo);
+        }
+        if (soloConCredito) {
+            condiciones.add("monto_credito > 0");
+        }
+        return PaginadorSql.paginar(namedJdbc,
+                "id, nombre, cedula, celular, monto_credito, saldo_utilizado, activo",
+                "FROM clientes" + PaginadorSql.where(condiciones), params,
+                ORDENES_FILAS, "nombre", "id", consulta, FILA_CLIENTE);
+    }
+
+    @Override
+    public long contar() {
+        return jpaClienteRepository.count();
+    }
 }
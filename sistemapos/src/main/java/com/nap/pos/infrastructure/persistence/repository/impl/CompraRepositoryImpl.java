@@ -1,14 +1,32 @@
 package com.nap.pos.infrastructure.persistence.repository.impl;
 
 import com.nap.pos.domain.model.Compra;
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaCompra;
+import com.nap.pos.domain.model.FiltroCompras;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
 import com.nap.pos.domain.repository.CompraRepository;
 import com.nap.pos.infrastructure.persistence.mapper.CompraMapper;
 import com.nap.pos.infrastructure.persistence.repository.jpa.JpaCompraRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.contiene;
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.fecha;
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.like;
 
 /**
  * Implementación concreta de CompraRepository.
@@ -21,6 +39,25 @@ public class CompraRepositoryImpl implements CompraRepository {
 
     private final JpaCompraRepository jpaCompraRepository;
     private final CompraMapper compraMapper;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    // Cabecera de la compra + proveedor + número de líneas, sin leer los detalles
+    private static final String COLUMNAS_FILA = """
+            c.id, c.fecha, c.proveedor_id, p.nombre AS proveedor, c.numero_factura, c.total,
+            (SELECT COUNT(*) FROM detalle_compras d WHERE d.compra_id = c.id) AS numero_productos
+            """;
+
+    private static final String DESDE_FILA =
+            "FROM compras c LEFT JOIN proveedores p ON p.id = c.proveedor_id";
+
+    private static final RowMapper<FilaCompra> FILA_COMPRA = (rs, i) -> new FilaCompra(
+            rs.getLong("id"),
+            rs.getTimestamp("fecha").toLocalDateTime(),
+            rs.getLong("proveedor_id"),
+            rs.getString("proveedor"),
+            rs.getString("numero_factura"),
+            rs.getInt("numero_productos"),
+            rs.getBigDecimal("total"));
 
     @Override
     public Compra save(Compra compra) {
@@ -56,4 +93,93 @@ public class CompraRepositoryImpl implements CompraRepository {
                 .map(compraMapper::toDomain)
                 .toList();
     }
+
+    // Historial de compras: un tramo de cabeceras; el detalle se carga por id al abrirla
+    @Override
+    public Tramo<FilaCompra> buscarHistorial(FiltroCompras filtro, CursorHistorial despuesDe, int limite) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return PaginadorSql.tramo(namedJdbc, COLUMNAS_FILA, DESDE_FILA, condiciones(filtro, params), params,
+                "c.fecha", "c.id", despuesDe, limite, FILA_COMPRA,
+                f -> new CursorHistorial(f.fecha(), f.id()));
+    }
+
+    @Override
+    public TotalesHistorial totalizarHistorial(FiltroCompras filtro) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) AS cantidad, COALESCE(SUM(c.total), 0) AS total " + DESDE_FILA
+                + PaginadorSql.where(condiciones(filtro, params));
+        return namedJdbc.queryForObject(sql, params,
+                (rs, i) -> new TotalesHistorial(rs.getLong("cantidad"), rs.getBigDecimal("total")));
+    }
+
+    @Override
+    public long contarProductosComprados() {
+        Long total = namedJdbc.getJdbcTemplate().queryForObject(
+                "SELECT COUNT(DISTINCT producto_id) FROM detalle_compras", Long.class);
+        return total != null ? total : 0;
+    }
+
+    @Override
+    public long contarProveedoresConCompras() {
+        Long total = namedJdbc.getJdbcTemplate().queryForObject(
+                "SELECT COUNT(DISTINCT proveedor_id) FROM compras", Long.class);
+        return total != null ? total : 0;
+    }
+
+    @Override
+    public Map<String, BigDecimal> sumarTotalPorProveedor(int limite) {
+        Map<String, BigDecimal> porProveedor = new LinkedHashMap<>();
+        namedJdbc.query("""
+                        SELECT p.nombre AS proveedor, SUM(c.total) AS total
+                        FROM compras c JOIN proveedores p ON p.id = c.proveedor_id
+                        WHERE c.total IS NOT NULL
+                        GROUP BY p.nombre
+                        ORDER BY total DESC
+                        LIMIT :limite
+                        """,
+                new MapSqlParameterSource("limite", limite),
+                rs -> {
+                    porProveedor.put(rs.getString("proveedor"), rs.getBigDecimal("total"));
+                });
+        return porProveedor;
+    }
+
+    // Un SUM acotado por mes: las fechas se guardan como epoch millis en SQLite,
+    // así que se agrupa por rangos en lugar de extraer el mes en SQL.
+    @Override
+    public Map<YearMonth, BigDecimal> sumarTotalPorMes(YearMonth desde, YearMonth hasta) {
+        Map<YearMonth, BigDecimal> porMes = new TreeMap<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            BigDecimal total = jpaCompraRepository.sumTotalByFechaEntre(
+                    mes.atDay(1).atStartOfDay(),
+                    mes.plusMonths(1).atDay(1).atStartOfDay());
+            if (total != null && total.signum() != 0) {
+                porMes.put(mes, total);
+            }
+        }
+        return porMes;
+    }
+
+    private static List<String> condiciones(FiltroCompras filtro, MapSqlParameterSource params) {
+        List<String> condiciones = new ArrayList<>();
+        if (filtro == null) return condiciones;
+        if (filtro.proveedorId() != null) {
+            condiciones.add("c.proveedor_id = :proveedorId");
+            params.addValue("proveedorId", filtro.proveedorId());
+        }
+        String patron = contiene(filtro.texto());
+        if (patron != null) {
+            condiciones.add("(" + like("p.nombre", "texto") + " OR " + like("c.numero_factura", "texto") + ")");
+            params.addValue("texto", patron);
+        }
+        if (filtro.desde() != null) {
+            condiciones.add("c.fecha >= :desde");
+            params.addValue("desde", fecha(filtro.desde()));
+        }
+        if (filtro.hasta() != null) {
+            condiciones.add("c.fecha < :hasta");
+            params.addValue("hasta", fecha(filtro.hasta()));
+        }
+        return condiciones;
+    }
 }
@@ -9,8 +9,12 @@ import com.nap.pos.infrastructure.persistence.repository.jpa.JpaGastoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -57,4 +61,20 @@ public class GastoRepositoryImpl implements GastoRepository {
     public void deleteById(Long id) {
         jpaGastoRepository.deleteById(id);
     }
+
+    // Un SUM acotado por mes: las fechas se guardan como epoch millis en SQLite,
+    // así que se agrupa por rangos en lugar de extraer el mes en SQL.
+    @Override
+    public Map<YearMonth, BigDecimal> sumarMontoPorMes(YearMonth desde, YearMonth hasta) {
+        Map<YearMonth, BigDecimal> porMes = new TreeMap<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            BigDecimal total = jpaGastoRepository.sumMontoByFechaEntre(
+                    mes.atDay(1).atStartOfDay(),
+                    mes.plusMonths(1).atDay(1).atStartOfDay());
+            if (total != null && total.signum() != 0) {
+                porMes.put(mes, total);
+            }
+        }
+        return porMes;
+    }
 }
@@ -0,0 +1,151 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.Pagina;
+import com.nap.pos.domain.model.Tramo;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Consultas paginadas de las pantallas de listado sobre JDBC.
+ *
+ * Cada repositorio aporta las columnas, el FROM/WHERE con parámetros con nombre y su
+ * lista de órdenes (clave de columna → expresión SQL). Se lanzan dos sentencias: un
+ * COUNT(*) con el mismo filtro y la página con LIMIT/OFFSET. El ORDER BY nunca se arma
+ * con texto que venga de la pantalla: una clave desconocida usa el orden por defecto.
+ *
+ * Los historiales (ventas, compras) se recorren por tramos con {@link #tramo}: sin
+ * COUNT ni OFFSET, cada tramo sigue desde la fecha/id del último registro mostrado.
+ *
+ * La búsqueda por texto ignora tildes: {@link #contiene} y {@link #like} quitan las
+ * mismas letras del patrón y de la columna, así "jabon" encuentra "Jabón".
+ */
+final class PaginadorSql {
+
+    // Letras que la búsqueda compara sin tilde; SQLite ya iguala mayúsculas ASCII en LIKE
+    private static final String CON_TILDE = "áéíóúüñÁÉÍÓÚÜÑ";
+    private static final String SIN_TILDE = "aeiouunAEIOUUN";
+
+    private PaginadorSql() {}
+
+    /**
+     * @param columnas  lista del SELECT
+     * @param desde     FROM, JOINs y WHERE; los parámetros van en {@code params}
+     * @param ordenes   claves de orden admitidas y su expresión SQL
+     * @param porDefecto clave usada cuando la consulta no trae una admitida
+     * @param desempate columna única que se agrega al final del ORDER BY para que
+     *                  las páginas no repitan ni salten filas con valores iguales
+     */
+    static <T> Pagina<T> paginar(NamedParameterJdbcTemplate jdbc,
+                                 String columnas, String desde, MapSqlParameterSource params,
+                                 Map<String, String> ordenes, String porDefecto, String desempate,
+                                 ConsultaPagina consulta, RowMapper<T> mapper) {
+        Long total = jdbc.queryForObject("SELECT COUNT(*) " + desde, params, Long.class);
+        if (total == null || total == 0) {
+            return new Pagina<>(List.of(), 0, consulta.tamano(), 0);
+        }
+
+        // Si la página pedida quedó fuera (p. ej. se borraron filas) se devuelve la última
+        int ultima = (int) ((total - 1) / consulta.tamano());
+        ConsultaPagina efectiva = consulta.numero() > ultima ? consulta.enPagina(ultima) : consulta;
+
+        String expresion = ordenes.getOrDefault(efectiva.orden(), ordenes.get(porDefecto));
+        String sentido   = efectiva.ascendente() ? " ASC" : " DESC";
+        String sql = "SELECT " + columnas + " " + desde
+                + " ORDER BY " + expresion + sentido + ", " + desempate + sentido
+                + " LIMIT :limite OFFSET :desplazamiento";
+
+        MapSqlParameterSource conPagina = new MapSqlParameterSource(params.getValues())
+                .addValue("limite", efectiva.tamano())
+                .addValue("desplazamiento", efectiva.desplazamiento());
+        List<T> filas = jdbc.query(sql, conPagina, mapper);
+        return new Pagina<>(filas, efectiva.numero(), efectiva.tamano(), total);
+    }
+
+    /**
+     * Un tramo de un historial, de la fecha más reciente a la más antigua.
+     * Se pide una fila de más para saber si hay otro tramo sin contar el total.
+     *
+     * @param condiciones filtros del historial; se les agrega la condición del cursor
+     * @param fecha       columna de fecha del orden
+     * @param id          columna única que desempata registros de la misma fecha
+     * @param despuesDe   último registro del tramo anterior; null para el primero
+     * @param cursorDe    fecha e id de una fila, para armar el cursor del tramo siguiente
+     */
+    static <T> Tramo<T> tramo(NamedParameterJdbcTemplate jdbc,
+                              String columnas, String desde, List<String> condiciones,
+                              MapSqlParameterSource params, String fecha, String id,
+                              CursorHistorial despuesDe, int limite,
+                              RowMapper<T> mapper, Function<T, CursorHistorial> cursorDe) {
+        int tamano = Math.max(1, limite);
+        List<String> conCursor = new ArrayList<>(condiciones);
+        MapSqlParameterSource conTramo = new MapSqlParameterSource(params.getValues())
+                .addValue("limite", tamano + 1);
+        if (despuesDe != null) {
+            conCursor.add("(" + fecha + " < :cursorFecha OR (" + fecha + " = :cursorFecha AND "
+                    + id + " < :cursorId))");
+            conTramo.addValue("cursorFecha", fecha(despuesDe.fecha()))
+                    .addValue("cursorId", despuesDe.id());
+        }
+        String sql = "SELECT " + columnas + " " + desde + where(conCursor)
+                + " ORDER BY " + fecha + " DESC, " + id + " DESC LIMIT :limite";
+
+        List<T> filas = jdbc.query(sql, conTramo, mapper);
+        if (filas.size() <= tamano) {
+            return new Tramo<>(filas, null);
+        }
+        List<T> elementos = filas.subList(0, tamano);
+        return new Tramo<>(List.copyOf(elementos), cursorDe.apply(elementos.get(elementos.size() - 1)));
+    }
+
+    /**
+     * Parámetro de fecha para comparar con las columnas que escribe Hibernate
+     * (SQLite las guarda como milisegundos; el driver convierte el Timestamp igual).
+     */
+    static Timestamp fecha(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
+    }
+
+    /** Patrón LIKE "contiene" sin tildes y con los comodines escapados; null si no hay texto. */
+    static String contiene(String texto) {
+        if (texto == null || texto.isBlank()) return null;
+        String escapado = quitarTildes(Normalizer.normalize(texto.strip(), Normalizer.Form.NFC))
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    /** Condición "columna contiene :parametro" a juego con {@link #contiene(String)}. */
+    static String like(String columna, String parametro) {
+        String sinTildes = columna;
+        for (int i = 0; i < CON_TILDE.length(); i++) {
+            sinTildes = "replace(" + sinTildes + ", '" + CON_TILDE.charAt(i) + "', '" + SIN_TILDE.charAt(i) + "')";
+        }
+        return sinTildes + " LIKE :" + parametro + " ESCAPE '\\'";
+    }
+
+    private static String quitarTildes(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            int k = CON_TILDE.indexOf(c);
+            sb.append(k >= 0 ? SIN_TILDE.charAt(k) : c);
+        }
+        return sb.toString();
+    }
+
+    static String where(List<String> condiciones) {
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+}
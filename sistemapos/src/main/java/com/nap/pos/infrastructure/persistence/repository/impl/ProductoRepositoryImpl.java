@@ -1,15 +1,29 @@
 package com.nap.pos.infrastructure.persistence.repository.impl;
 
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProducto;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.repository.ProductoRepository;
 import com.nap.pos.infrastructure.persistence.mapper.ProductoMapper;
 import com.nap.pos.infrastructure.persistence.repository.jpa.JpaProductoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.contiene;
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.like;
+
 /**
  * Implementación concreta de ProductoRepository.
  * Traduce entre el modelo de dominio (Producto) y la entidad JPA (ProductoEntity)
@@ -21,6 +35,29 @@ public class ProductoRepositoryImpl implements ProductoRepository {
 
     private final JpaProductoRepository jpaProductoRepository;
     private final ProductoMapper productoMapper;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    // Claves de orden de la tabla de inventario → expresión SQL
+    private static final Map<String, String> ORDENES_FILAS = Map.of(
+            "codigo",       "p.codigo_barras",
+            "nombre",       "p.nombre COLLATE NOCASE",
+            "categoria",    "c.nombre COLLATE NOCASE",
+            "subcategoria", "s.nombre COLLATE NOCASE",
+            "precioVenta",  "p.precio_venta",
+            "stock",        "p.stock",
+            "estado",       "p.activo");
+
+    private static final RowMapper<FilaProducto> FILA_PRODUCTO = (rs, i) -> new FilaProducto(
+            rs.getLong("id"),
+            rs.getString("codigo_barras"),
+            rs.getString("nombre"),
+            rs.getString("categoria"),
+            rs.getString("subcategoria"),
+            rs.getBigDecimal("precio_venta"),
+            rs.getInt("stock"),
+            rs.getBoolean("activo"),
+            rs.getString("imagen_path"));
 
     @Override
     public Producto save(Producto producto) {
@@ -35,6 +72,39 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .map(productoMapper::toDomain);
     }
 
+    @Override
+    public List<Producto> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        return jpaProductoRepository.findAllById(ids).stream()
+                .map(productoMapper::toDomain)
+                .toList();
+    }
+
+    /**
+     * Un UPDATE condicional por producto enviado como un solo lote JDBC.
+     * La condición stock >= cantidad evita vender de más aunque otra caja
+     * haya descontado el mismo producto entre la lectura y la escritura.
+     */
+    @Override
+    public List<Long> descontarStock(Map<Long, Integer> cantidadesPorProducto) {
+        if (cantidadesPorProducto == null || cantidadesPorProducto.isEmpty()) return List.of();
+
+        List<Long> ids = new ArrayList<>(cantidadesPorProducto.keySet());
+        List<Object[]> filas = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            int cantidad = cantidadesPorProducto.get(id);
+            filas.add(new Object[]{cantidad, id, cantidad});
+        }
+        int[] afectadas = jdbc.batchUpdate(
+                "UPDATE productos SET stock = stock - ? WHERE id = ? AND stock >= ?", filas);
+
+        List<Long> sinStock = new ArrayList<>();
+        for (int i = 0; i < afectadas.length; i++) {
+            if (afectadas[i] == 0) sinStock.add(ids.get(i));
+        }
+        return sinStock;
+    }
+
     // Búsqueda por scanner en la pantalla de ventas
     @Override
     public Optional<Producto> findByCodigoBarras(String codigoBarras) {
@@ -42,6 +112,48 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .map(productoMapper::toDomain);
     }
 
+    // Consulta directa de columnas: evita mapear entidades y cargar proveedor/subcategoría
+    @Override
+    public Map<String, Producto> indexarPorCodigoBarras() {
+        Map<String, Producto> indice = new HashMap<>();
+        jdbc.query("SELECT id, codigo_barras, nombre, precio_venta FROM productos"
+                        + " WHERE codigo_barras IS NOT NULL",
+                rs -> {
+                    String codigo = rs.getString("codigo_barras");
+                    indice.put(codigo, Producto.builder()
+                            .id(rs.getLong("id"))
+                            .codigoBarras(codigo)
+                            .nombre(rs.getString("nombre"))
+                            .precioVenta(rs.getBigDecimal("precio_venta"))
+                            .build());
+                });
+        return indice;
+    }
+
+    /**
+     * Un INSERT parametrizado enviado como lote: SQLite lo ejecuta sin ida y vuelta
+     * por fila ni el paso por Hibernate, que con IDENTITY no puede agrupar inserciones.
+     * Corre dentro de la transacción del llamador.
+     */
+    @Override
+    public void insertarEnLote(List<Producto> productos) {
+        if (productos == null || productos.isEmpty()) return;
+        List<Object[]> filas = new ArrayList<>(productos.size());
+        for (Producto p : productos) {
+            filas.add(new Object[]{
+                    p.getCodigoBarras(), p.getNombre(), p.getPrecioVenta(), p.getPrecioCompra(),
+                    p.getProveedorPrincipal() != null ? p.getProveedorPrincipal().getId() : null,
+                    p.getStock(),
+                    p.getSubcategoria() != null ? p.getSubcategoria().getId() : null,
+                    p.isActivo(), p.getImagenPath()});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO productos (codigo_barras, nombre, precio_venta, precio_compra, ajuste_producto,
+                                       proveedor_principal_id, stock, subcategoria_id, activo, imagen_path)
+                VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?, ?)
+                """, filas);
+    }
+
     // Módulo de inventario: muestra TODOS los productos, activos e inactivos
     @Override
     public List<Producto> findAll() {
@@ -73,4 +185,48 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .map(productoMapper::toDomain)
                 .toList();
     }
+
+    // Tabla de inventario: columnas del producto y nombres de categoría en un solo SELECT
+    @Override
+    public Pagina<FilaProducto> buscarFilas(String texto, Long categoriaId, Boolean activo,
+                                            ConsultaPagina consulta) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> condiciones = new ArrayList<>();
+        String patron = contiene(texto);
+        if (patron != null) {
+            condiciones.add("(" + like("p.nombre", "texto") + " OR " + like("p.codigo_barras", "texto") + ")");
+            params.addValue("texto", patron);
+        }
+        if (categoriaId != null) {
+            condiciones.add("s.categoria_id = :categoriaId");
+            params.addValue("categoriaId", categoriaId);
+        }
+        if (activo != null) {
+            condiciones.add("p.activo = :activo");
+            params.addValue("activo", activo);
+        }
+        return PaginadorSql.paginar(namedJdbc,
+                "p.id, p.codigo_barras, p.nombre, c.nombre AS categoria, s.nombre AS subcategoria,"
+                        + " p.precio_venta, p.stock, p.activo, p.imagen_path",
+                "FROM productos p"
+                        + " LEFT JOIN subcategorias s ON s.id = p.subcategoria_id"
+                        + " LEFT JOIN categorias c ON c.id = s.categoria_id"
+                        + PaginadorSql.where(condiciones), params,
+                ORDENES_FILAS, "nombre", "p.id", consulta, FILA_PRODUCTO);
+    }
+
+    @Override
+    public long contarTodos() {
+        return jpaProductoRepository.count();
+    }
+
+    @Override
+    public long contarActivos() {
+        return jpaProductoRepository.countByActivoTrue();
+    }
+
+    @Override
+    public long contarActivosSinStock() {
+        return jpaProductoRepository.countByActivoTrueAndStockLessThanEqual(0);
+    }
 }
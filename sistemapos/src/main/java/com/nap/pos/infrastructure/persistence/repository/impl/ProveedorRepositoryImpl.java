@@ -1,15 +1,26 @@
 package com.nap.pos.infrastructure.persistence.repository.impl;
 
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProveedor;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Proveedor;
 import com.nap.pos.domain.repository.ProveedorRepository;
 import com.nap.pos.infrastructure.persistence.mapper.ProveedorMapper;
 import com.nap.pos.infrastructure.persistence.repository.jpa.JpaProveedorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.contiene;
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.like;
+
 /**
  * Implementación concreta de ProveedorRepository.
  * Traduce entre el modelo de dominio (Proveedor) y la entidad JPA (ProveedorEntity)
@@ -21,6 +32,25 @@ public class ProveedorRepositoryImpl implements ProveedorRepository {
 
     private final JpaProveedorRepository jpaProveedorRepository;
     private final ProveedorMapper proveedorMapper;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    // Claves de orden de la tabla de proveedores → expresión SQL
+    private static final Map<String, String> ORDENES_FILAS = Map.of(
+            "nombre",    "nombre COLLATE NOCASE",
+            "nit",       "nit",
+            "celular",   "celular",
+            "direccion", "direccion COLLATE NOCASE",
+            "ganancia",  "porcentaje_ganancia",
+            "estado",    "activo");
+
+    private static final RowMapper<FilaProveedor> FILA_PROVEEDOR = (rs, i) -> new FilaProveedor(
+            rs.getLong("id"),
+            rs.getString("nombre"),
+            rs.getString("nit"),
+            rs.getString("celular"),
+            rs.getString("direccion"),
+            rs.getBigDecimal("porcentaje_ganancia"),
+            rs.getBoolean("activo"));
 
     @Override
     public Proveedor save(Proveedor proveedor) {
@@ -64,4 +94,28 @@ public class ProveedorRepositoryImpl implements ProveedorRepository {
         return jpaProveedorRepository.findByNombre(nombre)
                 .map(proveedorMapper::toDomain);
     }
+
+    // Tabla de proveedores: solo las columnas visibles, una página a la vez
+    @Override
+    public Pagina<FilaProveedor> buscarFilas(String texto, Boolean activo, boolean soloConGanancia,
+                                             ConsultaPagina consulta) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> condiciones = new ArrayList<>();
+        String patron = contiene(texto);
+        if (patron != null) {
+            condiciones.add("(" + like("nombre", "texto") + " OR " + like("nit", "texto") + ")");
+            params.addValue("texto", patron);
+        }
+        if (activo != null) {
+            condiciones.add("activo = :activo");
+            params.addValue("activo", activo);
+        }
+        if (soloConGanancia) {
+            condiciones.add("porcentaje_ganancia > 0");
+        }
+        return PaginadorSql.paginar(namedJdbc,
+                "id, nombre, nit, celular, direccion, porcentaje_ganancia, activo",
+                "FROM proveedores" + PaginadorSql.where(condiciones), params,
+                ORDENES_FILAS, "nombre", "id", consulta, FILA_PROVEEDOR);
+    }
 }
@@ -0,0 +1,258 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.DetalleVenta;
+import com.nap.pos.domain.model.ResumenProductoDiario;
+import com.nap.pos.domain.model.ResumenVentaDiario;
+import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.EstadoVenta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.domain.repository.ResumenVentaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementación de ResumenVentaRepository sobre JDBC.
+ * Las tablas resumen_ventas_diario y resumen_productos_diario las crea
+ * la migración V1__jdbc_tables.sql; el día se guarda como texto ISO (yyyy-MM-dd)
+ * para poder agrupar por mes directamente en SQL.
+ *
+ * Cada venta se suma con un UPSERT por clave, así registrar o anular una
+ * venta cuesta una sentencia por resumen sin leer nada antes.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ResumenVentaRepositoryImpl implements ResumenVentaRepository {
+
+    private static final String UPSERT_VENTA = """
+            INSERT INTO resumen_ventas_diario
+                (dia, hora, caja_id, metodo_pago, numero_ventas, numero_anuladas, total)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (dia, hora, caja_id, metodo_pago) DO UPDATE SET
+                numero_ventas   = numero_ventas   + excluded.numero_ventas,
+                numero_anuladas = numero_anuladas + excluded.numero_anuladas,
+                total           = total           + excluded.total
+            """;
+
+    private static final String UPSERT_PRODUCTO = """
+            INSERT INTO resumen_productos_diario
+                (dia, caja_id, metodo_pago, producto_id, unidades, total)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (dia, caja_id, metodo_pago, producto_id) DO UPDATE SET
+                unidades = unidades + excluded.unidades,
+                total    = total    + excluded.total
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    @Override
+    public void acumular(Venta venta) {
+        aplicar(venta, 1);
+    }
+
+    @Override
+    public void revertir(Venta venta) {
+        aplicar(venta, -1);
+    }
+
+    @Override
+    public void reconstruir() {
+        jdbc.update("DELETE FROM resumen_ventas_diario");
+        jdbc.update("DELETE FROM resumen_productos_diario");
+
+        // Agrega en memoria por clave y luego inserta en lote: una sola pasada por tabla.
+        // Sin caja o sin fecha la venta queda fuera, igual que en aplicar()
+        Map<ClaveVenta, Acumulado> ventas = new LinkedHashMap<>();
+        jdbc.query("""
+                SELECT fecha, caja_id, metodo_pago, estado, total FROM ventas
+                WHERE caja_id IS NOT NULL AND fecha IS NOT NULL
+                """, rs -> {
+            LocalDateTime fecha = rs.getTimestamp("fecha").toLocalDateTime();
+            ClaveVenta clave = new ClaveVenta(fecha.toLocalDate(), fecha.getHour(),
+                    rs.getLong("caja_id"), rs.getString("metodo_pago"));
+            Acumulado acc = ventas.computeIfAbsent(clave, k -> new Acumulado());
+            if (EstadoVenta.COMPLETADA.name().equals(rs.getString("estado"))) {
+                acc.sumar(1, valor(rs.getBigDecimal("total")));
+            } else {
+                acc.anuladas++;
+            }
+        });
+
+        Map<ClaveProducto, Acumulado> productos = new LinkedHashMap<>();
+        jdbc.query("""
+                SELECT v.fecha, v.caja_id, v.metodo_pago, d.producto_id, d.cantidad, d.subtotal
+                FROM detalle_ventas d JOIN ventas v ON v.id = d.venta_id
+                WHERE v.estado = ? AND v.caja_id IS NOT NULL AND v.fecha IS NOT NULL
+                """, rs -> {
+            LocalDate dia = rs.getTimestamp("fecha").toLocalDateTime().toLocalDate();
+            ClaveProducto clave = new ClaveProducto(dia, rs.getLong("caja_id"),
+                    rs.getString("metodo_pago"), rs.getLong("producto_id"));
+            productos.computeIfAbsent(clave, k -> new Acumulado())
+                    .sumar(rs.getInt("cantidad"), valor(rs.getBigDecimal("subtotal")));
+        }, EstadoVenta.COMPLETADA.name());
+
+        List<Object[]> filasVenta = new ArrayList<>(ventas.size());
+        ventas.forEach((k, acc) -> filasVenta.add(new Object[]{
+                k.dia().toString(), k.hora(), k.cajaId(), k.metodoPago(), acc.cantidad, acc.anuladas, acc.total}));
+        jdbc.batchUpdate(UPSERT_VENTA, filasVenta);
+
+        List<Object[]> filasProducto = new ArrayList<>(productos.size());
+        productos.forEach((k, acc) -> filasProducto.add(new Object[]{
+                k.dia().toString(), k.cajaId(), k.metodoPago(), k.productoId(), acc.cantidad, acc.total}));
+        jdbc.batchUpdate(UPSERT_PRODUCTO, filasProducto);
+
+        log.info("Resumen de ventas reconstruido: {} filas de ventas, {} filas de productos",
+                filasVenta.size(), filasProducto.size());
+    }
+
+    @Override
+    public boolean estaVacio() {
+        Integer filas = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM resumen_ventas_diario LIMIT 1)", Integer.class);
+        return filas == null || filas == 0;
+    }
+
+    @Override
+    public List<ResumenVentaDiario> findVentasEntre(LocalDate desde, LocalDate hasta) {
+        return jdbc.query("""
+                SELECT dia, hora, caja_id, metodo_pago, numero_ventas, numero_anuladas, total
+                FROM resumen_ventas_diario
+                WHERE dia >= ? AND dia <= ?
+                ORDER BY dia, hora
+                """,
+                (rs, i) -> new ResumenVentaDiario(
+                        LocalDate.parse(rs.getString("dia")),
+                        rs.getInt("hora"),
+                        rs.getLong("caja_id"),
+                        MetodoPago.valueOf(rs.getString("metodo_pago")),
+                        rs.getInt("numero_ventas"),
+                        rs.getInt("numero_anuladas"),
+                        valor(rs.getBigDecimal("total"))),
+                desde.toString(), hasta.toString());
+    }
+
+    @Override
+    public List<ResumenProductoDiario> findProductosEntre(LocalDate desde, LocalDate hasta) {
+        return jdbc.query("""
+                SELECT dia, caja_id, metodo_pago, producto_id, unidades, total
+                FROM resumen_productos_diario
+                WHERE dia >= ? AND dia <= ?
+                ORDER BY dia
+                """,
+                (rs, i) -> new ResumenProductoDiario(
+                        LocalDate.parse(rs.getString("dia")),
+                        rs.getLong("caja_id"),
+                        MetodoPago.valueOf(rs.getString("metodo_pago")),
+                        rs.getLong("producto_id"),
+                        rs.getInt("unidades"),
+                        valor(rs.getBigDecimal("total"))),
+                desde.toString(), hasta.toString());
+    }
+
+    @Override
+    public Map<YearMonth, BigDecimal> sumarTotalPorMes(YearMonth desde, YearMonth hasta) {
+        Map<YearMonth, BigDecimal> porMes = new TreeMap<>();
+        jdbc.query("""
+                SELECT substr(dia, 1, 7) AS mes, SUM(total) AS total
+                FROM resumen_ventas_diario
+                WHERE dia >= ? AND dia <= ?
+                GROUP BY mes
+                """,
+                rs -> {
+                    BigDecimal total = valor(rs.getBigDecimal("total"));
+                    if (total.signum() != 0) {
+                        porMes.put(YearMonth.parse(rs.getString("mes")), total);
+                    }
+                },
+                desde.atDay(1).toString(), hasta.atEndOfMonth().toString());
+        return porMes;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> sumarTotalPorCaja(Collection<Long> cajaIds, MetodoPago metodoPago) {
+        Map<Long, BigDecimal> porCaja = new HashMap<>();
+        if (cajaIds == null || cajaIds.isEmpty()) return porCaja;
+        namedJdbc.query("""
+                SELECT caja_id, SUM(total) AS total
+                FROM resumen_ventas_diario
+                WHERE metodo_pago = :metodo AND caja_id IN (:cajas)
+                GROUP BY caja_id
+                """,
+                Map.of("metodo", metodoPago.name(), "cajas", cajaIds),
+                rs -> {
+                    porCaja.put(rs.getLong("caja_id"), valor(rs.getBigDecimal("total")));
+                });
+        return porCaja;
+    }
+
+    // ── helpers privados ────────────────────────────────────────────────
+
+    /**
+     * Suma (signo = 1) o descuenta (signo = -1) una venta en ambos resúmenes.
+     * Las líneas del mismo producto se agrupan antes para emitir un solo UPSERT por producto.
+     */
+    private void aplicar(Venta venta, int signo) {
+        if (venta == null || venta.getCaja() == null || venta.getFecha() == null) return;
+
+        LocalDateTime fecha = venta.getFecha();
+        String dia     = fecha.toLocalDate().toString();
+        Long cajaId    = venta.getCaja().getId();
+        String metodo  = venta.getMetodoPago().name();
+        BigDecimal total = valor(venta.getTotal());
+
+        jdbc.update(UPSERT_VENTA, dia, fecha.getHour(), cajaId, metodo,
+                signo, signo < 0 ? 1 : 0, signo < 0 ? total.negate() : total);
+
+        Map<Long, Acumulado> porProducto = new LinkedHashMap<>();
+        for (DetalleVenta d : venta.getDetalles()) {
+            if (d.getProducto() == null || d.getProducto().getId() == null) continue;
+            porProducto.computeIfAbsent(d.getProducto().getId(), k -> new Acumulado())
+                    .sumar(d.getCantidad(), valor(d.getSubtotal()));
+        }
+
+        List<Object[]> filas = new ArrayList<>(porProducto.size());
+        porProducto.forEach((productoId, acc) -> filas.add(new Object[]{
+                dia, cajaId, metodo, productoId,
+                signo * acc.cantidad,
+                signo < 0 ? acc.total.negate() : acc.total}));
+        if (!filas.isEmpty()) {
+            jdbc.batchUpdate(UPSERT_PRODUCTO, filas);
+        }
+    }
+
+    private static BigDecimal valor(BigDecimal monto) {
+        return monto != null ? monto : BigDecimal.ZERO;
+    }
+
+    private record ClaveVenta(LocalDate dia, int hora, long cajaId, String metodoPago) {}
+
+    private record ClaveProducto(LocalDate dia, long cajaId, String metodoPago, long productoId) {}
+
+    /** Contador mutable usado al agrupar: ventas/unidades, anuladas y dinero. */
+    private static final class Acumulado {
+        int cantidad;
+        int anuladas;
+        BigDecimal total = BigDecimal.ZERO;
+
+        void sumar(int cantidad, BigDecimal monto) {
+            this.cantidad += cantidad;
+            this.total = this.total.add(monto);
+        }
+    }
+}
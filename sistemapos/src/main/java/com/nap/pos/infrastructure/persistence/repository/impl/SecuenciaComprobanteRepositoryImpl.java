@@ -0,0 +1,48 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.repository.SecuenciaComprobanteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de SecuenciaComprobanteRepository sobre JDBC.
+ * La tabla secuencias la crea la migración V1__jdbc_tables.sql.
+ *
+ * El UPDATE ... RETURNING toma el bloqueo de escritura de SQLite antes de leer,
+ * así dos cajas nunca obtienen el mismo número y cada venta cuesta una sola
+ * sentencia indexada por clave primaria.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SecuenciaComprobanteRepositoryImpl implements SecuenciaComprobanteRepository {
+
+    private static final String SECUENCIA = "comprobante";
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public Optional<Long> siguiente() {
+        List<Long> reservado = jdbc.queryForList(
+                "UPDATE secuencias SET siguiente = siguiente + 1 WHERE nombre = ? RETURNING siguiente - 1",
+                Long.class, SECUENCIA);
+        return reservado.stream().findFirst();
+    }
+
+    @Override
+    public long inicializarYReservar(long numeroInicial) {
+        // ON CONFLICT DO NOTHING: si otra transacción lo inicializó primero, se respeta su valor.
+        // El WHERE true lo exige SQLite para distinguir el ON CONFLICT de un JOIN del SELECT.
+        jdbc.update("""
+                INSERT INTO secuencias (nombre, siguiente)
+                SELECT ?, MAX(?, COALESCE(MAX(numero_comprobante) + 1, 0)) FROM ventas WHERE true
+                ON CONFLICT (nombre) DO NOTHING
+                """, SECUENCIA, numeroInicial);
+        return siguiente().orElseThrow(() ->
+                new BusinessException("No se pudo inicializar la numeración de comprobantes."));
+    }
+}
@@ -1,14 +1,37 @@
 package com.nap.pos.infrastructure.persistence.repository.impl;
 
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaLineaVenta;
+import com.nap.pos.domain.model.FiltroVentas;
+import com.nap.pos.domain.model.TotalesCaja;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
 import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.EstadoVenta;
+import com.nap.pos.domain.model.enums.MetodoPago;
 import com.nap.pos.domain.repository.VentaRepository;
 import com.nap.pos.infrastructure.persistence.mapper.VentaMapper;
 import com.nap.pos.infrastructure.persistence.repository.jpa.JpaVentaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.nap.pos.infrastructure.persistence.repository.impl.PaginadorSql.fecha;
 
 /**
  * Implementación concreta de VentaRepository.
@@ -21,6 +44,56 @@ public class VentaRepositoryImpl implements VentaRepository {
 
     private final JpaVentaRepository jpaVentaRepository;
     private final VentaMapper ventaMapper;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    private static final RowMapper<CursorHistorial> CURSOR_VENTA = (rs, i) -> new CursorHistorial(
+            rs.getTimestamp("fecha").toLocalDateTime(),
+            rs.getLong("id"));
+
+    private static final String DESDE_LINEAS = " FROM ventas v"
+            + " LEFT JOIN clientes c ON c.id = v.cliente_id"
+            + " LEFT JOIN detalle_ventas d ON d.venta_id = v.id"
+            + " LEFT JOIN productos p ON p.id = d.producto_id";
+
+    // Cajas por sentencia: muy por debajo del límite de parámetros de SQLite
+    private static final int CAJAS_POR_CONSULTA = 500;
+
+    private static final String TOTALES_POR_CAJA = "SELECT v.caja_id,"
+            + " SUM(CASE WHEN v.estado = 'COMPLETADA' THEN 1 ELSE 0 END) AS completadas,"
+            + " SUM(CASE WHEN v.estado = 'ANULADA' THEN 1 ELSE 0 END) AS anuladas,"
+            + " COALESCE(SUM(CASE WHEN v.estado = 'COMPLETADA' AND v.metodo_pago = 'EFECTIVO' THEN v.total END), 0) AS efectivo,"
+            + " COALESCE(SUM(CASE WHEN v.estado = 'COMPLETADA' AND v.metodo_pago = 'TRANSFERENCIA' THEN v.total END), 0) AS transferencia,"
+            + " COALESCE(SUM(CASE WHEN v.estado = 'COMPLETADA' AND v.metodo_pago = 'CREDITO' THEN v.total END), 0) AS credito"
+            + " FROM ventas v WHERE v.caja_id IN (:cajaIds) GROUP BY v.caja_id";
+
+    private static final RowMapper<TotalesCaja> TOTALES_CAJA = (rs, i) -> new TotalesCaja(
+            rs.getLong("caja_id"),
+            rs.getLong("completadas"),
+            rs.getLong("anuladas"),
+            rs.getBigDecimal("efectivo"),
+            rs.getBigDecimal("transferencia"),
+            rs.getBigDecimal("credito"));
+
+    private static final RowMapper<FilaLineaVenta> FILA_LINEA = (rs, i) -> {
+        long detalleId = rs.getLong("detalle_id");
+        boolean sinDetalle = rs.wasNull();
+        long comprobante = rs.getLong("numero_comprobante");
+        return new FilaLineaVenta(
+                rs.getLong("id"),
+                rs.wasNull() ? null : comprobante,
+                rs.getTimestamp("fecha").toLocalDateTime(),
+                rs.getString("cliente"),
+                rs.getString("cedula"),
+                MetodoPago.valueOf(rs.getString("metodo_pago")),
+                EstadoVenta.valueOf(rs.getString("estado")),
+                rs.getBigDecimal("total"),
+                sinDetalle ? null : detalleId,
+                rs.getString("producto"),
+                rs.getString("codigo_barras"),
+                rs.getInt("cantidad"),
+                rs.getBigDecimal("precio_unitario"),
+                rs.getBigDecimal("subtotal"));
+    };
 
     @Override
     public Venta save(Venta venta) {
@@ -51,7 +124,102 @@ public class VentaRepositoryImpl implements VentaRepository {
     }
 
     @Override
-    public Optional<Long> findMaxNumeroComprobante() {
-        return jpaVentaRepository.findMaxNumeroComprobante();
+    public List<Venta> findUltimas(int limite) {
+        return jpaVentaRepository.findAllByOrderByFechaDesc(PageRequest.of(0, limite)).stream()
+                .map(ventaMapper::toDomain)
+                .toList();
+    }
+
+    // El tramo se elige por índice leyendo solo fecha e id; después se cargan
+    // esas ventas completas con el grafo, sin paginar colecciones en Hibernate
+    @Override
+    public Tramo<Venta> buscarHistorial(FiltroVentas filtro, CursorHistorial despuesDe, int limite) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Tramo<CursorHistorial> claves = PaginadorSql.tramo(namedJdbc, "v.id, v.fecha", "FROM ventas v",
+                condiciones(filtro, params), params, "v.fecha", "v.id",
+                despuesDe, limite, CURSOR_VENTA, Function.identity());
+        if (claves.elementos().isEmpty()) {
+            return new Tramo<>(List.of(), null);
+        }
+
+        Map<Long, Venta> porId = jpaVentaRepository
+                .findByIdIn(claves.elementos().stream().map(CursorHistorial::id).toList()).stream()
+                .map(ventaMapper::toDomain)
+                .collect(Collectors.toMap(Venta::getId, v -> v));
+        List<Venta> ventas = claves.elementos().stream()
+                .map(c -> porId.get(c.id()))
+                .filter(Objects::nonNull)
+                .toList();
+        return new Tramo<>(ventas, claves.siguiente());
+    }
+
+    @Override
+    public TotalesHistorial totalizarHistorial(FiltroVentas filtro) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) AS cantidad, COALESCE(SUM(v.total), 0) AS total FROM ventas v"
+                + PaginadorSql.where(condiciones(filtro, params));
+        return namedJdbc.queryForObject(sql, params,
+                (rs, i) -> new TotalesHistorial(rs.getLong("cantidad"), rs.getBigDecimal("total")));
+    }
+
+    // Una sola consulta recorrida con el ResultSet abierto: lo que queda en memoria es la fila actual
+    @Override
+    public void recorrerLineas(FiltroVentas filtro, Consumer<FilaLineaVenta> alLeer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT v.id, v.numero_comprobante, v.fecha, v.metodo_pago, v.estado, v.total,"
+                + " c.nombre AS cliente, c.cedula, d.id AS detalle_id, p.nombre AS producto, p.codigo_barras,"
+                + " d.cantidad, d.precio_unitario, d.subtotal"
+                + DESDE_LINEAS
+                + PaginadorSql.where(condiciones(filtro, params))
+                + " ORDER BY v.fecha DESC, v.id DESC, d.id";
+        namedJdbc.query(sql, params, (RowCallbackHandler) rs -> alLeer.accept(FILA_LINEA.mapRow(rs, 0)));
+    }
+
+    @Override
+    public long contarLineas(FiltroVentas filtro) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM ventas v LEFT JOIN detalle_ventas d ON d.venta_id = v.id"
+                + PaginadorSql.where(condiciones(filtro, params));
+        Long total = namedJdbc.queryForObject(sql, params, Long.class);
+        return total != null ? total : 0;
+    }
+
+    // Una sola pasada agrupada sobre el índice (caja_id, fecha), en lugar de cargar las ventas de cada caja
+    @Override
+    public Map<Long, TotalesCaja> totalizarPorCaja(Collection<Long> cajaIds) {
+        Map<Long, TotalesCaja> porCaja = new HashMap<>();
+        List<Long> ids = cajaIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (int desde = 0; desde < ids.size(); desde += CAJAS_POR_CONSULTA) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + CAJAS_POR_CONSULTA, ids.size()));
+            namedJdbc.query(TOTALES_POR_CAJA, new MapSqlParameterSource("cajaIds", lote), TOTALES_CAJA)
+                    .forEach(t -> porCaja.put(t.cajaId(), t));
+        }
+        return porCaja;
+    }
+
+    private static List<String> condiciones(FiltroVentas filtro, MapSqlParameterSource params) {
+        List<String> condiciones = new ArrayList<>();
+        if (filtro == null) return condiciones;
+        if (filtro.cajaId() != null) {
+            condiciones.add("v.caja_id = :cajaId");
+            params.addValue("cajaId", filtro.cajaId());
+        }
+        if (filtro.clienteId() != null) {
+            condiciones.add("v.cliente_id = :clienteId");
+            params.addValue("clienteId", filtro.clienteId());
+        }
+        if (filtro.metodoPago() != null) {
+            condiciones.add("v.metodo_pago = :metodoPago");
+            params.addValue("metodoPago", filtro.metodoPago().name());
+        }
+        if (filtro.desde() != null) {
+            condiciones.add("v.fecha >= :desde");
+            params.addValue("desde", fecha(filtro.desde()));
+        }
+        if (filtro.hasta() != null) {
+            condiciones.add("v.fecha < :hasta");
+            params.addValue("hasta", fecha(filtro.hasta()));
+        }
+        return condiciones;
     }
 }
@@ -4,10 +4,18 @@ import com.nap.pos.domain.model.enums.EstadoCaja;
 import com.nap.pos.infrastructure.persistence.entity.CajaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface JpaCajaRepository extends JpaRepository<CajaEntity, Long> {
 
     // Busca la caja con estado ABIERTA — debe haber como máximo una
     Optional<CajaEntity> findByEstado(EstadoCaja estado);
+
+    boolean existsByEstado(EstadoCaja estado);
+
+    // Cajas cerradas en [desde, hasta) — usado para el desajuste de la rentabilidad
+    List<CajaEntity> findByFechaCierreGreaterThanEqualAndFechaCierreLessThan(LocalDateTime desde,
+                                                                              LocalDateTime hasta);
 }
@@ -1,16 +1,32 @@
 package com.nap.pos.infrastructure.persistence.repository.jpa;
 
 import com.nap.pos.infrastructure.persistence.entity.CompraEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface JpaCompraRepository extends JpaRepository<CompraEntity, Long> {
 
-    // Usado para ver el historial de compras por proveedor
+    // Usado para ver el historial de compras por proveedor.
+    @EntityGraph(CompraEntity.GRAFO_COMPLETO)
     List<CompraEntity> findByProveedorId(Long proveedorId);
 
+    @Override
+    @EntityGraph(CompraEntity.GRAFO_COMPLETO)
+    List<CompraEntity> findAll();
+
     // Última compra registrada para un proveedor
     Optional<CompraEntity> findTopByProveedorIdOrderByFechaDesc(Long proveedorId);
+
+    // Total invertido en [desde, hasta) — 0 si no hay compras
+    @Query("SELECT COALESCE(SUM(c.total), 0) FROM CompraEntity c " +
+           "WHERE c.fecha >= :desde AND c.fecha < :hasta")
+    BigDecimal sumTotalByFechaEntre(@Param("desde") LocalDateTime desde,
+                                    @Param("hasta") LocalDateTime hasta);
 }
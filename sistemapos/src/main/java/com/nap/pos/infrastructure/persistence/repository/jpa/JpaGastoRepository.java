@@ -4,10 +4,20 @@ import com.nap.pos.domain.model.enums.FuenteGasto;
 import com.nap.pos.domain.model.enums.TipoGasto;
 import com.nap.pos.infrastructure.persistence.entity.GastoEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface JpaGastoRepository extends JpaRepository<GastoEntity, Long> {
     List<GastoEntity> findByTipo(TipoGasto tipo);
     List<GastoEntity> findByFuentePago(FuenteGasto fuentePago);
+
+    // Total de gastos en [desde, hasta) — 0 si no hay gastos
+    @Query("SELECT COALESCE(SUM(g.monto), 0) FROM GastoEntity g " +
+           "WHERE g.fecha >= :desde AND g.fecha < :hasta")
+    BigDecimal sumMontoByFechaEntre(@Param("desde") LocalDateTime desde,
+                                    @Param("hasta") LocalDateTime hasta);
 }
@@ -17,4 +17,8 @@ public interface JpaProductoRepository extends JpaRepository<ProductoEntity, Lon
 
     // Stock bajo: productos activos con stock <= umbral indicado
     List<ProductoEntity> findByActivoTrueAndStockLessThanEqual(int stockMinimo);
+
+    long countByActivoTrue();
+
+    long countByActivoTrueAndStockLessThanEqual(int stock);
 }
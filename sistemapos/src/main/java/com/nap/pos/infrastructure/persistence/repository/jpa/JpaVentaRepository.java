@@ -1,17 +1,27 @@
 package com.nap.pos.infrastructure.persistence.repository.jpa;
 
 import com.nap.pos.infrastructure.persistence.entity.VentaEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface JpaVentaRepository extends JpaRepository<VentaEntity, Long> {
 
-    // Usado al cerrar caja para calcular el total de ventas del período
+    // Usado al cerrar caja para calcular el total de ventas del período.
+    @EntityGraph(VentaEntity.GRAFO_COMPLETO)
     List<VentaEntity> findByCajaId(Long cajaId);
 
-    @Query("SELECT MAX(v.numeroComprobante) FROM VentaEntity v")
-    Optional<Long> findMaxNumeroComprobante();
+    @Override
+    @EntityGraph(VentaEntity.GRAFO_COMPLETO)
+    List<VentaEntity> findAll();
+
+    // Historial por tramos: las ventas cuyos ids ya eligió la consulta del tramo
+    @EntityGraph(VentaEntity.GRAFO_COMPLETO)
+    List<VentaEntity> findByIdIn(Collection<Long> ids);
+
+    // Dashboard: últimas ventas, la página define cuántas
+    List<VentaEntity> findAllByOrderByFechaDesc(Pageable pageable);
 }
@@ -0,0 +1,152 @@
+package com.nap.pos.infrastructure.printing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Buffer de bytes reutilizable con los comandos ESC/POS que usa el ticket.
+ * El texto se codifica directamente en el arreglo (página de códigos PC850,
+ * que incluye tildes, ñ, ¡ y °) sin construir el ticket completo como String.
+ *
+ * No es thread-safe: cada impresora mantiene su propia instancia y la
+ * reinicia con {@link #reiniciar()} antes de cada ticket.
+ */
+final class EscPosBuffer {
+
+    static final byte ESC = 0x1B;
+    static final byte GS  = 0x1D;
+    static final byte LF  = 0x0A;
+
+    /** Valor de ESC t para seleccionar la página de códigos PC850 (Multilingual). */
+    private static final int PAGINA_PC850 = 2;
+
+    private final CharsetEncoder encoder = Charset.forName("IBM850").newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private byte[] datos;
+    private int tamano;
+
+    EscPosBuffer(int capacidadInicial) {
+        this.datos = new byte[capacidadInicial];
+    }
+
+    EscPosBuffer reiniciar() {
+        tamano = 0;
+        return this;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(datos, tamano);
+    }
+
+    void escribirEn(OutputStream out) throws IOException {
+        out.write(datos, 0, tamano);
+    }
+
+    // ── Comandos ─────────────────────────────────────────────────────────────
+
+    /** ESC @ — reinicia la impresora y selecciona PC850. */
+    EscPosBuffer inicializar() {
+        return bytes(ESC, '@', ESC, 't', PAGINA_PC850);
+    }
+
+    /** ESC a n — 0 izquierda, 1 centro, 2 derecha. */
+    EscPosBuffer alinear(int alineacion) {
+        return bytes(ESC, 'a', alineacion);
+    }
+
+    /** ESC E n — negrita. */
+    EscPosBuffer negrita(boolean activa) {
+        return bytes(ESC, 'E', activa ? 1 : 0);
+    }
+
+    /** GS ! n — multiplicador de ancho y alto del carácter (1 a 8). */
+    EscPosBuffer tamanoCaracter(int ancho, int alto) {
+        return bytes(GS, '!', ((ancho - 1) << 4) | (alto - 1));
+    }
+
+    EscPosBuffer nuevaLinea() {
+        return bytes(LF);
+    }
+
+    /** ESC d n — avanza n líneas. */
+    EscPosBuffer avanzar(int lineas) {
+        return bytes(ESC, 'd', lineas);
+    }
+
+    /** GS V 66 n — avanza n puntos y hace corte parcial. */
+    EscPosBuffer cortar() {
+        return bytes(GS, 'V', 66, 3);
+    }
+
+    /** ESC p m t1 t2 — pulso al cajón monedero conectado al pin 2. */
+    EscPosBuffer abrirCajon() {
+        return bytes(ESC, 'p', 0, 25, 250);
+    }
+
+    /** Código de barras CODE128 (subconjunto B) con el texto impreso debajo. */
+    EscPosBuffer codigoBarras(String contenido) {
+        bytes(GS, 'h', 60);          // alto en puntos
+        bytes(GS, 'w', 2);           // ancho de módulo
+        bytes(GS, 'H', 2);           // texto legible debajo
+        bytes(GS, 'k', 73, 0);       // CODE128; el largo se completa abajo
+        int posLargo = tamano - 1;
+        bytes('{', 'B');
+        texto(contenido);
+        datos[posLargo] = (byte) (tamano - posLargo - 1);
+        return nuevaLinea();
+    }
+
+    // ── Texto ────────────────────────────────────────────────────────────────
+
+    EscPosBuffer texto(CharSequence texto) {
+        if (texto == null || texto.isEmpty()) return this;
+        asegurar((int) Math.ceil(texto.length() * encoder.maxBytesPerChar()));
+        ByteBuffer destino = ByteBuffer.wrap(datos, tamano, datos.length - tamano);
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(texto), destino, true);
+        encoder.flush(destino);
+        tamano = destino.position();
+        return this;
+    }
+
+    EscPosBuffer linea(CharSequence texto) {
+        return texto(texto).nuevaLinea();
+    }
+
+    EscPosBuffer repetir(char c, int veces) {
+        asegurar(veces);
+        byte b = (byte) c;
+        for (int i = 0; i < veces; i++) datos[tamano++] = b;
+        return this;
+    }
+
+    EscPosBuffer espacios(int veces) {
+        return repetir(' ', Math.max(0, veces));
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private EscPosBuffer bytes(int... valores) {
+        asegurar(valores.length);
+        for (int v : valores) datos[tamano++] = (byte) v;
+        return this;
+    }
+
+    private void asegurar(int extra) {
+        if (tamano + extra > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + extra));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.nap.pos.infrastructure.printing;
+
+import com.nap.pos.domain.exception.TechnicalException;
+import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.Ticket;
+import com.nap.pos.domain.model.enums.TipoImpresora;
+import com.nap.pos.domain.port.TicketPrinter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Dibuja el ticket como comandos ESC/POS y los envía en crudo a una impresora térmica.
+ *
+ * El destino se toma de ConfiguracionTienda.destinoImpresora:
+ * <ul>
+ *   <li>{@code tcp://host:puerto} — impresora de red (puerto 9100 si se omite)</li>
+ *   <li>ruta de dispositivo o archivo — p. ej. /dev/usb/lp0, \\.\COM3 o \\PC\Termica</li>
+ *   <li>carpeta — se escribe &lt;comprobante&gt;.bin dentro (útil para pruebas)</li>
+ *   <li>vacío — se escribe en ~/.nappos/tickets/&lt;comprobante&gt;.bin</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class EscPosTicketPrinter implements TicketPrinter {
+
+    /** Columnas en fuente A sobre papel de 80 mm. */
+    static final int ANCHO = 48;
+    private static final int PUERTO_RAW = 9100;
+    private static final int TIMEOUT_MS = 3_000;
+
+    private static final int IZQUIERDA = 0;
+    private static final int CENTRO    = 1;
+    private static final int DERECHA   = 2;
+
+    // Solo lo usa el hilo de la cola de impresión; se reutiliza entre tickets
+    private final EscPosBuffer buffer = new EscPosBuffer(4096);
+
+    @Override
+    public TipoImpresora tipo() {
+        return TipoImpresora.ESC_POS;
+    }
+
+    @Override
+    public synchronized void imprimir(Ticket ticket, ConfiguracionTienda config) {
+        renderizar(ticket, buffer.reiniciar());
+        try {
+            enviar(config.getDestinoImpresora(), ticket.nombreArchivo());
+        } catch (IOException e) {
+            throw new TechnicalException("Error al enviar el ticket a la impresora: " + e.getMessage(), e);
+        }
+    }
+
+    void renderizar(Ticket t, EscPosBuffer b) {
+        b.inicializar();
+        if (t.abrirCajon()) b.abrirCajon();
+
+        // ── Encabezado: nombre de la tienda grande y en negrita ──
+        b.alinear(CENTRO);
+        List<String> encabezado = t.encabezado();
+        for (int i = 0; i < encabezado.size(); i++) {
+            if (i == 0) {
+                b.negrita(true).tamanoCaracter(2, 2).linea(truncar(encabezado.get(i), ANCHO / 2))
+                        .tamanoCaracter(1, 1).negrita(false);
+            } else {
+                b.linea(truncar(encabezado.get(i), ANCHO));
+            }
+        }
+        t.identificacion().forEach(l -> b.linea(truncar(l, ANCHO)));
+
+        // ── Comprobante ──────────────────────────────────────────
+        b.alinear(IZQUIERDA).repetir('=', ANCHO).nuevaLinea();
+        b.negrita(true);
+        filas(b, t.datos());
+        b.negrita(false);
+
+        // ── Productos ────────────────────────────────────────────
+        b.repetir('-', ANCHO).nuevaLinea();
+        columnas(b, "PRODUCTO", "CANT    V/UNIT    TOTAL");
+        b.repetir('-', ANCHO).nuevaLinea();
+        for (Ticket.Linea l : t.lineas()) {
+            b.linea(truncar(l.producto(), ANCHO));
+            int largo = String.valueOf(l.cantidad()).length() + l.precioUnitario().length()
+                    + l.subtotal().length() + 10;
+            b.espacios(ANCHO - largo)
+                    .texto(String.valueOf(l.cantidad())).texto("  x  ")
+                    .texto(l.precioUnitario()).texto("  =  ")
+                    .linea(l.subtotal());
+        }
+
+        // ── Totales: el total a pagar en doble alto ──────────────
+        b.repetir('-', ANCHO).nuevaLinea();
+        for (Ticket.Fila f : t.totales()) {
+            if (f.destacada()) {
+                b.negrita(true).tamanoCaracter(1, 2);
+                columnas(b, f.etiqueta(), f.valor());
+                b.tamanoCaracter(1, 1).negrita(false);
+            } else {
+                columnas(b, f.etiqueta(), f.valor());
+            }
+        }
+
+        b.repetir('-', ANCHO).nuevaLinea();
+        filas(b, t.pago());
+        if (!t.efectivo().isEmpty()) {
+            b.repetir('-', ANCHO).nuevaLinea();
+            filas(b, t.efectivo());
+        }
+
+        // ── Pie: leyenda, código de barras del comprobante y corte ──
+        b.repetir('=', ANCHO).nuevaLinea();
+        b.alinear(CENTRO);
+        if (!t.textoLegal().isBlank()) b.linea(t.textoLegal());
+        b.linea("¡Gracias por su compra!");
+        b.codigoBarras(t.comprobante());
+        b.alinear(IZQUIERDA).avanzar(3).cortar();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void enviar(String destino, String nombreArchivo) throws IOException {
+        if (destino != null && destino.startsWith("tcp://")) {
+            URI uri = URI.create(destino);
+            int puerto = uri.getPort() > 0 ? uri.getPort() : PUERTO_RAW;
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(uri.getHost(), puerto), TIMEOUT_MS);
+                socket.setSoTimeout(TIMEOUT_MS);
+                OutputStream out = socket.getOutputStream();
+                buffer.escribirEn(out);
+                out.flush();
+            }
+            log.info("Ticket {} enviado a {}:{}", nombreArchivo, uri.getHost(), puerto);
+            return;
+        }
+
+        Path archivo = (destino == null || destino.isBlank())
+                ? Paths.get(System.getProperty("user.home"), ".nappos", "tickets")
+                : Paths.get(destino);
+        if (destino == null || destino.isBlank() || Files.isDirectory(archivo)) {
+            Files.createDirectories(archivo);
+            archivo = archivo.resolve(nombreArchivo + ".bin");
+        }
+        // FileOutputStream también abre dispositivos (/dev/usb/lp0, COM, impresoras compartidas)
+        try (OutputStream out = new FileOutputStream(archivo.toFile())) {
+            buffer.escribirEn(out);
+        }
+        log.info("Ticket {} enviado a {}", nombreArchivo, archivo);
+    }
+
+    private void filas(EscPosBuffer b, List<Ticket.Fila> filas) {
+        filas.forEach(f -> columnas(b, f.etiqueta(), f.valor()));
+    }
+
+    private void columnas(EscPosBuffer b, String izq, String der) {
+        b.texto(izq).espacios(Math.max(1, ANCHO - izq.length() - der.length())).linea(der);
+    }
+
+    private String truncar(String texto, int max) {
+        if (texto == null) return "";
+        // PC850 no tiene "…": se corta con un punto
+        return texto.length() > max ? texto.substring(0, max - 1) + "." : texto;
+    }
+}
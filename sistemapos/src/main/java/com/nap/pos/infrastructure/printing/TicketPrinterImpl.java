@@ -1,6 +1,9 @@
 package com.nap.pos.infrastructure.printing;
 
 import com.nap.pos.domain.exception.TechnicalException;
+import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.Ticket;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.domain.port.TicketPrinter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -11,9 +14,10 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 /**
- * Guarda el ticket como archivo de texto en ~/.nappos/tickets/
+ * Dibuja el ticket como texto plano de 44 columnas, lo guarda en ~/.nappos/tickets/
  * y lo abre con el visor predeterminado del sistema operativo.
  *
  * No requiere impresora física: el operador puede imprimir desde el visor
@@ -23,14 +27,21 @@ import java.nio.file.Paths;
 @Component
 public class TicketPrinterImpl implements TicketPrinter {
 
+    private static final int ANCHO = 44;
+
+    @Override
+    public TipoImpresora tipo() {
+        return TipoImpresora.ARCHIVO_TEXTO;
+    }
+
     @Override
-    public void imprimir(String textoTicket, String nombreArchivo) {
+    public void imprimir(Ticket ticket, ConfiguracionTienda config) {
         try {
             Path carpeta = Paths.get(System.getProperty("user.home"), ".nappos", "tickets");
             Files.createDirectories(carpeta);
 
-            Path archivo = carpeta.resolve(nombreArchivo + ".txt");
-            Files.writeString(archivo, textoTicket, StandardCharsets.UTF_8);
+            Path archivo = carpeta.resolve(ticket.nombreArchivo() + ".txt");
+            Files.writeString(archivo, formatear(ticket), StandardCharsets.UTF_8);
             log.info("Ticket guardado en: {}", archivo.toAbsolutePath());
 
             abrirArchivo(archivo);
@@ -39,6 +50,50 @@ public class TicketPrinterImpl implements TicketPrinter {
         }
     }
 
+    String formatear(Ticket ticket) {
+        StringBuilder sb = new StringBuilder();
+        String sep  = "=".repeat(ANCHO);
+        String sepL = "-".repeat(ANCHO);
+
+        sb.append(sep).append('\n');
+        ticket.encabezado().forEach(l -> sb.append(centrar(truncar(l, ANCHO))).append('\n'));
+
+        sb.append(sepL).append('\n');
+        ticket.identificacion().forEach(l -> sb.append(centrar(truncar(l, ANCHO))).append('\n'));
+
+        sb.append(sep).append('\n');
+        filas(sb, ticket.datos());
+
+        sb.append(sepL).append('\n');
+        sb.append(columnas("PRODUCTO", "CANT    V/UNIT    TOTAL")).append('\n');
+        sb.append(sepL).append('\n');
+        for (Ticket.Linea l : ticket.lineas()) {
+            sb.append(truncar(l.producto(), ANCHO)).append('\n');
+            // Línea de números alineada a la derecha
+            String numLine = l.cantidad() + "  x  " + l.precioUnitario() + "  =  " + l.subtotal();
+            sb.append(derechaJustificar(numLine)).append('\n');
+        }
+
+        sb.append(sepL).append('\n');
+        filas(sb, ticket.totales());
+
+        sb.append(sepL).append('\n');
+        filas(sb, ticket.pago());
+
+        if (!ticket.efectivo().isEmpty()) {
+            sb.append(sepL).append('\n');
+            filas(sb, ticket.efectivo());
+        }
+
+        sb.append(sep).append('\n');
+        if (!ticket.textoLegal().isBlank())
+            sb.append(centrar(ticket.textoLegal())).append('\n');
+        sb.append(centrar("¡Gracias por su compra!")).append('\n');
+        sb.append(sep).append('\n');
+
+        return sb.toString();
+    }
+
     private void abrirArchivo(Path archivo) {
         if (!Desktop.isDesktopSupported()) {
             log.warn("Desktop no disponible — el ticket no se abrirá automáticamente.");
@@ -56,4 +111,29 @@ public class TicketPrinterImpl implements TicketPrinter {
             log.warn("No se pudo abrir el ticket automáticamente: {}", e.getMessage());
         }
     }
+
+    private void filas(StringBuilder sb, List<Ticket.Fila> filas) {
+        filas.forEach(f -> sb.append(columnas(f.etiqueta(), f.valor())).append('\n'));
+    }
+
+    private String centrar(String texto) {
+        if (texto == null || texto.length() >= ANCHO) return texto == null ? "" : texto;
+        int pad = (ANCHO - texto.length()) / 2;
+        return " ".repeat(pad) + texto;
+    }
+
+    private String columnas(String izq, String der) {
+        int espacios = ANCHO - izq.length() - der.length();
+        return izq + " ".repeat(Math.max(1, espacios)) + der;
+    }
+
+    private String derechaJustificar(String texto) {
+        if (texto.length() >= ANCHO) return texto;
+        return " ".repeat(ANCHO - texto.length()) + texto;
+    }
+
+    private String truncar(String texto, int max) {
+        if (texto == null) return "";
+        return texto.length() > max ? texto.substring(0, max - 1) + "…" : texto;
+    }
 }
@@ -0,0 +1,143 @@
+package com.nap.pos.ui.component;
+
+import com.nap.pos.infrastructure.io.LibroExcel;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+
+/**
+ * Exporta reportes a Excel en segundo plano.
+ *
+ * Pide el archivo destino en el hilo de JavaFX y después escribe el {@link LibroExcel}
+ * como una tarea de {@link TareasUI}: la pantalla sigue respondiendo y muestra una barra
+ * de avance con un botón para cancelar. Los datos los lee el propio generador dentro de la tarea
+ * (con cursores de la base), no se arman listas en la pantalla antes de exportar.
+ *
+ * Se llama desde el hilo de JavaFX.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportadorExcel {
+
+    /** Escribe las hojas del reporte; corre fuera del hilo de JavaFX. */
+    @FunctionalInterface
+    public interface Generador {
+        void escribir(LibroExcel libro) throws Exception;
+    }
+
+    private final TareasUI tareasUI;
+
+    /**
+     * @param raiz           contenedor de la pantalla donde se superpone el avance
+     * @param nombreSugerido nombre de archivo propuesto en el diálogo de guardar
+     * @param generador      llena el libro; el archivo solo se escribe si termina sin error
+     */
+    public void exportar(StackPane raiz, String nombreSugerido, Generador generador) {
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Guardar reporte Excel");
+        fc.setInitialFileName(nombreSugerido);
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel (.xlsx)", "*.xlsx"));
+        File destino = fc.showSaveDialog(raiz.getScene().getWindow());
+        if (destino == null) return;
+
+        Task<File> tarea = new Task<>() {
+            @Override
+            protected File call() throws Exception {
+                updateMessage("Preparando datos…");
+                try (LibroExcel libro = new LibroExcel(new LibroExcel.Avance() {
+                    @Override
+                    public void filas(long escritas, long previstas) {
+                        if (previstas > 0) updateProgress(Math.min(escritas, previstas), previstas);
+                        updateMessage(escritas + " filas escritas");
+                    }
+
+                    @Override
+                    public boolean cancelado() {
+                        return isCancelled();
+                    }
+                })) {
+                    generador.escribir(libro);
+                    if (isCancelled()) return null;
+                    updateMessage("Guardando archivo…");
+                    libro.guardar(destino);
+                }
+                // Se canceló mientras se guardaba: no se deja un archivo a medias
+                if (isCancelled() && !destino.delete()) {
+                    log.warn("No se pudo borrar la exportación cancelada {}", destino);
+                }
+                return destino;
+            }
+        };
+
+        // Un mismo archivo no se escribe dos veces a la vez: el segundo pedido espera al primero
+        StackPane overlay = panelAvance(tarea);
+        Task<File> enCurso = tareasUI.ejecutar("exportacion:" + destino.getAbsolutePath(), tarea, archivo -> {
+            raiz.getChildren().remove(overlay);
+            alerta(Alert.AlertType.INFORMATION, "Exportado",
+                    "El reporte se guardó en:\n" + archivo.getAbsolutePath());
+        }, error -> {
+            raiz.getChildren().remove(overlay);
+            log.warn("Falló la exportación a {}", destino, error);
+            alerta(Alert.AlertType.ERROR, "Error de exportación",
+                    "No se pudo exportar el archivo: " + error.getMessage());
+        });
+        if (enCurso != tarea) return;
+        tarea.setOnCancelled(e -> raiz.getChildren().remove(overlay));
+        raiz.getChildren().add(overlay);
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private StackPane panelAvance(Task<File> tarea) {
+        Label titulo = new Label("Exportando a Excel");
+        titulo.setStyle("-fx-font-size: 15px; -fx-font-weight: 700; -fx-text-fill: #1A1F2E;");
+
+        ProgressBar barra = new ProgressBar();
+        barra.setMaxWidth(Double.MAX_VALUE);
+        barra.progressProperty().bind(tarea.progressProperty());
+
+        Label mensaje = new Label();
+        mensaje.setStyle("-fx-font-size: 12px; -fx-text-fill: #78716C;");
+        mensaje.textProperty().bind(tarea.messageProperty());
+
+        Button cancelar = new Button("Cancelar");
+        cancelar.setStyle("-fx-background-color: #EDE9E2; -fx-background-radius: 8px; " +
+                "-fx-text-fill: #57534E; -fx-font-size: 13px; -fx-padding: 8 16 8 16; -fx-cursor: hand;");
+        cancelar.setOnAction(e -> tarea.cancel(false));
+
+        VBox panel = new VBox(12, titulo, barra, mensaje, cancelar);
+        panel.setAlignment(Pos.CENTER_LEFT);
+        panel.setPadding(new Insets(20, 24, 20, 24));
+        panel.setMaxWidth(380);
+        panel.setMaxHeight(Region.USE_PREF_SIZE);
+        panel.setStyle("-fx-background-color: #FDFCFA; -fx-background-radius: 16px; " +
+                "-fx-border-color: rgba(26,31,46,0.10); -fx-border-radius: 16px; " +
+                "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.28), 36, 0, 0, 10);");
+
+        StackPane overlay = new StackPane(panel);
+        overlay.getStyleClass().add("inventario-modal-overlay");
+        return overlay;
+    }
+
+    private static void alerta(Alert.AlertType tipo, String titulo, String mensaje) {
+        Alert a = new Alert(tipo);
+        a.setTitle(titulo);
+        a.setHeaderText(null);
+        a.setContentText(mensaje);
+        a.showAndWait();
+    }
+}
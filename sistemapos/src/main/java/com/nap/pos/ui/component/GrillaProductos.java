@@ -0,0 +1,317 @@
+package com.nap.pos.ui.component;
+
+import com.nap.pos.domain.model.Producto;
+import javafx.animation.Interpolator;
+import javafx.animation.ScaleTransition;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.OverrunStyle;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Grilla de tarjetas de producto de la pantalla de ventas, virtualizada.
+ *
+ * Es un ListView cuyas filas son tramos de la lista de productos: solo se crean
+ * tarjetas para las filas visibles y al desplazarse se reutilizan con otro producto.
+ * Con 20.000 productos hay unas decenas de tarjetas vivas en lugar de 20.000 nodos.
+ * Las imágenes se piden a {@link ImagenesProducto} cuando la tarjeta aparece;
+ * mientras llegan se ve la inicial del nombre.
+ */
+public class GrillaProductos extends ListView<List<Producto>> {
+
+    private static final double ANCHO_TARJETA = 158;
+    private static final double ALTO_TARJETA  = 226;
+    private static final double ALTO_IMAGEN   = 100;
+    private static final double ESPACIO       = 14;
+    // Padding lateral de las filas más el ancho de la barra de desplazamiento
+    private static final double MARGEN        = 20 + 20 + 14;
+
+    private final ImagenesProducto imagenes;
+    private final ToIntFunction<Producto> disponible;
+    private final Consumer<Producto> alAgregar;
+    private final NumberFormat fmt = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
+
+    // Tarjetas actualmente asignadas a un producto, para refrescar el stock sin redibujar
+    private final Map<Long, Tarjeta> visibles = new HashMap<>();
+    private List<Producto> productos = List.of();
+    private int columnas = 1;
+
+    /**
+     * @param imagenes   caché compartido de imágenes de producto
+     * @param disponible unidades que aún se pueden agregar (stock menos lo que hay en el carrito)
+     * @param alAgregar  acción al hacer clic en una tarjeta o en su botón "+"
+     */
+    public GrillaProductos(ImagenesProducto imagenes, ToIntFunction<Producto> disponible,
+                           Consumer<Producto> alAgregar) {
+        this.imagenes   = imagenes;
+        this.disponible = disponible;
+        this.alAgregar  = alAgregar;
+
+        getStyleClass().add("venta-grilla");
+        setFocusTraversable(false);
+        setFixedCellSize(ALTO_TARJETA + ESPACIO);
+        setCellFactory(lv -> new FilaTarjetas());
+
+        Label vacio = new Label("No se encontraron productos.");
+        vacio.getStyleClass().add("dashboard-empty");
+        setPlaceholder(vacio);
+
+        widthProperty().addListener((obs, o, n) -> {
+            int nuevas = calcularColumnas(n.doubleValue());
+            if (nuevas != columnas) {
+                columnas = nuevas;
+                repartirEnFilas();
+            }
+        });
+    }
+
+    /** Reemplaza los productos mostrados y vuelve al inicio de la lista. */
+    public void mostrar(List<Producto> productos) {
+        this.productos = productos;
+        repartirEnFilas();
+        scrollTo(0);
+    }
+
+    /** Repinta el stock de un producto si su tarjeta está a la vista. */
+    public void actualizarStock(Long productoId) {
+        Tarjeta tarjeta = visibles.get(productoId);
+        if (tarjeta != null) tarjeta.pintarStock();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private int calcularColumnas(double ancho) {
+        return Math.max(1, (int) ((ancho - MARGEN + ESPACIO) / (ANCHO_TARJETA + ESPACIO)));
+    }
+
+    // Las filas son vistas (subList) de la lista original: no se copian productos
+    private void repartirEnFilas() {
+        List<List<Producto>> filas = new ArrayList<>((productos.size() + columnas - 1) / columnas);
+        for (int i = 0; i < productos.size(); i += columnas) {
+            filas.add(productos.subList(i, Math.min(i + columnas, productos.size())));
+        }
+        getItems().setAll(filas);
+    }
+
+    /** Fila reutilizable: conserva sus tarjetas y solo cambia el producto que muestran. */
+    private class FilaTarjetas extends ListCell<List<Producto>> {
+
+        private final HBox contenedor = new HBox(ESPACIO);
+        private final List<Tarjeta> tarjetas = new ArrayList<>();
+
+        FilaTarjetas() {
+            getStyleClass().add("venta-grilla-fila");
+            contenedor.setPadding(new Insets(0, 20, 0, 20));
+            contenedor.setAlignment(Pos.TOP_LEFT);
+        }
+
+        @Override
+        protected void updateItem(List<Producto> fila, boolean empty) {
+            super.updateItem(fila, empty);
+            setText(null);
+            int usadas = empty || fila == null ? 0 : fila.size();
+            for (int i = usadas; i < tarjetas.size(); i++) tarjetas.get(i).liberar();
+            if (usadas == 0) {
+                setGraphic(null);
+                return;
+            }
+            while (tarjetas.size() < fila.size()) tarjetas.add(new Tarjeta());
+            contenedor.getChildren().clear();
+            for (int i = 0; i < fila.size(); i++) {
+                Tarjeta tarjeta = tarjetas.get(i);
+                tarjeta.asignar(fila.get(i));
+                contenedor.getChildren().add(tarjeta.card);
+            }
+            setGraphic(contenedor);
+        }
+    }
+
+    private class Tarjeta {
+
+        private final VBox      card     = new VBox(0);
+        private final ImageView imagen   = new ImageView();
+        private final Label     inicial  = new Label();
+        private final Label     stock    = new Label();
+        private final Label     nombre   = new Label();
+        private final Label     subcat   = new Label();
+        private final Label     precio   = new Label();
+        private final Button    btnAdd   = new Button();
+        private final DropShadow sombraBase  = new DropShadow(6, 0, 2, Color.color(0, 0, 0, 0.05));
+        private final DropShadow sombraHover = new DropShadow(14, 0, 4, Color.color(0.35, 0.42, 0.81, 0.22));
+        private Producto producto;
+
+        Tarjeta() {
+            card.getStyleClass().add("venta-producto-card");
+            card.setPrefWidth(ANCHO_TARJETA);
+            card.setMaxWidth(ANCHO_TARJETA);
+            card.setMinHeight(ALTO_TARJETA);
+            card.setMaxHeight(ALTO_TARJETA);
+            card.setPadding(Insets.EMPTY);
+
+            // Área de imagen: ocupa todo el ancho de la card y la mitad superior
+            StackPane iconArea = new StackPane();
+            iconArea.getStyleClass().add("venta-producto-icon");
+            iconArea.setPrefHeight(ALTO_IMAGEN);
+            iconArea.setMinHeight(ALTO_IMAGEN);
+            iconArea.setMaxWidth(Double.MAX_VALUE);
+
+            // Clip con esquinas superiores redondeadas (el rect se extiende abajo para no redondear la parte inferior)
+            Rectangle iconClip = new Rectangle(ANCHO_TARJETA, ALTO_IMAGEN + 12);
+            iconClip.setArcWidth(11);
+            iconClip.setArcHeight(11);
+            iconArea.setClip(iconClip);
+
+            // La inicial queda debajo de la imagen: se ve mientras carga o si el archivo no existe
+            inicial.setStyle("-fx-font-size: 28px; -fx-font-weight: 700; -fx-text-fill: #5A6ACF;");
+            imagen.setFitWidth(ANCHO_TARJETA);
+            imagen.setFitHeight(ALTO_IMAGEN);
+            imagen.setPreserveRatio(false);
+            imagen.setSmooth(true);
+
+            stock.getStyleClass().add("venta-stock-badge");
+            StackPane.setAlignment(stock, Pos.TOP_RIGHT);
+            StackPane.setMargin(stock, new Insets(6, 6, 0, 0));
+            iconArea.getChildren().addAll(inicial, imagen, stock);
+
+            VBox content = new VBox(4);
+            content.setPadding(new Insets(8, 10, 10, 10));
+
+            // Nombre en dos líneas como máximo para que todas las filas midan lo mismo
+            nombre.getStyleClass().add("venta-producto-nombre");
+            nombre.setWrapText(true);
+            nombre.setTextOverrun(OverrunStyle.ELLIPSIS);
+            nombre.setMaxWidth(Double.MAX_VALUE);
+            nombre.setMinHeight(34);
+            nombre.setMaxHeight(34);
+            nombre.setAlignment(Pos.TOP_LEFT);
+
+            subcat.setStyle("-fx-font-size: 10px; -fx-text-fill: #A8A29E; -fx-padding: -2 0 0 0;");
+
+            HBox priceRow = new HBox(8);
+            priceRow.setAlignment(Pos.CENTER_LEFT);
+            precio.getStyleClass().add("venta-producto-precio");
+            precio.setMaxWidth(Double.MAX_VALUE);
+            HBox.setHgrow(precio, Priority.ALWAYS);
+
+            FontIcon addIco = new FontIcon("fas-plus");
+            addIco.setIconSize(11);
+            addIco.setIconColor(Paint.valueOf("#FFFFFF"));
+            btnAdd.setGraphic(addIco);
+            btnAdd.getStyleClass().add("venta-btn-add");
+            btnAdd.setOnAction(e -> {
+                e.consume();
+                animarBotonAdd();
+                if (producto != null) alAgregar.accept(producto);
+            });
+            priceRow.getChildren().addAll(precio, btnAdd);
+
+            content.getChildren().addAll(nombre, subcat, priceRow);
+            card.getChildren().addAll(iconArea, content);
+
+            card.setOnMouseClicked(e -> {
+                if (producto != null && disponible.applyAsInt(producto) > 0) alAgregar.accept(producto);
+            });
+            aplicarHover();
+        }
+
+        void asignar(Producto p) {
+            if (producto != null) visibles.remove(producto.getId(), this);
+            producto = p;
+            visibles.put(p.getId(), this);
+
+            nombre.setText(p.getNombre());
+            inicial.setText(p.getNombre() != null && !p.getNombre().isBlank()
+                    ? p.getNombre().substring(0, 1).toUpperCase() : "?");
+            subcat.setText(p.getSubcategoria() != null ? p.getSubcategoria().getNombre() : "");
+            precio.setText(fmt.format(p.getPrecioVenta() != null ? p.getPrecioVenta() : BigDecimal.ZERO));
+
+            // Desde memoria llega al instante; si no, se decodifica aparte y solo se pinta
+            // si la tarjeta no se reutilizó mientras tanto para otro producto
+            imagen.setImage(null);
+            imagenes.cargar(p.getImagenPath(), ANCHO_TARJETA, ALTO_IMAGEN, false, img -> {
+                if (producto == p) imagen.setImage(img);
+            });
+
+            card.setScaleX(1.0);
+            card.setScaleY(1.0);
+            pintarStock();
+        }
+
+        void liberar() {
+            if (producto != null) visibles.remove(producto.getId(), this);
+            producto = null;
+            imagen.setImage(null);
+        }
+
+        void pintarStock() {
+            if (producto == null) return;
+            int unidades = disponible.applyAsInt(producto);
+            boolean agotado = unidades <= 0;
+
+            stock.setText(agotado ? "Agotado" : String.valueOf(unidades));
+            stock.getStyleClass().removeAll("venta-stock-ok", "venta-stock-agotado");
+            stock.getStyleClass().add(agotado ? "venta-stock-agotado" : "venta-stock-ok");
+            btnAdd.setDisable(agotado);
+            card.setOpacity(agotado ? 0.50 : 1.0);
+            card.setCursor(agotado ? Cursor.DEFAULT : Cursor.HAND);
+            card.setEffect(agotado ? null : sombraBase);
+        }
+
+        private void aplicarHover() {
+            card.setOnMouseEntered(e -> {
+                if (btnAdd.isDisabled()) return;
+                escalar(130, 1.04);
+                card.setEffect(sombraHover);
+            });
+            card.setOnMouseExited(e -> {
+                if (btnAdd.isDisabled()) return;
+                escalar(110, 1.0);
+                card.setEffect(sombraBase);
+            });
+            card.setOnMousePressed(e -> { if (!btnAdd.isDisabled()) escalar(60, 0.97); });
+            card.setOnMouseReleased(e -> { if (!btnAdd.isDisabled()) escalar(80, 1.04); });
+        }
+
+        private void escalar(int ms, double escala) {
+            ScaleTransition sc = new ScaleTransition(Duration.millis(ms), card);
+            sc.setToX(escala); sc.setToY(escala);
+            sc.setInterpolator(Interpolator.EASE_OUT);
+            sc.play();
+        }
+
+        private void animarBotonAdd() {
+            ScaleTransition sc = new ScaleTransition(Duration.millis(100), btnAdd);
+            sc.setFromX(1.0); sc.setFromY(1.0);
+            sc.setToX(1.45); sc.setToY(1.45);
+            sc.setAutoReverse(true);
+            sc.setCycleCount(2);
+            sc.setInterpolator(Interpolator.EASE_BOTH);
+            sc.play();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.nap.pos.ui.component;
+
+import com.nap.pos.application.event.ImagenProductoActualizadaEvent;
+import com.nap.pos.infrastructure.io.AlmacenMiniaturas;
+import jakarta.annotation.PreDestroy;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imágenes de producto listas para pintar, compartidas por todas las pantallas.
+ *
+ * La decodificación corre en un pool propio a partir de la miniatura en disco
+ * ({@link AlmacenMiniaturas}), nunca en el hilo de JavaFX. Las imágenes ya
+ * decodificadas quedan en un LRU por (ruta, tamaño) acotado por memoria: al volver
+ * a una tarjeta o fila se pintan al instante. Cuando un producto cambia de imagen
+ * se descartan sus entradas y se regenera la miniatura.
+ */
+@Component
+public class ImagenesProducto {
+
+    /** Memoria máxima de imágenes decodificadas (ARGB, 4 bytes por píxel). */
+    static final long MEMORIA_MAXIMA = 48L * 1024 * 1024;
+
+    private record Clave(String ruta, int ancho, int alto, boolean conservarProporcion) {
+        long bytes() {
+            return 4L * ancho * alto;
+        }
+    }
+
+    private final AlmacenMiniaturas miniaturas;
+    private final ExecutorService decodificador;
+
+    // Todo el estado se protege con el monitor de this
+    private final LinkedHashMap<Clave, Image> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Clave, List<Consumer<Image>>> pendientes = new HashMap<>();
+    private long memoriaUsada;
+
+    public ImagenesProducto(AlmacenMiniaturas miniaturas) {
+        this.miniaturas = miniaturas;
+        AtomicInteger n = new AtomicInteger();
+        this.decodificador = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "imagenes-producto-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    /**
+     * Entrega la imagen de {@code ruta} escalada a ancho x alto. Si ya está en memoria
+     * {@code destino} se llama enseguida; si no, se llama más tarde en el hilo de JavaFX.
+     * No se llama si la ruta no existe o la imagen no se pudo leer.
+     *
+     * Quien reutiliza nodos (celdas de listas o tablas) debe comprobar al recibirla
+     * que el nodo sigue mostrando el mismo producto.
+     */
+    public void cargar(String ruta, double ancho, double alto, boolean conservarProporcion, Consumer<Image> destino) {
+        if (ruta == null || ruta.isBlank()) return;
+        Clave clave = new Clave(ruta, (int) Math.round(ancho), (int) Math.round(alto), conservarProporcion);
+        synchronized (this) {
+            Image enMemoria = cache.get(clave);
+            if (enMemoria != null) {
+                destino.accept(enMemoria);
+                return;
+            }
+            // Si ya se está decodificando, solo se agrega otro destinatario
+            List<Consumer<Image>> esperando = pendientes.get(clave);
+            if (esperando != null) {
+                esperando.add(destino);
+                return;
+            }
+            esperando = new ArrayList<>();
+            esperando.add(destino);
+            pendientes.put(clave, esperando);
+        }
+        decodificador.execute(() -> decodificar(clave));
+    }
+
+    /** Descarta las imágenes en memoria de las rutas vieja y nueva y regenera la miniatura. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImagenActualizada(ImagenProductoActualizadaEvent evento) {
+        synchronized (this) {
+            descartar(evento.rutaAnterior());
+            descartar(evento.rutaNueva());
+        }
+        decodificador.execute(() -> {
+            if (evento.rutaAnterior() != null && !evento.rutaAnterior().equals(evento.rutaNueva())) {
+                miniaturas.eliminar(evento.rutaAnterior());
+            }
+            if (evento.rutaNueva() != null) miniaturas.generar(evento.rutaNueva());
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        decodificador.shutdownNow();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void decodificar(Clave clave) {
+        Image imagen = null;
+        try {
+            Path origen = miniaturas.obtener(clave.ruta());
+            if (origen != null) {
+                Image leida = new Image(origen.toUri().toString(),
+                        clave.ancho(), clave.alto(), clave.conservarProporcion(), true, false);
+                if (!leida.isError()) imagen = leida;
+            }
+        } catch (RuntimeException ignored) {
+            // Imagen ilegible: la UI se queda con el placeholder
+        }
+
+        List<Consumer<Image>> destinos;
+        synchronized (this) {
+            destinos = pendientes.remove(clave);
+            // Si la imagen cambió mientras se decodificaba, lo leído puede ser la versión vieja:
+            // no se guarda ni se entrega, la pantalla la vuelve a pedir al refrescarse.
+            if (destinos == null) return;
+            if (imagen != null) guardar(clave, imagen);
+        }
+        if (imagen == null) return;
+        Image lista = imagen;
+        Platform.runLater(() -> destinos.forEach(d -> d.accept(lista)));
+    }
+
+    private void guardar(Clave clave, Image imagen) {
+        Image anterior = cache.put(clave, imagen);
+        if (anterior == null) memoriaUsada += clave.bytes();
+        Iterator<Map.Entry<Clave, Image>> it = cache.entrySet().iterator();
+        while (memoriaUsada > MEMORIA_MAXIMA && it.hasNext()) {
+            Map.Entry<Clave, Image> masAntigua = it.next();
+            if (masAntigua.getKey().equals(clave)) continue;
+            memoriaUsada -= masAntigua.getKey().bytes();
+            it.remove();
+        }
+    }
+
+    private void descartar(String ruta) {
+        if (ruta == null) return;
+        Iterator<Clave> it = cache.keySet().iterator();
+        while (it.hasNext()) {
+            Clave clave = it.next();
+            if (clave.ruta().equals(ruta)) {
+                memoriaUsada -= clave.bytes();
+                it.remove();
+            }
+        }
+        pendientes.keySet().removeIf(clave -> clave.ruta().equals(ruta));
+    }
+}
@@ -23,7 +23,6 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -57,6 +56,7 @@ public class ProductoModalComponent {
     private final SubcategoriaService subcategoriaService;
     private final ProveedorService proveedorService;
     private final CatalogoMiniModalComponent catalogoMiniModalComponent;
+    private final ImagenesProducto imagenesProducto;
 
     private static final NumberFormat FMT_MONEDA =
             NumberFormat.getCurrencyInstance(new Locale("es", "CO"));
@@ -299,7 +299,9 @@ public class ProductoModalComponent {
             File archivo = chooser.showOpenDialog(rootStack.getScene() != null ? rootStack.getScene().getWindow() : null);
             if (archivo == null) return;
             imgFileRef[0] = archivo;
-            imgBox.getChildren().setAll(new ImageView(new Image(archivo.toURI().toString(), 72, 72, true, true)));
+            // Vista previa decodificada fuera del hilo de JavaFX (fotos de cámara pesan varios MB)
+            imagenesProducto.cargar(archivo.getAbsolutePath(), 72, 72, true,
+                    img -> imgBox.getChildren().setAll(new ImageView(img)));
         });
 
         Label lblSecImg = new Label("Imagen (opcional)");
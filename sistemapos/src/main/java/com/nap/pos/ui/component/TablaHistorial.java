@@ -0,0 +1,190 @@
+package com.nap.pos.ui.component;
+
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.Tramo;
+import javafx.animation.PauseTransition;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tabla de un historial (ventas, compras) que se carga por tramos al desplazarse.
+ *
+ * Muestra el primer tramo y, al acercarse al final, pide el siguiente desde el cursor
+ * del último. En la tabla quedan como mucho {@code tramosEnMemoria} tramos: al pasar
+ * ese número se sueltan los de arriba y se recuerda desde qué cursor se habían pedido,
+ * así al volver a subir se piden de nuevo. Lo que ocupa la tabla no crece con el historial.
+ * El orden es siempre de la fecha más reciente a la más antigua; las columnas no se ordenan.
+ */
+public class TablaHistorial<T> extends VBox {
+
+    // Fracción del desplazamiento a la que se pide el tramo siguiente (o el anterior)
+    private static final double UMBRAL = 0.9;
+
+    /** Un tramo en la tabla: desde qué cursor se pidió (null = el primero) y cuántas filas trajo. */
+    private record Cargado(CursorHistorial desde, int filas) {}
+
+    private final TableView<T> tabla = new TableView<>();
+    private final TareasUI tareas;
+    private final String clave;
+    private final int tramosEnMemoria;
+    private final Function<CursorHistorial, Callable<Tramo<T>>> consultar;
+
+    private final Label lblEstado = new Label();
+
+    // Espera a que se deje de escribir antes de consultar
+    private final PauseTransition espera = new PauseTransition(Duration.millis(250));
+
+    // Tramos en la tabla, de arriba a abajo, y los soltados por arriba (el último soltado primero)
+    private final Deque<Cargado> cargados = new ArrayDeque<>();
+    private final Deque<Cargado> soltados = new ArrayDeque<>();
+    private CursorHistorial siguiente;
+    private VirtualFlow<?> flujo;
+    private boolean cargando;
+    private int version;
+
+    /**
+     * @param clave           prefijo de la clave de {@link TareasUI} (p. ej. "compras.historial")
+     * @param tramosEnMemoria tramos que se conservan en la tabla a la vez
+     * @param consultar       arma la consulta del tramo que sigue al cursor (null = el primero);
+     *                        se llama en el hilo de JavaFX, donde puede leer los filtros de la
+     *                        pantalla, y la consulta que devuelve corre en segundo plano
+     */
+    public TablaHistorial(TareasUI tareas, String clave, int tramosEnMemoria,
+                          Function<CursorHistorial, Callable<Tramo<T>>> consultar) {
+        super(0);
+        this.tareas          = tareas;
+        this.clave           = clave;
+        this.tramosEnMemoria = Math.max(2, tramosEnMemoria);
+        this.consultar       = consultar;
+
+        VBox.setVgrow(tabla, Priority.ALWAYS);
+        tabla.skinProperty().addListener((obs, anterior, skin) -> {
+            if (skin != null && tabla.lookup(".virtual-flow") instanceof VirtualFlow<?> f) {
+                flujo = f;
+                flujo.positionProperty().addListener((o, a, posicion) -> alDesplazar(posicion.doubleValue()));
+            }
+        });
+
+        lblEstado.getStyleClass().add("inventario-count-label");
+        HBox pie = new HBox(lblEstado);
+        pie.getStyleClass().add("tabla-paginador");
+
+        espera.setOnFinished(e -> recargar());
+
+        getChildren().addAll(tabla, pie);
+        VBox.setVgrow(this, Priority.ALWAYS);
+    }
+
+    public TableView<T> getTabla() {
+        return tabla;
+    }
+
+    /** Agrega las columnas a la tabla; el historial tiene un solo orden y no se ordenan. */
+    @SafeVarargs
+    public final void columnas(TableColumn<T, ?>... columnas) {
+        for (TableColumn<T, ?> columna : columnas) {
+            columna.setSortable(false);
+            tabla.getColumns().add(columna);
+        }
+    }
+
+    /** Vuelve a empezar desde el registro más reciente. */
+    public void recargar() {
+        espera.stop();
+        version++;
+        cargando = false;
+        pedir(null, tramo -> {
+            cargados.clear();
+            soltados.clear();
+            tabla.getItems().setAll(tramo.elementos());
+            cargados.add(new Cargado(null, tramo.elementos().size()));
+            siguiente = tramo.siguiente();
+            tabla.scrollTo(0);
+        });
+    }
+
+    /** Los filtros cambiaron: vuelve al principio cuando se deja de escribir. */
+    public void filtrar() {
+        espera.playFromStart();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void alDesplazar(double posicion) {
+        if (cargando) return;
+        if (posicion >= UMBRAL && siguiente != null) {
+            cargarAbajo();
+        } else if (posicion <= 1 - UMBRAL && !soltados.isEmpty()) {
+            cargarArriba();
+        }
+    }
+
+    private void cargarAbajo() {
+        CursorHistorial desde = siguiente;
+        pedir(desde, tramo -> {
+            tabla.getItems().addAll(tramo.elementos());
+            cargados.addLast(new Cargado(desde, tramo.elementos().size()));
+            siguiente = tramo.siguiente();
+            if (cargados.size() > tramosEnMemoria) {
+                Cargado arriba = cargados.removeFirst();
+                int visible = primeraVisible();
+                tabla.getItems().remove(0, arriba.filas());
+                soltados.push(arriba);
+                tabla.scrollTo(Math.max(0, visible - arriba.filas()));
+            }
+        });
+    }
+
+    private void cargarArriba() {
+        Cargado anterior = soltados.peek();
+        pedir(anterior.desde(), tramo -> {
+            soltados.pop();
+            int visible = primeraVisible();
+            tabla.getItems().addAll(0, tramo.elementos());
+            cargados.addFirst(new Cargado(anterior.desde(), tramo.elementos().size()));
+            if (cargados.size() > tramosEnMemoria) {
+                Cargado abajo = cargados.removeLast();
+                int filas = tabla.getItems().size();
+                tabla.getItems().remove(filas - abajo.filas(), filas);
+                siguiente = abajo.desde();
+            }
+            tabla.scrollTo(visible + tramo.elementos().size());
+        });
+    }
+
+    private void pedir(CursorHistorial desde, Consumer<Tramo<T>> mostrar) {
+        cargando = true;
+        int esta = version;
+        lblEstado.setText("Cargando…");
+        tareas.ejecutar(clave + "#" + esta, consultar.apply(desde), tramo -> {
+            if (esta != version) return;
+            cargando = false;
+            mostrar.accept(tramo);
+            lblEstado.setText(tabla.getItems().isEmpty() ? ""
+                    : siguiente != null ? "Desplázate para ver registros anteriores"
+                    : "Fin del historial");
+        }, error -> {
+            if (esta != version) return;
+            cargando = false;
+            lblEstado.setText("No se pudieron cargar los datos.");
+        });
+    }
+
+    private int primeraVisible() {
+        IndexedCell<?> celda = flujo != null ? flujo.getFirstVisibleCell() : null;
+        return celda != null ? celda.getIndex() : 0;
+    }
+}
@@ -0,0 +1,193 @@
+package com.nap.pos.ui.component;
+
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.Pagina;
+import javafx.animation.PauseTransition;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Paint;
+import javafx.util.Duration;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tabla de listado cuyas filas se piden a la base de a una página.
+ *
+ * La tabla solo tiene en memoria la página visible. Al hacer clic en el encabezado de
+ * una columna registrada con {@link #ordenarPor} se pide la primera página con ese
+ * orden en lugar de ordenar en JavaFX; las columnas sin clave no se pueden ordenar.
+ * Las consultas corren con {@link TareasUI} y solo se muestra la respuesta de la
+ * última pedida, así escribir rápido en un buscador no deja resultados viejos.
+ */
+public class TablaPaginada<T> extends VBox {
+
+    private final TableView<T> tabla = new TableView<>();
+    private final TareasUI tareas;
+    private final String clave;
+    private final Function<ConsultaPagina, Callable<Pagina<T>>> consultar;
+    private final Map<TableColumn<T, ?>, String> ordenPorColumna = new HashMap<>();
+    private final ConsultaPagina porDefecto;
+
+    private final Label  lblTotal    = new Label();
+    private final Label  lblPagina   = new Label();
+    private final Button btnAnterior = botonPagina("fas-chevron-left");
+    private final Button btnSiguiente = botonPagina("fas-chevron-right");
+
+    // Espera a que se deje de escribir antes de consultar
+    private final PauseTransition espera = new PauseTransition(Duration.millis(250));
+
+    private ConsultaPagina consulta;
+    private Pagina<T> actual;
+    private int version;
+    private Consumer<Pagina<T>> alCargar = p -> {};
+
+    /**
+     * @param clave      prefijo de la clave de {@link TareasUI} (p. ej. "clientes.tabla")
+     * @param tamano     filas por página
+     * @param orden      clave de orden inicial, la misma que entiende el repositorio
+     * @param ascendente sentido del orden inicial
+     * @param consultar  arma la consulta de la página pedida; se llama en el hilo de JavaFX,
+     *                   donde puede leer los filtros de la pantalla, y la consulta que
+     *                   devuelve corre en segundo plano
+     */
+    public TablaPaginada(TareasUI tareas, String clave, int tamano, String orden, boolean ascendente,
+                         Function<ConsultaPagina, Callable<Pagina<T>>> consultar) {
+        super(0);
+        this.tareas     = tareas;
+        this.clave      = clave;
+        this.consultar  = consultar;
+        this.porDefecto = new ConsultaPagina(0, tamano, orden, ascendente);
+        this.consulta   = porDefecto;
+
+        VBox.setVgrow(tabla, Priority.ALWAYS);
+        tabla.setSortPolicy(t -> {
+            ordenar();
+            return true;
+        });
+
+        btnAnterior.setOnAction(e -> irA(consulta.numero() - 1));
+        btnSiguiente.setOnAction(e -> irA(consulta.numero() + 1));
+        btnAnterior.setDisable(true);
+        btnSiguiente.setDisable(true);
+        lblTotal.getStyleClass().add("inventario-count-label");
+        lblPagina.getStyleClass().add("tabla-paginador-pagina");
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox paginador = new HBox(lblTotal, spacer, btnAnterior, lblPagina, btnSiguiente);
+        paginador.getStyleClass().add("tabla-paginador");
+
+        espera.setOnFinished(e -> cargar(consulta.enPagina(0)));
+
+        getChildren().addAll(tabla, paginador);
+        VBox.setVgrow(this, Priority.ALWAYS);
+    }
+
+    public TableView<T> getTabla() {
+        return tabla;
+    }
+
+    /** Asocia la columna a una clave de orden; las columnas sin clave no se ordenan. */
+    public void ordenarPor(TableColumn<T, ?> columna, String orden) {
+        ordenPorColumna.put(columna, orden);
+    }
+
+    /**
+     * Agrega las columnas a la tabla; las que no se registraron con {@link #ordenarPor}
+     * quedan sin orden.
+     */
+    @SafeVarargs
+    public final void columnas(TableColumn<T, ?>... columnas) {
+        for (TableColumn<T, ?> columna : columnas) {
+            if (!ordenPorColumna.containsKey(columna)) columna.setSortable(false);
+            tabla.getColumns().add(columna);
+        }
+    }
+
+    /** Recibe cada página cargada, p. ej. para actualizar un contador de la barra. */
+    public void setAlCargar(Consumer<Pagina<T>> alCargar) {
+        this.alCargar = alCargar;
+    }
+
+    /** Vuelve a pedir la página actual (tras crear, editar o importar). */
+    public void recargar() {
+        espera.stop();
+        cargar(consulta);
+    }
+
+    /** Los filtros cambiaron: vuelve a la primera página cuando se deja de escribir. */
+    public void filtrar() {
+        espera.playFromStart();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    private void irA(int numero) {
+        if (actual == null || numero < 0 || numero >= actual.totalPaginas()) return;
+        cargar(consulta.enPagina(numero));
+    }
+
+    private void ordenar() {
+        ConsultaPagina nueva = porDefecto;
+        if (!tabla.getSortOrder().isEmpty()) {
+            TableColumn<T, ?> columna = tabla.getSortOrder().get(0);
+            String orden = ordenPorColumna.get(columna);
+            if (orden == null) return;
+            nueva = new ConsultaPagina(0, porDefecto.tamano(), orden,
+                    columna.getSortType() == TableColumn.SortType.ASCENDING);
+        }
+        // JavaFX también llama a la política al cambiar los items: solo se consulta si cambió el orden
+        if (nueva.orden().equals(consulta.orden()) && nueva.ascendente() == consulta.ascendente()) return;
+        cargar(nueva);
+    }
+
+    private void cargar(ConsultaPagina pedida) {
+        consulta = pedida;
+        int esta = ++version;
+        tabla.setDisable(true);
+        tareas.ejecutar(clave + "#" + esta, consultar.apply(pedida), pagina -> {
+            if (esta != version) return;
+            mostrar(pagina);
+        }, error -> {
+            if (esta != version) return;
+            tabla.setDisable(false);
+            lblTotal.setText("No se pudieron cargar los datos.");
+        });
+    }
+
+    private void mostrar(Pagina<T> pagina) {
+        actual   = pagina;
+        // La base puede devolver otra página si la pedida quedó fuera del total
+        consulta = consulta.enPagina(pagina.numero());
+        tabla.getItems().setAll(pagina.elementos());
+        tabla.scrollTo(0);
+        tabla.setDisable(false);
+
+        lblTotal.setText(pagina.total() == 1 ? "1 registro" : pagina.total() + " registros");
+        lblPagina.setText("Página " + (pagina.numero() + 1) + " de " + pagina.totalPaginas());
+        btnAnterior.setDisable(!pagina.hayAnterior());
+        btnSiguiente.setDisable(!pagina.haySiguiente());
+        alCargar.accept(pagina);
+    }
+
+    private static Button botonPagina(String icono) {
+        FontIcon ico = new FontIcon(icono);
+        ico.setIconSize(12);
+        ico.setIconColor(Paint.valueOf("#5A6ACF"));
+        Button btn = new Button();
+        btn.setGraphic(ico);
+        btn.getStyleClass().add("prod-row-arrow");
+        return btn;
+    }
+}
@@ -0,0 +1,206 @@
+package com.nap.pos.ui.component;
+
+import jakarta.annotation.PreDestroy;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Carga de datos de las pantallas fuera del hilo de JavaFX.
+ *
+ * Cada consulta corre en un hilo virtual envuelta en un {@link Task}: el resultado
+ * (o el error) se entrega de vuelta en el hilo de JavaFX, así los controladores
+ * solo construyen nodos y nunca esperan a la base de datos.
+ *
+ * <ul>
+ *   <li>Coalescencia: si ya hay una tarea en curso con la misma clave no se lanza
+ *       otra; el nuevo interesado recibe el mismo resultado.</li>
+ *   <li>Cancelación: al navegar a otra sección {@link #cancelarVista()} descarta las
+ *       tareas pendientes de la vista anterior; sus callbacks ya no se ejecutan.</li>
+ *   <li>{@link #cargarEn} muestra un indicador de carga en el contenedor y lo
+ *       reemplaza por el contenido, o por un mensaje con "Reintentar" si falla.</li>
+ * </ul>
+ *
+ * Todos los métodos se llaman desde el hilo de JavaFX.
+ */
+@Slf4j
+@Component
+public class TareasUI {
+
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Solo se toca desde el hilo de JavaFX: no necesita sincronización
+    private final Map<String, Solicitud<?>> enCurso = new HashMap<>();
+
+    /** Tarea compartida por todos los que pidieron la misma clave mientras corría. */
+    private static final class Solicitud<T> {
+        final Task<T> tarea;
+        final boolean deVista;
+        final List<Consumer<? super T>> alTerminar = new ArrayList<>();
+        final List<Consumer<Throwable>> alFallar   = new ArrayList<>();
+
+        Solicitud(Task<T> tarea, boolean deVista) {
+            this.tarea   = tarea;
+            this.deVista = deVista;
+        }
+    }
+
+    /**
+     * Ejecuta {@code carga} en segundo plano y entrega el resultado en el hilo de JavaFX.
+     *
+     * @param clave      identifica la consulta (p. ej. "dashboard"); dos pedidos con la
+     *                   misma clave mientras la primera corre se resuelven con una sola ejecución
+     * @param carga      consulta a los servicios; corre fuera del hilo de JavaFX
+     * @param alTerminar recibe el resultado en el hilo de JavaFX
+     * @param alFallar   recibe el error en el hilo de JavaFX
+     */
+    public <T> void ejecutar(String clave, Callable<T> carga,
+                             Consumer<? super T> alTerminar, Consumer<Throwable> alFallar) {
+        registrar(clave, true, () -> envolver(carga), alTerminar, alFallar);
+    }
+
+    /**
+     * Como {@link #ejecutar(String, Callable, Consumer, Consumer)} para procesos largos que
+     * informan su avance (importación, exportación): quien llama arma el {@link Task} con
+     * sus updateProgress/updateMessage. Devuelve la tarea que quedó corriendo —la que ya
+     * estaba en curso si la clave se repite—; a esa se enlazan la barra y el mensaje.
+     */
+    public <T> Task<T> ejecutar(String clave, Task<T> tarea,
+                                Consumer<? super T> alTerminar, Consumer<Throwable> alFallar) {
+        return registrar(clave, true, () -> tarea, alTerminar, alFallar).tarea;
+    }
+
+    /** Como {@link #ejecutar(String, Callable, Consumer, Consumer)}, registrando el error en el log. */
+    public <T> void ejecutar(String clave, Callable<T> carga, Consumer<? super T> alTerminar) {
+        ejecutar(clave, carga, alTerminar, e -> log.warn("Falló la carga '{}': {}", clave, e.getMessage()));
+    }
+
+    /**
+     * Muestra un indicador de carga en {@code contenedor}, ejecuta {@code carga} en segundo
+     * plano y reemplaza el indicador por el nodo que arma {@code construir}. Si falla,
+     * deja un mensaje con un botón para reintentar.
+     */
+    public <T> void cargarEn(Pane contenedor, String clave, Callable<T> carga, Function<T, Node> construir) {
+        contenedor.getChildren().setAll(indicadorCarga());
+        ejecutar(clave, carga,
+                resultado -> contenedor.getChildren().setAll(construir.apply(resultado)),
+                error -> {
+                    log.warn("Falló la carga '{}': {}", clave, error.getMessage());
+                    contenedor.getChildren().setAll(mensajeError(
+                            () -> cargarEn(contenedor, clave, carga, construir)));
+                });
+    }
+
+    /**
+     * Igual que {@link #ejecutar(String, Callable, Consumer)} pero para la ventana principal
+     * (badge de caja, notificaciones): no se cancela al cambiar de sección.
+     */
+    public <T> void ejecutarGlobal(String clave, Callable<T> carga, Consumer<? super T> alTerminar) {
+        registrar(clave, false, () -> envolver(carga), alTerminar,
+                e -> log.warn("Falló la carga '{}': {}", clave, e.getMessage()));
+    }
+
+    /** Cancela las tareas en curso de la vista que se abandona. */
+    public void cancelarVista() {
+        List<Solicitud<?>> pendientes = new ArrayList<>();
+        enCurso.values().removeIf(s -> s.deVista && pendientes.add(s));
+        pendientes.forEach(s -> s.tarea.cancel(true));
+    }
+
+    /** Nodo estándar de "Cargando…" para quien arma su propio contenedor. */
+    public Node indicadorCarga() {
+        ProgressIndicator indicador = new ProgressIndicator();
+        indicador.setMaxSize(36, 36);
+        Label lbl = new Label("Cargando…");
+        lbl.getStyleClass().add("dashboard-empty");
+        VBox box = new VBox(10, indicador, lbl);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(48));
+        box.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        return box;
+    }
+
+    @PreDestroy
+    void detener() {
+        hilos.shutdownNow();
+    }
+
+    // ── privados ─────────────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private <T> Solicitud<T> registrar(String clave, boolean deVista, Supplier<Task<T>> nueva,
+                                       Consumer<? super T> alTerminar, Consumer<Throwable> alFallar) {
+        Solicitud<T> solicitud = (Solicitud<T>) enCurso.get(clave);
+        if (solicitud == null) {
+            solicitud = iniciar(clave, deVista, nueva.get());
+        }
+        solicitud.alTerminar.add(alTerminar);
+        solicitud.alFallar.add(alFallar);
+        return solicitud;
+    }
+
+    private static <T> Task<T> envolver(Callable<T> carga) {
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return carga.call();
+            }
+        };
+    }
+
+    private <T> Solicitud<T> iniciar(String clave, boolean deVista, Task<T> tarea) {
+        Solicitud<T> solicitud = new Solicitud<>(tarea, deVista);
+        enCurso.put(clave, solicitud);
+
+        // Los handlers corren en el hilo de JavaFX; una tarea cancelada no llega a ninguno
+        tarea.setOnSucceeded(e -> {
+            if (enCurso.get(clave) == solicitud) enCurso.remove(clave);
+            T resultado = tarea.getValue();
+            solicitud.alTerminar.forEach(c -> c.accept(resultado));
+        });
+        tarea.setOnFailed(e -> {
+            if (enCurso.get(clave) == solicitud) enCurso.remove(clave);
+            Throwable error = tarea.getException();
+            solicitud.alFallar.forEach(c -> c.accept(error));
+        });
+        // Cancelada por quien la lanzó (botón "Cancelar"): libera la clave. Como handler
+        // adicional, para no pisar el setOnCancelled que haya puesto esa pantalla
+        tarea.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, e -> {
+            if (enCurso.get(clave) == solicitud) enCurso.remove(clave);
+        });
+        hilos.execute(tarea);
+        return solicitud;
+    }
+
+    private Node mensajeError(Runnable reintentar) {
+        Label lbl = new Label("No se pudieron cargar los datos.");
+        lbl.getStyleClass().add("dashboard-empty");
+        Button btn = new Button("Reintentar");
+        btn.getStyleClass().add("inventario-btn-masiva");
+        btn.setOnAction(e -> reintentar.run());
+        VBox box = new VBox(12, lbl, btn);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(48));
+        return box;
+    }
+}
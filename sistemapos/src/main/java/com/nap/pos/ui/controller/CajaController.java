@@ -1,18 +1,27 @@
 package com.nap.pos.ui.controller;
 
+import com.nap.pos.application.dto.ResumenCajaDto;
+import com.nap.pos.application.event.BusEventos;
+import com.nap.pos.application.event.CajaCerradaEvent;
+import com.nap.pos.application.event.EventoDominio;
+import com.nap.pos.application.event.VentaAnuladaEvent;
+import com.nap.pos.application.event.VentaRegistradaEvent;
 import com.nap.pos.application.service.CajaService;
 import com.nap.pos.application.service.VentaService;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Caja;
+import com.nap.pos.domain.model.TotalesCaja;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.Venta;
 import com.nap.pos.domain.model.enums.EstadoVenta;
 import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -43,10 +52,8 @@ import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -55,6 +62,8 @@ public class CajaController {
 
     private final CajaService  cajaService;
     private final VentaService ventaService;
+    private final TareasUI     tareasUI;
+    private final BusEventos   busEventos;
 
     private static final NumberFormat     FMT = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
     private static final DateTimeFormatter DFT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -63,8 +72,13 @@ public class CajaController {
     private Usuario    usuarioActual;
     private Runnable   onEstadoCajaChanged;
     private Caja       cajaActual;
-    private List<Caja> todasCajas        = new ArrayList<>();
     private List<Venta> ventasCajaActual = new ArrayList<>();
+    private ResumenCajaDto resumenUltimaCerrada;
+    private boolean    suscrito;
+
+    /** Lo que la vista "Estado" necesita de la base de datos, leído en segundo plano. */
+    private record EstadoCaja(Caja cajaActual, List<Venta> ventasCajaActual,
+                              ResumenCajaDto resumenUltimaCerrada) {}
 
     // ── Refs UI ───────────────────────────────────────────────────
     private StackPane rootStack;
@@ -80,7 +94,7 @@ public class CajaController {
     public Node buildView(Usuario usuario, Runnable onEstadoCajaChanged) {
         this.usuarioActual        = usuario;
         this.onEstadoCajaChanged  = onEstadoCajaChanged;
-        recargarEstado();
+        this.cajaActual           = null;
 
         rootStack = new StackPane();
         rootStack.getStyleClass().add("inventario-root-stack");
@@ -96,22 +110,74 @@ public class CajaController {
         root.getChildren().addAll(tabBar, contentArea);
         rootStack.getChildren().add(root);
 
-        mostrarEstado();
+        if (!suscrito) {
+            busEventos.suscribir(VentaRegistradaEvent.class, this::alCambiarVentasOCaja);
+            busEventos.suscribir(VentaAnuladaEvent.class, this::alCambiarVentasOCaja);
+            busEventos.suscribir(CajaCerradaEvent.class, this::alCambiarVentasOCaja);
+            suscrito = true;
+        }
+        recargarEstado();
         return rootStack;
     }
 
+    /**
+     * Ventas y cierres confirmados en otra pantalla (llegan en el hilo de {@link BusEventos}):
+     * si la vista de caja está abierta relee la pestaña activa, un solo repintado por lote.
+     */
+    private void alCambiarVentasOCaja(List<? extends EventoDominio> lote) {
+        Platform.runLater(() -> {
+            if (rootStack == null || rootStack.getScene() == null) return;
+            if (esTabActiva(tabHistorial)) mostrarHistorial();
+            else recargarEstado();
+        });
+    }
+
+    /** Relee la caja abierta y el historial en segundo plano y vuelve a pintar el estado. */
     private void recargarEstado() {
-        try { cajaActual = cajaService.getCajaAbierta(); }
-        catch (Exception e) { cajaActual = null; }
+        activarTab(tabEstado);
+        btnAccionCaja.setDisable(true);
+        contentArea.getChildren().setAll(tareasUI.indicadorCarga());
+        tareasUI.ejecutar("caja.estado", this::leerEstado, estado -> {
+            cajaActual          = estado.cajaActual();
+            ventasCajaActual    = estado.ventasCajaActual();
+            resumenUltimaCerrada = estado.resumenUltimaCerrada();
+            btnAccionCaja.setDisable(false);
+            actualizarBtnAccion();
+            if (esTabActiva(tabEstado)) mostrarEstado();
+        });
+    }
 
-        try { todasCajas = cajaService.findAll(); }
-        catch (Exception e) { todasCajas = new ArrayList<>(); }
+    // Corre fuera del hilo de JavaFX: no toca campos ni nodos
+    private EstadoCaja leerEstado() {
+        Caja abierta;
+        try { abierta = cajaService.getCajaAbierta(); }
+        catch (Exception e) { abierta = null; }
 
-        ventasCajaActual = new ArrayList<>();
-        if (cajaActual != null) {
-            try { ventasCajaActual = ventaService.findByCajaId(cajaActual.getId()); }
-            catch (Exception e) { ventasCajaActual = new ArrayList<>(); }
+        List<Caja> cajas;
+        try { cajas = cajaService.findAll(); }
+        catch (Exception e) { cajas = new ArrayList<>(); }
+
+        List<Venta> ventasAbierta = new ArrayList<>();
+        if (abierta != null) {
+            try { ventasAbierta = ventaService.findByCajaId(abierta.getId()); }
+            catch (Exception e) { ventasAbierta = new ArrayList<>(); }
         }
+
+        // De la última cerrada solo se muestran totales: se suman en la base
+        ResumenCajaDto resumenCerrada = null;
+        Caja ultima = abierta != null ? null : ultimaCajaCerrada(cajas);
+        if (ultima != null) {
+            try { resumenCerrada = cajaService.resumen(ultima); }
+            catch (Exception e) { resumenCerrada = null; }
+        }
+        return new EstadoCaja(abierta, ventasAbierta, resumenCerrada);
+    }
+
+    private static Caja ultimaCajaCerrada(List<Caja> cajas) {
+        return cajas.stream()
+                .filter(c -> c.getFechaCierre() != null)
+                .max(Comparator.comparing(Caja::getFechaCierre))
+                .orElse(null);
     }
 
     private void actualizarBtnAccion() {
@@ -173,6 +239,10 @@ public class CajaController {
         return bar;
     }
 
+    private boolean esTabActiva(Button tab) {
+        return tab.getStyleClass().contains("inventario-tab-active");
+    }
+
     private void activarTab(Button activo) {
         tabEstado.getStyleClass().remove("inventario-tab-active");
         tabHistorial.getStyleClass().remove("inventario-tab-active");
@@ -264,14 +334,11 @@ public class CajaController {
             // ── Caja cerrada ────────────────────────────────────
             inner.getChildren().add(crearCardCajaCerrada());
 
-            todasCajas.stream()
-                    .filter(c -> c.getFechaCierre() != null)
-                    .max(Comparator.comparing(Caja::getFechaCierre))
-                    .ifPresent(ultima -> {
-                        Label lblUlt = new Label("Última sesión cerrada");
-                        lblUlt.setStyle("-fx-font-size: 15px; -fx-font-weight: 700; -fx-text-fill: #1A1F2E;");
-                        inner.getChildren().addAll(new Separator(), lblUlt, crearResumenCaja(ultima));
-                    });
+            if (resumenUltimaCerrada != null) {
+                Label lblUlt = new Label("Última sesión cerrada");
+                lblUlt.setStyle("-fx-font-size: 15px; -fx-font-weight: 700; -fx-text-fill: #1A1F2E;");
+                inner.getChildren().addAll(new Separator(), lblUlt, crearResumenCaja(resumenUltimaCerrada));
+            }
         }
 
         scroll.setContent(inner);
@@ -344,7 +411,9 @@ public class CajaController {
         return card;
     }
 
-    private VBox crearResumenCaja(Caja caja) {
+    private VBox crearResumenCaja(ResumenCajaDto resumen) {
+        Caja caja = resumen.caja();
+        TotalesCaja ventas = resumen.ventas();
         VBox card = new VBox(14);
         card.getStyleClass().add("inventario-card");
 
@@ -357,45 +426,22 @@ public class CajaController {
         ico.setIconSize(14); ico.setIconColor(Paint.valueOf("#94A3B8"));
         header.getChildren().addAll(lTit, ico);
 
-        List<Venta> ventas;
-        try { ventas = ventaService.findByCajaId(caja.getId()); }
-        catch (Exception e) { ventas = List.of(); }
-
-        long totalVentas = ventas.stream().filter(v -> v.getEstado() == EstadoVenta.COMPLETADA).count();
-        BigDecimal totalCobrado = ventas.stream()
-                .filter(v -> v.getEstado() == EstadoVenta.COMPLETADA)
-                .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal efectivo = ventas.stream()
-                .filter(v -> v.getEstado() == EstadoVenta.COMPLETADA && v.getMetodoPago() == MetodoPago.EFECTIVO)
-                .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal transferencia = ventas.stream()
-            .filter(v -> v.getEstado() == EstadoVenta.COMPLETADA && v.getMetodoPago() == MetodoPago.TRANSFERENCIA)
-            .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal credito = ventas.stream()
-            .filter(v -> v.getEstado() == EstadoVenta.COMPLETADA && v.getMetodoPago() == MetodoPago.CREDITO)
-            .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         VBox filas = new VBox(10);
         BigDecimal montoIni = caja.getMontoInicial() != null ? caja.getMontoInicial() : BigDecimal.ZERO;
         filas.getChildren().addAll(
             crearFilaResumen("fas-calendar",        "#5A6ACF", "Apertura",             caja.getFechaApertura() != null ? caja.getFechaApertura().format(DFT) : "—"),
             crearFilaResumen("fas-calendar-check",  "#78716C", "Cierre",               caja.getFechaCierre()   != null ? caja.getFechaCierre().format(DFT)   : "—"),
-            crearFilaResumen("fas-receipt",         "#D97706", "Ventas completadas",   totalVentas + " ventas"),
-            crearFilaResumen("fas-dollar-sign",     "#15803D", "Total cobrado",        FMT.format(totalCobrado)),
-            crearFilaResumen("fas-money-bill-wave", "#D97706", "Contado",              FMT.format(efectivo)),
-            crearFilaResumen("fas-exchange-alt",    "#7C3AED", "Transferencia",        FMT.format(transferencia)),
-            crearFilaResumen("fas-credit-card",     "#DC2626", "A crédito",            FMT.format(credito)),
+            crearFilaResumen("fas-receipt",         "#D97706", "Ventas completadas",   ventas.completadas() + " ventas"),
+            crearFilaResumen("fas-dollar-sign",     "#15803D", "Total cobrado",        FMT.format(ventas.total())),
+            crearFilaResumen("fas-money-bill-wave", "#D97706", "Contado",              FMT.format(ventas.efectivo())),
+            crearFilaResumen("fas-exchange-alt",    "#7C3AED", "Transferencia",        FMT.format(ventas.transferencia())),
+            crearFilaResumen("fas-credit-card",     "#DC2626", "A crédito",            FMT.format(ventas.credito())),
             crearFilaResumen("fas-coins",           "#5A6ACF", "Monto inicial",        FMT.format(montoIni)),
             crearFilaResumen("fas-coins",           "#D97706", "Monto final contado",  caja.getMontoFinal() != null ? FMT.format(caja.getMontoFinal()) : "—")
         );
 
-        if (caja.getMontoFinal() != null) {
-            BigDecimal esperado  = montoIni.add(efectivo);
-            BigDecimal diferencia = caja.getMontoFinal().subtract(esperado);
+        if (resumen.diferencia() != null) {
+            BigDecimal diferencia = resumen.diferencia();
             String difColor = diferencia.compareTo(BigDecimal.ZERO) >= 0 ? "#15803D" : "#DC2626";
             String signo    = diferencia.compareTo(BigDecimal.ZERO) >= 0 ? "+" : "";
             filas.getChildren().add(
@@ -453,6 +499,15 @@ public class CajaController {
 
     private void mostrarHistorial() {
         activarTab(tabHistorial);
+        contentArea.getChildren().setAll(tareasUI.indicadorCarga());
+
+        // Las ventas de todas las cajas llegan sumadas en una sola consulta
+        tareasUI.ejecutar("caja.historial", cajaService::historial, historial -> {
+            if (esTabActiva(tabHistorial)) construirHistorial(historial);
+        });
+    }
+
+    private void construirHistorial(List<ResumenCajaDto> historial) {
         contentArea.getChildren().clear();
 
         VBox wrapper = new VBox(16);
@@ -466,60 +521,43 @@ public class CajaController {
         HBox.setHgrow(lblTit, Priority.ALWAYS);
         toolbar.getChildren().add(lblTit);
 
-        TableView<Caja> tabla = new TableView<>();
+        TableView<ResumenCajaDto> tabla = new TableView<>();
         tabla.getStyleClass().add("inventario-table-card");
         VBox.setVgrow(tabla, Priority.ALWAYS);
         tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         tabla.setPlaceholder(new Label("Sin registros de caja."));
 
-        List<Caja> cajasOrdenadas = todasCajas.stream()
-            .filter(c -> c.getFechaApertura() != null)
-            .sorted(Comparator.comparing(Caja::getFechaApertura, Comparator.reverseOrder()))
-            .collect(Collectors.toList());
-        Map<Long, List<Venta>> ventasPorCaja = cargarVentasPorCaja(cajasOrdenadas);
-
-        Map<Long, BigDecimal> esperadoPorCaja = new HashMap<>();
-        for (Caja caja : cajasOrdenadas) {
-            BigDecimal montoIni = caja.getMontoInicial() != null ? caja.getMontoInicial() : BigDecimal.ZERO;
-            List<Venta> ventasCaja = ventasPorCaja.getOrDefault(caja.getId(), List.of());
-            BigDecimal efectivo = sumarVentasCompletadasPorMetodo(ventasCaja, MetodoPago.EFECTIVO);
-            esperadoPorCaja.put(caja.getId(), montoIni.add(efectivo));
-        }
-
-        TableColumn<Caja, String> colApertura = new TableColumn<>("Apertura");
+        TableColumn<ResumenCajaDto, String> colApertura = new TableColumn<>("Apertura");
         colApertura.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getFechaApertura() != null ? d.getValue().getFechaApertura().format(DFT) : "—"));
+                d.getValue().caja().getFechaApertura() != null ? d.getValue().caja().getFechaApertura().format(DFT) : "—"));
         colApertura.setPrefWidth(130);
 
-        TableColumn<Caja, String> colCierre = new TableColumn<>("Cierre");
+        TableColumn<ResumenCajaDto, String> colCierre = new TableColumn<>("Cierre");
         colCierre.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getFechaCierre() != null ? d.getValue().getFechaCierre().format(DFT) : "En curso"));
+                d.getValue().caja().getFechaCierre() != null ? d.getValue().caja().getFechaCierre().format(DFT) : "En curso"));
         colCierre.setPrefWidth(130);
 
-        TableColumn<Caja, String> colUsuario = new TableColumn<>("Usuario");
+        TableColumn<ResumenCajaDto, String> colUsuario = new TableColumn<>("Usuario");
         colUsuario.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getUsuario() != null ? d.getValue().getUsuario().getNombreCompleto() : "—"));
+                d.getValue().caja().getUsuario() != null ? d.getValue().caja().getUsuario().getNombreCompleto() : "—"));
         colUsuario.setPrefWidth(130);
 
-        TableColumn<Caja, String> colInicial = new TableColumn<>("Monto inicial");
+        TableColumn<ResumenCajaDto, String> colInicial = new TableColumn<>("Monto inicial");
         colInicial.setCellValueFactory(d -> new SimpleStringProperty(
-                FMT.format(d.getValue().getMontoInicial() != null ? d.getValue().getMontoInicial() : BigDecimal.ZERO)));
+                FMT.format(d.getValue().caja().getMontoInicial() != null ? d.getValue().caja().getMontoInicial() : BigDecimal.ZERO)));
         colInicial.setPrefWidth(120);
 
-        TableColumn<Caja, String> colFinal = new TableColumn<>("Monto final");
+        TableColumn<ResumenCajaDto, String> colFinal = new TableColumn<>("Monto final");
         colFinal.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getMontoFinal() != null ? FMT.format(d.getValue().getMontoFinal()) : "—"));
+                d.getValue().caja().getMontoFinal() != null ? FMT.format(d.getValue().caja().getMontoFinal()) : "—"));
         colFinal.setPrefWidth(120);
         colFinal.setCellFactory(tc -> new TableCell<>() {
             @Override protected void updateItem(String s, boolean empty) {
                 super.updateItem(s, empty);
                 if (empty || s == null || "—".equals(s)) { setText(s); setStyle(""); return; }
-                Caja caja = getTableRow() != null ? (Caja) getTableRow().getItem() : null;
-            BigDecimal esperado = caja != null && caja.getId() != null
-                ? esperadoPorCaja.getOrDefault(caja.getId(), caja.getMontoInicial() != null ? caja.getMontoInicial() : BigDecimal.ZERO)
-                : BigDecimal.ZERO;
-            BigDecimal diferencia = caja != null && caja.getMontoFinal() != null
-                ? caja.getMontoFinal().subtract(esperado)
+            ResumenCajaDto resumen = getTableRow() != null ? getTableRow().getItem() : null;
+            BigDecimal diferencia = resumen != null && resumen.diferencia() != null
+                ? resumen.diferencia()
                 : BigDecimal.ZERO;
 
             String color = diferencia.compareTo(BigDecimal.ZERO) < 0
@@ -530,25 +568,19 @@ public class CajaController {
             }
         });
 
-        TableColumn<Caja, String> colTransferencia = new TableColumn<>("Transferencia");
-        colTransferencia.setCellValueFactory(d -> {
-            List<Venta> ventasCaja = ventasPorCaja.getOrDefault(d.getValue().getId(), List.of());
-            BigDecimal transferencia = sumarVentasCompletadasPorMetodo(ventasCaja, MetodoPago.TRANSFERENCIA);
-            return new SimpleStringProperty(FMT.format(transferencia));
-        });
+        TableColumn<ResumenCajaDto, String> colTransferencia = new TableColumn<>("Transferencia");
+        colTransferencia.setCellValueFactory(d -> new SimpleStringProperty(
+                FMT.format(d.getValue().ventas().transferencia())));
         colTransferencia.setPrefWidth(120);
 
-        TableColumn<Caja, String> colCredito = new TableColumn<>("Crédito");
-        colCredito.setCellValueFactory(d -> {
-            List<Venta> ventasCaja = ventasPorCaja.getOrDefault(d.getValue().getId(), List.of());
-            BigDecimal credito = sumarVentasCompletadasPorMetodo(ventasCaja, MetodoPago.CREDITO);
-            return new SimpleStringProperty(FMT.format(credito));
-        });
+        TableColumn<ResumenCajaDto, String> colCredito = new TableColumn<>("Crédito");
+        colCredito.setCellValueFactory(d -> new SimpleStringProperty(
+                FMT.format(d.getValue().ventas().credito())));
         colCredito.setPrefWidth(110);
 
-        TableColumn<Caja, String> colEstado = new TableColumn<>("Estado");
+        TableColumn<ResumenCajaDto, String> colEstado = new TableColumn<>("Estado");
         colEstado.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().estaAbierta() ? "Abierta" : "Cerrada"));
+                d.getValue().caja().estaAbierta() ? "Abierta" : "Cerrada"));
         colEstado.setPrefWidth(90);
         colEstado.setCellFactory(tc -> new TableCell<>() {
             @Override protected void updateItem(String s, boolean empty) {
@@ -562,7 +594,7 @@ public class CajaController {
             }
         });
 
-        TableColumn<Caja, String> colVer = new TableColumn<>("");
+        TableColumn<ResumenCajaDto, String> colVer = new TableColumn<>("");
         colVer.setCellValueFactory(d -> new SimpleStringProperty(""));
         colVer.setCellFactory(col -> new TableCell<>() {
             private final Button btn = new Button();
@@ -573,7 +605,7 @@ public class CajaController {
                 btn.getStyleClass().add("prod-row-arrow");
                 btn.setOnAction(e -> {
                     if (getTableRow() != null && getTableRow().getItem() != null)
-                        abrirModalDetalleCaja(getTableRow().getItem());
+                        abrirModalDetalleCaja(getTableRow().getItem().caja());
                 });
                 setAlignment(Pos.CENTER);
             }
@@ -587,14 +619,14 @@ public class CajaController {
         tabla.getColumns().addAll(colApertura, colCierre, colUsuario, colInicial, colFinal, colTransferencia, colCredito, colEstado, colVer);
 
         tabla.setRowFactory(tv -> {
-            TableRow<Caja> row = new TableRow<>();
+            TableRow<ResumenCajaDto> row = new TableRow<>();
             row.setOnMouseEntered(e -> { if (!row.isEmpty()) row.setStyle("-fx-background-color: rgba(90,106,207,0.05); -fx-cursor: hand;"); });
             row.setOnMouseExited(e -> row.setStyle(""));
-            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) abrirModalDetalleCaja(row.getItem()); });
+            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) abrirModalDetalleCaja(row.getItem().caja()); });
             return row;
         });
 
-        tabla.setItems(FXCollections.observableArrayList(cajasOrdenadas));
+        tabla.setItems(FXCollections.observableArrayList(historial));
 
         wrapper.getChildren().addAll(toolbar, tabla);
         contentArea.getChildren().add(wrapper);
@@ -699,8 +731,6 @@ public class CajaController {
             }
             cerrar.run();
             recargarEstado();
-            actualizarBtnAccion();
-            mostrarEstado();
             if (onEstadoCajaChanged != null) onEstadoCajaChanged.run();
         });
 
@@ -870,8 +900,6 @@ public class CajaController {
             }
             cerrar.run();
             recargarEstado();
-            actualizarBtnAccion();
-            mostrarEstado();
             if (onEstadoCajaChanged != null) onEstadoCajaChanged.run();
         });
 
@@ -884,11 +912,12 @@ public class CajaController {
     // ─────────────────────────────────────────────────────────────
 
     private void abrirModalDetalleCaja(Caja caja) {
-        List<Venta> ventas;
-        try { ventas = ventaService.findByCajaId(caja.getId()); }
-        catch (Exception e) { ventas = List.of(); }
-        final List<Venta> ventasFinal = ventas;
+        tareasUI.ejecutar("caja.detalle." + caja.getId(), () -> ventaService.findByCajaId(caja.getId()),
+                ventas -> abrirModalDetalleCaja(caja, ventas),
+                error  -> abrirModalDetalleCaja(caja, List.of()));
+    }
 
+    private void abrirModalDetalleCaja(Caja caja, List<Venta> ventasFinal) {
         StackPane overlay = new StackPane();
         overlay.getStyleClass().add("inventario-modal-overlay");
 
@@ -1027,19 +1056,6 @@ public class CajaController {
         return card;
     }
 
-    private Map<Long, List<Venta>> cargarVentasPorCaja(List<Caja> cajas) {
-        Map<Long, List<Venta>> ventasPorCaja = new HashMap<>();
-        for (Caja caja : cajas) {
-            if (caja == null || caja.getId() == null) continue;
-            try {
-                ventasPorCaja.put(caja.getId(), ventaService.findByCajaId(caja.getId()));
-            } catch (Exception e) {
-                ventasPorCaja.put(caja.getId(), List.of());
-            }
-        }
-        return ventasPorCaja;
-    }
-
     private BigDecimal sumarVentasCompletadas(List<Venta> ventas) {
         if (ventas == null || ventas.isEmpty()) return BigDecimal.ZERO;
         return ventas.stream()
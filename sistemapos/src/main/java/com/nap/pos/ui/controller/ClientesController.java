@@ -3,8 +3,11 @@ package com.nap.pos.ui.controller;
 import com.nap.pos.application.service.ClienteService;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Cliente;
+import com.nap.pos.domain.model.FilaCliente;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.PlazoPago;
+import com.nap.pos.ui.component.TablaPaginada;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -58,8 +61,10 @@ import java.util.stream.Collectors;
 public class ClientesController {
 
     private final ClienteService clienteService;
+    private final TareasUI       tareasUI;
 
     private static final NumberFormat FMT = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
+    private static final int FILAS_POR_PAGINA = 50;
 
     // ── Estado ────────────────────────────────────────────────────
     private Usuario       usuarioActual;
@@ -578,39 +583,50 @@ public class ClientesController {
 
         toolbar.getChildren().addAll(lblTit, cmbFiltro, txtBuscar);
 
-        // Tabla
-        TableView<Cliente> tabla = new TableView<>();
+        // Tabla: cada página se pide a la base con el filtro y el orden actuales
+        TablaPaginada<FilaCliente> paginada = new TablaPaginada<>(tareasUI, "clientes.tabla",
+                FILAS_POR_PAGINA, "nombre", true,
+                consulta -> {
+                    String  texto   = txtBuscar.getText();
+                    String  filtro  = cmbFiltro.getValue();
+                    Boolean activo  = switch (filtro) {
+                        case "Activos"   -> Boolean.TRUE;
+                        case "Inactivos" -> Boolean.FALSE;
+                        default          -> null;
+                    };
+                    return () -> clienteService.listarFilas(texto, activo, "Con crédito".equals(filtro), consulta);
+                });
+        TableView<FilaCliente> tabla = paginada.getTabla();
         tabla.getStyleClass().add("inventario-table-card");
-        VBox.setVgrow(tabla, Priority.ALWAYS);
         tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         tabla.setPlaceholder(new Label("Sin clientes registrados."));
 
-        TableColumn<Cliente, String> colNombre = new TableColumn<>("Nombre");
+        TableColumn<FilaCliente, String> colNombre = new TableColumn<>("Nombre");
         colNombre.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getNombre() != null ? d.getValue().getNombre() : "—"));
+                d.getValue().nombre() != null ? d.getValue().nombre() : "—"));
         colNombre.setMinWidth(150);
 
-        TableColumn<Cliente, String> colCedula = new TableColumn<>("Cédula");
+        TableColumn<FilaCliente, String> colCedula = new TableColumn<>("Cédula");
         colCedula.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getCedula() != null ? d.getValue().getCedula() : "—"));
+                d.getValue().cedula() != null ? d.getValue().cedula() : "—"));
         colCedula.setPrefWidth(120);
 
-        TableColumn<Cliente, String> colCelular = new TableColumn<>("Celular");
+        TableColumn<FilaCliente, String> colCelular = new TableColumn<>("Celular");
         colCelular.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getCelular() != null ? d.getValue().getCelular() : "—"));
+                d.getValue().celular() != null ? d.getValue().celular() : "—"));
         colCelular.setPrefWidth(110);
 
-        TableColumn<Cliente, String> colCredito = new TableColumn<>("Límite crédito");
+        TableColumn<FilaCliente, String> colCredito = new TableColumn<>("Límite crédito");
         colCredito.setCellValueFactory(d -> new SimpleStringProperty(
                 d.getValue().tieneCreditoHabilitado()
-                        ? FMT.format(d.getValue().getMontoCredito()) : "—"));
+                        ? FMT.format(d.getValue().montoCredito()) : "—"));
         colCredito.setPrefWidth(130);
 
-        TableColumn<Cliente, String> colSaldoUsado = new TableColumn<>("Saldo usado");
+        TableColumn<FilaCliente, String> colSaldoUsado = new TableColumn<>("Saldo usado");
         colSaldoUsado.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getSaldoUtilizado() != null
-                        && d.getValue().getSaldoUtilizado().compareTo(BigDecimal.ZERO) > 0
-                        ? FMT.format(d.getValue().getSaldoUtilizado()) : "—"));
+                d.getValue().saldoUtilizado() != null
+                        && d.getValue().saldoUtilizado().compareTo(BigDecimal.ZERO) > 0
+                        ? FMT.format(d.getValue().saldoUtilizado()) : "—"));
         colSaldoUsado.setPrefWidth(120);
         colSaldoUsado.setCellFactory(tc -> new TableCell<>() {
             @Override protected void updateItem(String s, boolean empty) {
@@ -620,9 +636,9 @@ public class ClientesController {
             }
         });
 
-        TableColumn<Cliente, String> colEstado = new TableColumn<>("Estado");
+        TableColumn<FilaCliente, String> colEstado = new TableColumn<>("Estado");
         colEstado.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().isActivo() ? "Activo" : "Inactivo"));
+                d.getValue().activo() ? "Activo" : "Inactivo"));
         colEstado.setPrefWidth(90);
         colEstado.setCellFactory(tc -> new TableCell<>() {
             @Override protected void updateItem(String s, boolean empty) {
@@ -634,7 +650,7 @@ public class ClientesController {
             }
         });
 
-        TableColumn<Cliente, String> colAccion = new TableColumn<>("");
+        TableColumn<FilaCliente, String> colAccion = new TableColumn<>("");
         colAccion.setCellValueFactory(d -> new SimpleStringProperty(""));
         colAccion.setCellFactory(col -> new TableCell<>() {
             private final Button btn = new Button();
@@ -645,7 +661,7 @@ public class ClientesController {
                 btn.getStyleClass().add("prod-row-arrow");
                 btn.setOnAction(e -> {
                     if (getTableRow() != null && getTableRow().getItem() != null)
-                        abrirModalCliente(getTableRow().getItem());
+                        editarCliente(getTableRow().getItem());
                 });
                 setAlignment(Pos.CENTER);
             }
@@ -654,50 +670,39 @@ public class ClientesController {
                 setGraphic(empty ? null : btn); setText(null);
             }
         });
-        colAccion.setMinWidth(44); colAccion.setMaxWidth(44); colAccion.setSortable(false);
+        colAccion.setMinWidth(44); colAccion.setMaxWidth(44);
 
-        tabla.getColumns().addAll(colNombre, colCedula, colCelular, colCredito, colSaldoUsado, colEstado, colAccion);
+        paginada.ordenarPor(colNombre,     "nombre");
+        paginada.ordenarPor(colCedula,     "cedula");
+        paginada.ordenarPor(colCelular,    "celular");
+        paginada.ordenarPor(colCredito,    "credito");
+        paginada.ordenarPor(colSaldoUsado, "saldo");
+        paginada.ordenarPor(colEstado,     "estado");
+        paginada.columnas(colNombre, colCedula, colCelular, colCredito, colSaldoUsado, colEstado, colAccion);
 
         tabla.setRowFactory(tv -> {
-            TableRow<Cliente> row = new TableRow<>();
+            TableRow<FilaCliente> row = new TableRow<>();
             row.setOnMouseEntered(e -> { if (!row.isEmpty()) row.setStyle("-fx-background-color: rgba(90,106,207,0.05); -fx-cursor: hand;"); });
             row.setOnMouseExited(e -> row.setStyle(""));
-            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) abrirModalCliente(row.getItem()); });
+            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) editarCliente(row.getItem()); });
             return row;
         });
 
-        List<Cliente> clientesOrdenados = todosClientes.stream()
-                .sorted(Comparator.comparing(Cliente::getNombre, String.CASE_INSENSITIVE_ORDER))
-                .collect(Collectors.toList());
+        txtBuscar.textProperty().addListener((obs, o, n) -> paginada.filtrar());
+        cmbFiltro.valueProperty().addListener((obs, o, n) -> paginada.filtrar());
+        paginada.recargar();
 
-        Runnable aplicarFiltro = () -> {
-            String texto  = txtBuscar.getText() == null ? "" : txtBuscar.getText().toLowerCase();
-            String filtro = cmbFiltro.getValue();
-            List<Cliente> resultado = clientesOrdenados.stream()
-                .filter(c -> {
-                    boolean matchTexto = texto.isBlank()
-                            || (c.getNombre() != null && c.getNombre().toLowerCase().contains(texto))
-                            || (c.getCedula() != null && c.getCedula().toLowerCase().contains(texto));
-                    boolean matchFiltro = switch (filtro) {
-                        case "Activos"     -> c.isActivo();
-                        case "Inactivos"   -> !c.isActivo();
-                        case "Con crédito" -> c.tieneCreditoHabilitado();
-                        default            -> true;
-                    };
-                    return matchTexto && matchFiltro;
-                })
-                .collect(Collectors.toList());
-            tabla.setItems(FXCollections.observableArrayList(resultado));
-        };
-
-        txtBuscar.textProperty().addListener((obs, o, n) -> aplicarFiltro.run());
-        cmbFiltro.valueProperty().addListener((obs, o, n) -> aplicarFiltro.run());
-        aplicarFiltro.run();
-
-        wrapper.getChildren().addAll(toolbar, tabla);
+        wrapper.getChildren().addAll(toolbar, paginada);
         contentArea.getChildren().add(wrapper);
     }
 
+    // La fila solo trae las columnas de la tabla: el modal edita el cliente completo
+    private void editarCliente(FilaCliente fila) {
+        tareasUI.ejecutar("clientes.editar:" + fila.id(), () -> clienteService.findById(fila.id()),
+                this::abrirModalCliente,
+                error -> mostrarAlerta("Error", error.getMessage()));
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Modal: Nuevo / Editar cliente
     // ─────────────────────────────────────────────────────────────
@@ -804,7 +809,6 @@ public class ClientesController {
                     if (clienteExistente.isActivo()) clienteService.desactivar(clienteExistente.getId());
                     else                             clienteService.activar(clienteExistente.getId());
                     cerrarModal(overlay);
-                    recargarDatos();
                     mostrarTablaClientes();
                 } catch (Exception ex) {
                     mostrarAlerta("Error", ex.getMessage());
@@ -869,7 +873,6 @@ public class ClientesController {
                 }
 
                 cerrarModal(overlay);
-                recargarDatos();
                 mostrarTablaClientes();
 
             } catch (BusinessException ex) {
@@ -1,20 +1,25 @@
 package com.nap.pos.ui.controller;
 
+import com.nap.pos.application.dto.ResumenComprasDto;
+import com.nap.pos.application.service.CatalogoService;
 import com.nap.pos.application.service.CategoriaService;
 import com.nap.pos.application.service.CompraService;
-import com.nap.pos.application.service.ProductoService;
 import com.nap.pos.application.service.ProveedorService;
 import com.nap.pos.application.service.SubcategoriaService;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Categoria;
 import com.nap.pos.domain.model.Compra;
 import com.nap.pos.domain.model.DetalleCompra;
+import com.nap.pos.domain.model.FilaCompra;
+import com.nap.pos.domain.model.FiltroCompras;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.model.Proveedor;
 import com.nap.pos.domain.model.Subcategoria;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.ui.component.CatalogoMiniModalComponent;
 import com.nap.pos.ui.component.ProductoModalComponent;
+import com.nap.pos.ui.component.TablaHistorial;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -63,10 +68,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.text.NumberFormat;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -81,18 +84,24 @@ public class ComprasController {
 
     private final CompraService       compraService;
     private final ProveedorService    proveedorService;
-    private final ProductoService     productoService;
+    private final CatalogoService     catalogoService;
     private final CategoriaService    categoriaService;
     private final SubcategoriaService subcategoriaService;
     private final CatalogoMiniModalComponent catalogoMiniModalComponent;
     private final ProductoModalComponent productoModalComponent;
+    private final TareasUI tareasUI;
 
     private static final NumberFormat     FMT  = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
     private static final DateTimeFormatter DFT  = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int FILAS_POR_TRAMO   = 50;
+    private static final int TRAMOS_EN_MEMORIA = 6;
+
+    private static final ResumenComprasDto SIN_COMPRAS = new ResumenComprasDto(
+            0, BigDecimal.ZERO, 0, 0, Map.of(), Map.of(), List.of());
 
     // ── Estado ────────────────────────────────────────────────────
-    private Usuario       usuarioActual;
-    private List<Compra>  todasCompras = new ArrayList<>();
+    private Usuario           usuarioActual;
+    private ResumenComprasDto resumen = SIN_COMPRAS;
 
     // ── Refs UI ───────────────────────────────────────────────────
     private StackPane rootStack;
@@ -106,7 +115,6 @@ public class ComprasController {
 
     public Node buildView(Usuario usuario) {
         this.usuarioActual = usuario;
-        recargarDatos();
 
         rootStack = new StackPane();
         rootStack.getStyleClass().add("inventario-root-stack");
@@ -126,11 +134,6 @@ public class ComprasController {
         return rootStack;
     }
 
-    private void recargarDatos() {
-        try { todasCompras = compraService.findAll(); }
-        catch (Exception e) { todasCompras = new ArrayList<>(); }
-    }
-
     // ─────────────────────────────────────────────────────────────
     // Tab bar
     // ─────────────────────────────────────────────────────────────
@@ -187,9 +190,14 @@ public class ComprasController {
 
     private void mostrarDashboard() {
         activarTab(tabDashboard);
-        recargarDatos();
-        contentArea.getChildren().clear();
+        // Conteos y sumas en BD: el dashboard no recorre el historial de compras
+        tareasUI.cargarEn(contentArea, "compras.resumen", compraService::obtenerResumen, r -> {
+            resumen = r;
+            return construirDashboard();
+        });
+    }
 
+    private Node construirDashboard() {
         ScrollPane scroll = new ScrollPane();
         scroll.setFitToWidth(true);
         scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
@@ -200,18 +208,10 @@ public class ComprasController {
         inner.setPadding(new Insets(28, 32, 32, 32));
 
         // ── KPI cards ─────────────────────────────────────────────
-        long totalCompras  = todasCompras.size();
-        BigDecimal totalGastado = todasCompras.stream()
-                .map(c -> c.getTotal() != null ? c.getTotal() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long proveedoresDistintos = todasCompras.stream()
-                .filter(c -> c.getProveedor() != null)
-                .map(c -> c.getProveedor().getId())
-                .distinct().count();
-        long productosDistintos = todasCompras.stream()
-                .flatMap(c -> c.getDetalles().stream())
-                .map(d -> d.getProducto().getId())
-                .distinct().count();
+        long totalCompras  = resumen.totalCompras();
+        BigDecimal totalGastado = resumen.totalGastado() != null ? resumen.totalGastado() : BigDecimal.ZERO;
+        long proveedoresDistintos = resumen.proveedoresConCompras();
+        long productosDistintos = resumen.productosComprados();
 
         HBox kpiRow = new HBox(16);
         kpiRow.getChildren().addAll(
@@ -227,10 +227,8 @@ public class ComprasController {
 
         // ── Lista de últimas 10 compras ────────────────────────────
         VBox listaRecientes = new VBox(8);
-        List<Compra> recientes = todasCompras.stream()
-                .sorted(Comparator.comparing(Compra::getFecha, Comparator.reverseOrder()))
-                .limit(10)
-                .collect(Collectors.toList());
+        // Ya vienen de la más reciente a la más antigua
+        List<FilaCompra> recientes = resumen.recientes();
 
         if (recientes.isEmpty()) {
             Label lv = new Label("Sin compras registradas todavía.");
@@ -255,8 +253,8 @@ public class ComprasController {
 
         inner.getChildren().addAll(kpiRow, new Separator(), chartsRow, new Separator(), lblRecientes, listaRecientes);
         scroll.setContent(inner);
-        contentArea.getChildren().add(scroll);
         animarEntrada(inner, 0);
+        return scroll;
     }
 
     private VBox crearKpiCard(String iconLiteral, String color, String titulo, String valor) {
@@ -298,19 +296,9 @@ public class ComprasController {
 
         // Últimos 6 meses
         DateTimeFormatter mesYFmt = DateTimeFormatter.ofPattern("MMM yy", Locale.of("es", "CO"));
-        YearMonth ahora = YearMonth.now();
         Map<String, BigDecimal> gastoMes = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            String mes = ahora.minusMonths(i).format(mesYFmt);
-            gastoMes.put(capitalizarEtiqueta(mes), BigDecimal.ZERO);
-        }
-        for (Compra c : todasCompras) {
-            if (c.getFecha() == null) continue;
-            String mes = capitalizarEtiqueta(YearMonth.from(c.getFecha()).format(mesYFmt));
-            if (gastoMes.containsKey(mes)) {
-                gastoMes.merge(mes, c.getTotal() != null ? c.getTotal() : BigDecimal.ZERO, BigDecimal::add);
-            }
-        }
+        resumen.gastoPorMes().forEach((mes, total) ->
+                gastoMes.put(capitalizarEtiqueta(mes.format(mesYFmt)), total));
 
         boolean sinDatos = gastoMes.values().stream().allMatch(v -> v.compareTo(BigDecimal.ZERO) == 0);
         if (sinDatos) {
@@ -374,12 +362,8 @@ public class ComprasController {
         ico.setIconSize(14); ico.setIconColor(Paint.valueOf("#94A3B8"));
         header.getChildren().addAll(lTit, ico);
 
-        // Gasto total por proveedor, top 5
-        Map<String, BigDecimal> porProveedor = todasCompras.stream()
-                .filter(c -> c.getProveedor() != null && c.getTotal() != null)
-                .collect(Collectors.groupingBy(
-                        c -> c.getProveedor().getNombre(),
-                        Collectors.reducing(BigDecimal.ZERO, Compra::getTotal, BigDecimal::add)));
+        // Gasto total por proveedor, top 5, ya sumado y ordenado en BD
+        Map<String, BigDecimal> porProveedor = resumen.topProveedores();
 
         if (porProveedor.isEmpty()) {
             card.getChildren().addAll(header, buildChartEmptyState("fas-truck",
@@ -419,17 +403,14 @@ public class ComprasController {
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         List<String> categoriasProveedores = new ArrayList<>();
         Set<String> etiquetasUsadas = new HashSet<>();
-        porProveedor.entrySet().stream()
-                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
-                .limit(5)
-                .forEach(e -> {
-                    String nombre = normalizarNombreGrafica(e.getKey());
-                    String etiqueta = abreviarEtiquetaEjeX(nombre, etiquetasUsadas);
-                    categoriasProveedores.add(etiqueta);
-                    XYChart.Data<String, Number> data = new XYChart.Data<>(etiqueta, e.getValue().doubleValue());
-                    data.setExtraValue(nombre);
-                    series.getData().add(data);
-                });
+        porProveedor.forEach((proveedor, total) -> {
+            String nombre = normalizarNombreGrafica(proveedor);
+            String etiqueta = abreviarEtiquetaEjeX(nombre, etiquetasUsadas);
+            categoriasProveedores.add(etiqueta);
+            XYChart.Data<String, Number> data = new XYChart.Data<>(etiqueta, total.doubleValue());
+            data.setExtraValue(nombre);
+            series.getData().add(data);
+        });
         xAxis.setCategories(FXCollections.observableArrayList(categoriasProveedores));
         chart.getData().add(series);
         instalarTooltipsSerie(series, "Proveedor");
@@ -573,7 +554,7 @@ public class ComprasController {
         return box;
     }
 
-    private HBox crearFilaReciente(Compra c) {
+    private HBox crearFilaReciente(FilaCompra c) {
         HBox row = new HBox(14);
         row.setAlignment(Pos.CENTER_LEFT);
         row.setStyle("-fx-background-color: #FDFCFA; -fx-background-radius: 10px; " +
@@ -593,21 +574,21 @@ public class ComprasController {
         // Info
         VBox info = new VBox(2);
         HBox.setHgrow(info, Priority.ALWAYS);
-        String proveedor = c.getProveedor() != null ? c.getProveedor().getNombre() : "Sin proveedor";
+        String proveedor = c.proveedor() != null ? c.proveedor() : "Sin proveedor";
         Label lProv = new Label(proveedor);
         lProv.setStyle("-fx-font-size: 13px; -fx-font-weight: 600; -fx-text-fill: #1A1F2E;");
-        String factura = c.getNumeroFactura() != null && !c.getNumeroFactura().isBlank()
-                ? "Factura #" + c.getNumeroFactura() : "Sin número de factura";
-        Label lFact = new Label(factura + "  ·  " + c.getDetalles().size() + " productos");
+        String factura = c.numeroFactura() != null && !c.numeroFactura().isBlank()
+                ? "Factura #" + c.numeroFactura() : "Sin número de factura";
+        Label lFact = new Label(factura + "  ·  " + c.numeroProductos() + " productos");
         lFact.setStyle("-fx-font-size: 11px; -fx-text-fill: #A8A29E;");
         info.getChildren().addAll(lProv, lFact);
 
         // Fecha
-        Label lFecha = new Label(c.getFecha() != null ? c.getFecha().format(DFT) : "—");
+        Label lFecha = new Label(c.fecha() != null ? c.fecha().format(DFT) : "—");
         lFecha.setStyle("-fx-font-size: 11px; -fx-text-fill: #A8A29E;");
 
         // Total
-        Label lTotal = new Label(FMT.format(c.getTotal() != null ? c.getTotal() : BigDecimal.ZERO));
+        Label lTotal = new Label(FMT.format(c.total() != null ? c.total() : BigDecimal.ZERO));
         lTotal.setStyle("-fx-font-size: 14px; -fx-font-weight: 700; -fx-text-fill: #15803D;");
 
         row.getChildren().addAll(ico, info, lFecha, lTotal);
@@ -642,39 +623,44 @@ public class ComprasController {
 
         toolbar.getChildren().addAll(lblTit, txtBuscar);
 
-        // Tabla
-        TableView<Compra> tabla = new TableView<>();
+        // Tabla: se cargan tramos de la base al desplazarse, siguiendo a la última compra mostrada
+        TablaHistorial<FilaCompra> historial = new TablaHistorial<>(tareasUI, "compras.historial",
+                TRAMOS_EN_MEMORIA,
+                cursor -> {
+                    FiltroCompras filtro = FiltroCompras.porTexto(txtBuscar.getText());
+                    return () -> compraService.historial(filtro, cursor, FILAS_POR_TRAMO);
+                });
+        TableView<FilaCompra> tabla = historial.getTabla();
         tabla.getStyleClass().add("inventario-table-card");
-        VBox.setVgrow(tabla, Priority.ALWAYS);
         tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         tabla.setPlaceholder(new Label("Sin compras registradas."));
 
-        TableColumn<Compra, String> colFecha = new TableColumn<>("Fecha");
+        TableColumn<FilaCompra, String> colFecha = new TableColumn<>("Fecha");
         colFecha.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getFecha() != null ? d.getValue().getFecha().format(DFT) : "—"));
+                d.getValue().fecha() != null ? d.getValue().fecha().format(DFT) : "—"));
         colFecha.setPrefWidth(130);
 
-        TableColumn<Compra, String> colProveedor = new TableColumn<>("Proveedor");
+        TableColumn<FilaCompra, String> colProveedor = new TableColumn<>("Proveedor");
         colProveedor.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getProveedor() != null ? d.getValue().getProveedor().getNombre() : "—"));
+                d.getValue().proveedor() != null ? d.getValue().proveedor() : "—"));
 
-        TableColumn<Compra, String> colFactura = new TableColumn<>("N° Factura");
+        TableColumn<FilaCompra, String> colFactura = new TableColumn<>("N° Factura");
         colFactura.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getNumeroFactura() != null ? d.getValue().getNumeroFactura() : "—"));
+                d.getValue().numeroFactura() != null ? d.getValue().numeroFactura() : "—"));
         colFactura.setPrefWidth(120);
 
-        TableColumn<Compra, String> colProductos = new TableColumn<>("Productos");
+        TableColumn<FilaCompra, String> colProductos = new TableColumn<>("Productos");
         colProductos.setCellValueFactory(d -> new SimpleStringProperty(
-                String.valueOf(d.getValue().getDetalles().size())));
+                String.valueOf(d.getValue().numeroProductos())));
         colProductos.setPrefWidth(80);
         colProductos.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<Compra, String> colTotal = new TableColumn<>("Total");
+        TableColumn<FilaCompra, String> colTotal = new TableColumn<>("Total");
         colTotal.setCellValueFactory(d -> new SimpleStringProperty(
-                FMT.format(d.getValue().getTotal() != null ? d.getValue().getTotal() : BigDecimal.ZERO)));
+                FMT.format(d.getValue().total() != null ? d.getValue().total() : BigDecimal.ZERO)));
         colTotal.setPrefWidth(130);
         colTotal.setCellFactory(tc -> {
-            TableCell<Compra, String> cell = new TableCell<>() {
+            TableCell<FilaCompra, String> cell = new TableCell<>() {
                 @Override protected void updateItem(String s, boolean empty) {
                     super.updateItem(s, empty);
                     if (empty || s == null) { setText(null); setStyle(""); }
@@ -685,7 +671,7 @@ public class ComprasController {
         });
 
         // Columna de acción rápida (ver detalle)
-        TableColumn<Compra, String> colAccion = new TableColumn<>("");
+        TableColumn<FilaCompra, String> colAccion = new TableColumn<>("");
         colAccion.setCellValueFactory(d -> new SimpleStringProperty(""));
         colAccion.setCellFactory(col -> new TableCell<>() {
             private final Button btn = new Button();
@@ -697,7 +683,7 @@ public class ComprasController {
                 btn.getStyleClass().add("prod-row-arrow");
                 btn.setOnAction(e -> {
                     if (getTableRow() != null && getTableRow().getItem() != null)
-                        mostrarDetalleCompra(getTableRow().getItem());
+                        abrirDetalleCompra(getTableRow().getItem());
                 });
                 setAlignment(Pos.CENTER);
             }
@@ -710,54 +696,36 @@ public class ComprasController {
         });
         colAccion.setMinWidth(44);
         colAccion.setMaxWidth(44);
-        colAccion.setSortable(false);
 
-        List<TableColumn<Compra, ?>> cols = List.of(colFecha, colProveedor, colFactura, colProductos, colTotal, colAccion);
-        tabla.getColumns().addAll(cols);
+        historial.columnas(colFecha, colProveedor, colFactura, colProductos, colTotal, colAccion);
 
         // Estilo filas + click para ver detalle
         tabla.setRowFactory(tv -> {
-            TableRow<Compra> row = new TableRow<>();
+            TableRow<FilaCompra> row = new TableRow<>();
             row.setOnMouseEntered(e -> { if (!row.isEmpty()) row.setStyle("-fx-background-color: rgba(90,106,207,0.05); -fx-cursor: hand;"); });
             row.setOnMouseExited(e -> row.setStyle(""));
             row.setOnMouseClicked(e -> {
                 if (!row.isEmpty() && row.getItem() != null) {
-                    mostrarDetalleCompra(row.getItem());
+                    abrirDetalleCompra(row.getItem());
                 }
             });
             return row;
         });
 
-        // Datos iniciales y filtrado
-        List<Compra> comprasOrdenadas = todasCompras.stream()
-                .sorted(Comparator.comparing(Compra::getFecha, Comparator.reverseOrder()))
-                .collect(Collectors.toList());
-        tabla.setItems(FXCollections.observableArrayList(comprasOrdenadas));
+        txtBuscar.textProperty().addListener((obs, o, n) -> historial.filtrar());
+        historial.recargar();
 
-        txtBuscar.textProperty().addListener((obs, o, n) -> {
-            String texto = n == null ? "" : n.toLowerCase();
-            if (texto.isBlank()) {
-                tabla.setItems(FXCollections.observableArrayList(comprasOrdenadas));
-            } else {
-                tabla.setItems(FXCollections.observableArrayList(
-                    comprasOrdenadas.stream()
-                        .filter(c -> {
-                            boolean matchProv = c.getProveedor() != null
-                                    && c.getProveedor().getNombre().toLowerCase().contains(texto);
-                            boolean matchFact = c.getNumeroFactura() != null
-                                    && c.getNumeroFactura().toLowerCase().contains(texto);
-                            return matchProv || matchFact;
-                        })
-                        .collect(Collectors.toList())
-                ));
-            }
-        });
-
-        wrapper.getChildren().addAll(toolbar, tabla);
+        wrapper.getChildren().addAll(toolbar, historial);
         contentArea.getChildren().add(wrapper);
         animarEntrada(wrapper, 0);
     }
 
+    // La fila del historial no trae los detalles: se carga la compra completa al abrirla
+    private void abrirDetalleCompra(FilaCompra fila) {
+        tareasUI.ejecutar("compras.detalle:" + fila.id(), () -> compraService.findById(fila.id()),
+                this::mostrarDetalleCompra);
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Detalle de compra (view switching)
     // ─────────────────────────────────────────────────────────────
@@ -951,16 +919,18 @@ public class ComprasController {
     // Paso 1 — Selector de proveedor
     // ─────────────────────────────────────────────────────────────
 
-    private void abrirModalNuevaCompra() {
-        List<Proveedor> proveedores;
-        List<Producto>  productos;
-        try { proveedores = proveedorService.findAllActivos(); }
-        catch (Exception e) { proveedores = new ArrayList<>(); }
-        try { productos = new ArrayList<>(productoService.findAllActivos()); }
-        catch (Exception e) { productos = new ArrayList<>(); }
+    private record DatosNuevaCompra(List<Proveedor> proveedores, List<Producto> productos) {}
 
-        final List<Producto> listaProductos = productos;
+    private void abrirModalNuevaCompra() {
+        // Si la carga falla el modal se abre igual, sin proveedores ni productos que sugerir
+        tareasUI.ejecutar("compras.nueva",
+                () -> new DatosNuevaCompra(proveedorService.findAllActivos(),
+                        new ArrayList<>(catalogoService.findAllActivos())),
+                datos -> abrirModalNuevaCompra(datos.proveedores(), datos.productos()),
+                error -> abrirModalNuevaCompra(List.of(), new ArrayList<>()));
+    }
 
+    private void abrirModalNuevaCompra(List<Proveedor> proveedores, List<Producto> listaProductos) {
         StackPane overlay = new StackPane();
         overlay.getStyleClass().add("inventario-modal-overlay");
         overlay.setOnMouseClicked(e -> { if (e.getTarget() == overlay) cerrarModal(overlay); });
@@ -973,6 +943,12 @@ public class ComprasController {
         ftOverlay.setFromValue(0); ftOverlay.setToValue(1); ftOverlay.play();
     }
 
+    private void recargarSelectorProveedor(StackPane overlay, List<Producto> listaProductos) {
+        tareasUI.ejecutar("compras.proveedores", proveedorService::findAllActivos,
+                proveedores -> mostrarSelectorProveedor(overlay, new ArrayList<>(proveedores), listaProductos),
+                error -> mostrarSelectorProveedor(overlay, new ArrayList<>(), listaProductos));
+    }
+
     private void mostrarSelectorProveedor(StackPane overlay, List<Proveedor> proveedores, List<Producto> listaProductos) {
         overlay.getChildren().clear();
 
@@ -1195,12 +1171,7 @@ public class ComprasController {
         Button btnCambiar = new Button("Cambiar", icoVolver);
         btnCambiar.setStyle("-fx-background-color: transparent; -fx-text-fill: #5A6ACF; " +
                             "-fx-font-size: 12px; -fx-font-weight: 600; -fx-cursor: hand; -fx-padding: 4 8;");
-        btnCambiar.setOnAction(e -> {
-            List<Proveedor> prov2;
-            try { prov2 = proveedorService.findAllActivos(); }
-            catch (Exception ex) { prov2 = new ArrayList<>(); }
-            mostrarSelectorProveedor(overlay, prov2, listaProductos);
-        });
+        btnCambiar.setOnAction(e -> recargarSelectorProveedor(overlay, listaProductos));
 
         provInfo.getChildren().addAll(provIco, provData, btnCambiar);
 
@@ -1293,9 +1264,10 @@ public class ComprasController {
         listaLineasRef[0] = listaLineas;
         recalcularRef[0] = recalcularTotal;
 
-        // ── Pre-carga de la última compra del proveedor ───────────
-        try {
-            compraService.findUltimaCompraByProveedorId(proveedor.getId()).ifPresent(ultima -> {
+        // ── Pre-carga de la última compra del proveedor (en segundo plano) ──
+        tareasUI.ejecutar("compras.ultima." + proveedor.getId(),
+                () -> compraService.findUltimaCompraByProveedorId(proveedor.getId()),
+                encontrada -> encontrada.ifPresent(ultima -> {
                 List<DetalleCompra> detalles = ultima.getDetalles();
                 if (detalles == null || detalles.isEmpty()) return;
 
@@ -1336,23 +1308,18 @@ public class ComprasController {
                     bannerPreCarga.setVisible(true);
                     bannerPreCarga.setManaged(true);
                 }
-            });
-        } catch (Exception ignored) {}
+            }));
 
         // Listener del buscador de productos
         txtBuscarProd.textProperty().addListener((obs, o, n) -> {
             sugerencias.getChildren().clear();
             String textoOriginal = n == null ? "" : n.trim();
-            String texto = textoOriginal.toLowerCase();
-            if (texto.isBlank()) {
+            if (textoOriginal.isBlank()) {
                 scrollSug.setVisible(false); scrollSug.setManaged(false);
                 return;
             }
-            List<Producto> matches = listaProductos.stream()
-                    .filter(p -> p.getNombre().toLowerCase().contains(texto)
-                            || (p.getCodigoBarras() != null && p.getCodigoBarras().toLowerCase().contains(texto)))
-                    .limit(8)
-                    .collect(Collectors.toList());
+            // Top 8 del índice del catálogo; incluye los productos creados desde este mismo formulario
+            List<Producto> matches = catalogoService.buscar(textoOriginal, null, 8);
 
             if (matches.isEmpty()) {
                 Label lv = new Label("Sin resultados para \"" + textoOriginal + "\"");
@@ -1488,7 +1455,6 @@ public class ComprasController {
                         txtFactura.getText().trim().isEmpty() ? null : txtFactura.getText().trim(),
                         items);
                 cerrarModal(overlay);
-                recargarDatos();
                 mostrarDashboard();
                 Alert ok = new Alert(Alert.AlertType.INFORMATION);
                 ok.setTitle("Compra registrada");
@@ -1684,10 +1650,7 @@ public class ComprasController {
                 proveedorService.crear(nuevo);
                 cerrarModal(overlayCrear);
                 // Refrescar selector con lista actualizada
-                List<Proveedor> nuevaLista;
-                try { nuevaLista = proveedorService.findAllActivos(); }
-                catch (Exception ex2) { nuevaLista = new ArrayList<>(); }
-                mostrarSelectorProveedor(overlayPadre, nuevaLista, listaProductos);
+                recargarSelectorProveedor(overlayPadre, listaProductos);
             } catch (BusinessException ex) {
                 mostrarErrorModal(lblError, ex.getMessage());
             } catch (Exception ex) {
@@ -1,13 +1,16 @@
 package com.nap.pos.ui.controller;
 
 import com.nap.pos.application.service.ConfiguracionService;
+import com.nap.pos.application.service.ResumenVentaService;
 import com.nap.pos.application.service.UsuarioService;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.ConfiguracionTienda;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.RegimenTributario;
 import com.nap.pos.domain.model.enums.Rol;
+import com.nap.pos.domain.model.enums.TipoImpresora;
 import com.nap.pos.domain.model.enums.TipoPersona;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -46,6 +49,8 @@ public class ConfiguracionController {
 
     private final ConfiguracionService configuracionService;
     private final UsuarioService       usuarioService;
+    private final ResumenVentaService  resumenVentaService;
+    private final TareasUI             tareasUI;
 
     // ── Estado ──────────────────────────────────────────────────────────────
     private ConfiguracionTienda configActual;
@@ -83,6 +88,8 @@ public class ConfiguracionController {
     // ── Comprobantes ─────────────────────────────────────────────────────────
     private TextField        txtPrefijo;
     private Spinner<Integer> spnNumeroInicial;
+    private ComboBox<TipoImpresora> cmbTipoImpresora;
+    private TextField        txtDestinoImpresora;
 
     // ── Inventario ───────────────────────────────────────────────────────────
     private Spinner<Integer>  spnStockMinimo;
@@ -99,9 +106,6 @@ public class ConfiguracionController {
 
     public Node buildView(Usuario usuario) {
         this.usuarioActual        = usuario;
-        this.configActual         = configuracionService.obtener();
-        this.tipoPersona          = configActual.getTipoPersona();
-        this.rutaLogoSeleccionada = configActual.getRutaLogo();
 
         rootStack = new StackPane();
         rootStack.setStyle("-fx-background-color: #F5F1EB;");
@@ -113,10 +117,20 @@ public class ConfiguracionController {
         contentArea.setStyle("-fx-background-color: #F5F1EB;");
         VBox.setVgrow(contentArea, Priority.ALWAYS);
 
-        root.getChildren().addAll(buildTabBar(), contentArea);
+        // Los paneles se arman desde configActual: las pestañas esperan a que llegue
+        HBox tabBar = buildTabBar();
+        tabBar.setDisable(true);
+        root.getChildren().addAll(tabBar, contentArea);
         rootStack.getChildren().add(root);
 
-        mostrarTab(tabDatos, buildDatosPanel());
+        tareasUI.cargarEn(contentArea, "configuracion", configuracionService::obtener, config -> {
+            this.configActual         = config;
+            this.tipoPersona          = config.getTipoPersona();
+            this.rutaLogoSeleccionada = config.getRutaLogo();
+            tabBar.setDisable(false);
+            activarTab(tabDatos);
+            return envolver(buildDatosPanel());
+        });
         return rootStack;
     }
 
@@ -146,7 +160,7 @@ public class ConfiguracionController {
 
         if (usuarioActual.esAdmin()) {
             tabUsuarios = crearTab("fas-users", "Usuarios", false);
-            tabUsuarios.setOnAction(e -> { animarClickTab(tabUsuarios); mostrarTab(tabUsuarios, buildUsuariosPanel()); });
+            tabUsuarios.setOnAction(e -> { animarClickTab(tabUsuarios); mostrarUsuarios(); });
             bar.getChildren().add(tabUsuarios);
         }
 
@@ -192,12 +206,16 @@ public class ConfiguracionController {
 
     private void mostrarTab(Button tab, Node panel) {
         activarTab(tab);
+        contentArea.getChildren().setAll(envolver(panel));
+    }
+
+    private ScrollPane envolver(Node panel) {
         ScrollPane scroll = new ScrollPane(panel);
         scroll.setFitToWidth(true);
         scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
         scroll.getStyleClass().add("cfg-scroll");
         VBox.setVgrow(scroll, Priority.ALWAYS);
-        contentArea.getChildren().setAll(scroll);
+        return scroll;
     }
 
     // ════════════════════════════════════════════════════════════════════════
@@ -364,10 +382,65 @@ public class ConfiguracionController {
                 buildSpinnerField("Número Inicial", spnNumeroInicial, null),
                 previewBox);
 
-        panel.getChildren().addAll(card, buildActionBar(this::guardarComprobantes));
+        panel.getChildren().addAll(card, buildImpresoraCard(), buildActionBar(this::guardarComprobantes));
+
+        if (usuarioActual.esAdmin()) {
+            panel.getChildren().add(buildResumenVentasCard());
+        }
         return panel;
     }
 
+    /** Card de impresión: texto plano en el visor del sistema o impresora térmica ESC/POS. */
+    private VBox buildImpresoraCard() {
+        VBox card = buildCard("Impresora de Tickets", "fas-print");
+
+        cmbTipoImpresora = new ComboBox<>(FXCollections.observableArrayList(TipoImpresora.values()));
+        cmbTipoImpresora.setValue(configActual.getTipoImpresora());
+        cmbTipoImpresora.setMaxWidth(Double.MAX_VALUE);
+
+        txtDestinoImpresora = new TextField(
+                configActual.getDestinoImpresora() != null ? configActual.getDestinoImpresora() : "");
+        txtDestinoImpresora.setPromptText("tcp://192.168.1.50:9100  ·  /dev/usb/lp0  ·  \\\\PC\\Termica");
+        VBox destinoBox = buildField("Destino de la impresora", txtDestinoImpresora,
+                "Vacío: se guarda el archivo .bin en la carpeta de tickets");
+
+        Runnable actualizarDestino = () -> {
+            boolean escPos = cmbTipoImpresora.getValue() == TipoImpresora.ESC_POS;
+            destinoBox.setVisible(escPos);
+            destinoBox.setManaged(escPos);
+        };
+        cmbTipoImpresora.setOnAction(e -> actualizarDestino.run());
+        actualizarDestino.run();
+
+        card.getChildren().addAll(buildFieldWithNode("Tipo de impresora", cmbTipoImpresora), destinoBox);
+        return card;
+    }
+
+    /** Card de mantenimiento: reconstruye el resumen diario que alimenta dashboard y reportes. */
+    private VBox buildResumenVentasCard() {
+        VBox card = buildCard("Resumen de Ventas", "fas-sync-alt");
+
+        Label info = new Label("El dashboard y los reportes de rentabilidad leen un resumen diario "
+                + "que se actualiza con cada venta. Si los totales no coinciden con el historial "
+                + "(por ejemplo, tras restaurar una copia de la base de datos), reconstrúyelo.");
+        info.setWrapText(true);
+        info.setStyle("-fx-font-size: 12px; -fx-text-fill: #4B5563;");
+
+        Button btnReconstruir = new Button("Reconstruir resumen");
+        btnReconstruir.getStyleClass().add("btn-secundario");
+        btnReconstruir.setOnAction(e -> {
+            try {
+                resumenVentaService.reconstruir();
+                mostrarExito("Resumen de ventas reconstruido desde el historial.");
+            } catch (Exception ex) {
+                mostrarError("No se pudo reconstruir el resumen: " + ex.getMessage());
+            }
+        });
+
+        card.getChildren().addAll(info, btnReconstruir);
+        return card;
+    }
+
     // ════════════════════════════════════════════════════════════════════════
     //  Panel — Inventario
     // ════════════════════════════════════════════════════════════════════════
@@ -514,6 +587,9 @@ public class ConfiguracionController {
         configActual = configuracionService.guardar(withBase()
                 .prefijoComprobante(txtPrefijo.getText().trim())
                 .numeroInicialComprobante(spnNumeroInicial.getValue())
+                .tipoImpresora(cmbTipoImpresora.getValue())
+                .destinoImpresora(txtDestinoImpresora.getText().isBlank()
+                        ? null : txtDestinoImpresora.getText().trim())
                 .build());
         mostrarExito("Configuración de comprobantes actualizada.");
     }
@@ -582,6 +658,8 @@ public class ConfiguracionController {
                 .porcentajeGananciaGlobal(configActual.getPorcentajeGananciaGlobal())
                 .prefijoComprobante(configActual.getPrefijoComprobante())
                 .numeroInicialComprobante(configActual.getNumeroInicialComprobante())
+                .tipoImpresora(configActual.getTipoImpresora())
+                .destinoImpresora(configActual.getDestinoImpresora())
                 .mesInventarioAnual(configActual.getMesInventarioAnual())
                 .diaInventarioAnual(configActual.getDiaInventarioAnual())
                 .propietarioId(configActual.getPropietarioId());
@@ -776,8 +854,13 @@ public class ConfiguracionController {
     //  Panel — Usuarios (solo ADMIN)
     // ════════════════════════════════════════════════════════════════════════
 
-    private VBox buildUsuariosPanel() {
-        List<Usuario> todos = usuarioService.findAll();
+    private void mostrarUsuarios() {
+        activarTab(tabUsuarios);
+        tareasUI.cargarEn(contentArea, "configuracion.usuarios", usuarioService::findAll,
+                todos -> envolver(buildUsuariosPanel(todos)));
+    }
+
+    private VBox buildUsuariosPanel(List<Usuario> todos) {
         long nAdmins  = todos.stream().filter(Usuario::esAdmin).count();
         long nCajeros = todos.stream().filter(u -> !u.esAdmin()).count();
         long nActivos = todos.stream().filter(Usuario::isActivo).count();
@@ -955,7 +1038,7 @@ public class ConfiguracionController {
             if (r == ButtonType.OK) {
                 try {
                     usuarioService.toggleActivo(u.getId(), usuarioActual.getId());
-                    mostrarTab(tabUsuarios, buildUsuariosPanel());
+                    mostrarUsuarios();
                 } catch (BusinessException ex) {
                     mostrarError(ex.getMessage());
                 }
@@ -1175,7 +1258,7 @@ public class ConfiguracionController {
                             usuarioActual.getId());
                 }
                 cerrar.run();
-                mostrarTab(tabUsuarios, buildUsuariosPanel());
+                mostrarUsuarios();
             } catch (BusinessException ex) {
                 setModalError(lblModalError, ex.getMessage());
             } catch (Exception ex) {
@@ -1,20 +1,25 @@
 package com.nap.pos.ui.controller;
 
-import com.nap.pos.application.service.CajaService;
-import com.nap.pos.application.service.ClienteService;
+import com.nap.pos.application.dto.ResumenDashboardDto;
+import com.nap.pos.application.event.BusEventos;
+import com.nap.pos.application.event.CajaCerradaEvent;
+import com.nap.pos.application.event.EventoDominio;
+import com.nap.pos.application.event.VentaAnuladaEvent;
+import com.nap.pos.application.event.VentaRegistradaEvent;
+import com.nap.pos.application.service.DashboardService;
 import com.nap.pos.application.service.NotificacionService;
-import com.nap.pos.application.service.ProductoService;
-import com.nap.pos.application.service.VentaService;
 import com.nap.pos.domain.model.Notificacion;
 import com.nap.pos.domain.model.Venta;
 import com.nap.pos.domain.model.enums.EstadoVenta;
 import com.nap.pos.domain.model.enums.MetodoPago;
 import com.nap.pos.domain.model.enums.TipoNotificacion;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.scene.Cursor;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
@@ -42,11 +47,8 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
-import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -58,53 +60,74 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final VentaService        ventaService;
-    private final ProductoService     productoService;
-    private final ClienteService      clienteService;
-    private final CajaService         cajaService;
+    private final DashboardService    dashboardService;
     private final NotificacionService notificacionService;
+    private final TareasUI            tareasUI;
+    private final BusEventos          busEventos;
+
+    private StackPane contenedor;
+    private Runnable  onVerHistorial;
+    private boolean   suscrito;
+
+    /** Datos del dashboard, leídos fuera del hilo de JavaFX. */
+    private record DatosDashboard(ResumenDashboardDto resumen, List<Notificacion> notifs) {
+    }
 
     /**
-     * Construye y retorna la vista completa del dashboard.
+     * Construye y retorna la vista del dashboard. Los datos se cargan en segundo plano;
+     * mientras tanto se muestra un indicador de carga.
      *
      * @param onVerHistorial acción ejecutada al presionar "Ver historial completo"
      */
     public ScrollPane buildView(Runnable onVerHistorial) {
+        this.onVerHistorial = onVerHistorial;
+        contenedor = new StackPane();
+        contenedor.getStyleClass().add("dashboard-root");
+        tareasUI.cargarEn(contenedor, "dashboard", this::cargarDatos, datos -> construir(datos, onVerHistorial));
+
+        if (!suscrito) {
+            busEventos.suscribir(VentaRegistradaEvent.class, this::alCambiarVentasOCaja);
+            busEventos.suscribir(VentaAnuladaEvent.class, this::alCambiarVentasOCaja);
+            busEventos.suscribir(CajaCerradaEvent.class, this::alCambiarVentasOCaja);
+            suscrito = true;
+        }
+
+        ScrollPane scroll = new ScrollPane(contenedor);
+        scroll.setFitToWidth(true);
+        scroll.setFitToHeight(true);
+        scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scroll.getStyleClass().add("dashboard-scroll");
+        return scroll;
+    }
+
+    /**
+     * Ventas registradas o anuladas y cierres de caja (llegan en el hilo de {@link BusEventos}):
+     * si el dashboard está en pantalla relee el resumen y lo repinta sin pasar por "Cargando…".
+     */
+    private void alCambiarVentasOCaja(List<? extends EventoDominio> lote) {
+        Platform.runLater(() -> {
+            if (contenedor == null || contenedor.getScene() == null) return;
+            StackPane destino = contenedor;
+            tareasUI.ejecutar("dashboard", this::cargarDatos,
+                    datos -> destino.getChildren().setAll(construir(datos, onVerHistorial)));
+        });
+    }
+
+    // Corre en un hilo virtual: solo consultas, nada de nodos
+    private DatosDashboard cargarDatos() {
+        List<Notificacion> notifs = List.of();
+        try { notifs = notificacionService.getNotificaciones(); } catch (Exception ignored) {}
+        return new DatosDashboard(dashboardService.obtenerResumen(), notifs);
+    }
 
-        // ── Recopila datos ────────────────────────────────────────
-        int  totalProductos = 0;
-        int  sinStock       = 0;
-        int  totalClientes  = 0;
-        boolean cajaAbierta = false;
-        List<Notificacion> notifs      = List.of();
-        List<Venta>        todasVentas = List.of();
-
-        try { totalProductos = productoService.findAllActivos().size(); }         catch (Exception ignored) {}
-        try {
-            sinStock = (int) productoService.findAllActivos().stream()
-                    .filter(p -> p.getStock() == 0).count();
-        } catch (Exception ignored) {}
-        try { totalClientes = clienteService.findAll().size(); }                  catch (Exception ignored) {}
-        try { cajaService.getCajaAbierta(); cajaAbierta = true; }                 catch (Exception ignored) {}
-        try { notifs      = notificacionService.getNotificaciones(); }            catch (Exception ignored) {}
-        try { todasVentas = ventaService.findAll(); }                             catch (Exception ignored) {}
-
-        LocalDate hoy = LocalDate.now();
-        final List<Venta> ventasHoy = todasVentas.stream()
-                .filter(v -> v.getFecha() != null && v.getFecha().toLocalDate().equals(hoy))
-                .filter(v -> EstadoVenta.COMPLETADA.equals(v.getEstado()))
-                .collect(Collectors.toList());
-        BigDecimal totalHoy = ventasHoy.stream()
-                .map(Venta::getTotal).filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        List<Venta> ultimasVentas = todasVentas.stream()
-                .sorted(Comparator.comparing(
-                        v -> v.getFecha() != null ? v.getFecha()
-                                : java.time.LocalDateTime.MIN,
-                        Comparator.reverseOrder()))
-                .limit(5)
-                .collect(Collectors.toList());
+    private Node construir(DatosDashboard datos, Runnable onVerHistorial) {
+        ResumenDashboardDto resumen = datos.resumen();
+        long totalProductos = resumen.productosActivos();
+        long sinStock       = resumen.productosSinStock();
+        long totalClientes  = resumen.clientes();
+        boolean cajaAbierta = resumen.cajaAbierta();
+        List<Notificacion> notifs        = datos.notifs();
+        List<Venta>        ultimasVentas = resumen.ultimasVentas();
 
         // ── Layout raíz ──────────────────────────────────────────
         VBox root = new VBox(24);
@@ -142,7 +165,7 @@ public class DashboardController {
         HBox midRow = new HBox(16);
         midRow.setAlignment(Pos.TOP_LEFT);
 
-        VBox chartCard = crearChartCard(ventasHoy, totalHoy);
+        VBox chartCard = crearChartCard(resumen.totalPorHora(), resumen.totalHoy(), resumen.ventasHoy());
         HBox.setHgrow(chartCard, Priority.ALWAYS);
 
         VBox alertsCard = crearAlertasCard(notifs);
@@ -166,11 +189,7 @@ public class DashboardController {
         animarEntrada(alertsCard,380);
         animarEntrada(tableCard, 440);
 
-        ScrollPane scroll = new ScrollPane(root);
-        scroll.setFitToWidth(true);
-        scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scroll.getStyleClass().add("dashboard-scroll");
-        return scroll;
+        return root;
     }
 
     // ── Helpers de construcción de UI ────────────────────────────
@@ -275,7 +294,7 @@ public class DashboardController {
         });
     }
 
-    private VBox crearChartCard(List<Venta> ventasHoy, BigDecimal totalHoy) {
+    private VBox crearChartCard(List<BigDecimal> totalPorHora, BigDecimal totalHoy, int ventasHoy) {
         VBox card = new VBox(14);
         card.getStyleClass().addAll("card", "dashboard-chart-card");
 
@@ -292,7 +311,10 @@ public class DashboardController {
         Label lTotal = new Label(fmt.format(totalHoy));
         lTotal.getStyleClass().add("dashboard-chart-total");
 
-        headerLeft.getChildren().addAll(lLabel, lTotal);
+        Label lCantidad = new Label(ventasHoy == 1 ? "1 venta completada" : ventasHoy + " ventas completadas");
+        lCantidad.getStyleClass().add("dashboard-stat-sub");
+
+        headerLeft.getChildren().addAll(lLabel, lTotal, lCantidad);
         header.getChildren().add(headerLeft);
 
         CategoryAxis xAxis = new CategoryAxis();
@@ -319,14 +341,8 @@ public class DashboardController {
         String[] labels = {"8am", "10am", "12pm", "2pm", "4pm", "6pm", "8pm"};
         int[]    hours   = {8,     10,     12,     14,    16,    18,    20   };
         for (int i = 0; i < labels.length; i++) {
-            final int h = hours[i];
-            double subtotal = ventasHoy.stream()
-                    .filter(v -> v.getFecha() != null
-                            && (v.getFecha().getHour() == h
-                                || v.getFecha().getHour() == h + 1))
-                    .mapToDouble(v -> v.getTotal() == null ? 0
-                            : v.getTotal().doubleValue())
-                    .sum();
+            int h = hours[i];
+            double subtotal = totalPorHora.get(h).add(totalPorHora.get(h + 1)).doubleValue();
             series.getData().add(new XYChart.Data<>(labels[i], subtotal));
         }
         chart.getData().add(series);
@@ -377,7 +393,8 @@ public class DashboardController {
 
         boolean esPago = TipoNotificacion.PAGO_CREDITO_PROXIMO.equals(n.tipo());
 
-        FontIcon tipoIco = new FontIcon(esPago ? "fas-credit-card" : "fas-boxes");
+        boolean esImpresion = TipoNotificacion.IMPRESION_FALLIDA.equals(n.tipo());
+        FontIcon tipoIco = new FontIcon(esPago ? "fas-credit-card" : esImpresion ? "fas-print" : "fas-boxes");
         tipoIco.setIconSize(14);
         String icoColor = switch (n.severidad()) {
             case CRITICA     -> "#EF4444";
@@ -404,7 +421,9 @@ public class DashboardController {
         left.getChildren().addAll(lNom, lMsg);
 
         String badgeText;
-        if (esPago) {
+        if (esImpresion) {
+            badgeText = "Impresión";
+        } else if (esPago) {
             badgeText = "Crédito";
         } else {
             badgeText = switch (n.severidad()) {
@@ -2,11 +2,13 @@ package com.nap.pos.ui.controller;
 
 import com.nap.pos.application.dto.importacion.*;
 import com.nap.pos.application.service.ImportacionService;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -27,6 +29,7 @@ import java.util.*;
 public class ImportacionController {
 
     private final ImportacionService importacionService;
+    private final TareasUI           tareasUI;
 
     // ── Estado interno ──────────────────────────────────────────────────
     private TipoEntidad tipoEntidad = TipoEntidad.PRODUCTO;
@@ -34,9 +37,11 @@ public class ImportacionController {
     private List<String> encabezados;
     private Map<CampoImportacion, ComboBox<String>> comboBoxMapeo;
     private Map<CampoImportacion, Integer> mapeoActual;
+    private AnalisisImportacion analisis;
     private ObservableList<DuplicadoViewModel> duplicadosObservable;
     private ObservableList<CategoriaSubcategoriaViewModel> categoriasObservable;
     private boolean mostroCategorias = false;
+    private boolean importando = false;
     private int pasoActual = 0;
 
     // ── Nodos FXML ──────────────────────────────────────────────────────
@@ -53,6 +58,9 @@ public class ImportacionController {
     @FXML private TableView<CategoriaSubcategoriaViewModel> tablaCategorias;
     @FXML private TableView<DuplicadoViewModel> tablaDuplicados;
     @FXML private Label lblImportados, lblActualizados, lblOmitidos;
+    @FXML private Label lblTituloResultado, lblProgreso;
+    @FXML private VBox panelProgreso, panelResultado;
+    @FXML private ProgressBar progressImportacion;
     @FXML private Button btnAnterior, btnSiguiente, btnDescargarPlantilla, btnDetectarAuto;
 
     @FXML
@@ -103,6 +111,7 @@ public class ImportacionController {
         File archivo = fc.showOpenDialog(stackPanePasos.getScene().getWindow());
         if (archivo != null) {
             archivoSeleccionado = archivo;
+            analisis = null;
             lblArchivo.setText(archivo.getName());
         }
     }
@@ -232,23 +241,40 @@ public class ImportacionController {
         mapeoActual = recogerMapeoDeComboBoxes();
         mostrarPaso(2);
 
-        // Validar (sincrónico — los archivos son pequeños en desktop)
-        List<FilaError> errores = tipoEntidad == TipoEntidad.PRODUCTO
-                ? importacionService.validarProductos(archivoSeleccionado, mapeoActual)
-                : importacionService.validarClientes(archivoSeleccionado, mapeoActual);
+        // Una sola lectura del archivo: validación, duplicados y categorías nuevas. Corre fuera
+        // del hilo de JavaFX para que el indicador se vea mientras se recorre el archivo
+        File archivo = archivoSeleccionado;
+        Map<CampoImportacion, Integer> mapeo = mapeoActual;
+        TipoEntidad tipo = tipoEntidad;
+        tareasUI.ejecutar("importacion.analisis", () -> tipo == TipoEntidad.PRODUCTO
+                        ? importacionService.analizarProductos(archivo, mapeo)
+                        : importacionService.analizarClientes(archivo, mapeo),
+                resultado -> {
+                    ocultarProgresoValidacion();
+                    analisis = resultado;
+                    continuarTrasAnalisis();
+                },
+                error -> {
+                    ocultarProgresoValidacion();
+                    mostrarPaso(1);
+                    mostrarError("No se pudo leer el archivo: " + error.getMessage());
+                });
+    }
 
+    private void ocultarProgresoValidacion() {
         progressValidacion.setVisible(false);
         progressValidacion.setManaged(false);
+    }
 
-        if (!errores.isEmpty()) {
-            mostrarErroresDeValidacion(errores);
+    private void continuarTrasAnalisis() {
+        if (!analisis.errores().isEmpty()) {
+            mostrarErroresDeValidacion(analisis.errores());
             return;
         }
 
         // Sin errores → para productos, verificar si hay categorías/subcategorías nuevas
         if (tipoEntidad == TipoEntidad.PRODUCTO) {
-            List<CategoriaSubcategoriaNueva> nuevas =
-                    importacionService.detectarCategoriasNuevas(archivoSeleccionado, mapeoActual);
+            List<CategoriaSubcategoriaNueva> nuevas = analisis.categoriasNuevas();
             if (!nuevas.isEmpty()) {
                 categoriasObservable = FXCollections.observableArrayList(
                         nuevas.stream().map(CategoriaSubcategoriaViewModel::new).toList());
@@ -280,9 +306,7 @@ public class ImportacionController {
     }
 
     private void irADuplicadosOImportar() {
-        List<DuplicadoEncontrado> duplicados = tipoEntidad == TipoEntidad.PRODUCTO
-                ? importacionService.detectarDuplicadosProductos(archivoSeleccionado, mapeoActual)
-                : importacionService.detectarDuplicadosClientes(archivoSeleccionado, mapeoActual);
+        List<DuplicadoEncontrado> duplicados = analisis.duplicados();
 
         if (duplicados.isEmpty()) {
             ejecutarImportacion();
@@ -316,19 +340,61 @@ public class ImportacionController {
                 }
             }
         }
-        try {
-            ResultadoImportacion resultado = tipoEntidad == TipoEntidad.PRODUCTO
-                    ? importacionService.importarProductos(archivoSeleccionado, mapeoActual, filasAActualizar)
-                    : importacionService.importarClientes(archivoSeleccionado, mapeoActual, filasAActualizar);
+        AnalisisImportacion aImportar = analisis;
+        TipoEntidad tipo = tipoEntidad;
+
+        // La importación corre fuera del hilo de JavaFX; el servicio avisa tras confirmar cada lote
+        Task<ResultadoImportacion> tarea = new Task<>() {
+            @Override
+            protected ResultadoImportacion call() {
+                ProgresoImportacion progreso = (procesadas, total) -> {
+                    updateProgress(procesadas, total);
+                    updateMessage(procesadas + " de " + total + " fila(s) procesada(s)");
+                };
+                return tipo == TipoEntidad.PRODUCTO
+                        ? importacionService.importarProductos(aImportar, filasAActualizar, progreso)
+                        : importacionService.importarClientes(aImportar, filasAActualizar, progreso);
+            }
+        };
 
+        importando = true;
+        lblTituloResultado.setText("Importando…");
+        panelProgreso.setVisible(true);
+        panelProgreso.setManaged(true);
+        panelResultado.setVisible(false);
+        panelResultado.setManaged(false);
+        mostrarPaso(5);
+
+        Task<ResultadoImportacion> enCurso = tareasUI.ejecutar("importacion", tarea, resultado -> {
             lblImportados.setText("✅  " + resultado.importados() + " registro(s) nuevo(s) importado(s)");
             lblActualizados.setText("🔄  " + resultado.actualizados() + " registro(s) actualizado(s)");
             lblOmitidos.setText("⏭  " + resultado.omitidos() + " registro(s) omitido(s)");
-            mostrarPaso(5);
-
-        } catch (Exception e) {
-            mostrarError("Error durante la importación:\n" + e.getMessage());
-        }
+            analisis = null;   // libera las filas leídas
+            finalizarImportacion(resultado.errores().isEmpty()
+                    ? "Importación completada" : "Importación incompleta");
+            if (!resultado.errores().isEmpty()) {
+                FilaError error = resultado.errores().get(0);
+                mostrarError("La importación se detuvo en la fila " + error.numeroFila()
+                        + ". Las filas anteriores quedaron guardadas.\n" + error.motivo());
+            }
+        }, error -> {
+            finalizarImportacion("Importación interrumpida");
+            mostrarError("Error durante la importación:\n" + error.getMessage());
+        });
+        progressImportacion.progressProperty().bind(enCurso.progressProperty());
+        lblProgreso.textProperty().bind(enCurso.messageProperty());
+    }
+
+    private void finalizarImportacion(String titulo) {
+        importando = false;
+        progressImportacion.progressProperty().unbind();
+        lblProgreso.textProperty().unbind();
+        lblTituloResultado.setText(titulo);
+        panelProgreso.setVisible(false);
+        panelProgreso.setManaged(false);
+        panelResultado.setVisible(true);
+        panelResultado.setManaged(true);
+        actualizarBotones();
     }
 
     private void cerrar() {
@@ -493,6 +559,9 @@ public class ImportacionController {
                 btnAnterior.setVisible(false);
                 btnAnterior.setManaged(false);
                 btnSiguiente.setText("Cerrar");
+                // No se puede cerrar mientras los lotes se están guardando
+                btnSiguiente.setVisible(!importando);
+                btnSiguiente.setManaged(!importando);
             }
         }
     }
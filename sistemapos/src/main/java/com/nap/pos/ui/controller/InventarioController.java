@@ -1,5 +1,8 @@
 package com.nap.pos.ui.controller;
 
+import com.nap.pos.application.event.BusEventos;
+import com.nap.pos.application.event.CambioProductos;
+import com.nap.pos.application.service.CatalogoService;
 import com.nap.pos.application.service.CategoriaService;
 import com.nap.pos.application.service.ConfiguracionService;
 import com.nap.pos.application.service.ProductoService;
@@ -8,19 +11,27 @@ import com.nap.pos.application.service.SubcategoriaService;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Categoria;
 import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProducto;
+import com.nap.pos.domain.model.Pagina;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.model.Proveedor;
 import com.nap.pos.domain.model.Subcategoria;
 import com.nap.pos.ui.component.CatalogoMiniModalComponent;
+import com.nap.pos.ui.component.ImagenesProducto;
 import com.nap.pos.ui.component.ProductoModalComponent;
+import com.nap.pos.ui.component.TablaPaginada;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.ParallelTransition;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -42,7 +53,6 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -58,6 +68,7 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.springframework.stereotype.Component;
 
@@ -73,8 +84,12 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventarioController {
@@ -86,16 +101,31 @@ public class InventarioController {
     private final ConfiguracionService configuracionService;
     private final CatalogoMiniModalComponent catalogoMiniModalComponent;
     private final ProductoModalComponent productoModalComponent;
-
-    private List<Producto> todosProductos = new ArrayList<>();
-    private List<Producto> productosFiltrados = new ArrayList<>();
+    private final ImagenesProducto imagenesProducto;
+    private final TareasUI tareasUI;
+    private final BusEventos busEventos;
+    private final CatalogoService catalogoService;
+
+    // Datos del resumen: los activos salen del catálogo en memoria, el total es un COUNT
+    private List<Producto> productosActivos = List.of();
+    private long totalProductos;
+    private boolean suscrito;
+    // Repinta la vista abierta cuando llegan cambios (la lista de ajuste de stock); null en las demás
+    private Runnable alCambiarCatalogo;
+    // Último producto elegido en la lista de ajuste: una carga anterior que llegue tarde no lo pisa
+    private Long productoAjusteSeleccionado;
+
+    private record DatosResumen(List<Producto> activos, long total) {}
     private StackPane      rootStack;
     private VBox           contentArea;
     private Button         tabResumen;
     private Button         tabProductos;
     private Button         tabAjuste;
-    private TableView<Producto> tablaProductos;
-    private Label          lblTotalFiltrados;
+    private TablaPaginada<FilaProducto> tablaProductos;
+
+    private static final int FILAS_POR_PAGINA = 50;
+    // La lista de ajuste muestra los primeros resultados; la búsqueda acota el resto
+    private static final int FILAS_AJUSTE = 100;
 
     private static final NumberFormat FMT_MONEDA =
             NumberFormat.getCurrencyInstance(new Locale("es", "CO"));
@@ -105,8 +135,6 @@ public class InventarioController {
     // ══════════════════════════════════════════════════════════════
 
     public Node buildView() {
-        recargarDatos();
-
         rootStack = new StackPane();
         rootStack.getStyleClass().add("inventario-root-stack");
 
@@ -121,6 +149,10 @@ public class InventarioController {
         root.getChildren().addAll(tabBar, contentArea);
         rootStack.getChildren().add(root);
 
+        if (!suscrito) {
+            busEventos.suscribir(CambioProductos.class, this::alCambiarProductos);
+            suscrito = true;
+        }
         mostrarResumen();
         return rootStack;
     }
@@ -180,6 +212,7 @@ public class InventarioController {
         tabProductos.getStyleClass().remove("inventario-tab-active");
         tabAjuste.getStyleClass().remove("inventario-tab-active");
         activo.getStyleClass().add("inventario-tab-active");
+        alCambiarCatalogo = null;
 
         String inactivo = "#78716C";
         String activo_  = "#5A6ACF";
@@ -305,18 +338,24 @@ public class InventarioController {
 
     private void mostrarResumen() {
         activarTab(tabResumen);
-        recargarDatos();
+        tareasUI.cargarEn(contentArea, "inventario.resumen",
+                () -> new DatosResumen(catalogoService.findAllActivos(), productoService.contarTodos()),
+                datos -> {
+                    productosActivos = datos.activos();
+                    totalProductos   = datos.total();
+                    return construirResumen();
+                });
+    }
 
+    private Node construirResumen() {
         VBox view = new VBox(20);
         view.setPadding(new Insets(24, 28, 28, 28));
 
         // ── Fila 1: 4 stat cards ─────────────────────────────────
-        int total      = todosProductos.size();
-        int activos    = (int) todosProductos.stream().filter(Producto::isActivo).count();
-        int sinStock   = (int) todosProductos.stream()
-                .filter(Producto::isActivo).filter(p -> p.getStock() == 0).count();
-        BigDecimal valorTotal = todosProductos.stream()
-                .filter(Producto::isActivo)
+        int total      = (int) totalProductos;
+        int activos    = productosActivos.size();
+        int sinStock   = (int) productosActivos.stream().filter(p -> p.getStock() == 0).count();
+        BigDecimal valorTotal = productosActivos.stream()
                 .map(p -> {
                     BigDecimal pv = p.getPrecioVenta() != null ? p.getPrecioVenta() : BigDecimal.ZERO;
                     return pv.multiply(BigDecimal.valueOf(p.getStock()));
@@ -399,8 +438,7 @@ public class InventarioController {
         scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
         scroll.getStyleClass().add("dashboard-scroll");
         VBox.setVgrow(scroll, Priority.ALWAYS);
-
-        contentArea.getChildren().setAll(scroll);
+        return scroll;
     }
 
     // ══════════════════════════════════════════════════════════════
@@ -409,8 +447,6 @@ public class InventarioController {
 
     private void mostrarProductos() {
         activarTab(tabProductos);
-        recargarDatos();
-        productosFiltrados = new ArrayList<>(todosProductos);
 
         VBox view = new VBox(0);
         view.getStyleClass().add("inventario-productos-view");
@@ -473,7 +509,7 @@ public class InventarioController {
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
         // Contador
-        lblTotalFiltrados = new Label(todosProductos.size() + " productos");
+        Label lblTotalFiltrados = new Label();
         lblTotalFiltrados.getStyleClass().add("inventario-count-label");
 
         // Botón nuevo producto con hover premium
@@ -505,9 +541,19 @@ public class InventarioController {
 
         toolbar.getChildren().addAll(searchBox, cmbCategoria, cmbEstado, spacer, lblTotalFiltrados, botonesAccion);
 
-        // ── Tabla de productos ────────────────────────────────────
-        tablaProductos = buildTablaProductos();
-        VBox.setVgrow(tablaProductos, Priority.ALWAYS);
+        // ── Tabla de productos: una página a la vez, filtrada y ordenada en la base ──
+        tablaProductos = buildTablaProductos(consulta -> {
+            String    texto       = txtBuscar.getText();
+            Categoria categoria   = cmbCategoria.getValue();
+            Long      categoriaId = categoria != null ? categoria.getId() : null;
+            Boolean   activo      = switch (cmbEstado.getValue()) {
+                case "Activos"   -> Boolean.TRUE;
+                case "Inactivos" -> Boolean.FALSE;
+                default          -> null;
+            };
+            return () -> productoService.listarFilas(texto, categoriaId, activo, consulta);
+        });
+        tablaProductos.setAlCargar(pagina -> lblTotalFiltrados.setText(pagina.total() + " productos"));
 
         VBox tableWrapper = new VBox(0);
         tableWrapper.setPadding(new Insets(0, 28, 28, 28));
@@ -517,14 +563,11 @@ public class InventarioController {
         view.getChildren().addAll(toolbar, tableWrapper);
 
         // ── Listeners de filtro ───────────────────────────────────
-        txtBuscar.textProperty().addListener((obs, o, n) ->
-                filtrarProductos(n, cmbCategoria.getValue(), cmbEstado.getValue()));
-        cmbCategoria.valueProperty().addListener((obs, o, n) ->
-                filtrarProductos(txtBuscar.getText(), n, cmbEstado.getValue()));
-        cmbEstado.valueProperty().addListener((obs, o, n) ->
-                filtrarProductos(txtBuscar.getText(), cmbCategoria.getValue(), n));
+        txtBuscar.textProperty().addListener((obs, o, n) -> tablaProductos.filtrar());
+        cmbCategoria.valueProperty().addListener((obs, o, n) -> tablaProductos.filtrar());
+        cmbEstado.valueProperty().addListener((obs, o, n) -> tablaProductos.filtrar());
 
-        actualizarTabla();
+        tablaProductos.recargar();
 
         animarEntrada(toolbar, 0);
         animarEntrada(tableWrapper, 100);
@@ -532,8 +575,11 @@ public class InventarioController {
         contentArea.getChildren().setAll(view);
     }
 
-    private TableView<Producto> buildTablaProductos() {
-        TableView<Producto> tabla = new TableView<>();
+    private TablaPaginada<FilaProducto> buildTablaProductos(
+            Function<ConsultaPagina, Callable<Pagina<FilaProducto>>> consultar) {
+        TablaPaginada<FilaProducto> paginada = new TablaPaginada<>(tareasUI, "inventario.productos",
+                FILAS_POR_PAGINA, "nombre", true, consultar);
+        TableView<FilaProducto> tabla = paginada.getTabla();
         tabla.getStyleClass().addAll("table-view", "prod-table-clickable");
         tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
@@ -550,19 +596,19 @@ public class InventarioController {
 
         // ── Row factory: hover cursor + click → detalle ───────────
         tabla.setRowFactory(tv -> {
-            TableRow<Producto> row = new TableRow<>();
+            TableRow<FilaProducto> row = new TableRow<>();
             row.getStyleClass().add("prod-table-row");
             row.setCursor(javafx.scene.Cursor.HAND);
             row.setOnMouseClicked(e -> {
                 if (!row.isEmpty() && e.getClickCount() == 1) {
-                    mostrarDetalleProducto(row.getItem());
+                    abrirDetalleProducto(row.getItem());
                 }
             });
             return row;
         });
 
         // ── Columna: miniatura ─────────────────────────────────────
-        TableColumn<Producto, String> colImg = new TableColumn<>("");
+        TableColumn<FilaProducto, String> colImg = new TableColumn<>("");
         colImg.setCellValueFactory(d -> new SimpleStringProperty(""));
         colImg.setCellFactory(col -> new TableCell<>() {
             @Override
@@ -571,23 +617,22 @@ public class InventarioController {
                 if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null);
                 } else {
-                    setGraphic(buildThumbnailCell(getTableRow().getItem().getImagenPath()));
+                    setGraphic(buildThumbnailCell(getTableRow().getItem().imagenPath()));
                     setAlignment(Pos.CENTER);
                 }
             }
         });
         colImg.setMinWidth(60);
         colImg.setMaxWidth(60);
-        colImg.setSortable(false);
 
-        TableColumn<Producto, String> colCodigo = new TableColumn<>("Código");
+        TableColumn<FilaProducto, String> colCodigo = new TableColumn<>("Código");
         colCodigo.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getCodigoBarras() != null ? d.getValue().getCodigoBarras() : "—"));
+                d.getValue().codigoBarras() != null ? d.getValue().codigoBarras() : "—"));
         colCodigo.setMinWidth(110);
         colCodigo.setMaxWidth(150);
 
-        TableColumn<Producto, String> colNombre = new TableColumn<>("Nombre");
-        colNombre.setCellValueFactory(d -> new SimpleStringProperty(d.getValue().getNombre()));
+        TableColumn<FilaProducto, String> colNombre = new TableColumn<>("Nombre");
+        colNombre.setCellValueFactory(d -> new SimpleStringProperty(d.getValue().nombre()));
         colNombre.setCellFactory(col -> new TableCell<>() {
             @Override
             protected void updateItem(String item, boolean empty) {
@@ -600,28 +645,21 @@ public class InventarioController {
             }
         });
 
-        TableColumn<Producto, String> colCategoria = new TableColumn<>("Categoría");
-        colCategoria.setCellValueFactory(d -> {
-            Subcategoria sub = d.getValue().getSubcategoria();
-            if (sub != null && sub.getCategoria() != null) {
-                return new SimpleStringProperty(sub.getCategoria().getNombre());
-            }
-            return new SimpleStringProperty("—");
-        });
+        TableColumn<FilaProducto, String> colCategoria = new TableColumn<>("Categoría");
+        colCategoria.setCellValueFactory(d -> new SimpleStringProperty(
+                d.getValue().categoria() != null ? d.getValue().categoria() : "—"));
         colCategoria.setMinWidth(110);
         colCategoria.setMaxWidth(170);
 
-        TableColumn<Producto, String> colSubcategoria = new TableColumn<>("Subcategoría");
-        colSubcategoria.setCellValueFactory(d -> {
-            Subcategoria sub = d.getValue().getSubcategoria();
-            return new SimpleStringProperty(sub != null ? sub.getNombre() : "—");
-        });
+        TableColumn<FilaProducto, String> colSubcategoria = new TableColumn<>("Subcategoría");
+        colSubcategoria.setCellValueFactory(d -> new SimpleStringProperty(
+                d.getValue().subcategoria() != null ? d.getValue().subcategoria() : "—"));
         colSubcategoria.setMinWidth(110);
         colSubcategoria.setMaxWidth(170);
 
-        TableColumn<Producto, String> colPrecioVenta = new TableColumn<>("P. Venta");
+        TableColumn<FilaProducto, String> colPrecioVenta = new TableColumn<>("P. Venta");
         colPrecioVenta.setCellValueFactory(d -> {
-            BigDecimal pv = d.getValue().getPrecioVenta();
+            BigDecimal pv = d.getValue().precioVenta();
             return new SimpleStringProperty(pv != null ? FMT_MONEDA.format(pv) : "—");
         });
         colPrecioVenta.setCellFactory(col -> new TableCell<>() {
@@ -636,9 +674,9 @@ public class InventarioController {
         colPrecioVenta.setMinWidth(100);
         colPrecioVenta.setMaxWidth(140);
 
-        TableColumn<Producto, String> colStock = new TableColumn<>("Stock");
+        TableColumn<FilaProducto, String> colStock = new TableColumn<>("Stock");
         colStock.setCellValueFactory(d -> new SimpleStringProperty(
-                String.valueOf(d.getValue().getStock())));
+                String.valueOf(d.getValue().stock())));
         colStock.setCellFactory(col -> new TableCell<>() {
             @Override
             protected void updateItem(String item, boolean empty) {
@@ -646,11 +684,11 @@ public class InventarioController {
                 if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null); setText(null);
                 } else {
-                    Producto p = getTableRow().getItem();
-                    Label lbl = new Label(String.valueOf(p.getStock()));
-                    if (p.getStock() == 0) {
+                    FilaProducto p = getTableRow().getItem();
+                    Label lbl = new Label(String.valueOf(p.stock()));
+                    if (p.stock() == 0) {
                         lbl.getStyleClass().addAll("dash-badge", "dash-badge-danger");
-                    } else if (p.getStock() <= 5) {
+                    } else if (p.stock() <= 5) {
                         lbl.getStyleClass().addAll("dash-badge", "dash-badge-credito");
                     } else {
                         lbl.getStyleClass().addAll("dash-badge", "dash-badge-success");
@@ -663,7 +701,7 @@ public class InventarioController {
         colStock.setMinWidth(76);
         colStock.setMaxWidth(96);
 
-        TableColumn<Producto, String> colEstado = new TableColumn<>("Estado");
+        TableColumn<FilaProducto, String> colEstado = new TableColumn<>("Estado");
         colEstado.setCellValueFactory(d -> new SimpleStringProperty(""));
         colEstado.setCellFactory(col -> new TableCell<>() {
             @Override
@@ -672,10 +710,10 @@ public class InventarioController {
                 if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null);
                 } else {
-                    Producto p = getTableRow().getItem();
-                    Label badge = new Label(p.isActivo() ? "Activo" : "Inactivo");
+                    FilaProducto p = getTableRow().getItem();
+                    Label badge = new Label(p.activo() ? "Activo" : "Inactivo");
                     badge.getStyleClass().addAll("dash-badge",
-                            p.isActivo() ? "dash-badge-success" : "dash-badge-danger");
+                            p.activo() ? "dash-badge-success" : "dash-badge-danger");
                     setGraphic(badge);
                     setText(null);
                 }
@@ -685,7 +723,7 @@ public class InventarioController {
         colEstado.setMaxWidth(106);
 
         // Columna de acción rápida (ver detalle)
-        TableColumn<Producto, String> colAccion = new TableColumn<>("");
+        TableColumn<FilaProducto, String> colAccion = new TableColumn<>("");
         colAccion.setCellValueFactory(d -> new SimpleStringProperty(""));
         colAccion.setCellFactory(col -> new TableCell<>() {
             private final Button btn = new Button();
@@ -697,7 +735,7 @@ public class InventarioController {
                 btn.getStyleClass().add("prod-row-arrow");
                 btn.setOnAction(e -> {
                     if (getTableRow() != null && getTableRow().getItem() != null)
-                        mostrarDetalleProducto(getTableRow().getItem());
+                        abrirDetalleProducto(getTableRow().getItem());
                 });
                 setAlignment(Pos.CENTER);
             }
@@ -710,35 +748,41 @@ public class InventarioController {
         });
         colAccion.setMinWidth(44);
         colAccion.setMaxWidth(44);
-        colAccion.setSortable(false);
 
-        tabla.getColumns().addAll(colImg, colCodigo, colNombre, colCategoria, colSubcategoria,
+        paginada.ordenarPor(colCodigo,       "codigo");
+        paginada.ordenarPor(colNombre,       "nombre");
+        paginada.ordenarPor(colCategoria,    "categoria");
+        paginada.ordenarPor(colSubcategoria, "subcategoria");
+        paginada.ordenarPor(colPrecioVenta,  "precioVenta");
+        paginada.ordenarPor(colStock,        "stock");
+        paginada.ordenarPor(colEstado,       "estado");
+        paginada.columnas(colImg, colCodigo, colNombre, colCategoria, colSubcategoria,
                 colPrecioVenta, colStock, colEstado, colAccion);
 
-        return tabla;
+        return paginada;
+    }
+
+    // La fila solo trae las columnas de la tabla: el detalle muestra el producto completo
+    private void abrirDetalleProducto(FilaProducto fila) {
+        tareasUI.ejecutar("inventario.detalle:" + fila.id(), () -> productoService.findById(fila.id()),
+                this::mostrarDetalleProducto);
     }
 
     /** Miniatura para celda de tabla — imagen o placeholder */
     private StackPane buildThumbnailCell(String ruta) {
         StackPane wrap = new StackPane();
         wrap.getStyleClass().add("prod-thumbnail-cell");
-        if (ruta != null && !ruta.isBlank()) {
-            try {
-                ImageView iv = new ImageView();
-                iv.setFitWidth(40);
-                iv.setFitHeight(40);
-                iv.setPreserveRatio(true);
-                iv.setSmooth(true);
-                iv.getStyleClass().add("prod-thumbnail");
-                Image img = new Image(Paths.get(ruta).toUri().toString(), 40, 40, true, true);
-                iv.setImage(img);
-                wrap.getChildren().add(iv);
-            } catch (Exception ex) {
-                wrap.getChildren().add(buildImgPlaceholder(18));
-            }
-        } else {
-            wrap.getChildren().add(buildImgPlaceholder(18));
-        }
+        wrap.getChildren().add(buildImgPlaceholder(18));
+        // El placeholder se reemplaza cuando la imagen llega del caché (al instante si ya estaba)
+        imagenesProducto.cargar(ruta, 40, 40, true, img -> {
+            ImageView iv = new ImageView(img);
+            iv.setFitWidth(40);
+            iv.setFitHeight(40);
+            iv.setPreserveRatio(true);
+            iv.setSmooth(true);
+            iv.getStyleClass().add("prod-thumbnail");
+            wrap.getChildren().setAll(iv);
+        });
         return wrap;
     }
 
@@ -755,44 +799,6 @@ public class InventarioController {
         return ph;
     }
 
-    private void filtrarProductos(String texto, Categoria categoria, String estado) {
-        String filtro = texto != null ? texto.toLowerCase().trim() : "";
-
-        productosFiltrados = todosProductos.stream()
-                .filter(p -> {
-                    if (!filtro.isEmpty()) {
-                        boolean matchNombre = p.getNombre() != null
-                                && p.getNombre().toLowerCase().contains(filtro);
-                        boolean matchCodigo = p.getCodigoBarras() != null
-                                && p.getCodigoBarras().toLowerCase().contains(filtro);
-                        if (!matchNombre && !matchCodigo) return false;
-                    }
-                    return true;
-                })
-                .filter(p -> {
-                    if (categoria != null && p.getSubcategoria() != null
-                            && p.getSubcategoria().getCategoria() != null) {
-                        return p.getSubcategoria().getCategoria().getId().equals(categoria.getId());
-                    }
-                    return categoria == null;
-                })
-                .filter(p -> {
-                    if ("Activos".equals(estado)) return p.isActivo();
-                    if ("Inactivos".equals(estado)) return !p.isActivo();
-                    return true;
-                })
-                .collect(Collectors.toList());
-
-        actualizarTabla();
-    }
-
-    private void actualizarTabla() {
-        tablaProductos.getItems().setAll(productosFiltrados);
-        if (lblTotalFiltrados != null) {
-            lblTotalFiltrados.setText(productosFiltrados.size() + " productos");
-        }
-    }
-
     // ══════════════════════════════════════════════════════════════
     //  MODAL — Crear Producto
     // ══════════════════════════════════════════════════════════════
@@ -804,7 +810,6 @@ public class InventarioController {
                 "Ej: 50",
                 "",
                 creado -> {
-                    recargarDatos();
                     mostrarProductos();
 
                     Alert exito = new Alert(Alert.AlertType.INFORMATION);
@@ -1037,8 +1042,7 @@ public class InventarioController {
 
         header.getChildren().addAll(lLabel, icoChart);
 
-        Map<String, Long> porCategoria = todosProductos.stream()
-                .filter(Producto::isActivo)
+        Map<String, Long> porCategoria = productosActivos.stream()
                 .filter(p -> p.getSubcategoria() != null && p.getSubcategoria().getCategoria() != null)
                 .collect(Collectors.groupingBy(
                         p -> p.getSubcategoria().getCategoria().getNombre(),
@@ -1099,8 +1103,7 @@ public class InventarioController {
 
         VBox lista = new VBox(0);
 
-        List<Producto> stockBajo = todosProductos.stream()
-                .filter(Producto::isActivo)
+        List<Producto> stockBajo = productosActivos.stream()
                 .filter(p -> p.getStock() <= 5)
                 .sorted(Comparator.comparingInt(Producto::getStock))
                 .limit(6)
@@ -1211,8 +1214,7 @@ public class InventarioController {
 
         tabla.getColumns().addAll(colNombre, colStock, colPrecio, colValor);
 
-        List<Producto> topValor = todosProductos.stream()
-                .filter(Producto::isActivo)
+        List<Producto> topValor = productosActivos.stream()
                 .filter(p -> p.getPrecioVenta() != null)
                 .sorted((a, b) -> {
                     BigDecimal va = a.getPrecioVenta().multiply(BigDecimal.valueOf(a.getStock()));
@@ -1246,8 +1248,7 @@ public class InventarioController {
 
         VBox lista = new VBox(0);
 
-        Map<String, Long> porProveedor = todosProductos.stream()
-                .filter(Producto::isActivo)
+        Map<String, Long> porProveedor = productosActivos.stream()
                 .filter(p -> p.getProveedorPrincipal() != null)
                 .collect(Collectors.groupingBy(
                         p -> p.getProveedorPrincipal().getNombre(),
@@ -1387,9 +1388,7 @@ public class InventarioController {
             stage.showAndWait();
 
             // Refrescar inventario si se importaron registros
-            recargarDatos();
-            productosFiltrados = new ArrayList<>(todosProductos);
-            actualizarTabla();
+            if (tablaProductos != null) tablaProductos.recargar();
 
         } catch (Exception e) {
             Alert alerta = new Alert(Alert.AlertType.ERROR);
@@ -1472,17 +1471,11 @@ public class InventarioController {
         imgView.setPreserveRatio(true);
         imgView.setSmooth(true);
 
-        if (p.getImagenPath() != null && !p.getImagenPath().isBlank()) {
-            try {
-                imgView.setImage(new Image(Paths.get(p.getImagenPath()).toUri().toString(),
-                        178, 178, true, true));
-                imgBox.getChildren().add(imgView);
-            } catch (Exception ex) {
-                imgBox.getChildren().add(buildImgBoxPlaceholder());
-            }
-        } else {
-            imgBox.getChildren().add(buildImgBoxPlaceholder());
-        }
+        imgBox.getChildren().add(buildImgBoxPlaceholder());
+        imagenesProducto.cargar(p.getImagenPath(), 178, 178, true, img -> {
+            imgView.setImage(img);
+            imgBox.getChildren().setAll(imgView);
+        });
 
         // Botón cambiar imagen
         FontIcon icoCamera = new FontIcon("fas-camera");
@@ -1508,12 +1501,11 @@ public class InventarioController {
 
                 productoService.actualizarImagen(p.getId(), rutaNueva);
 
-                // Actualizar imagen en pantalla
-                Image nuevaImg = new Image(destino.toUri().toString(), 178, 178, true, true);
-                imgView.setImage(nuevaImg);
-                imgBox.getChildren().setAll(imgView);
-
-                actualizarTabla(); // refrescar thumbnails de la tabla
+                // Actualizar imagen en pantalla: el caché ya descartó la versión anterior
+                imagenesProducto.cargar(rutaNueva, 178, 178, true, img -> {
+                    imgView.setImage(img);
+                    imgBox.getChildren().setAll(imgView);
+                });
 
                 animarPulse(imgBox);
             } catch (Exception ex) {
@@ -1630,7 +1622,6 @@ public class InventarioController {
                     try {
                         if (p.isActivo()) productoService.desactivar(p.getId());
                         else productoService.activar(p.getId());
-                        recargarDatos();
                         // Reabrir detalle con datos actualizados
                         Producto actualizado = productoService.findById(p.getId());
                         mostrarDetalleProducto(actualizado);
@@ -1962,7 +1953,6 @@ public class InventarioController {
 
                 animarExitoModal(modal, () -> {
                     cerrarModal(overlay);
-                    recargarDatos();
                     mostrarDetalleProducto(actualizado);
                 });
 
@@ -2004,7 +1994,6 @@ public class InventarioController {
 
     private void mostrarAjusteStock() {
         activarTab(tabAjuste);
-        recargarDatos();
 
         // ── Contenedor raíz ───────────────────────────────────────
         VBox view = new VBox(0);
@@ -2039,7 +2028,7 @@ public class InventarioController {
         cmbFiltro.getStyleClass().addAll("combo-box", "inventario-filter");
         cmbFiltro.setPrefWidth(150);
 
-        Label lblConteo = new Label(todosProductos.size() + " productos");
+        Label lblConteo = new Label();
         lblConteo.getStyleClass().add("inventario-count-label");
 
         Region spacer = new Region();
@@ -2081,28 +2070,16 @@ public class InventarioController {
         final Node[] rowSeleccionado = {null};
 
         // ── Función que llena la lista con resultados ──────────────
-        // Wrapped in array so the lambda can call itself (self-reference)
+        // La búsqueda corre en la base (sin tildes, por nombre o código) y trae las
+        // primeras filas; solo la última consulta lanzada pinta la lista
         Runnable[] actualizarListaRef = {null};
-        actualizarListaRef[0] = () -> {
-            recargarDatos();
+        Consumer<Pagina<FilaProducto>> mostrarFilas = pagina -> {
             listaRows.getChildren().clear();
-            String texto = txtBuscar.getText().toLowerCase().trim();
-            boolean soloActivos = "Solo activos".equals(cmbFiltro.getValue());
-
-            List<Producto> filtrados = todosProductos.stream()
-                    .filter(p -> !soloActivos || p.isActivo())
-                    .filter(p -> {
-                        if (texto.isEmpty()) return true;
-                        boolean matchNombre = p.getNombre() != null
-                                && p.getNombre().toLowerCase().contains(texto);
-                        boolean matchCodigo = p.getCodigoBarras() != null
-                                && p.getCodigoBarras().toLowerCase().contains(texto);
-                        return matchNombre || matchCodigo;
-                    })
-                    .sorted(Comparator.comparing(Producto::getNombre))
-                    .collect(Collectors.toList());
-
-            lblConteo.setText(filtrados.size() + " producto" + (filtrados.size() == 1 ? "" : "s"));
+            List<FilaProducto> filtrados = pagina.elementos();
+
+            lblConteo.setText(pagina.total() > filtrados.size()
+                    ? "Mostrando " + filtrados.size() + " de " + pagina.total() + " productos"
+                    : pagina.total() + " producto" + (pagina.total() == 1 ? "" : "s"));
 
             if (filtrados.isEmpty()) {
                 VBox empty = new VBox(10);
@@ -2118,7 +2095,7 @@ public class InventarioController {
                 return;
             }
 
-            for (Producto p : filtrados) {
+            for (FilaProducto p : filtrados) {
                 HBox row = buildAjusteRow(p);
                 row.setOnMouseClicked(e -> {
                     // Deseleccionar fila previa
@@ -2128,21 +2105,42 @@ public class InventarioController {
                     rowSeleccionado[0] = row;
 
                     // Actualizar panel derecho con el formulario
-                    mostrarFormularioAjuste(p, panelDerecho, () -> {
+                    mostrarFormularioAjuste(p.id(), panelDerecho, () -> {
                         if (rowSeleccionado[0] != null)
                             rowSeleccionado[0].getStyleClass().remove("ajuste-row-selected");
                         rowSeleccionado[0] = null;
                         mostrarPlaceholderAjuste(panelDerecho);
-                        actualizarListaRef[0].run(); // refresca BD + lista correctamente
+                        actualizarListaRef[0].run(); // vuelve a leer: el stock ya quedó guardado
                     });
                 });
                 listaRows.getChildren().add(row);
             }
         };
+        int[] version = {0};
+        actualizarListaRef[0] = () -> {
+            int esta = ++version[0];
+            String texto = txtBuscar.getText();
+            Boolean activo = "Solo activos".equals(cmbFiltro.getValue()) ? Boolean.TRUE : null;
+            tareasUI.ejecutar("inventario.ajuste#" + esta,
+                    () -> productoService.listarFilas(texto, null, activo,
+                            new ConsultaPagina(0, FILAS_AJUSTE, "nombre", true)),
+                    pagina -> {
+                        if (esta == version[0]) mostrarFilas.accept(pagina);
+                    },
+                    error -> {
+                        if (esta != version[0]) return;
+                        log.warn("No se pudo buscar productos para ajuste: {}", error.getMessage());
+                        lblConteo.setText("No se pudieron cargar los productos");
+                    });
+        };
 
-        txtBuscar.textProperty().addListener((obs, o, n) -> actualizarListaRef[0].run());
+        // Se consulta cuando se deja de escribir, como en la tabla de productos
+        PauseTransition espera = new PauseTransition(Duration.millis(250));
+        espera.setOnFinished(e -> actualizarListaRef[0].run());
+        txtBuscar.textProperty().addListener((obs, o, n) -> espera.playFromStart());
         cmbFiltro.valueProperty().addListener((obs, o, n) -> actualizarListaRef[0].run());
         actualizarListaRef[0].run();
+        alCambiarCatalogo = actualizarListaRef[0];
 
         body.getChildren().addAll(listaPanel, panelDerecho);
         view.getChildren().addAll(toolbar, body);
@@ -2154,33 +2152,33 @@ public class InventarioController {
     }
 
     /** Fila de producto en la lista de ajuste de stock */
-    private HBox buildAjusteRow(Producto p) {
+    private HBox buildAjusteRow(FilaProducto p) {
         HBox row = new HBox(14);
         row.getStyleClass().add("ajuste-row");
         row.setAlignment(Pos.CENTER_LEFT);
         row.setCursor(javafx.scene.Cursor.HAND);
 
         // Miniatura
-        row.getChildren().add(buildThumbnailCell(p.getImagenPath()));
+        row.getChildren().add(buildThumbnailCell(p.imagenPath()));
 
         // Info central
         VBox info = new VBox(3);
         HBox.setHgrow(info, Priority.ALWAYS);
 
-        Label lblNom = new Label(p.getNombre());
+        Label lblNom = new Label(p.nombre());
         lblNom.getStyleClass().add("ajuste-row-nombre");
 
         String catStr = "";
-        if (p.getSubcategoria() != null) {
-            catStr = p.getSubcategoria().getNombre();
-            if (p.getSubcategoria().getCategoria() != null)
-                catStr = p.getSubcategoria().getCategoria().getNombre() + " · " + catStr;
+        if (p.subcategoria() != null) {
+            catStr = p.subcategoria();
+            if (p.categoria() != null)
+                catStr = p.categoria() + " · " + catStr;
         }
         Label lblCat = new Label(catStr.isEmpty() ? "Sin categoría" : catStr);
         lblCat.getStyleClass().add("ajuste-row-cat");
 
-        if (p.getCodigoBarras() != null && !p.getCodigoBarras().isBlank()) {
-            Label lblCod = new Label(p.getCodigoBarras());
+        if (p.codigoBarras() != null && !p.codigoBarras().isBlank()) {
+            Label lblCod = new Label(p.codigoBarras());
             lblCod.getStyleClass().add("ajuste-row-cod");
             info.getChildren().addAll(lblNom, lblCat, lblCod);
         } else {
@@ -2188,15 +2186,15 @@ public class InventarioController {
         }
 
         // Badge de stock
-        Label stockBadge = new Label(String.valueOf(p.getStock()));
+        Label stockBadge = new Label(String.valueOf(p.stock()));
         stockBadge.getStyleClass().addAll("dash-badge",
-                p.getStock() == 0 ? "dash-badge-danger"
-                : p.getStock() <= 5 ? "dash-badge-credito" : "dash-badge-success");
+                p.stock() == 0 ? "dash-badge-danger"
+                : p.stock() <= 5 ? "dash-badge-credito" : "dash-badge-success");
 
         // Indicador de estado
-        Label estadoBadge = new Label(p.isActivo() ? "Activo" : "Inactivo");
+        Label estadoBadge = new Label(p.activo() ? "Activo" : "Inactivo");
         estadoBadge.getStyleClass().addAll("dash-badge",
-                p.isActivo() ? "dash-badge-success" : "dash-badge-danger");
+                p.activo() ? "dash-badge-success" : "dash-badge-danger");
 
         VBox badges = new VBox(5);
         badges.setAlignment(Pos.CENTER_RIGHT);
@@ -2233,14 +2231,18 @@ public class InventarioController {
         panelDerecho.getChildren().setAll(ph);
     }
 
-    /** Formulario de ajuste para un producto seleccionado */
-    private void mostrarFormularioAjuste(Producto productoIn, VBox panelDerecho, Runnable onSuccess) {
-        // Refrescar desde BD
-        Producto p;
-        try { p = productoService.findById(productoIn.getId()); }
-        catch (Exception e) { p = productoIn; }
-        final Producto producto = p;
+    // La fila de la lista solo trae columnas: el formulario parte del producto vigente en la BD
+    private void mostrarFormularioAjuste(Long productoId, VBox panelDerecho, Runnable onSuccess) {
+        productoAjusteSeleccionado = productoId;
+        tareasUI.ejecutar("inventario.ajuste.producto:" + productoId, () -> productoService.findById(productoId),
+                producto -> {
+                    if (productoId.equals(productoAjusteSeleccionado))
+                        construirFormularioAjuste(producto, panelDerecho, onSuccess);
+                });
+    }
 
+    /** Formulario de ajuste para un producto seleccionado */
+    private void construirFormularioAjuste(Producto producto, VBox panelDerecho, Runnable onSuccess) {
         VBox form = new VBox(0);
         form.getStyleClass().add("ajuste-form");
         VBox.setVgrow(form, Priority.ALWAYS);
@@ -2429,7 +2431,6 @@ public class InventarioController {
             }
             try {
                 productoService.ajustarStock(producto.getId(), cantidad, esEntrada[0]);
-                recargarDatos();
 
                 // Flash de éxito en el badge de stock
                 String tipoStr = esEntrada[0] ? "entrada" : "salida";
@@ -2462,8 +2463,13 @@ public class InventarioController {
         animarEntrada(form, 0);
     }
 
-    private void recargarDatos() {
-        try { todosProductos = productoService.findAll(); }
-        catch (Exception e) { todosProductos = new ArrayList<>(); }
+    /**
+     * Lote de cambios de productos (llega en el hilo de {@link BusEventos}): la vista
+     * abierta vuelve a consultar lo que muestra, un solo repintado por lote.
+     */
+    private void alCambiarProductos(List<CambioProductos> cambios) {
+        Platform.runLater(() -> {
+            if (alCambiarCatalogo != null) alCambiarCatalogo.run();
+        });
     }
 }
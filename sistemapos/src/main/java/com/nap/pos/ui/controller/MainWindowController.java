@@ -1,19 +1,23 @@
 package com.nap.pos.ui.controller;
 
 import com.nap.pos.Launcher;
+import com.nap.pos.application.event.BusEventos;
+import com.nap.pos.application.event.ConfiguracionActualizadaEvent;
 import com.nap.pos.application.service.CajaService;
+import com.nap.pos.application.service.ColaImpresionService;
 import com.nap.pos.application.service.ConfiguracionService;
 import com.nap.pos.application.service.NotificacionService;
 import com.nap.pos.domain.exception.BusinessException;
-import com.nap.pos.domain.model.ConfiguracionTienda;
 import com.nap.pos.domain.model.Notificacion;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.Rol;
 import com.nap.pos.domain.model.enums.TipoNotificacion;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -51,6 +55,9 @@ public class MainWindowController {
     private final ConfiguracionService configuracionService;
     private final CajaService          cajaService;
     private final NotificacionService  notificacionService;
+    private final ColaImpresionService colaImpresionService;
+    private final TareasUI             tareasUI;
+    private final BusEventos           busEventos;
     private final DashboardController      dashboardController;
     private final VentasController         ventasController;
     private final InventarioController     inventarioController;
@@ -105,6 +112,7 @@ public class MainWindowController {
     private final Map<Button, Timeline> navAnimaciones = new HashMap<>();
     private Label                   lblBadgeNotificaciones;
     private Popup                   notifPopup;
+    private boolean                 suscrito;
 
     // Color de fondo del nav-item activo: #FFFFFF (píldora blanca sobre sidebar oscuro)
     private static final Color NAV_ACTIVE_COLOR   = Color.color(1.0, 1.0, 1.0, 1.0);
@@ -123,6 +131,7 @@ public class MainWindowController {
      */
     public void inicializar(Usuario usuario) {
         this.usuarioActual = usuario;
+        suscribirAvisos();
         configurarDatosUsuario();
         configurarAccesoSegunRol();
         actualizarEstadoCaja();
@@ -255,16 +264,15 @@ public class MainWindowController {
             notifPopup.hide();
             return;
         }
-        try {
-            actualizarBadge();
-            List<Notificacion> notifs = notificacionService.getNotificaciones();
-            notifPopup = construirPopupNotificaciones(notifs);
-            Bounds b = btnNotificaciones.localToScreen(btnNotificaciones.getBoundsInLocal());
-            notifPopup.show(btnNotificaciones.getScene().getWindow(),
-                    b.getMaxX() - 320, b.getMaxY() + 6);
-        } catch (Exception e) {
-            mostrarAlerta("Error", "No se pudieron cargar las notificaciones.");
-        }
+        // La primera consulta carga las alertas desde la base: se leen en segundo plano
+        tareasUI.ejecutar("notificaciones", notificacionService::getNotificaciones,
+                notifs -> {
+                    notifPopup = construirPopupNotificaciones(notifs);
+                    Bounds b = btnNotificaciones.localToScreen(btnNotificaciones.getBoundsInLocal());
+                    notifPopup.show(btnNotificaciones.getScene().getWindow(),
+                            b.getMaxX() - 320, b.getMaxY() + 6);
+                },
+                e -> mostrarAlerta("Error", "No se pudieron cargar las notificaciones."));
     }
 
     @FXML
@@ -302,12 +310,10 @@ public class MainWindowController {
         String primerNombre = nombreCompleto.split(" ")[0];
         lblUserChip.setText(primerNombre);
 
-        try {
-            ConfiguracionTienda config = configuracionService.obtener();
-            lblNombreTienda.setText(config.getNombreTienda());
-        } catch (Exception ignored) {
-            lblNombreTienda.setText("");
-        }
+        lblNombreTienda.setText("");
+        // Ya en memoria desde el arranque; si cambia, llega por ConfiguracionActualizadaEvent
+        tareasUI.ejecutarGlobal("nombre-tienda", configuracionService::obtener,
+                config -> lblNombreTienda.setText(config.getNombreTienda()));
     }
 
     private void configurarAccesoSegunRol() {
@@ -317,20 +323,32 @@ public class MainWindowController {
     }
 
     private void actualizarEstadoCaja() {
+        tareasUI.ejecutarGlobal("estado-caja", this::hayCajaAbierta, abierta -> {
+            if (abierta) {
+                hboxCajaBadge.getStyleClass().setAll("caja-badge", "caja-abierta");
+                lblCaja.getStyleClass().setAll("caja-badge-text-abierta");
+                lblCaja.setText("Abierta");
+            } else {
+                hboxCajaBadge.getStyleClass().setAll("caja-badge", "caja-cerrada");
+                lblCaja.getStyleClass().setAll("caja-badge-text-cerrada");
+                lblCaja.setText("Cerrada");
+            }
+        });
+    }
+
+    private boolean hayCajaAbierta() {
         try {
             cajaService.getCajaAbierta();
-            hboxCajaBadge.getStyleClass().setAll("caja-badge", "caja-abierta");
-            lblCaja.getStyleClass().setAll("caja-badge-text-abierta");
-            lblCaja.setText("Abierta");
+            return true;
         } catch (BusinessException e) {
-            hboxCajaBadge.getStyleClass().setAll("caja-badge", "caja-cerrada");
-            lblCaja.getStyleClass().setAll("caja-badge-text-cerrada");
-            lblCaja.setText("Cerrada");
+            return false;
         }
     }
 
     private void activarNav(Button entrante, String titulo) {
         if (navActivo == entrante) return;
+        // Lo que la sección anterior aún estaba cargando ya no se va a mostrar
+        tareasUI.cancelarVista();
 
         // ── Saliente: quitar clase, fade-out de la píldora blanca (160 ms) ──
         if (navActivo != null) {
@@ -436,19 +454,33 @@ public class MainWindowController {
         actualizarBadge();
     }
 
+    // Una sola vez: el controlador sobrevive a los cierres de sesión y sigue usando las etiquetas nuevas
+    private void suscribirAvisos() {
+        if (suscrito) return;
+        notificacionService.suscribir(total -> Platform.runLater(() -> pintarBadge(total)));
+        busEventos.suscribir(ConfiguracionActualizadaEvent.class, cambios -> {
+            String nombre = cambios.get(cambios.size() - 1).configuracion().getNombreTienda();
+            Platform.runLater(() -> lblNombreTienda.setText(nombre));
+        });
+        suscrito = true;
+    }
+
+    // La primera vez carga las alertas en segundo plano; después el conteo sale de memoria
     private void actualizarBadge() {
         if (lblBadgeNotificaciones == null) return;
-        try {
-            int count = notificacionService.contarNotificaciones();
-            if (count > 0) {
-                lblBadgeNotificaciones.setText(count > 99 ? "99+" : String.valueOf(count));
-                lblBadgeNotificaciones.setVisible(true);
-                lblBadgeNotificaciones.setManaged(true);
-            } else {
-                lblBadgeNotificaciones.setVisible(false);
-                lblBadgeNotificaciones.setManaged(false);
-            }
-        } catch (Exception ignored) {}
+        tareasUI.ejecutarGlobal("contar-notificaciones", notificacionService::contarNotificaciones, this::pintarBadge);
+    }
+
+    private void pintarBadge(int count) {
+        if (lblBadgeNotificaciones == null) return;
+        if (count > 0) {
+            lblBadgeNotificaciones.setText(count > 99 ? "99+" : String.valueOf(count));
+            lblBadgeNotificaciones.setVisible(true);
+            lblBadgeNotificaciones.setManaged(true);
+        } else {
+            lblBadgeNotificaciones.setVisible(false);
+            lblBadgeNotificaciones.setManaged(false);
+        }
     }
 
     private Popup construirPopupNotificaciones(List<Notificacion> notifs) {
@@ -547,7 +579,9 @@ public class MainWindowController {
             default          -> "#F1F5F9";
         };
 
-        FontIcon ico = new FontIcon(esPago ? "fas-credit-card" : "fas-exclamation-triangle");
+        boolean esImpresion = TipoNotificacion.IMPRESION_FALLIDA.equals(n.tipo());
+        FontIcon ico = new FontIcon(esPago ? "fas-credit-card"
+                : esImpresion ? "fas-print" : "fas-exclamation-triangle");
         ico.setIconSize(14);
         ico.setIconColor(Paint.valueOf(icoColor));
 
@@ -569,6 +603,19 @@ public class MainWindowController {
 
         texts.getChildren().addAll(lTit, lMsg);
         row.getChildren().addAll(icoWrap, texts);
+
+        if (esImpresion && n.referenciaId() != null) {
+            Button btnReintentar = new Button("Reintentar");
+            btnReintentar.setStyle(
+                "-fx-font-size: 11px; -fx-background-color: #EEF2FF; -fx-text-fill: #4338CA;" +
+                "-fx-background-radius: 6px; -fx-cursor: hand;"
+            );
+            btnReintentar.setOnAction(e -> {
+                colaImpresionService.reintentar(n.referenciaId());
+                if (notifPopup != null) notifPopup.hide();
+            });
+            row.getChildren().add(btnReintentar);
+        }
         return row;
     }
 
@@ -2,8 +2,11 @@ package com.nap.pos.ui.controller;
 
 import com.nap.pos.application.service.ProveedorService;
 import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.model.FilaProveedor;
 import com.nap.pos.domain.model.Proveedor;
 import com.nap.pos.domain.model.Usuario;
+import com.nap.pos.ui.component.TablaPaginada;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -57,9 +60,11 @@ import java.util.stream.Collectors;
 public class ProveedoresController {
 
     private final ProveedorService proveedorService;
+    private final TareasUI         tareasUI;
 
     private static final NumberFormat FMT_PCT =
             NumberFormat.getPercentInstance(Locale.of("es", "CO"));
+    private static final int FILAS_POR_PAGINA = 50;
 
     // ── Estado ────────────────────────────────────────────────────
     private Usuario         usuarioActual;
@@ -598,36 +603,47 @@ public class ProveedoresController {
 
         toolbar.getChildren().addAll(lblTit, cmbFiltro, txtBuscar);
 
-        // Tabla
-        TableView<Proveedor> tabla = new TableView<>();
+        // Tabla: cada página se pide a la base con el filtro y el orden actuales
+        TablaPaginada<FilaProveedor> paginada = new TablaPaginada<>(tareasUI, "proveedores.tabla",
+                FILAS_POR_PAGINA, "nombre", true,
+                consulta -> {
+                    String  texto  = txtBuscar.getText();
+                    String  filtro = cmbFiltro.getValue();
+                    Boolean activo = switch (filtro) {
+                        case "Activos"   -> Boolean.TRUE;
+                        case "Inactivos" -> Boolean.FALSE;
+                        default          -> null;
+                    };
+                    return () -> proveedorService.listarFilas(texto, activo, "Con % ganancia".equals(filtro), consulta);
+                });
+        TableView<FilaProveedor> tabla = paginada.getTabla();
         tabla.getStyleClass().add("inventario-table-card");
-        VBox.setVgrow(tabla, Priority.ALWAYS);
         tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
         tabla.setPlaceholder(new Label("Sin proveedores registrados."));
 
-        TableColumn<Proveedor, String> colNombre = new TableColumn<>("Nombre");
+        TableColumn<FilaProveedor, String> colNombre = new TableColumn<>("Nombre");
         colNombre.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getNombre() != null ? d.getValue().getNombre() : "—"));
+                d.getValue().nombre() != null ? d.getValue().nombre() : "—"));
         colNombre.setMinWidth(150);
 
-        TableColumn<Proveedor, String> colNit = new TableColumn<>("NIT");
+        TableColumn<FilaProveedor, String> colNit = new TableColumn<>("NIT");
         colNit.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getNit() != null ? d.getValue().getNit() : "—"));
+                d.getValue().nit() != null ? d.getValue().nit() : "—"));
         colNit.setPrefWidth(120);
 
-        TableColumn<Proveedor, String> colCelular = new TableColumn<>("Celular");
+        TableColumn<FilaProveedor, String> colCelular = new TableColumn<>("Celular");
         colCelular.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getCelular() != null ? d.getValue().getCelular() : "—"));
+                d.getValue().celular() != null ? d.getValue().celular() : "—"));
         colCelular.setPrefWidth(110);
 
-        TableColumn<Proveedor, String> colDireccion = new TableColumn<>("Dirección");
+        TableColumn<FilaProveedor, String> colDireccion = new TableColumn<>("Dirección");
         colDireccion.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().getDireccion() != null ? d.getValue().getDireccion() : "—"));
+                d.getValue().direccion() != null ? d.getValue().direccion() : "—"));
         colDireccion.setPrefWidth(160);
 
-        TableColumn<Proveedor, String> colPct = new TableColumn<>("% Ganancia");
+        TableColumn<FilaProveedor, String> colPct = new TableColumn<>("% Ganancia");
         colPct.setCellValueFactory(d -> {
-            BigDecimal pct = d.getValue().getPorcentajeGanancia();
+            BigDecimal pct = d.getValue().porcentajeGanancia();
             return new SimpleStringProperty(
                     pct != null && pct.compareTo(BigDecimal.ZERO) > 0
                             ? pct.toPlainString() + "%" : "—");
@@ -641,9 +657,9 @@ public class ProveedoresController {
             }
         });
 
-        TableColumn<Proveedor, String> colEstado = new TableColumn<>("Estado");
+        TableColumn<FilaProveedor, String> colEstado = new TableColumn<>("Estado");
         colEstado.setCellValueFactory(d -> new SimpleStringProperty(
-                d.getValue().isActivo() ? "Activo" : "Inactivo"));
+                d.getValue().activo() ? "Activo" : "Inactivo"));
         colEstado.setPrefWidth(90);
         colEstado.setCellFactory(tc -> new TableCell<>() {
             @Override protected void updateItem(String s, boolean empty) {
@@ -655,7 +671,7 @@ public class ProveedoresController {
             }
         });
 
-        TableColumn<Proveedor, String> colAccion = new TableColumn<>("");
+        TableColumn<FilaProveedor, String> colAccion = new TableColumn<>("");
         colAccion.setCellValueFactory(d -> new SimpleStringProperty(""));
         colAccion.setCellFactory(col -> new TableCell<>() {
             private final Button btn = new Button();
@@ -666,7 +682,7 @@ public class ProveedoresController {
                 btn.getStyleClass().add("prod-row-arrow");
                 btn.setOnAction(e -> {
                     if (getTableRow() != null && getTableRow().getItem() != null)
-                        abrirModalProveedor(getTableRow().getItem());
+                        editarProveedor(getTableRow().getItem());
                 });
                 setAlignment(Pos.CENTER);
             }
@@ -675,51 +691,39 @@ public class ProveedoresController {
                 setGraphic(empty ? null : btn); setText(null);
             }
         });
-        colAccion.setMinWidth(44); colAccion.setMaxWidth(44); colAccion.setSortable(false);
+        colAccion.setMinWidth(44); colAccion.setMaxWidth(44);
 
-        tabla.getColumns().addAll(colNombre, colNit, colCelular, colDireccion, colPct, colEstado, colAccion);
+        paginada.ordenarPor(colNombre,    "nombre");
+        paginada.ordenarPor(colNit,       "nit");
+        paginada.ordenarPor(colCelular,   "celular");
+        paginada.ordenarPor(colDireccion, "direccion");
+        paginada.ordenarPor(colPct,       "ganancia");
+        paginada.ordenarPor(colEstado,    "estado");
+        paginada.columnas(colNombre, colNit, colCelular, colDireccion, colPct, colEstado, colAccion);
 
         tabla.setRowFactory(tv -> {
-            TableRow<Proveedor> row = new TableRow<>();
+            TableRow<FilaProveedor> row = new TableRow<>();
             row.setOnMouseEntered(e -> { if (!row.isEmpty()) row.setStyle("-fx-background-color: rgba(90,106,207,0.05); -fx-cursor: hand;"); });
             row.setOnMouseExited(e -> row.setStyle(""));
-            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) abrirModalProveedor(row.getItem()); });
+            row.setOnMouseClicked(e -> { if (!row.isEmpty() && row.getItem() != null) editarProveedor(row.getItem()); });
             return row;
         });
 
-        List<Proveedor> proveedoresOrdenados = todosProveedores.stream()
-                .sorted(Comparator.comparing(Proveedor::getNombre, String.CASE_INSENSITIVE_ORDER))
-                .collect(Collectors.toList());
+        txtBuscar.textProperty().addListener((obs, o, n) -> paginada.filtrar());
+        cmbFiltro.valueProperty().addListener((obs, o, n) -> paginada.filtrar());
+        paginada.recargar();
 
-        Runnable aplicarFiltro = () -> {
-            String texto  = txtBuscar.getText() == null ? "" : txtBuscar.getText().toLowerCase();
-            String filtro = cmbFiltro.getValue();
-            List<Proveedor> resultado = proveedoresOrdenados.stream()
-                .filter(p -> {
-                    boolean matchTexto = texto.isBlank()
-                            || (p.getNombre() != null && p.getNombre().toLowerCase().contains(texto))
-                            || (p.getNit()    != null && p.getNit().toLowerCase().contains(texto));
-                    boolean matchFiltro = switch (filtro) {
-                        case "Activos"        -> p.isActivo();
-                        case "Inactivos"      -> !p.isActivo();
-                        case "Con % ganancia" -> p.getPorcentajeGanancia() != null
-                                                  && p.getPorcentajeGanancia().compareTo(BigDecimal.ZERO) > 0;
-                        default               -> true;
-                    };
-                    return matchTexto && matchFiltro;
-                })
-                .collect(Collectors.toList());
-            tabla.setItems(FXCollections.observableArrayList(resultado));
-        };
-
-        txtBuscar.textProperty().addListener((obs, o, n) -> aplicarFiltro.run());
-        cmbFiltro.valueProperty().addListener((obs, o, n) -> aplicarFiltro.run());
-        aplicarFiltro.run();
-
-        wrapper.getChildren().addAll(toolbar, tabla);
+        wrapper.getChildren().addAll(toolbar, paginada);
         contentArea.getChildren().add(wrapper);
     }
 
+    // La fila solo trae las columnas de la tabla: el modal edita el proveedor completo
+    private void editarProveedor(FilaProveedor fila) {
+        tareasUI.ejecutar("proveedores.editar:" + fila.id(), () -> proveedorService.findById(fila.id()),
+                this::abrirModalProveedor,
+                error -> mostrarAlerta("Error", error.getMessage()));
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Modal: Nuevo / Editar proveedor
     // ─────────────────────────────────────────────────────────────
@@ -825,7 +829,6 @@ public class ProveedoresController {
                             .build();
                     proveedorService.actualizar(actualizado);
                     cerrarModal(overlay);
-                    recargarDatos();
                     mostrarTablaProveedores();
                 } catch (Exception ex) {
                     mostrarAlerta("Error", ex.getMessage());
@@ -898,7 +901,6 @@ public class ProveedoresController {
                 }
 
                 cerrarModal(overlay);
-                recargarDatos();
                 mostrarTablaProveedores();
 
             } catch (BusinessException ex) {
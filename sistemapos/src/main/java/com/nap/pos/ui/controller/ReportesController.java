@@ -9,10 +9,17 @@ import com.nap.pos.application.service.VentaService;
 import com.nap.pos.domain.model.enums.TipoGasto;
 import com.nap.pos.domain.model.Caja;
 import com.nap.pos.domain.model.DetalleVenta;
+import com.nap.pos.domain.model.FilaLineaVenta;
+import com.nap.pos.domain.model.FiltroVentas;
 import com.nap.pos.domain.model.Proveedor;
+import com.nap.pos.domain.model.TotalesHistorial;
 import com.nap.pos.domain.model.Venta;
 import com.nap.pos.domain.model.enums.EstadoVenta;
 import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.infrastructure.io.LibroExcel;
+import com.nap.pos.ui.component.ExportadorExcel;
+import com.nap.pos.ui.component.TablaHistorial;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -31,28 +38,12 @@ import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Paint;
-import javafx.stage.FileChooser;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.DataFormat;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.text.Normalizer;
@@ -67,6 +58,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
@@ -77,9 +71,13 @@ public class ReportesController {
     private final ProveedorService proveedorService;
     private final VentaService     ventaService;
     private final GastoService     gastoService;
+    private final TareasUI         tareasUI;
+    private final ExportadorExcel  exportadorExcel;
 
     private static final NumberFormat     FMT = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
     private static final DateTimeFormatter DFT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int FILAS_POR_TRAMO   = 50;
+    private static final int TRAMOS_EN_MEMORIA = 6;
 
     private static final String[] NOMBRES_MESES = {
         "", "Enero","Febrero","Marzo","Abril","Mayo","Junio",
@@ -90,10 +88,13 @@ public class ReportesController {
     private List<Caja>      todasCajas       = new ArrayList<>();
     private List<Proveedor> todosProveedores = new ArrayList<>();
     private Map<Long, Venta> ventasSesionActual = new HashMap<>();
-    private Map<Long, List<Venta>> comprasCreditoPorCliente = new HashMap<>();
     private List<FiltroClienteCredito> filtrosCreditoDisponibles = new ArrayList<>();
     private boolean ajustandoFiltroCreditos = false;
 
+    private record DatosBase(List<Caja> cajas, List<Proveedor> proveedores) {}
+    private record VentasSesion(ReporteVentasDto reporte, Map<Long, Venta> ventas) {}
+    private record RentabilidadMes(ReporteRentabilidadDto mensual, ReporteRentabilidadAnualDto anual) {}
+
     // ── Refs UI ───────────────────────────────────────────────────
     private StackPane rootStack;
     private VBox      contentArea;
@@ -109,8 +110,6 @@ public class ReportesController {
     // ─────────────────────────────────────────────────────────────
 
     public Node buildView() {
-        recargarDatos();
-
         rootStack = new StackPane();
         rootStack.getStyleClass().add("inventario-root-stack");
 
@@ -120,19 +119,51 @@ public class ReportesController {
         contentArea = new VBox();
         VBox.setVgrow(contentArea, Priority.ALWAYS);
 
-        root.getChildren().addAll(buildTabBar(), contentArea);
+        HBox tabBar = buildTabBar();
+        root.getChildren().addAll(tabBar, contentArea);
         rootStack.getChildren().add(root);
 
-        mostrarVentas();
+        tabBar.setDisable(true);
+        contentArea.getChildren().setAll(tareasUI.indicadorCarga());
+        tareasUI.ejecutar("reportes.base", this::leerDatosBase, datos -> {
+            todasCajas       = datos.cajas();
+            todosProveedores = datos.proveedores();
+            tabBar.setDisable(false);
+            mostrarVentas();
+        });
         return rootStack;
     }
 
-    private void recargarDatos() {
-        try { todasCajas = cajaService.findAll(); }
-        catch (Exception e) { todasCajas = new ArrayList<>(); }
-
-        try { todosProveedores = proveedorService.findAll(); }
-        catch (Exception e) { todosProveedores = new ArrayList<>(); }
+    // Corre fuera del hilo de JavaFX
+    private DatosBase leerDatosBase() {
+        List<Caja> cajas;
+        try { cajas = cajaService.findAll(); }
+        catch (Exception e) { cajas = new ArrayList<>(); }
+
+        List<Proveedor> proveedores;
+        try { proveedores = proveedorService.findAll(); }
+        catch (Exception e) { proveedores = new ArrayList<>(); }
+        return new DatosBase(cajas, proveedores);
+    }
+
+    /**
+     * Genera un reporte en segundo plano y pinta en {@code resultado} lo que arme
+     * {@code construir}. Si mientras tanto se pidió otro reporte en el mismo panel,
+     * el resultado viejo se descarta.
+     */
+    private <T> void generarEn(VBox resultado, String clave, Callable<T> consulta,
+                               Function<T, List<Node>> construir) {
+        resultado.setUserData(clave);
+        resultado.getChildren().setAll(tareasUI.indicadorCarga());
+        tareasUI.ejecutar(clave, consulta, r -> {
+            if (!clave.equals(resultado.getUserData())) return;
+            resultado.getChildren().setAll(construir.apply(r));
+            animarEntrada(resultado, 0);
+        }, ex -> {
+            if (!clave.equals(resultado.getUserData())) return;
+            resultado.getChildren().setAll(buildError(ex.getMessage()));
+            animarEntrada(resultado, 0);
+        });
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -219,15 +250,12 @@ public class ReportesController {
         comboCaja.setOnAction(e -> {
             Caja sel = comboCaja.getValue();
             if (sel == null) return;
-            resultado.getChildren().clear();
-            try {
-                ReporteVentasDto r = reporteService.reporteVentasPorCaja(sel.getId());
-                cargarVentasSesionActual(sel.getId());
-                resultado.getChildren().addAll(buildResultadoVentas(r, sel));
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
-            }
-            animarEntrada(resultado, 0);
+            generarEn(resultado, "reportes.ventas." + sel.getId(),
+                    () -> new VentasSesion(reporteService.reporteVentasPorCaja(sel.getId()), leerVentasSesion(sel.getId())),
+                    datos -> {
+                        ventasSesionActual = datos.ventas();
+                        return buildResultadoVentas(datos.reporte(), sel);
+                    });
         });
 
         selectorBody(selectorCard).getChildren().add(comboCaja);
@@ -240,9 +268,9 @@ public class ReportesController {
         animarEntrada(inner, 0);
     }
 
-    private void cargarVentasSesionActual(Long cajaId) {
+    private Map<Long, Venta> leerVentasSesion(Long cajaId) {
         try {
-            ventasSesionActual = ventaService.findByCajaId(cajaId).stream()
+            return ventaService.findByCajaId(cajaId).stream()
                     .filter(v -> v.getId() != null)
                     .collect(java.util.stream.Collectors.toMap(
                             Venta::getId,
@@ -251,7 +279,7 @@ public class ReportesController {
                             HashMap::new
                     ));
         } catch (Exception e) {
-            ventasSesionActual = new HashMap<>();
+            return new HashMap<>();
         }
     }
 
@@ -453,22 +481,19 @@ public class ReportesController {
             Integer anioSel = comboAnio.getValue();
             if (anioSel == null) return;
 
-            try {
-                if (modoMensual[0]) {
-                    Integer mesSel = comboMes.getValue();
-                    if (mesSel == null) return;
+            if (modoMensual[0]) {
+                Integer mesSel = comboMes.getValue();
+                if (mesSel == null) return;
 
-                    ReporteRentabilidadDto mensual = reporteService.reporteRentabilidad(anioSel, mesSel);
-                    ReporteRentabilidadAnualDto anual = reporteService.reporteRentabilidadAnual(anioSel);
-                    resultado.getChildren().addAll(buildResultadoRentMensual(mensual, anual));
-                } else {
-                    ReporteRentabilidadAnualDto anual = reporteService.reporteRentabilidadAnual(anioSel);
-                    resultado.getChildren().addAll(buildResultadoRentAnual(anual));
-                }
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
+                generarEn(resultado, "reportes.rentabilidad." + anioSel + "." + mesSel,
+                        () -> new RentabilidadMes(reporteService.reporteRentabilidad(anioSel, mesSel),
+                                                  reporteService.reporteRentabilidadAnual(anioSel)),
+                        r -> buildResultadoRentMensual(r.mensual(), r.anual()));
+            } else {
+                generarEn(resultado, "reportes.rentabilidad." + anioSel,
+                        () -> reporteService.reporteRentabilidadAnual(anioSel),
+                        this::buildResultadoRentAnual);
             }
-            animarEntrada(resultado, 0);
         };
 
         btnMensual.setOnAction(e -> {
@@ -1061,14 +1086,10 @@ public class ReportesController {
         VBox resultado = new VBox(24);
 
         btnGenerar.setOnAction(e -> {
-            resultado.getChildren().clear();
-            try {
-                ReporteInventarioDto r = reporteService.reporteInventario(spinner.getValue());
-                resultado.getChildren().addAll(buildResultadoInventario(r));
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
-            }
-            animarEntrada(resultado, 0);
+            int umbral = spinner.getValue();
+            generarEn(resultado, "reportes.inventario." + umbral,
+                    () -> reporteService.reporteInventario(umbral),
+                    this::buildResultadoInventario);
         });
 
         inner.getChildren().addAll(selectorCard, resultado);
@@ -1340,7 +1361,6 @@ public class ReportesController {
     private void mostrarCreditos() {
         activarTab(tabCreditos);
         contentArea.getChildren().clear();
-        comprasCreditoPorCliente.clear();
         filtrosCreditoDisponibles = new ArrayList<>();
 
         ScrollPane scroll = buildScrollPane();
@@ -1384,19 +1404,17 @@ public class ReportesController {
                     : FiltroClienteCredito.general();
             Long clienteId = filtro.esGeneral() ? null : filtro.clienteId();
 
-            try {
-                ReporteCreditosDto r = reporteService.reporteCreditos(clienteId);
-                resultado.getChildren().addAll(buildResultadoCreditos(r, filtro));
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
-            }
-            animarEntrada(resultado, 0);
+            generarEn(resultado, "reportes.creditos." + (clienteId != null ? clienteId : "general"),
+                    () -> reporteService.reporteCreditos(clienteId),
+                    r -> buildResultadoCreditos(r, filtro));
         };
 
         btnGenerar.setOnAction(e -> cargar.run());
 
-        try {
-            ReporteCreditosDto base = reporteService.reporteCreditos();
+        // El reporte general trae la lista de clientes del filtro y se pinta enseguida
+        resultado.setUserData("reportes.creditos.general");
+        resultado.getChildren().setAll(tareasUI.indicadorCarga());
+        tareasUI.ejecutar("reportes.creditos.general", reporteService::reporteCreditos, base -> {
             List<FiltroClienteCredito> opciones = new ArrayList<>();
             opciones.add(FiltroClienteCredito.general());
             for (ClienteCreditoDto c : base.clientes()) {
@@ -1406,12 +1424,12 @@ public class ReportesController {
             comboCliente.setItems(FXCollections.observableArrayList(filtrosCreditoDisponibles));
             comboCliente.setValue(opciones.get(0));
             aplicarBusquedaFiltroCreditos(comboCliente, txtBuscar.getText());
-        } catch (Exception ex) {
-            resultado.getChildren().add(buildError(ex.getMessage()));
-        }
+            if (!"reportes.creditos.general".equals(resultado.getUserData())) return;
+            resultado.getChildren().setAll(buildResultadoCreditos(base, FiltroClienteCredito.general()));
+            animarEntrada(resultado, 0);
+        }, ex -> resultado.getChildren().setAll(buildError(ex.getMessage())));
 
         inner.getChildren().addAll(selectorCard, resultado);
-        if (comboCliente.getValue() != null) btnGenerar.fire();
 
         scroll.setContent(inner);
         contentArea.getChildren().add(scroll);
@@ -1483,9 +1501,7 @@ public class ReportesController {
             row.setOnMouseExited(e -> row.setStyle(""));
             row.setOnMouseClicked(e -> {
                 if (row.isEmpty() || row.getItem() == null) return;
-                ClienteCreditoDto cliente = row.getItem();
-                List<Venta> compras = obtenerComprasCreditoCliente(cliente.id());
-                abrirModalComprasCliente(cliente, compras);
+                abrirModalComprasCliente(row.getItem());
             });
             return row;
         });
@@ -1495,19 +1511,14 @@ public class ReportesController {
         return tabla;
     }
 
-    private List<Venta> obtenerComprasCreditoCliente(Long clienteId) {
-        if (clienteId == null) return List.of();
-        if (!comprasCreditoPorCliente.containsKey(clienteId)) {
-            try {
-                comprasCreditoPorCliente.put(clienteId, reporteService.historialComprasCliente(clienteId));
-            } catch (Exception e) {
-                comprasCreditoPorCliente.put(clienteId, List.of());
-            }
-        }
-        return comprasCreditoPorCliente.getOrDefault(clienteId, List.of());
+    // El resumen sale de un COUNT/SUM; la tabla carga las compras por tramos al desplazarse
+    private void abrirModalComprasCliente(ClienteCreditoDto cliente) {
+        tareasUI.ejecutar("reportes.creditos.cliente." + cliente.id(),
+                () -> reporteService.totalesComprasCliente(cliente.id()),
+                totales -> abrirModalComprasCliente(cliente, totales));
     }
 
-    private void abrirModalComprasCliente(ClienteCreditoDto cliente, List<Venta> compras) {
+    private void abrirModalComprasCliente(ClienteCreditoDto cliente, TotalesHistorial totales) {
         StackPane overlay = new StackPane();
         overlay.getStyleClass().add("inventario-modal-overlay");
 
@@ -1536,9 +1547,7 @@ public class ReportesController {
                 "-fx-font-size: 14px; -fx-cursor: hand; -fx-padding: 0 4 0 4;");
         header.getChildren().addAll(icoH, lblH, btnX);
 
-        BigDecimal totalComprado = compras.stream()
-                .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalComprado = totales.total() != null ? totales.total() : BigDecimal.ZERO;
 
         VBox body = new VBox(14);
         body.setPadding(new Insets(20, 24, 8, 24));
@@ -1551,14 +1560,14 @@ public class ReportesController {
         resumen.getChildren().addAll(
                 crearFilaDetalleModal("fas-user", "#5A6ACF", "Cliente", cliente.nombre()),
                 crearFilaDetalleModal("fas-id-card", "#78716C", "Cédula", cliente.cedula() != null ? cliente.cedula() : "—"),
-                crearFilaDetalleModal("fas-receipt", "#D97706", "Compras a crédito", String.valueOf(compras.size())),
+                crearFilaDetalleModal("fas-receipt", "#D97706", "Compras a crédito", String.valueOf(totales.cantidad())),
                 crearFilaDetalleModal("fas-dollar-sign", "#15803D", "Total comprado", FMT.format(totalComprado)),
                 crearFilaDetalleModal("fas-credit-card", "#DC2626", "Deuda pendiente", FMT.format(cliente.saldoUtilizado()))
         );
 
         body.getChildren().addAll(secResumen, resumen);
 
-        if (compras.isEmpty()) {
+        if (totales.cantidad() == 0) {
             body.getChildren().add(buildBanner("fas-info-circle",
                     "Este cliente no tiene compras a crédito registradas.",
                     "#F1F5F9", "#64748B"));
@@ -1566,7 +1575,13 @@ public class ReportesController {
             Label secCompras = new Label("COMPRAS A CRÉDITO REGISTRADAS");
             secCompras.setStyle("-fx-font-size: 10px; -fx-font-weight: 700; -fx-text-fill: #A8A29E; -fx-padding: 4 0 0 0;");
 
-            TableView<Venta> tabla = buildTableView();
+            TablaHistorial<Venta> historial = new TablaHistorial<>(tareasUI,
+                    "reportes.creditos.historial." + cliente.id(), TRAMOS_EN_MEMORIA,
+                    cursor -> () -> reporteService.historialComprasCliente(cliente.id(), cursor, FILAS_POR_TRAMO));
+            TableView<Venta> tabla = historial.getTabla();
+            tabla.getStyleClass().add("inventario-table-card");
+            tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+            tabla.setPlaceholder(new Label("Sin datos disponibles."));
             TableColumn<Venta, String> colFecha = col("Fecha",
                     v -> v.getFecha() != null ? v.getFecha().format(DFT) : "—", 145);
             TableColumn<Venta, String> colFactura = col("Factura",
@@ -1617,13 +1632,13 @@ public class ReportesController {
                 return row;
             });
 
-            tabla.getColumns().addAll(colFecha, colFactura, colMetodo, colEstado, colTotal, colProductos);
-            tabla.setItems(FXCollections.observableArrayList(compras));
-            tabla.setPrefHeight(Math.min(420, 120 + compras.size() * 30));
+            historial.columnas(colFecha, colFactura, colMetodo, colEstado, colTotal, colProductos);
+            historial.setPrefHeight(Math.min(420, 150 + totales.cantidad() * 30));
+            historial.recargar();
 
             body.getChildren().addAll(secCompras, buildBanner("fas-info-circle",
                     "Haz clic sobre una compra para ver su detalle de productos.",
-                    "#EEF2FF", "#4F46E5"), tabla);
+                    "#EEF2FF", "#4F46E5"), historial);
         }
 
         ScrollPane bodyScroll = new ScrollPane(body);
@@ -1638,7 +1653,7 @@ public class ReportesController {
         footer.setPadding(new Insets(16, 24, 20, 24));
 
         Button btnExportar = buildBotonPrimario("Exportar", "fas-file-excel", "#15803D");
-        btnExportar.setOnAction(e -> exportarHistorialCreditoClienteExcel(cliente, compras));
+        btnExportar.setOnAction(e -> exportarHistorialCreditoClienteExcel(cliente));
 
         Button btnCerrar = new Button("Cerrar");
         btnCerrar.setStyle("-fx-background-color: #EDE9E2; -fx-background-radius: 8px; " +
@@ -1658,92 +1673,47 @@ public class ReportesController {
         animarEntradaModal(overlay, modal);
     }
 
-    private void exportarHistorialCreditoClienteExcel(ClienteCreditoDto cliente, List<Venta> compras) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda = estiloMoneda(wb);
-            CellStyle normal = estiloNormal(wb);
-
-            List<Venta> comprasSeguras = compras != null ? compras : List.of();
-            BigDecimal totalComprado = comprasSeguras.stream()
-                    .map(v -> v.getTotal() != null ? v.getTotal() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void exportarHistorialCreditoClienteExcel(ClienteCreditoDto cliente) {
+        String nombreCliente = cliente != null && cliente.nombre() != null && !cliente.nombre().isBlank()
+                ? cliente.nombre()
+                : "Cliente";
+        String baseNombre = Normalizer.normalize(nombreCliente, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replace(" ", "_")
+                .replaceAll("[^a-z0-9_]+", "");
+        if (baseNombre.isBlank()) baseNombre = "cliente";
 
-            XSSFSheet resumen = wb.createSheet("Resumen cliente");
-            Row hr = resumen.createRow(0);
-            setCellHeader(hr, 0, "Concepto", header);
-            setCellHeader(hr, 1, "Valor", header);
+        exportadorExcel.exportar(rootStack, "historial_credito_" + baseNombre + ".xlsx", libro -> {
+            Long clienteId = cliente != null ? cliente.id() : null;
+            TotalesHistorial totales = reporteService.totalesComprasCliente(clienteId);
+            libro.prever(totales.cantidad());
 
-            String nombreCliente = cliente != null && cliente.nombre() != null && !cliente.nombre().isBlank()
-                    ? cliente.nombre()
-                    : "Cliente";
             String cedulaCliente = cliente != null && cliente.cedula() != null ? cliente.cedula() : "";
             BigDecimal deuda = cliente != null && cliente.saldoUtilizado() != null ? cliente.saldoUtilizado() : BigDecimal.ZERO;
 
-            String[][] datosResumen = {
-                    {"Cliente", nombreCliente},
-                    {"Cédula", cedulaCliente.isBlank() ? "—" : cedulaCliente},
-                    {"Compras a crédito", String.valueOf(comprasSeguras.size())},
-                    {"Total comprado", FMT.format(totalComprado)},
-                    {"Deuda pendiente", FMT.format(deuda)}
-            };
-
-            for (int i = 0; i < datosResumen.length; i++) {
-                Row row = resumen.createRow(i + 1);
-                row.createCell(0).setCellValue(datosResumen[i][0]);
-                row.createCell(1).setCellValue(datosResumen[i][1]);
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-            }
-            autoSize(resumen, 2);
-
-            XSSFSheet detalle = wb.createSheet("Compras crédito");
-            Row hd = detalle.createRow(0);
-            setCellHeader(hd, 0, "Fecha compra", header);
-            setCellHeader(hd, 1, "Factura", header);
-            setCellHeader(hd, 2, "Método", header);
-            setCellHeader(hd, 3, "Estado", header);
-            setCellHeader(hd, 4, "Total", header);
-            setCellHeader(hd, 5, "Productos comprados", header);
-
-            int fila = 1;
-            for (Venta venta : comprasSeguras) {
-                Row row = detalle.createRow(fila++);
-                row.createCell(0).setCellValue(venta.getFecha() != null ? venta.getFecha().format(DFT) : "");
-                row.createCell(1).setCellValue(venta.getNumeroComprobante() != null
-                        ? String.valueOf(venta.getNumeroComprobante()) : "");
-                row.createCell(2).setCellValue(textoMetodoPago(venta.getMetodoPago()));
-                row.createCell(3).setCellValue(textoEstadoVenta(venta.getEstado()));
-                row.createCell(4).setCellValue(venta.getTotal() != null ? venta.getTotal().doubleValue() : 0d);
-                row.createCell(5).setCellValue(resumirProductosCompra(venta));
-
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(normal);
-                row.getCell(3).setCellStyle(normal);
-                row.getCell(4).setCellStyle(moneda);
-                row.getCell(5).setCellStyle(normal);
-            }
+            escribirConceptos(libro.hoja("Resumen cliente", "Concepto", "Valor"), List.of(
+                    new String[]{ "Cliente", nombreCliente },
+                    new String[]{ "Cédula", cedulaCliente.isBlank() ? "—" : cedulaCliente },
+                    new String[]{ "Compras a crédito", String.valueOf(totales.cantidad()) },
+                    new String[]{ "Total comprado", FMT.format(totales.total()) },
+                    new String[]{ "Deuda pendiente", FMT.format(deuda) }
+            ));
 
-            if (fila == 1) {
-                Row row = detalle.createRow(1);
-                row.createCell(0).setCellValue("Sin compras a crédito registradas para este cliente.");
-                row.getCell(0).setCellStyle(normal);
+            LibroExcel.Hoja detalle = libro.hoja("Compras crédito",
+                    "Fecha compra", "Factura", "Método", "Estado", "Total", "Productos comprados");
+            if (clienteId != null) {
+                recorrerComprasCredito(clienteId, (venta, lineas) -> detalle.fila()
+                        .texto(venta.fecha().format(DFT))
+                        .texto(venta.numeroComprobante() != null ? String.valueOf(venta.numeroComprobante()) : "")
+                        .texto(textoMetodoPago(venta.metodoPago()))
+                        .texto(textoEstadoVenta(venta.estado()))
+                        .moneda(venta.totalVenta())
+                        .texto(resumirProductos(lineas)));
             }
-            autoSize(detalle, 6);
-
-            String baseNombre = Normalizer.normalize(nombreCliente, Normalizer.Form.NFD)
-                    .replaceAll("\\p{M}+", "")
-                    .toLowerCase(Locale.ROOT)
-                    .trim()
-                    .replace(" ", "_")
-                    .replaceAll("[^a-z0-9_]+", "");
-            if (baseNombre.isBlank()) baseNombre = "cliente";
-
-            guardarWorkbook(wb, "historial_credito_" + baseNombre + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar historial: " + e.getMessage());
-        }
+            detalle.siVacia("Sin compras a crédito registradas para este cliente.");
+        });
     }
 
     private String resumirProductosCompra(Venta venta) {
@@ -1880,14 +1850,9 @@ public class ReportesController {
         comboProveedor.setOnAction(e -> {
             Proveedor sel = comboProveedor.getValue();
             if (sel == null) return;
-            resultado.getChildren().clear();
-            try {
-                ReporteComprasDto r = reporteService.reporteComprasPorProveedor(sel.getId());
-                resultado.getChildren().addAll(buildResultadoCompras(r));
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
-            }
-            animarEntrada(resultado, 0);
+            generarEn(resultado, "reportes.compras." + sel.getId(),
+                    () -> reporteService.reporteComprasPorProveedor(sel.getId()),
+                    this::buildResultadoCompras);
         });
 
         if (!todosProveedores.isEmpty()) comboProveedor.setValue(todosProveedores.get(0));
@@ -2108,13 +2073,11 @@ public class ReportesController {
     // ─────────────────────────────────────────────────────────────
 
     private void exportarVentasExcel(ReporteVentasDto r, Caja cajaSesion) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda  = estiloMoneda(wb);
-            CellStyle normal  = estiloNormal(wb);
+        FiltroVentas filtro = new FiltroVentas(r.cajaId(), null, null, null, null);
+        exportadorExcel.exportar(rootStack, "reporte_ventas_caja_" + r.cajaId() + ".xlsx", libro -> {
+            libro.prever(r.detalleVentas().size() + r.topProductos().size() + ventaService.contarLineas(filtro));
 
             // Hoja 1: Resumen
-            XSSFSheet resumen = wb.createSheet("Resumen");
             List<String[]> datos = new ArrayList<>(List.of(
                 new String[]{ "Caja ID",           String.valueOf(r.cajaId()) },
                 new String[]{ "Apertura",          r.fechaApertura() != null ? r.fechaApertura().format(DFT) : "—" },
@@ -2144,449 +2107,215 @@ public class ReportesController {
                     datos.add(new String[]{ "Monto final contado", "En curso" });
                 }
             }
-            Row h = resumen.createRow(0);
-            setCellHeader(h, 0, "Concepto", header);
-            setCellHeader(h, 1, "Valor", header);
-            for (int i = 0; i < datos.size(); i++) {
-                Row row = resumen.createRow(i + 1);
-                row.createCell(0).setCellValue(datos.get(i)[0]);
-                row.createCell(1).setCellValue(datos.get(i)[1]);
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-            }
-            autoSize(resumen, 2);
+            escribirConceptos(libro.hoja("Resumen", "Concepto", "Valor"), datos);
 
             // Hoja 2: Detalle de ventas
-            XSSFSheet detalle = wb.createSheet("Detalle ventas");
-            Row hd = detalle.createRow(0);
-            setCellHeader(hd, 0, "Comprobante", header);
-            setCellHeader(hd, 1, "Fecha y hora", header);
-            setCellHeader(hd, 2, "Cliente", header);
-            setCellHeader(hd, 3, "Cédula", header);
-            setCellHeader(hd, 4, "Método pago", header);
-            setCellHeader(hd, 5, "Estado", header);
-            setCellHeader(hd, 6, "Total", header);
-
-            int filaDetalle = 1;
+            LibroExcel.Hoja detalle = libro.hoja("Detalle ventas",
+                    "Comprobante", "Fecha y hora", "Cliente", "Cédula", "Método pago", "Estado", "Total");
             for (VentaDetalleDto v : r.detalleVentas()) {
-                Row row = detalle.createRow(filaDetalle++);
-                row.createCell(0).setCellValue(v.numeroComprobante() != null ? String.valueOf(v.numeroComprobante()) : "");
-                row.createCell(1).setCellValue(v.fecha() != null ? v.fecha().format(DFT) : "");
-                row.createCell(2).setCellValue(v.clienteNombre() != null ? v.clienteNombre() : "Venta directa");
-                row.createCell(3).setCellValue(v.clienteCedula() != null ? v.clienteCedula() : "");
-                row.createCell(4).setCellValue(textoMetodoPago(v.metodoPago()));
-                row.createCell(5).setCellValue(textoEstadoVenta(v.estado()));
-                row.createCell(6).setCellValue((v.total() != null ? v.total() : BigDecimal.ZERO).doubleValue());
-
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(normal);
-                row.getCell(3).setCellStyle(normal);
-                row.getCell(4).setCellStyle(normal);
-                row.getCell(5).setCellStyle(normal);
-                row.getCell(6).setCellStyle(moneda);
-            }
-            autoSize(detalle, 7);
-
-            // Hoja 3: Productos detallados por venta
-            XSSFSheet productosDetallados = wb.createSheet("Productos detallados");
-            Row hpd = productosDetallados.createRow(0);
-            setCellHeader(hpd, 0, "Comprobante", header);
-            setCellHeader(hpd, 1, "Fecha y hora", header);
-            setCellHeader(hpd, 2, "Cliente", header);
-            setCellHeader(hpd, 3, "Cédula", header);
-            setCellHeader(hpd, 4, "Método pago", header);
-            setCellHeader(hpd, 5, "Estado", header);
-            setCellHeader(hpd, 6, "Producto", header);
-            setCellHeader(hpd, 7, "Código", header);
-            setCellHeader(hpd, 8, "Unidades", header);
-            setCellHeader(hpd, 9, "Precio unitario", header);
-            setCellHeader(hpd, 10, "Subtotal", header);
-
-            CellStyle grupoVentaCentrado = wb.createCellStyle();
-            grupoVentaCentrado.cloneStyleFrom(normal);
-            grupoVentaCentrado.setAlignment(HorizontalAlignment.CENTER);
-            grupoVentaCentrado.setVerticalAlignment(VerticalAlignment.CENTER);
-
-            XSSFColor colorBloqueAlterno = new XSSFColor(new byte[]{(byte)247, (byte)249, (byte)255}, null);
-
-            CellStyle grupoVentaCentradoAlt = wb.createCellStyle();
-            grupoVentaCentradoAlt.cloneStyleFrom(grupoVentaCentrado);
-            grupoVentaCentradoAlt.setFillForegroundColor(colorBloqueAlterno);
-            grupoVentaCentradoAlt.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            CellStyle normalAlt = wb.createCellStyle();
-            normalAlt.cloneStyleFrom(normal);
-            normalAlt.setFillForegroundColor(colorBloqueAlterno);
-            normalAlt.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            CellStyle monedaAlt = wb.createCellStyle();
-            monedaAlt.cloneStyleFrom(moneda);
-            monedaAlt.setFillForegroundColor(colorBloqueAlterno);
-            monedaAlt.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            List<Venta> ventasExportar;
-            try {
-                ventasExportar = ventaService.findByCajaId(r.cajaId());
-            } catch (Exception ex) {
-                ventasExportar = new ArrayList<>(ventasSesionActual.values());
+                detalle.fila()
+                        .texto(v.numeroComprobante() != null ? String.valueOf(v.numeroComprobante()) : "")
+                        .texto(v.fecha() != null ? v.fecha().format(DFT) : "")
+                        .texto(v.clienteNombre() != null ? v.clienteNombre() : "Venta directa")
+                        .texto(v.clienteCedula())
+                        .texto(textoMetodoPago(v.metodoPago()))
+                        .texto(textoEstadoVenta(v.estado()))
+                        .moneda(v.total());
             }
 
-            int filaProductosDetallados = 1;
-            int indiceBloqueVenta = 0;
-            for (Venta v : ventasExportar) {
-                boolean bloqueAlterno = (indiceBloqueVenta % 2) == 1;
-                CellStyle estiloGrupo = bloqueAlterno ? grupoVentaCentradoAlt : grupoVentaCentrado;
-                CellStyle estiloTexto = bloqueAlterno ? normalAlt : normal;
-                CellStyle estiloMoneda = bloqueAlterno ? monedaAlt : moneda;
-
-                List<DetalleVenta> detalles = v.getDetalles() != null ? v.getDetalles() : List.of();
-                if (detalles.isEmpty()) continue;
-
-                int filaInicioVenta = filaProductosDetallados;
-                for (DetalleVenta d : detalles) {
-                    Row row = productosDetallados.createRow(filaProductosDetallados++);
-                    row.createCell(0).setCellValue(v.getNumeroComprobante() != null ? String.valueOf(v.getNumeroComprobante()) : "");
-                    row.createCell(1).setCellValue(v.getFecha() != null ? v.getFecha().format(DFT) : "");
-                    row.createCell(2).setCellValue(
-                            v.getCliente() != null && v.getCliente().getNombre() != null
-                                    ? v.getCliente().getNombre()
-                                    : "Venta directa");
-                    row.createCell(3).setCellValue(
-                            v.getCliente() != null && v.getCliente().getCedula() != null
-                                    ? v.getCliente().getCedula()
-                                    : "");
-                    row.createCell(4).setCellValue(textoMetodoPago(v.getMetodoPago()));
-                    row.createCell(5).setCellValue(textoEstadoVenta(v.getEstado()));
-                    row.createCell(6).setCellValue(
-                            d.getProducto() != null && d.getProducto().getNombre() != null
-                                    ? d.getProducto().getNombre()
-                                    : "");
-                    row.createCell(7).setCellValue(
-                            d.getProducto() != null && d.getProducto().getCodigoBarras() != null
-                                    ? d.getProducto().getCodigoBarras()
-                                    : "");
-                    row.createCell(8).setCellValue(d.getCantidad());
-                    row.createCell(9).setCellValue((d.getPrecioUnitario() != null ? d.getPrecioUnitario() : BigDecimal.ZERO).doubleValue());
-                    row.createCell(10).setCellValue((d.getSubtotal() != null ? d.getSubtotal() : BigDecimal.ZERO).doubleValue());
-
-                    row.getCell(0).setCellStyle(estiloGrupo);
-                    row.getCell(1).setCellStyle(estiloGrupo);
-                    row.getCell(2).setCellStyle(estiloGrupo);
-                    row.getCell(3).setCellStyle(estiloGrupo);
-                    row.getCell(4).setCellStyle(estiloGrupo);
-                    row.getCell(5).setCellStyle(estiloGrupo);
-                    row.getCell(6).setCellStyle(estiloTexto);
-                    row.getCell(7).setCellStyle(estiloTexto);
-                    row.getCell(8).setCellStyle(estiloTexto);
-                    row.getCell(9).setCellStyle(estiloMoneda);
-                    row.getCell(10).setCellStyle(estiloMoneda);
-                }
-
-                int filaFinVenta = filaProductosDetallados - 1;
-                for (int col = 0; col <= 5; col++) {
-                    combinarCeldasYCentrar(productosDetallados, filaInicioVenta, filaFinVenta, col, estiloGrupo);
-                }
-                indiceBloqueVenta++;
-            }
-            autoSize(productosDetallados, 11);
+            // Hoja 3: Productos detallados por venta, leídos con un cursor
+            escribirLineasVenta(libro, "Productos detallados", filtro);
 
             // Hoja 4: Productos vendidos
-            XSSFSheet productos = wb.createSheet("Productos vendidos");
-            Row hp = productos.createRow(0);
-            setCellHeader(hp, 0, "Producto", header);
-            setCellHeader(hp, 1, "Código", header);
-            setCellHeader(hp, 2, "Unidades", header);
-            setCellHeader(hp, 3, "Total generado", header);
-            int filaProductos = 1;
+            LibroExcel.Hoja productos = libro.hoja("Productos vendidos",
+                    "Producto", "Código", "Unidades", "Total generado");
             for (ProductoVendidoDto p : r.topProductos()) {
-                Row row = productos.createRow(filaProductos++);
-                row.createCell(0).setCellValue(p.nombre());
-                row.createCell(1).setCellValue(p.codigoBarras() != null ? p.codigoBarras() : "");
-                row.createCell(2).setCellValue(p.cantidadVendida());
-                row.createCell(3).setCellValue(p.totalGenerado().doubleValue());
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(normal);
-                row.getCell(3).setCellStyle(moneda);
+                productos.fila()
+                        .texto(p.nombre())
+                        .texto(p.codigoBarras())
+                        .numero(p.cantidadVendida())
+                        .moneda(p.totalGenerado());
+            }
+        });
+    }
+
+    /**
+     * Una fila por línea de venta; las columnas de la venta se combinan en su bloque y
+     * los bloques alternan el fondo. Las líneas llegan de la base con un cursor, así una
+     * exportación de un año entero no arma ninguna lista. Las ventas sin detalles no se listan.
+     */
+    private void escribirLineasVenta(LibroExcel libro, String nombreHoja, FiltroVentas filtro) {
+        LibroExcel.Hoja hoja = libro.hoja(nombreHoja,
+                "Comprobante", "Fecha y hora", "Cliente", "Cédula", "Método pago", "Estado",
+                "Producto", "Código", "Unidades", "Precio unitario", "Subtotal");
+        int[] bloque = { -1, 0 };   // fila donde empezó la venta actual, ventas escritas
+        Long[] ventaActual = { null };
+        ventaService.recorrerLineas(filtro, l -> {
+            if (l.detalleId() == null) return;
+            if (!l.ventaId().equals(ventaActual[0])) {
+                cerrarBloqueVenta(hoja, bloque[0]);
+                ventaActual[0] = l.ventaId();
+                bloque[0] = hoja.filas() + 1;
+                bloque[1]++;
             }
-            autoSize(productos, 4);
+            hoja.fila(bloque[1] % 2 == 0)
+                    .grupo(l.numeroComprobante() != null ? String.valueOf(l.numeroComprobante()) : "")
+                    .grupo(l.fecha().format(DFT))
+                    .grupo(l.cliente() != null ? l.cliente() : "Venta directa")
+                    .grupo(l.cedula())
+                    .grupo(textoMetodoPago(l.metodoPago()))
+                    .grupo(textoEstadoVenta(l.estado()))
+                    .texto(l.producto())
+                    .texto(l.codigoBarras())
+                    .numero(l.cantidad())
+                    .moneda(l.precioUnitario())
+                    .moneda(l.subtotal());
+        });
+        cerrarBloqueVenta(hoja, bloque[0]);
+        hoja.siVacia("Sin ventas con productos en el período.");
+    }
 
-            guardarWorkbook(wb, "reporte_ventas_caja_" + r.cajaId() + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar el archivo: " + e.getMessage());
-        }
+    private void cerrarBloqueVenta(LibroExcel.Hoja hoja, int filaInicio) {
+        if (filaInicio < 0) return;
+        for (int col = 0; col <= 5; col++) hoja.combinar(filaInicio, hoja.filas(), col);
     }
 
     private void exportarRentabilidadMensualExcel(ReporteRentabilidadDto r) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle normal = estiloNormal(wb);
-
-            XSSFSheet sheet = wb.createSheet("Rentabilidad Mensual");
-            Row h = sheet.createRow(0);
-            setCellHeader(h, 0, "Año", header);
-            setCellHeader(h, 1, "Mes", header);
-            setCellHeader(h, 2, "Total invertido", header);
-            setCellHeader(h, 3, "Total vendido", header);
-            setCellHeader(h, 4, "Desajuste caja", header);
-            setCellHeader(h, 5, "Ganancia bruta", header);
-            setCellHeader(h, 6, "Margen %", header);
-            setCellHeader(h, 7, "Estado", header);
-
-            Row row = sheet.createRow(1);
-            row.createCell(0).setCellValue(r.anio());
-            row.createCell(1).setCellValue(NOMBRES_MESES[r.mes()]);
-            row.createCell(2).setCellValue(r.totalInvertido().doubleValue());
-            row.createCell(3).setCellValue(r.totalVendido().doubleValue());
-            row.createCell(4).setCellValue(r.ajusteCaja().doubleValue());
-            row.createCell(5).setCellValue(r.gananciaBruta().doubleValue());
-            row.createCell(6).setCellValue(r.margenPorcentaje() != null ? r.margenPorcentaje().doubleValue() : 0);
-            row.createCell(7).setCellValue(r.tuvoPerdida() ? "Pérdida" : "Ganancia");
-            for (int i = 0; i <= 7; i++) row.getCell(i).setCellStyle(normal);
-            autoSize(sheet, 8);
-
-            guardarWorkbook(wb, "rentabilidad_" + NOMBRES_MESES[r.mes()].toLowerCase() + "_" + r.anio() + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar: " + e.getMessage());
-        }
+        exportadorExcel.exportar(rootStack,
+                "rentabilidad_" + NOMBRES_MESES[r.mes()].toLowerCase() + "_" + r.anio() + ".xlsx", libro ->
+            libro.hoja("Rentabilidad Mensual",
+                            "Año", "Mes", "Total invertido", "Total vendido", "Desajuste caja",
+                            "Ganancia bruta", "Margen %", "Estado")
+                    .fila()
+                    .numero(r.anio())
+                    .texto(NOMBRES_MESES[r.mes()])
+                    .moneda(r.totalInvertido())
+                    .moneda(r.totalVendido())
+                    .moneda(r.ajusteCaja())
+                    .moneda(r.gananciaBruta())
+                    .numero(r.margenPorcentaje())
+                    .texto(r.tuvoPerdida() ? "Pérdida" : "Ganancia"));
     }
 
     private void exportarRentabilidadAnualExcel(ReporteRentabilidadAnualDto r) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda = estiloMoneda(wb);
-            CellStyle normal = estiloNormal(wb);
+        // El año completo de líneas de venta puede ser de millones de celdas: va por cursor
+        FiltroVentas delAnio = new FiltroVentas(null, null, null,
+                LocalDateTime.of(r.anio(), 1, 1, 0, 0), LocalDateTime.of(r.anio() + 1, 1, 1, 0, 0));
+        exportadorExcel.exportar(rootStack, "rentabilidad_anual_" + r.anio() + ".xlsx", libro -> {
+            libro.prever(r.meses().size() + ventaService.contarLineas(delAnio));
 
             // Hoja 1: Resumen anual
-            XSSFSheet resumen = wb.createSheet("Resumen " + r.anio());
-            Row h = resumen.createRow(0);
-            setCellHeader(h, 0, "Concepto", header); setCellHeader(h, 1, "Valor", header);
-            String[][] datos = {
-                { "Año",             String.valueOf(r.anio()) },
-                { "Total invertido", FMT.format(r.totalInvertido()) },
-                { "Total vendido",   FMT.format(r.totalVendido()) },
-                { "Desajuste caja",  FMT.format(r.ajusteCajaTotal()) },
-                { "Ganancia bruta",  FMT.format(r.gananciaBruta()) },
-                { "Margen %",        r.margenPorcentaje() != null ? r.margenPorcentaje().toPlainString() + "%" : "—" },
-                { "Estado",          r.tuvoPerdida() ? "Pérdida" : "Ganancia" }
-            };
-            for (int i = 0; i < datos.length; i++) {
-                Row row = resumen.createRow(i + 1);
-                row.createCell(0).setCellValue(datos[i][0]); row.getCell(0).setCellStyle(normal);
-                row.createCell(1).setCellValue(datos[i][1]); row.getCell(1).setCellStyle(normal);
-            }
-            autoSize(resumen, 2);
+            escribirConceptos(libro.hoja("Resumen " + r.anio(), "Concepto", "Valor"), List.of(
+                new String[]{ "Año",             String.valueOf(r.anio()) },
+                new String[]{ "Total invertido", FMT.format(r.totalInvertido()) },
+                new String[]{ "Total vendido",   FMT.format(r.totalVendido()) },
+                new String[]{ "Desajuste caja",  FMT.format(r.ajusteCajaTotal()) },
+                new String[]{ "Ganancia bruta",  FMT.format(r.gananciaBruta()) },
+                new String[]{ "Margen %",        r.margenPorcentaje() != null ? r.margenPorcentaje().toPlainString() + "%" : "—" },
+                new String[]{ "Estado",          r.tuvoPerdida() ? "Pérdida" : "Ganancia" }
+            ));
 
             // Hoja 2: Desglose mensual
-            XSSFSheet meses = wb.createSheet("Desglose mensual");
-            Row hm = meses.createRow(0);
-            setCellHeader(hm, 0, "Mes", header);
-            setCellHeader(hm, 1, "Total invertido", header);
-            setCellHeader(hm, 2, "Total vendido", header);
-            setCellHeader(hm, 3, "Desajuste caja", header);
-            setCellHeader(hm, 4, "Ganancia bruta", header);
-            setCellHeader(hm, 5, "Estado", header);
-            int fila = 1;
+            LibroExcel.Hoja meses = libro.hoja("Desglose mensual",
+                    "Mes", "Total invertido", "Total vendido", "Desajuste caja", "Ganancia bruta", "Estado");
             for (RentabilidadMensualDto m : r.meses()) {
-                Row row = meses.createRow(fila++);
-                row.createCell(0).setCellValue(m.nombreMes());
-                row.createCell(1).setCellValue(m.totalInvertido().doubleValue());
-                row.createCell(2).setCellValue(m.totalVendido().doubleValue());
-                row.createCell(3).setCellValue(m.ajusteCaja().doubleValue());
-                row.createCell(4).setCellValue(m.gananciaBruta().doubleValue());
-                row.createCell(5).setCellValue(m.tuvoPerdida() ? "Pérdida" : "Ganancia");
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(moneda);
-                row.getCell(2).setCellStyle(moneda);
-                row.getCell(3).setCellStyle(moneda);
-                row.getCell(4).setCellStyle(moneda);
-                row.getCell(5).setCellStyle(normal);
+                meses.fila()
+                        .texto(m.nombreMes())
+                        .moneda(m.totalInvertido())
+                        .moneda(m.totalVendido())
+                        .moneda(m.ajusteCaja())
+                        .moneda(m.gananciaBruta())
+                        .texto(m.tuvoPerdida() ? "Pérdida" : "Ganancia");
             }
-            autoSize(meses, 6);
 
-            guardarWorkbook(wb, "rentabilidad_anual_" + r.anio() + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar: " + e.getMessage());
-        }
+            // Hoja 3: Todas las líneas de venta del año
+            escribirLineasVenta(libro, "Ventas " + r.anio(), delAnio);
+        });
     }
 
     private void exportarInventarioExcel(ReporteInventarioDto r) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda = estiloMoneda(wb);
-            CellStyle normal = estiloNormal(wb);
+        exportadorExcel.exportar(rootStack, "reporte_inventario_stock.xlsx", libro -> {
+            List<OrdenCompraProveedorSugerida> ordenes = construirOrdenesCompraSugeridas(r);
+            libro.prever(r.agotados().size() + r.bajoStock().size()
+                    + ordenes.stream().mapToLong(o -> o.items().size()).sum());
 
             String[] cols = { "Producto", "Código", "Proveedor", "Stock", "P. Compra", "P. Venta" };
 
-            XSSFSheet agotados = wb.createSheet("Agotados");
-            Row ha = agotados.createRow(0);
-            for (int i = 0; i < cols.length; i++) setCellHeader(ha, i, cols[i], header);
-            int fila = 1;
-            for (ProductoStockDto p : r.agotados()) {
-                Row row = agotados.createRow(fila++);
-                llenarFilaStock(row, p, normal, moneda);
-            }
-            autoSize(agotados, cols.length);
-
-            XSSFSheet bajoStock = wb.createSheet("Bajo Stock");
-            Row hb = bajoStock.createRow(0);
-            for (int i = 0; i < cols.length; i++) setCellHeader(hb, i, cols[i], header);
-            fila = 1;
-            for (ProductoStockDto p : r.bajoStock()) {
-                Row row = bajoStock.createRow(fila++);
-                llenarFilaStock(row, p, normal, moneda);
-            }
-            autoSize(bajoStock, cols.length);
+            LibroExcel.Hoja agotados = libro.hoja("Agotados", cols);
+            r.agotados().forEach(p -> llenarFilaStock(agotados.fila(), p));
+
+            LibroExcel.Hoja bajoStock = libro.hoja("Bajo Stock", cols);
+            r.bajoStock().forEach(p -> llenarFilaStock(bajoStock.fila(), p));
 
             // Hoja 3: Órdenes sugeridas por proveedor
-            List<OrdenCompraProveedorSugerida> ordenes = construirOrdenesCompraSugeridas(r);
-            XSSFSheet sugeridas = wb.createSheet("OC sugeridas");
-            Row hs = sugeridas.createRow(0);
-            setCellHeader(hs, 0, "Proveedor", header);
-            setCellHeader(hs, 1, "Producto", header);
-            setCellHeader(hs, 2, "Código", header);
-            setCellHeader(hs, 3, "Stock actual", header);
-            setCellHeader(hs, 4, "Cantidad sugerida", header);
-            setCellHeader(hs, 5, "P. compra", header);
-            setCellHeader(hs, 6, "Subtotal estimado", header);
-
-            fila = 1;
+            LibroExcel.Hoja sugeridas = libro.hoja("OC sugeridas",
+                    "Proveedor", "Producto", "Código", "Stock actual", "Cantidad sugerida",
+                    "P. compra", "Subtotal estimado");
             for (OrdenCompraProveedorSugerida orden : ordenes) {
                 for (OrdenCompraItemSugerido item : orden.items()) {
-                    Row row = sugeridas.createRow(fila);
-                    int filaExcel = fila + 1;
-                    fila++;
-                    row.createCell(0).setCellValue(orden.proveedor());
-                    row.createCell(1).setCellValue(item.nombre());
-                    row.createCell(2).setCellValue(item.codigoBarras() != null ? item.codigoBarras() : "");
-                    row.createCell(3).setCellValue(item.stockActual());
-                    row.createCell(4).setCellValue(item.cantidadSugerida());
-                    row.createCell(5).setCellValue(item.precioCompra().doubleValue());
-                    row.createCell(6).setCellFormula("E" + filaExcel + "*F" + filaExcel);
-
-                    row.getCell(0).setCellStyle(normal);
-                    row.getCell(1).setCellStyle(normal);
-                    row.getCell(2).setCellStyle(normal);
-                    row.getCell(3).setCellStyle(normal);
-                    row.getCell(4).setCellStyle(normal);
-                    row.getCell(5).setCellStyle(moneda);
-                    row.getCell(6).setCellStyle(moneda);
+                    LibroExcel.Fila fila = sugeridas.fila();
+                    int n = fila.numeroExcel();
+                    fila.texto(orden.proveedor())
+                        .texto(item.nombre())
+                        .texto(item.codigoBarras())
+                        .numero(item.stockActual())
+                        .numero(item.cantidadSugerida())
+                        .moneda(item.precioCompra())
+                        .formulaMoneda("E" + n + "*F" + n);
                 }
             }
-            autoSize(sugeridas, 7);
-
-            guardarWorkbook(wb, "reporte_inventario_stock.xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar: " + e.getMessage());
-        }
+        });
     }
 
-    private void llenarFilaStock(Row row, ProductoStockDto p, CellStyle normal, CellStyle moneda) {
-        row.createCell(0).setCellValue(p.nombre());
-        row.createCell(1).setCellValue(p.codigoBarras() != null ? p.codigoBarras() : "");
-        row.createCell(2).setCellValue(p.proveedor());
-        row.createCell(3).setCellValue(p.stock());
-        row.createCell(4).setCellValue(p.precioCompra().doubleValue());
-        row.createCell(5).setCellValue(p.precioVenta().doubleValue());
-        row.getCell(0).setCellStyle(normal);
-        row.getCell(1).setCellStyle(normal);
-        row.getCell(2).setCellStyle(normal);
-        row.getCell(3).setCellStyle(normal);
-        row.getCell(4).setCellStyle(moneda);
-        row.getCell(5).setCellStyle(moneda);
+    private void llenarFilaStock(LibroExcel.Fila fila, ProductoStockDto p) {
+        fila.texto(p.nombre())
+            .texto(p.codigoBarras())
+            .texto(p.proveedor())
+            .numero(p.stock())
+            .moneda(p.precioCompra())
+            .moneda(p.precioVenta());
     }
 
     private void exportarCreditosExcel(ReporteCreditosDto r, FiltroClienteCredito filtro) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda = estiloMoneda(wb);
-            CellStyle normal = estiloNormal(wb);
-
-            XSSFSheet sheet = wb.createSheet("Créditos pendientes");
-            Row h = sheet.createRow(0);
-            setCellHeader(h, 0, "Cliente",    header);
-            setCellHeader(h, 1, "Cédula",     header);
-            setCellHeader(h, 2, "Límite",     header);
-            setCellHeader(h, 3, "Utilizado",  header);
-            setCellHeader(h, 4, "Disponible", header);
-
-            int fila = 1;
-            for (ClienteCreditoDto c : r.clientes()) {
-                Row row = sheet.createRow(fila++);
-                row.createCell(0).setCellValue(c.nombre());
-                row.createCell(1).setCellValue(c.cedula() != null ? c.cedula() : "");
-                row.createCell(2).setCellValue(c.limiteCredito().doubleValue());
-                row.createCell(3).setCellValue(c.saldoUtilizado().doubleValue());
-                row.createCell(4).setCellValue(c.saldoDisponible().doubleValue());
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(moneda);
-                row.getCell(3).setCellStyle(moneda);
-                row.getCell(4).setCellStyle(moneda);
-            }
-            autoSize(sheet, 5);
-
-            XSSFSheet compras = wb.createSheet("Compras clientes");
-            Row hc = compras.createRow(0);
-            setCellHeader(hc, 0, "Cliente", header);
-            setCellHeader(hc, 1, "Cédula", header);
-            setCellHeader(hc, 2, "Fecha compra", header);
-            setCellHeader(hc, 3, "Factura", header);
-            setCellHeader(hc, 4, "Método", header);
-            setCellHeader(hc, 5, "Estado", header);
-            setCellHeader(hc, 6, "Total", header);
-            setCellHeader(hc, 7, "Productos comprados", header);
-
-            fila = 1;
-            for (ClienteCreditoDto c : r.clientes()) {
-                List<Venta> comprasCliente = obtenerComprasCreditoCliente(c.id());
-                for (Venta venta : comprasCliente) {
-                    Row row = compras.createRow(fila++);
-                    row.createCell(0).setCellValue(c.nombre());
-                    row.createCell(1).setCellValue(c.cedula() != null ? c.cedula() : "");
-                    row.createCell(2).setCellValue(venta.getFecha() != null ? venta.getFecha().format(DFT) : "");
-                    row.createCell(3).setCellValue(venta.getNumeroComprobante() != null
-                            ? String.valueOf(venta.getNumeroComprobante()) : "");
-                    row.createCell(4).setCellValue(textoMetodoPago(venta.getMetodoPago()));
-                    row.createCell(5).setCellValue(textoEstadoVenta(venta.getEstado()));
-                    row.createCell(6).setCellValue(venta.getTotal() != null ? venta.getTotal().doubleValue() : 0d);
-                    row.createCell(7).setCellValue(resumirProductosCompra(venta));
-
-                    row.getCell(0).setCellStyle(normal);
-                    row.getCell(1).setCellStyle(normal);
-                    row.getCell(2).setCellStyle(normal);
-                    row.getCell(3).setCellStyle(normal);
-                    row.getCell(4).setCellStyle(normal);
-                    row.getCell(5).setCellStyle(normal);
-                    row.getCell(6).setCellStyle(moneda);
-                    row.getCell(7).setCellStyle(normal);
-                }
-            }
+        String sufijo = "";
+        if (filtro != null && !filtro.esGeneral() && filtro.nombre() != null) {
+            sufijo = "_" + filtro.nombre().toLowerCase(Locale.ROOT).replace(" ", "_");
+        }
+        exportadorExcel.exportar(rootStack, "reporte_creditos_pendientes" + sufijo + ".xlsx", libro -> {
+            libro.prever(r.clientes().size());
 
-            if (fila == 1) {
-                Row row = compras.createRow(fila);
-                row.createCell(0).setCellValue("Sin compras registradas para el filtro seleccionado.");
-                row.getCell(0).setCellStyle(normal);
+            LibroExcel.Hoja sheet = libro.hoja("Créditos pendientes",
+                    "Cliente", "Cédula", "Límite", "Utilizado", "Disponible");
+            for (ClienteCreditoDto c : r.clientes()) {
+                sheet.fila()
+                        .texto(c.nombre())
+                        .texto(c.cedula())
+                        .moneda(c.limiteCredito())
+                        .moneda(c.saldoUtilizado())
+                        .moneda(c.saldoDisponible());
             }
-            autoSize(compras, 8);
 
-            String sufijo = "";
-            if (filtro != null && !filtro.esGeneral() && filtro.nombre() != null) {
-                sufijo = "_" + filtro.nombre().toLowerCase(Locale.ROOT).replace(" ", "_");
+            LibroExcel.Hoja compras = libro.hoja("Compras clientes",
+                    "Cliente", "Cédula", "Fecha compra", "Factura", "Método", "Estado", "Total", "Productos comprados");
+            for (ClienteCreditoDto c : r.clientes()) {
+                recorrerComprasCredito(c.id(), (venta, lineas) -> compras.fila()
+                        .texto(c.nombre())
+                        .texto(c.cedula())
+                        .texto(venta.fecha().format(DFT))
+                        .texto(venta.numeroComprobante() != null ? String.valueOf(venta.numeroComprobante()) : "")
+                        .texto(textoMetodoPago(venta.metodoPago()))
+                        .texto(textoEstadoVenta(venta.estado()))
+                        .moneda(venta.totalVenta())
+                        .texto(resumirProductos(lineas)));
             }
-            guardarWorkbook(wb, "reporte_creditos_pendientes" + sufijo + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar: " + e.getMessage());
-        }
+            compras.siVacia("Sin compras registradas para el filtro seleccionado.");
+        });
     }
 
     private void exportarComprasExcel(ReporteComprasDto r) {
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle header = estiloEncabezado(wb);
-            CellStyle moneda = estiloMoneda(wb);
-            CellStyle normal = estiloNormal(wb);
-
+        String nombreProveedor = r.nombreProveedor() != null ? r.nombreProveedor() : "proveedor";
+        String sufijo = nombreProveedor.toLowerCase(Locale.ROOT).replaceAll("\\s+", "_");
+        exportadorExcel.exportar(rootStack, "reporte_compras_" + sufijo + ".xlsx", libro -> {
             List<CompraHistorialDto> historial = r.compras() != null ? r.compras() : List.of();
             List<ProductoCompradoDto> productos = r.productos() != null ? r.productos() : List.of();
 
@@ -2594,10 +2323,6 @@ public class ReportesController {
             BigDecimal ticketPromedio = r.ticketPromedio() != null ? r.ticketPromedio() : BigDecimal.ZERO;
 
             // Hoja 1: Resumen proveedor
-            XSSFSheet res = wb.createSheet("Resumen");
-            Row h = res.createRow(0);
-            setCellHeader(h, 0, "Concepto", header); setCellHeader(h, 1, "Valor", header);
-
             List<String[]> datos = new ArrayList<>(List.of(
                     new String[]{ "Proveedor",          r.nombreProveedor() != null ? r.nombreProveedor() : "—" },
                     new String[]{ "Órdenes de compra",  String.valueOf(r.totalCompras()) },
@@ -2612,214 +2337,95 @@ public class ReportesController {
                 datos.add(new String[]{ "Producto líder por inversión", principal.nombre() });
                 datos.add(new String[]{ "Inversión producto líder", FMT.format(principal.totalInvertido()) });
             }
-
-            for (int i = 0; i < datos.size(); i++) {
-                Row row = res.createRow(i + 1);
-                row.createCell(0).setCellValue(datos.get(i)[0]); row.getCell(0).setCellStyle(normal);
-                row.createCell(1).setCellValue(datos.get(i)[1]); row.getCell(1).setCellStyle(normal);
-            }
-            autoSize(res, 2);
+            escribirConceptos(libro.hoja("Resumen", "Concepto", "Valor"), datos);
 
             // Hoja 2: Historial de compras
-            XSSFSheet hist = wb.createSheet("Historial compras");
-            Row hh = hist.createRow(0);
-            setCellHeader(hh, 0, "Fecha", header);
-            setCellHeader(hh, 1, "Factura", header);
-            setCellHeader(hh, 2, "Ítems", header);
-            setCellHeader(hh, 3, "Unidades", header);
-            setCellHeader(hh, 4, "Total", header);
-
-            int filaHistorial = 1;
+            LibroExcel.Hoja hist = libro.hoja("Historial compras", "Fecha", "Factura", "Ítems", "Unidades", "Total");
             for (CompraHistorialDto compra : historial) {
-                Row row = hist.createRow(filaHistorial++);
-                row.createCell(0).setCellValue(compra.fecha() != null ? compra.fecha().format(DFT) : "");
-                row.createCell(1).setCellValue(textoFacturaCompra(compra.numeroFactura()));
-                row.createCell(2).setCellValue(compra.items());
-                row.createCell(3).setCellValue(compra.unidades());
-                row.createCell(4).setCellValue((compra.total() != null ? compra.total() : BigDecimal.ZERO).doubleValue());
-
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(normal);
-                row.getCell(3).setCellStyle(normal);
-                row.getCell(4).setCellStyle(moneda);
-            }
-
-            if (filaHistorial == 1) {
-                Row row = hist.createRow(1);
-                row.createCell(0).setCellValue("Sin compras registradas para este proveedor.");
-                row.getCell(0).setCellStyle(normal);
+                hist.fila()
+                        .texto(compra.fecha() != null ? compra.fecha().format(DFT) : "")
+                        .texto(textoFacturaCompra(compra.numeroFactura()))
+                        .numero(compra.items())
+                        .numero(compra.unidades())
+                        .moneda(compra.total());
             }
-            autoSize(hist, 5);
+            hist.siVacia("Sin compras registradas para este proveedor.");
 
             // Hoja 3: Detalle de productos por compra
-            XSSFSheet det = wb.createSheet("Detalle por compra");
-            Row hd = det.createRow(0);
-            setCellHeader(hd, 0, "Fecha", header);
-            setCellHeader(hd, 1, "Factura", header);
-            setCellHeader(hd, 2, "Producto", header);
-            setCellHeader(hd, 3, "Código", header);
-            setCellHeader(hd, 4, "Unidades", header);
-            setCellHeader(hd, 5, "Costo unitario", header);
-            setCellHeader(hd, 6, "Subtotal", header);
-
-            int filaDetalle = 1;
+            LibroExcel.Hoja det = libro.hoja("Detalle por compra",
+                    "Fecha", "Factura", "Producto", "Código", "Unidades", "Costo unitario", "Subtotal");
             for (CompraHistorialDto compra : historial) {
+                String fecha   = compra.fecha() != null ? compra.fecha().format(DFT) : "";
+                String factura = textoFacturaCompra(compra.numeroFactura());
                 List<CompraProductoDetalleDto> detalleProductos = compra.productos() != null ? compra.productos() : List.of();
 
                 if (detalleProductos.isEmpty()) {
-                    Row row = det.createRow(filaDetalle++);
-                    row.createCell(0).setCellValue(compra.fecha() != null ? compra.fecha().format(DFT) : "");
-                    row.createCell(1).setCellValue(textoFacturaCompra(compra.numeroFactura()));
-                    row.createCell(2).setCellValue("Sin productos asociados");
-                    row.createCell(3).setCellValue("");
-                    row.createCell(4).setCellValue(0);
-                    row.createCell(5).setCellValue(0);
-                    row.createCell(6).setCellValue(0);
-                    row.getCell(0).setCellStyle(normal);
-                    row.getCell(1).setCellStyle(normal);
-                    row.getCell(2).setCellStyle(normal);
-                    row.getCell(3).setCellStyle(normal);
-                    row.getCell(4).setCellStyle(normal);
-                    row.getCell(5).setCellStyle(moneda);
-                    row.getCell(6).setCellStyle(moneda);
+                    det.fila().texto(fecha).texto(factura).texto("Sin productos asociados").texto("")
+                            .numero(0).moneda(BigDecimal.ZERO).moneda(BigDecimal.ZERO);
                     continue;
                 }
 
                 for (CompraProductoDetalleDto d : detalleProductos) {
-                    Row row = det.createRow(filaDetalle++);
-                    row.createCell(0).setCellValue(compra.fecha() != null ? compra.fecha().format(DFT) : "");
-                    row.createCell(1).setCellValue(textoFacturaCompra(compra.numeroFactura()));
-                    row.createCell(2).setCellValue(d.nombreProducto() != null ? d.nombreProducto() : "");
-                    row.createCell(3).setCellValue(d.codigoBarras() != null ? d.codigoBarras() : "");
-                    row.createCell(4).setCellValue(d.cantidad());
-                    row.createCell(5).setCellValue((d.precioUnitario() != null ? d.precioUnitario() : BigDecimal.ZERO).doubleValue());
-                    row.createCell(6).setCellValue((d.subtotal() != null ? d.subtotal() : BigDecimal.ZERO).doubleValue());
-                    row.getCell(0).setCellStyle(normal);
-                    row.getCell(1).setCellStyle(normal);
-                    row.getCell(2).setCellStyle(normal);
-                    row.getCell(3).setCellStyle(normal);
-                    row.getCell(4).setCellStyle(normal);
-                    row.getCell(5).setCellStyle(moneda);
-                    row.getCell(6).setCellStyle(moneda);
+                    det.fila()
+                            .texto(fecha)
+                            .texto(factura)
+                            .texto(d.nombreProducto())
+                            .texto(d.codigoBarras())
+                            .numero(d.cantidad())
+                            .moneda(d.precioUnitario())
+                            .moneda(d.subtotal());
                 }
             }
-
-            if (filaDetalle == 1) {
-                Row row = det.createRow(1);
-                row.createCell(0).setCellValue("Sin detalle disponible.");
-                row.getCell(0).setCellStyle(normal);
-            }
-            autoSize(det, 7);
+            det.siVacia("Sin detalle disponible.");
 
             // Hoja 4: Productos agregados
-            XSSFSheet prods = wb.createSheet("Productos");
-            Row hp = prods.createRow(0);
-            setCellHeader(hp, 0, "Producto", header);
-            setCellHeader(hp, 1, "Código", header);
-            setCellHeader(hp, 2, "Unidades", header);
-            setCellHeader(hp, 3, "Total invertido", header);
-
-            int filaProductos = 1;
+            LibroExcel.Hoja prods = libro.hoja("Productos", "Producto", "Código", "Unidades", "Total invertido");
             for (ProductoCompradoDto p : productos) {
-                Row row = prods.createRow(filaProductos++);
-                row.createCell(0).setCellValue(p.nombre());
-                row.createCell(1).setCellValue(p.codigoBarras() != null ? p.codigoBarras() : "");
-                row.createCell(2).setCellValue(p.cantidadTotal());
-                row.createCell(3).setCellValue(p.totalInvertido().doubleValue());
-                row.getCell(0).setCellStyle(normal);
-                row.getCell(1).setCellStyle(normal);
-                row.getCell(2).setCellStyle(normal);
-                row.getCell(3).setCellStyle(moneda);
-            }
-
-            if (filaProductos == 1) {
-                Row row = prods.createRow(1);
-                row.createCell(0).setCellValue("Sin productos agregados.");
-                row.getCell(0).setCellStyle(normal);
+                prods.fila()
+                        .texto(p.nombre())
+                        .texto(p.codigoBarras())
+                        .numero(p.cantidadTotal())
+                        .moneda(p.totalInvertido());
             }
-            autoSize(prods, 4);
-
-            String nombreProveedor = r.nombreProveedor() != null ? r.nombreProveedor() : "proveedor";
-            String sufijo = nombreProveedor.toLowerCase(Locale.ROOT).replaceAll("\\s+", "_");
-            guardarWorkbook(wb, "reporte_compras_" + sufijo + ".xlsx");
-        } catch (Exception e) {
-            mostrarAlertaError("No se pudo exportar: " + e.getMessage());
-        }
+            prods.siVacia("Sin productos agregados.");
+        });
     }
 
     // ─────────────────────────────────────────────────────────────
     // Helpers Excel
     // ─────────────────────────────────────────────────────────────
 
-    private void guardarWorkbook(XSSFWorkbook wb, String nombreSugerido) throws Exception {
-        FileChooser fc = new FileChooser();
-        fc.setTitle("Guardar reporte Excel");
-        fc.setInitialFileName(nombreSugerido);
-        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel (.xlsx)", "*.xlsx"));
-        File archivo = fc.showSaveDialog(rootStack.getScene().getWindow());
-        if (archivo == null) return;
-        try (FileOutputStream out = new FileOutputStream(archivo)) {
-            wb.write(out);
+    private void escribirConceptos(LibroExcel.Hoja hoja, List<String[]> datos) {
+        for (String[] dato : datos) {
+            hoja.fila().texto(dato[0]).texto(dato[1]);
         }
     }
 
-    private CellStyle estiloEncabezado(XSSFWorkbook wb) {
-        CellStyle style = wb.createCellStyle();
-        Font font = wb.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 11);
-        font.setColor(IndexedColors.WHITE.getIndex());
-        style.setFont(font);
-        style.setFillForegroundColor(new XSSFColor(new byte[]{(byte)90, (byte)106, (byte)207}, null));
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBottomBorderColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        style.setAlignment(HorizontalAlignment.LEFT);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-
-    private CellStyle estiloNormal(XSSFWorkbook wb) {
-        CellStyle style = wb.createCellStyle();
-        Font font = wb.createFont();
-        font.setFontHeightInPoints((short) 10);
-        style.setFont(font);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBottomBorderColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        return style;
-    }
-
-    private CellStyle estiloMoneda(XSSFWorkbook wb) {
-        CellStyle style = estiloNormal(wb);
-        DataFormat fmt = wb.createDataFormat();
-        style.setDataFormat(fmt.getFormat("$#,##0.00"));
-        return style;
-    }
-
-    private void setCellHeader(Row row, int col, String texto, CellStyle style) {
-        org.apache.poi.ss.usermodel.Cell cell = row.createCell(col);
-        cell.setCellValue(texto);
-        cell.setCellStyle(style);
-        row.setHeight((short) 400);
-    }
-
-    private void autoSize(XSSFSheet sheet, int numCols) {
-        for (int i = 0; i < numCols; i++) sheet.autoSizeColumn(i);
+    /**
+     * Recorre con un cursor las compras a crédito del cliente, de la más reciente a la más
+     * antigua, y entrega cada una con sus líneas. Solo se guardan las líneas de la compra actual.
+     */
+    private void recorrerComprasCredito(Long clienteId, BiConsumer<FilaLineaVenta, List<FilaLineaVenta>> alCerrar) {
+        List<FilaLineaVenta> lineas = new ArrayList<>();
+        ventaService.recorrerLineas(FiltroVentas.creditoDeCliente(clienteId), l -> {
+            if (!lineas.isEmpty() && !lineas.get(0).ventaId().equals(l.ventaId())) {
+                alCerrar.accept(lineas.get(0), lineas);
+                lineas.clear();
+            }
+            lineas.add(l);
+        });
+        if (!lineas.isEmpty()) alCerrar.accept(lineas.get(0), lineas);
     }
 
-    private void combinarCeldasYCentrar(XSSFSheet sheet, int filaInicio, int filaFin, int columna, CellStyle style) {
-        if (filaFin > filaInicio) {
-            sheet.addMergedRegion(new CellRangeAddress(filaInicio, filaFin, columna, columna));
-        }
-        for (int i = filaInicio; i <= filaFin; i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) row = sheet.createRow(i);
-            org.apache.poi.ss.usermodel.Cell cell = row.getCell(columna);
-            if (cell == null) cell = row.createCell(columna);
-            cell.setCellStyle(style);
-        }
+    // Mismo formato que resumirProductosCompra, a partir de las líneas leídas con el cursor
+    private String resumirProductos(List<FilaLineaVenta> lineas) {
+        List<String> items = lineas.stream()
+                .filter(l -> l.detalleId() != null)
+                .map(l -> (l.producto() != null ? l.producto() : "Producto") + " x" + l.cantidad())
+                .toList();
+        if (items.isEmpty()) return "—";
+        if (items.size() <= 3) return String.join(", ", items);
+        return String.join(", ", items.subList(0, 3)) + " +" + (items.size() - 3) + " más";
     }
 
     // ─────────────────────────────────────────────────────────────
@@ -3198,7 +2804,7 @@ public class ReportesController {
 
         try {
             ventaService.reimprimirTicket(venta.getId(), montoRecibido);
-            mostrarAlertaInfo("Impresión", "Factura generada correctamente.");
+            mostrarAlertaInfo("Impresión", "Factura enviada a la cola de impresión.");
         } catch (Exception ex) {
             mostrarAlertaError(ex.getMessage() != null ? ex.getMessage() : "No se pudo imprimir la factura.");
         }
@@ -3323,16 +2929,8 @@ public class ReportesController {
 
         VBox resultado = new VBox(24);
 
-        Runnable generarReporte = () -> {
-            resultado.getChildren().clear();
-            try {
-                ReporteGastosDto r = reporteService.reporteGastos();
-                resultado.getChildren().addAll(buildResultadoGastos(r));
-            } catch (Exception ex) {
-                resultado.getChildren().add(buildError(ex.getMessage()));
-            }
-            animarEntrada(resultado, 0);
-        };
+        Runnable generarReporte = () -> generarEn(resultado, "reportes.gastos",
+                reporteService::reporteGastos, this::buildResultadoGastos);
 
         btnGenerar.setOnAction(e -> generarReporte.run());
 
@@ -3425,70 +3023,24 @@ public class ReportesController {
     }
 
     private void exportarGastosExcel(ReporteGastosDto r) {
-        javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
-        fc.setTitle("Guardar reporte de gastos");
-        fc.setInitialFileName("reporte_gastos.xlsx");
-        fc.getExtensionFilters().add(
-                new javafx.stage.FileChooser.ExtensionFilter("Excel", "*.xlsx"));
-        java.io.File file = fc.showSaveDialog(contentArea.getScene().getWindow());
-        if (file == null) return;
-
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            XSSFSheet sheet = wb.createSheet("Gastos");
-            String[] headers = {"Fecha", "Tipo", "Fuente", "Concepto", "Categoría", "Proveedor/Entidad", "Referencia", "Monto", "Notas", "Usuario"};
-
-            CellStyle headerStyle = wb.createCellStyle();
-            headerStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 220, 38, 38}, null));
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            Font hFont = wb.createFont();
-            hFont.setBold(true);
-            hFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(hFont);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                var cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-            int rowNum = 1;
+        exportadorExcel.exportar(rootStack, "reporte_gastos.xlsx", libro -> {
+            libro.prever(r.detalles().size());
+            LibroExcel.Hoja hoja = libro.hoja("Gastos",
+                    "Fecha", "Tipo", "Fuente", "Concepto", "Categoría", "Proveedor/Entidad", "Referencia", "Monto", "Notas", "Usuario");
             for (GastoDetalleDto g : r.detalles()) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(g.fecha() != null ? g.fecha().format(dtf) : "");
-                row.createCell(1).setCellValue(g.tipo() == TipoGasto.COMPRA_GASTO ? "Compra" : "Pago");
-                row.createCell(2).setCellValue(g.fuentePago() != null
-                        ? (g.fuentePago().name().equals("CAJA") ? "Caja" : "Transferencia") : "");
-                row.createCell(3).setCellValue(g.concepto() != null ? g.concepto() : "");
-                row.createCell(4).setCellValue(g.categoria() != null ? g.categoria() : "");
-                row.createCell(5).setCellValue(g.proveedor() != null ? g.proveedor() : "");
-                row.createCell(6).setCellValue(g.referencia() != null ? g.referencia() : "");
-                row.createCell(7).setCellValue(g.monto() != null ? g.monto().doubleValue() : 0);
-                row.createCell(8).setCellValue(g.notas() != null ? g.notas() : "");
-                row.createCell(9).setCellValue(g.usuarioNombre() != null ? g.usuarioNombre() : "");
+                hoja.fila()
+                        .texto(g.fecha() != null ? g.fecha().format(DFT) : "")
+                        .texto(g.tipo() == TipoGasto.COMPRA_GASTO ? "Compra" : "Pago")
+                        .texto(g.fuentePago() != null
+                                ? (g.fuentePago().name().equals("CAJA") ? "Caja" : "Transferencia") : "")
+                        .texto(g.concepto())
+                        .texto(g.categoria())
+                        .texto(g.proveedor())
+                        .texto(g.referencia())
+                        .moneda(g.monto())
+                        .texto(g.notas())
+                        .texto(g.usuarioNombre());
             }
-
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
-
-            try (java.io.FileOutputStream fos = new java.io.FileOutputStream(file)) {
-                wb.write(fos);
-            }
-
-            mostrarAlerta("Exportado", "El reporte se guardó en:\n" + file.getAbsolutePath());
-        } catch (Exception e) {
-            mostrarAlerta("Error", "No se pudo exportar el archivo: " + e.getMessage());
-        }
-    }
-
-    private void mostrarAlerta(String titulo, String mensaje) {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle(titulo);
-        alert.setHeaderText(null);
-        alert.setContentText(mensaje);
-        alert.showAndWait();
+        });
     }
 }
@@ -1,9 +1,9 @@
 package com.nap.pos.ui.controller;
 
 import com.nap.pos.application.service.CajaService;
+import com.nap.pos.application.service.CatalogoService;
 import com.nap.pos.application.service.CategoriaService;
 import com.nap.pos.application.service.ClienteService;
-import com.nap.pos.application.service.ProductoService;
 import com.nap.pos.application.service.VentaService;
 import com.nap.pos.domain.model.Venta;
 import com.nap.pos.domain.exception.BusinessException;
@@ -14,6 +14,9 @@ import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.MetodoPago;
 import com.nap.pos.domain.model.enums.PlazoPago;
+import com.nap.pos.ui.component.GrillaProductos;
+import com.nap.pos.ui.component.ImagenesProducto;
+import com.nap.pos.ui.component.TareasUI;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ParallelTransition;
@@ -22,7 +25,6 @@ import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -40,10 +42,7 @@ import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
-import javafx.scene.effect.DropShadow;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
@@ -57,14 +56,11 @@ import lombok.RequiredArgsConstructor;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -79,25 +75,22 @@ import java.util.stream.Collectors;
 public class VentasController {
 
     private final VentaService     ventaService;
-    private final ProductoService  productoService;
+    private final CatalogoService  catalogoService;
     private final CategoriaService categoriaService;
     private final ClienteService   clienteService;
     private final CajaService      cajaService;
+    private final ImagenesProducto imagenesProducto;
+    private final TareasUI         tareasUI;
 
     // ── Estado ────────────────────────────────────────────────────
     private Usuario        usuarioActual;
-    private List<Producto> todosProductos = new ArrayList<>();
     private final List<ItemCarrito> carrito = new ArrayList<>();
     private Long   categoriaFiltro  = null;
     private String textoBusqueda    = "";
 
-    // ── Maps para actualización dinámica de stock ────────────────
-    private final Map<Long, Label>  stockBadges  = new HashMap<>();
-    private final Map<Long, Button> addButtons   = new HashMap<>();
-    private final Map<Long, VBox>   productCards = new HashMap<>();
 
     // ── Refs UI (catálogo) ────────────────────────────────────────
-    private FlowPane  gridProductos;
+    private GrillaProductos gridProductos;
     private VBox      contenedorCarrito;
     private Label     lblTotal;
     private Label     lblContadorItems;
@@ -136,25 +129,18 @@ public class VentasController {
     public Node buildView(Usuario usuario) {
         this.usuarioActual = usuario;
         carrito.clear();
-        stockBadges.clear();
-        addButtons.clear();
-        productCards.clear();
         categoriaFiltro = null;
         textoBusqueda   = "";
 
-        loadProductos();
-        List<Categoria> categorias = loadCategorias();
-        List<Cliente>   clientes   = loadClientes();
-
         HBox root = new HBox();
         root.setFillHeight(true);
         root.setMaxWidth(Double.MAX_VALUE);
         root.setMaxHeight(Double.MAX_VALUE);
 
-        VBox panelIzq = buildPanelIzq(categorias);
+        VBox panelIzq = buildPanelIzq();
         HBox.setHgrow(panelIzq, Priority.ALWAYS);
 
-        VBox panelDer = buildPanelDer(clientes);
+        VBox panelDer = buildPanelDer();
         panelDer.setMinWidth(320);
         panelDer.setPrefWidth(340);
         panelDer.setMaxWidth(360);
@@ -176,34 +162,39 @@ public class VentasController {
     // Carga de datos
     // ─────────────────────────────────────────────────────────────
 
-    private void loadProductos() {
-        try { todosProductos = productoService.findAllActivos(); }
-        catch (Exception e) { todosProductos = new ArrayList<>(); }
+    // Índice del catálogo: el stock de cada producto ya viene actualizado tras cada venta
+    private List<Producto> buscarProductos() {
+        try { return catalogoService.buscar(textoBusqueda, categoriaFiltro, Integer.MAX_VALUE); }
+        catch (Exception e) { return new ArrayList<>(); }
     }
 
-    private List<Categoria> loadCategorias() {
-        try { return categoriaService.findAllActivas(); }
-        catch (Exception e) { return new ArrayList<>(); }
+    // Chips y clientes llegan en segundo plano; la pantalla se puede usar mientras tanto
+    private void cargarCategorias(HBox chips) {
+        tareasUI.ejecutar("ventas.categorias", categoriaService::findAllActivas, (List<Categoria> categorias) -> {
+            for (Categoria c : categorias) {
+                chips.getChildren().add(crearChip(c.getNombre(), c.getId(), c.getIcono(), false, chips));
+            }
+        });
     }
 
-    private List<Cliente> loadClientes() {
-        try { return clienteService.findAllActivos(); }
-        catch (Exception e) { return new ArrayList<>(); }
+    private void cargarClientes(ComboBox<Cliente> combo) {
+        tareasUI.ejecutar("ventas.clientes", clienteService::findAllActivos,
+                (List<Cliente> clientes) -> combo.getItems().addAll(clientes));
     }
 
     // ─────────────────────────────────────────────────────────────
     // Panel izquierdo — catálogo
     // ─────────────────────────────────────────────────────────────
 
-    private VBox buildPanelIzq(List<Categoria> categorias) {
+    private VBox buildPanelIzq() {
         VBox panel = new VBox(0);
         panel.getStyleClass().add("venta-panel-izq");
         VBox.setVgrow(panel, Priority.ALWAYS);
 
         panel.getChildren().addAll(
             buildSearchBar(),
-            buildCatChips(categorias),
-            buildGridScroll()
+            buildCatChips(),
+            buildGrid()
         );
         actualizarGrid();
         return panel;
@@ -246,7 +237,7 @@ public class VentasController {
         searchWrap.getChildren().addAll(campoBusqueda, ico);
 
         campoBusqueda.textProperty().addListener((obs, o, n) -> {
-            textoBusqueda = n == null ? "" : n.toLowerCase();
+            textoBusqueda = n == null ? "" : n;
             actualizarGrid();
         });
 
@@ -275,16 +266,14 @@ public class VentasController {
         return bar;
     }
 
-    private ScrollPane buildCatChips(List<Categoria> categorias) {
+    private ScrollPane buildCatChips() {
         HBox chips = new HBox(8);
         chips.setAlignment(Pos.CENTER_LEFT);
         chips.setPadding(new Insets(6, 20, 12, 20));
 
         // Chip "Todas" con ícono de cuadrícula
         chips.getChildren().add(crearChip("Todas", null, "fas-th", true, chips));
-        for (Categoria c : categorias) {
-            chips.getChildren().add(crearChip(c.getNombre(), c.getId(), c.getIcono(), false, chips));
-        }
+        cargarCategorias(chips);
 
         ScrollPane sp = new ScrollPane(chips);
         sp.setFitToHeight(true);
@@ -346,181 +335,25 @@ public class VentasController {
         return btn;
     }
 
-    private ScrollPane buildGridScroll() {
-        gridProductos = new FlowPane();
-        gridProductos.setHgap(14);
-        gridProductos.setVgap(14);
-        gridProductos.setPadding(new Insets(16, 20, 20, 20));
-
-        ScrollPane sp = new ScrollPane(gridProductos);
-        sp.setFitToWidth(true);
-        sp.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        sp.getStyleClass().add("venta-grid-scroll");
-        VBox.setVgrow(sp, Priority.ALWAYS);
-        return sp;
+    private GrillaProductos buildGrid() {
+        // Virtualizada: solo existen las tarjetas de las filas visibles
+        gridProductos = new GrillaProductos(imagenesProducto, this::disponible, this::agregarAlCarrito);
+        VBox.setVgrow(gridProductos, Priority.ALWAYS);
+        return gridProductos;
     }
 
     private void actualizarGrid() {
-        gridProductos.getChildren().clear();
-        stockBadges.clear();
-        addButtons.clear();
-        productCards.clear();
-        NumberFormat fmt = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
-
-        List<Producto> filtrados = todosProductos.stream()
-            .filter(p -> {
-                if (categoriaFiltro != null) {
-                    if (p.getSubcategoria() == null
-                            || p.getSubcategoria().getCategoria() == null
-                            || !categoriaFiltro.equals(p.getSubcategoria().getCategoria().getId()))
-                        return false;
-                }
-                if (!textoBusqueda.isEmpty()) {
-                    boolean matchN = p.getNombre() != null
-                            && p.getNombre().toLowerCase().contains(textoBusqueda);
-                    boolean matchB = p.getCodigoBarras() != null
-                            && p.getCodigoBarras().toLowerCase().contains(textoBusqueda);
-                    return matchN || matchB;
-                }
-                return true;
-            })
-            .collect(Collectors.toList());
-
-        if (filtrados.isEmpty()) {
-            Label lV = new Label("No se encontraron productos.");
-            lV.getStyleClass().add("dashboard-empty");
-            lV.setPadding(new Insets(24, 0, 0, 0));
-            gridProductos.getChildren().add(lV);
-            return;
-        }
-
-        // Entrada staggered: cada card con 40ms de delay adicional (máx 10 cards animadas)
-        int idx = 0;
-        for (Producto p : filtrados) {
-            VBox card = crearProductoCard(p, fmt);
-            gridProductos.getChildren().add(card);
-            if (idx < 16) {
-                animarEntrada(card, idx * 35);
-            }
-            idx++;
-        }
+        gridProductos.mostrar(buscarProductos());
     }
 
-    private VBox crearProductoCard(Producto p, NumberFormat fmt) {
-        VBox card = new VBox(0);
-        card.getStyleClass().add("venta-producto-card");
-        card.setPrefWidth(158);
-        card.setMaxWidth(158);
-        card.setPadding(Insets.EMPTY);
-
-        boolean sinStock = p.getStock() == 0;
-        if (sinStock) {
-            card.setOpacity(0.50);
-        } else {
-            card.setCursor(Cursor.HAND);
-            aplicarHoverCard(card);
-        }
-
-        // Área de imagen: ocupa todo el ancho de la card y la mitad superior
-        StackPane iconArea = new StackPane();
-        iconArea.getStyleClass().add("venta-producto-icon");
-        iconArea.setPrefHeight(100);
-        iconArea.setMinHeight(100);
-        iconArea.setMaxWidth(Double.MAX_VALUE);
-
-        // Clip con esquinas superiores redondeadas (el rect se extiende abajo para no redondear la parte inferior)
-        javafx.scene.shape.Rectangle iconClip = new javafx.scene.shape.Rectangle(158, 112);
-        iconClip.setArcWidth(11);
-        iconClip.setArcHeight(11);
-        iconArea.setClip(iconClip);
-
-        // Mostrar imagen si existe (cover: rellena todo el área sin preservar ratio)
-        String imgPath = p.getImagenPath();
-        boolean tieneImagen = imgPath != null && !imgPath.isBlank() && new File(imgPath).exists();
-        if (tieneImagen) {
-            try {
-                Image img = new Image(new File(imgPath).toURI().toString(), 158, 100, false, true, false);
-                ImageView iv = new ImageView(img);
-                iv.setFitWidth(158);
-                iv.setFitHeight(100);
-                iv.setPreserveRatio(false);
-                iv.setSmooth(true);
-                iconArea.getChildren().add(iv);
-            } catch (Exception ex) {
-                tieneImagen = false;
-            }
-        }
-        if (!tieneImagen) {
-            String ini = (p.getNombre() != null && !p.getNombre().isBlank())
-                    ? p.getNombre().substring(0, 1).toUpperCase() : "?";
-            Label lIni = new Label(ini);
-            lIni.setStyle("-fx-font-size: 28px; -fx-font-weight: 700; -fx-text-fill: #5A6ACF;");
-            iconArea.getChildren().add(lIni);
-        }
-
-        Label lStock = new Label(sinStock ? "Agotado" : String.valueOf(p.getStock()));
-        lStock.getStyleClass().addAll("venta-stock-badge", sinStock ? "venta-stock-agotado" : "venta-stock-ok");
-        StackPane.setAlignment(lStock, Pos.TOP_RIGHT);
-        StackPane.setMargin(lStock, new Insets(6, 6, 0, 0));
-
-        iconArea.getChildren().add(lStock);
-
-        // Área de contenido debajo de la imagen
-        VBox content = new VBox(4);
-        content.setPadding(new Insets(8, 10, 10, 10));
-
-        // Nombre
-        Label lNombre = new Label(p.getNombre());
-        lNombre.getStyleClass().add("venta-producto-nombre");
-        lNombre.setWrapText(true);
-        lNombre.setMaxWidth(Double.MAX_VALUE);
-
-        content.getChildren().add(lNombre);
-
-        // Subcategoría (si tiene)
-        if (p.getSubcategoria() != null) {
-            Label lSub = new Label(p.getSubcategoria().getNombre());
-            lSub.setStyle("-fx-font-size: 10px; -fx-text-fill: #A8A29E; -fx-padding: -2 0 0 0;");
-            content.getChildren().add(lSub);
-        }
-
-        // Fila precio + botón agregar (spacing para separar "+" del valor)
-        HBox priceRow = new HBox(8);
-        priceRow.setAlignment(Pos.CENTER_LEFT);
-
-        String precioStr = fmt.format(p.getPrecioVenta() != null ? p.getPrecioVenta() : BigDecimal.ZERO);
-        Label lPrecio = new Label(precioStr);
-        lPrecio.getStyleClass().add("venta-producto-precio");
-        HBox.setHgrow(lPrecio, Priority.ALWAYS);
-
-        Button btnAdd = new Button();
-        FontIcon addIco = new FontIcon("fas-plus");
-        addIco.setIconSize(11);
-        addIco.setIconColor(Paint.valueOf("#FFFFFF"));
-        btnAdd.setGraphic(addIco);
-        btnAdd.getStyleClass().add("venta-btn-add");
-        btnAdd.setDisable(sinStock);
-        btnAdd.setOnAction(e -> {
-            e.consume();
-            animarBotonAdd(btnAdd);
-            agregarAlCarrito(p);
-        });
-
-        priceRow.getChildren().addAll(lPrecio, btnAdd);
-        content.getChildren().add(priceRow);
-
-        card.getChildren().addAll(iconArea, content);
-
-        if (!sinStock) {
-            card.setOnMouseClicked(e -> agregarAlCarrito(p));
-        }
-
-        // Guardar referencias para actualización dinámica de stock
-        stockBadges.put(p.getId(), lStock);
-        addButtons.put(p.getId(), btnAdd);
-        productCards.put(p.getId(), card);
-
-        return card;
+    /** Stock vigente según el catálogo menos lo que ya está en el carrito. */
+    private int disponible(Producto p) {
+        int stock = catalogoService.buscarPorId(p.getId()).map(Producto::getStock).orElse(p.getStock());
+        int enCarrito = carrito.stream()
+                .filter(i -> i.producto.getId().equals(p.getId()))
+                .mapToInt(i -> i.cantidad)
+                .sum();
+        return stock - enCarrito;
     }
 
     /**
@@ -528,47 +361,14 @@ public class VentasController {
      * en función del stock real menos la cantidad ya en el carrito.
      */
     private void actualizarStockCard(Long productoId) {
-        // Buscar el producto en la lista
-        todosProductos.stream()
-            .filter(p -> p.getId().equals(productoId))
-            .findFirst()
-            .ifPresent(p -> {
-                int enCarrito = carrito.stream()
-                        .filter(i -> i.producto.getId().equals(productoId))
-                        .mapToInt(i -> i.cantidad)
-                        .sum();
-                int disponible = p.getStock() - enCarrito;
-
-                Label badge  = stockBadges.get(productoId);
-                Button btn   = addButtons.get(productoId);
-                VBox   crd   = productCards.get(productoId);
-
-                if (badge == null) return;
-
-                boolean agotado = disponible <= 0;
-
-                badge.setText(agotado ? "Agotado" : String.valueOf(disponible));
-                badge.getStyleClass().removeAll("venta-stock-ok", "venta-stock-agotado");
-                badge.getStyleClass().add(agotado ? "venta-stock-agotado" : "venta-stock-ok");
-
-                if (btn != null) btn.setDisable(agotado);
-                if (crd != null) {
-                    crd.setOpacity(agotado ? 0.50 : 1.0);
-                    crd.setCursor(agotado ? Cursor.DEFAULT : Cursor.HAND);
-                    if (agotado) {
-                        crd.setOnMouseClicked(null);
-                    } else {
-                        crd.setOnMouseClicked(e -> agregarAlCarrito(p));
-                    }
-                }
-            });
+        gridProductos.actualizarStock(productoId);
     }
 
     // ─────────────────────────────────────────────────────────────
     // Panel derecho — carrito + pago
     // ─────────────────────────────────────────────────────────────
 
-    private VBox buildPanelDer(List<Cliente> clientes) {
+    private VBox buildPanelDer() {
         VBox panel = new VBox(0);
         panel.getStyleClass().add("venta-panel-der");
         VBox.setVgrow(panel, Priority.ALWAYS);
@@ -595,7 +395,7 @@ public class VentasController {
         vistaCarrito = buildVistaCarrito();
         VBox.setVgrow(vistaCarrito, Priority.ALWAYS);
 
-        vistaPago = buildVistaPago(clientes);
+        vistaPago = buildVistaPago();
         vistaPago.setVisible(false);
         vistaPago.setManaged(false);
         VBox.setVgrow(vistaPago, Priority.ALWAYS);
@@ -652,7 +452,7 @@ public class VentasController {
         return v;
     }
 
-    private VBox buildVistaPago(List<Cliente> clientes) {
+    private VBox buildVistaPago() {
         VBox v = new VBox(14);
         v.setPadding(new Insets(16, 20, 20, 20));
         VBox.setVgrow(v, Priority.ALWAYS);
@@ -679,7 +479,7 @@ public class VentasController {
         cboCliente.setPromptText("Consumidor final");
         cboCliente.setMaxWidth(Double.MAX_VALUE);
         cboCliente.getItems().add(null);
-        cboCliente.getItems().addAll(clientes);
+        cargarClientes(cboCliente);
         cboCliente.setConverter(new StringConverter<Cliente>() {
             @Override public String toString(Cliente c) {
                 return c == null ? "Sin cliente" : c.getNombre() + "  ·  " + c.getCedula();
@@ -904,27 +704,17 @@ public class VentasController {
         avatarClip.setArcHeight(34);
         av.setClip(avatarClip);
 
-        String imgPath = item.producto.getImagenPath();
-        boolean tieneImg = imgPath != null && !imgPath.isBlank() && new File(imgPath).exists();
-        if (tieneImg) {
-            try {
-                Image img = new Image(new File(imgPath).toURI().toString(), 34, 34, false, true, false);
-                ImageView iv = new ImageView(img);
-                iv.setFitWidth(34);
-                iv.setFitHeight(34);
-                iv.setPreserveRatio(false);
-                av.getChildren().add(iv);
-            } catch (Exception ex) {
-                tieneImg = false;
-            }
-        }
-        if (!tieneImg) {
-            String ini = (item.producto.getNombre() != null && !item.producto.getNombre().isBlank())
-                    ? item.producto.getNombre().substring(0, 1).toUpperCase() : "?";
-            Label lI = new Label(ini);
-            lI.setStyle("-fx-font-size: 13px; -fx-font-weight: 700; -fx-text-fill: #5A6ACF;");
-            av.getChildren().add(lI);
-        }
+        // La inicial queda debajo: se ve mientras la imagen se decodifica o si no tiene
+        String ini = (item.producto.getNombre() != null && !item.producto.getNombre().isBlank())
+                ? item.producto.getNombre().substring(0, 1).toUpperCase() : "?";
+        Label lI = new Label(ini);
+        lI.setStyle("-fx-font-size: 13px; -fx-font-weight: 700; -fx-text-fill: #5A6ACF;");
+        ImageView iv = new ImageView();
+        iv.setFitWidth(34);
+        iv.setFitHeight(34);
+        iv.setPreserveRatio(false);
+        av.getChildren().addAll(lI, iv);
+        imagenesProducto.cargar(item.producto.getImagenPath(), 34, 34, false, iv::setImage);
 
         // Nombre y precio unitario
         VBox info = new VBox(2);
@@ -1167,7 +957,6 @@ public class VentasController {
 
             // Éxito — reiniciar estado
             carrito.clear();
-            loadProductos();
             actualizarVistaCarrito();
             actualizarGrid();
             mostrarVistaCarrito();
@@ -1476,10 +1265,7 @@ public class VentasController {
     private void procesarCodigoDeBarras(String entrada) {
         if (entrada.isEmpty()) return;
 
-        Producto encontrado = todosProductos.stream()
-            .filter(p -> entrada.equals(p.getCodigoBarras()))
-            .findFirst()
-            .orElse(null);
+        Producto encontrado = catalogoService.buscarPorCodigoBarras(entrada).orElse(null);
 
         if (encontrado == null) return; // no hay coincidencia exacta → filtrar por nombre
 
@@ -1545,37 +1331,6 @@ public class VentasController {
     }
 
     /** Efecto hover de escala en tarjetas de producto */
-    private void aplicarHoverCard(VBox card) {
-        DropShadow shadowBase = new DropShadow(6, 0, 2, Color.color(0, 0, 0, 0.05));
-        DropShadow shadowHover = new DropShadow(14, 0, 4, Color.color(0.35, 0.42, 0.81, 0.22));
-        card.setEffect(shadowBase);
-
-        card.setOnMouseEntered(e -> {
-            ScaleTransition sc = new ScaleTransition(Duration.millis(130), card);
-            sc.setToX(1.04); sc.setToY(1.04);
-            sc.setInterpolator(Interpolator.EASE_OUT);
-            sc.play();
-            card.setEffect(shadowHover);
-        });
-        card.setOnMouseExited(e -> {
-            ScaleTransition sc = new ScaleTransition(Duration.millis(110), card);
-            sc.setToX(1.0); sc.setToY(1.0);
-            sc.setInterpolator(Interpolator.EASE_OUT);
-            sc.play();
-            card.setEffect(shadowBase);
-        });
-        card.setOnMousePressed(e -> {
-            ScaleTransition sc = new ScaleTransition(Duration.millis(60), card);
-            sc.setToX(0.97); sc.setToY(0.97);
-            sc.play();
-        });
-        card.setOnMouseReleased(e -> {
-            ScaleTransition sc = new ScaleTransition(Duration.millis(80), card);
-            sc.setToX(1.04); sc.setToY(1.04);
-            sc.play();
-        });
-    }
-
     /** Pulsa el contador del carrito al agregar un ítem */
     private void pulsarContador() {
         ScaleTransition sc = new ScaleTransition(Duration.millis(120), lblContadorItems);
@@ -1588,16 +1343,6 @@ public class VentasController {
     }
 
     /** Animación de escala en el botón "+" al hacer clic */
-    private void animarBotonAdd(Button btn) {
-        ScaleTransition sc = new ScaleTransition(Duration.millis(100), btn);
-        sc.setFromX(1.0); sc.setFromY(1.0);
-        sc.setToX(1.45); sc.setToY(1.45);
-        sc.setAutoReverse(true);
-        sc.setCycleCount(2);
-        sc.setInterpolator(Interpolator.EASE_BOTH);
-        sc.play();
-    }
-
     /** Slide-in desde la derecha para ítems del carrito */
     private void animarCartItem(Node node, int delayMs) {
         node.setOpacity(0);
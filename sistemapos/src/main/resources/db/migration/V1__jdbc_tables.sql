@@ -0,0 +1,30 @@
+-- Tables written only through JdbcTemplate (no JPA entity), so ddl-auto never creates them.
+-- IF NOT EXISTS: databases created before versioned migrations already have them.
+
+-- Sales rollup maintained by ResumenVentaRepositoryImpl — dia is stored as ISO text
+CREATE TABLE IF NOT EXISTS resumen_ventas_diario (
+    dia             TEXT        NOT NULL,
+    hora            INTEGER     NOT NULL,
+    caja_id         INTEGER     NOT NULL,
+    metodo_pago     VARCHAR(20) NOT NULL,
+    numero_ventas   INTEGER     NOT NULL DEFAULT 0,
+    numero_anuladas INTEGER     NOT NULL DEFAULT 0,
+    total           NUMERIC     NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, hora, caja_id, metodo_pago)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_productos_diario (
+    dia         TEXT        NOT NULL,
+    caja_id     INTEGER     NOT NULL,
+    metodo_pago VARCHAR(20) NOT NULL,
+    producto_id INTEGER     NOT NULL,
+    unidades    INTEGER     NOT NULL DEFAULT 0,
+    total       NUMERIC     NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, caja_id, metodo_pago, producto_id)
+);
+
+-- Named counters (comprobante numbers) — see SecuenciaComprobanteRepositoryImpl
+CREATE TABLE IF NOT EXISTS secuencias (
+    nombre    VARCHAR(40) NOT NULL PRIMARY KEY,
+    siguiente INTEGER     NOT NULL
+);
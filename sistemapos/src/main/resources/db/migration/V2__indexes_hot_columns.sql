@@ -0,0 +1,28 @@
+-- Columns filtered or joined by reports, caja close and history screens.
+-- Without these every one of those queries is a full table scan.
+
+-- Sales: date ranges, per-caja totals, client credit history.
+-- History screens walk sales newest first, resuming after the last (fecha, id) shown;
+-- with the filter column first the index hands back one caja's / client's rows already
+-- in date order, so each slice is an index seek instead of a sort.
+CREATE INDEX IF NOT EXISTS ix_ventas_fecha         ON ventas (fecha);
+CREATE INDEX IF NOT EXISTS ix_ventas_caja_fecha    ON ventas (caja_id, fecha);
+CREATE INDEX IF NOT EXISTS ix_ventas_cliente_fecha ON ventas (cliente_id, fecha);
+
+-- Sale lines: loaded per sale, aggregated per product
+CREATE INDEX IF NOT EXISTS ix_detalle_ventas_venta_id    ON detalle_ventas (venta_id);
+CREATE INDEX IF NOT EXISTS ix_detalle_ventas_producto_id ON detalle_ventas (producto_id);
+
+-- Purchases: per-supplier reports and history, date ranges, lines per purchase
+CREATE INDEX IF NOT EXISTS ix_compras_proveedor_fecha     ON compras (proveedor_id, fecha);
+CREATE INDEX IF NOT EXISTS ix_compras_fecha               ON compras (fecha);
+CREATE INDEX IF NOT EXISTS ix_detalle_compras_compra_id   ON detalle_compras (compra_id);
+CREATE INDEX IF NOT EXISTS ix_detalle_compras_producto_id ON detalle_compras (producto_id);
+
+CREATE INDEX IF NOT EXISTS ix_gastos_fecha ON gastos (fecha);
+
+-- Sales screen, dashboard counts and low-stock alerts filter active products by stock
+CREATE INDEX IF NOT EXISTS ix_productos_activo_stock ON productos (activo, stock);
+
+-- Open caja lookup on every sale
+CREATE INDEX IF NOT EXISTS ix_cajas_estado ON cajas (estado);
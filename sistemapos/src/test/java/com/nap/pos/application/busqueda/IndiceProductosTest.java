@@ -0,0 +1,62 @@
+package com.nap.pos.application.busqueda;
+
+import com.nap.pos.domain.model.Categoria;
+import com.nap.pos.domain.model.Producto;
+import com.nap.pos.domain.model.Subcategoria;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceProductosTest {
+
+    private final Categoria granos  = Categoria.builder().id(1L).nombre("Granos").build();
+    private final Categoria bebidas = Categoria.builder().id(2L).nombre("Bebidas").build();
+
+    private final IndiceProductos indice = IndiceProductos.de(List.of(
+            producto(1L, "Café Águila 250g", "7701", bebidas),
+            producto(2L, "Arroz Diana 500g", "7702", granos),
+            producto(3L, "Arroz Roa 1kg",    "7703", granos),
+            producto(4L, "Harina de arroz",  "7704", granos),
+            producto(5L, "Panela",           "77",   null)));
+
+    @Test
+    void buscar_ignoraTildesYMayusculas() {
+        assertThat(ids(indice.buscar("CAFE agui", null, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void buscar_variasPalabras_todasDebenSerPrefijo() {
+        assertThat(ids(indice.buscar("arr dia", null, 10))).containsExactly(2L);
+        assertThat(ids(indice.buscar("arroz xyz", null, 10))).isEmpty();
+    }
+
+    @Test
+    void buscar_ordenaCodigoExactoLuegoInicioDelNombre() {
+        // "Harina de arroz" también coincide, pero el nombre no empieza por la consulta
+        assertThat(ids(indice.buscar("arroz", null, 10))).containsExactly(2L, 3L, 4L);
+        // "77" es el código de Panela y prefijo de los demás códigos
+        assertThat(ids(indice.buscar("77", null, 10)).get(0)).isEqualTo(5L);
+    }
+
+    @Test
+    void buscar_filtraPorCategoriaYRespetaLimite() {
+        assertThat(ids(indice.buscar("", granos.getId(), 10))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(indice.buscar("", bebidas.getId(), 10))).containsExactly(1L);
+        assertThat(indice.buscar("77", null, 2)).hasSize(2);
+        assertThat(indice.buscar("", 99L, 10)).isEmpty();
+    }
+
+    private Producto producto(Long id, String nombre, String codigo, Categoria categoria) {
+        return Producto.builder()
+                .id(id).nombre(nombre).codigoBarras(codigo)
+                .subcategoria(categoria == null ? null
+                        : Subcategoria.builder().id(id).nombre("General").categoria(categoria).build())
+                .activo(true).build();
+    }
+
+    private List<Long> ids(List<Producto> productos) {
+        return productos.stream().map(Producto::getId).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.nap.pos.application.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusEventosTest {
+
+    // Sin arrancar: cada prueba publica lo que quiera antes de llamar a iniciar()
+    private final BusEventos bus = new BusEventos(BusEventos.VENTANA_MS);
+
+    @AfterEach
+    void tearDown() {
+        bus.detener();
+    }
+
+    @Test
+    void alConfirmar_juntaLaRafagaEnUnLoteYFiltraPorTipo() throws Exception {
+        List<List<CambioProductos>> lotesProductos = new CopyOnWriteArrayList<>();
+        List<List<CajaCerradaEvent>> lotesCaja = new CopyOnWriteArrayList<>();
+        CountDownLatch entregado = new CountDownLatch(1);
+        bus.suscribir(CambioProductos.class, lote -> {
+            lotesProductos.add(lote);
+            entregado.countDown();
+        });
+        bus.suscribir(CajaCerradaEvent.class, lotesCaja::add);
+
+        // La ráfaga ya está en cola cuando arranca el hilo: sale entera en el primer lote
+        bus.alConfirmar(StockModificadoEvent.de(1L));
+        bus.alConfirmar(new VentaRegistradaEvent(10L, 1L, null, null, BigDecimal.TEN));
+        bus.alConfirmar(PrecioModificadoEvent.de(List.of(2L)));
+        bus.iniciar();
+
+        assertThat(entregado.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(lotesProductos).hasSize(1);
+        assertThat(lotesProductos.get(0)).containsExactly(
+                StockModificadoEvent.de(1L), PrecioModificadoEvent.de(List.of(2L)));
+        assertThat(lotesCaja).isEmpty();
+    }
+
+    @Test
+    void alConfirmar_unOyenteQueFallaNoDetieneALosDemas() throws Exception {
+        Semaphore entregados = new Semaphore(0);
+        bus.suscribir(VentaAnuladaEvent.class, lote -> { throw new IllegalStateException("falla"); });
+        bus.suscribir(VentaAnuladaEvent.class, lote -> entregados.release(lote.size()));
+        bus.iniciar();
+
+        bus.alConfirmar(new VentaAnuladaEvent(1L, 1L, null, null, BigDecimal.ONE));
+        assertThat(entregados.tryAcquire(2, TimeUnit.SECONDS)).isTrue();
+        // El lote anterior ya se entregó: el hilo sigue vivo tras la falla y reparte el siguiente
+        bus.alConfirmar(new VentaAnuladaEvent(2L, 1L, null, null, BigDecimal.ONE));
+        assertThat(entregados.tryAcquire(2, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -1,19 +1,26 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.dto.ResumenCajaDto;
+import com.nap.pos.application.event.CajaCerradaEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Caja;
+import com.nap.pos.domain.model.TotalesCaja;
 import com.nap.pos.domain.model.Usuario;
 import com.nap.pos.domain.model.enums.EstadoCaja;
 import com.nap.pos.domain.model.enums.Rol;
 import com.nap.pos.domain.repository.CajaRepository;
+import com.nap.pos.domain.repository.VentaRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +34,12 @@ class CajaServiceTest {
     @Mock
     private CajaRepository cajaRepository;
 
+    @Mock
+    private VentaRepository ventaRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CajaService cajaService;
 
@@ -78,6 +91,7 @@ class CajaServiceTest {
         assertThat(resultado.getMontoFinal()).isEqualByComparingTo("750000");
         assertThat(resultado.getFechaCierre()).isNotNull();
         verify(cajaRepository).save(cajaAbierta);
+        verify(eventPublisher).publishEvent(new CajaCerradaEvent(1L, new BigDecimal("750000")));
     }
 
     // --- getCajaAbierta ---
@@ -89,6 +103,35 @@ class CajaServiceTest {
         assertThrows(BusinessException.class, () -> cajaService.getCajaAbierta());
     }
 
+    // --- historial ---
+
+    @Test
+    void historial_sumaLasVentasDeTodasLasCajasEnUnaConsultaYCalculaLaDiferencia() {
+        LocalDateTime ayer = LocalDateTime.now().minusDays(1);
+        Caja cerrada = Caja.builder()
+                .id(1L).estado(EstadoCaja.CERRADA).fechaApertura(ayer)
+                .montoInicial(new BigDecimal("100000")).montoFinal(new BigDecimal("340000")).build();
+        Caja abierta = Caja.builder()
+                .id(2L).estado(EstadoCaja.ABIERTA).fechaApertura(ayer.plusDays(1))
+                .montoInicial(new BigDecimal("50000")).build();
+        when(cajaRepository.findAll()).thenReturn(List.of(cerrada, abierta));
+        when(ventaRepository.totalizarPorCaja(List.of(2L, 1L))).thenReturn(Map.of(1L,
+                new TotalesCaja(1L, 5, 1, new BigDecimal("250000"), new BigDecimal("30000"), BigDecimal.ZERO)));
+
+        List<ResumenCajaDto> historial = cajaService.historial();
+
+        assertThat(historial).extracting(r -> r.caja().getId()).containsExactly(2L, 1L);
+        ResumenCajaDto sinVentas = historial.get(0);
+        assertThat(sinVentas.ventas().completadas()).isZero();
+        assertThat(sinVentas.esperadoEnCaja()).isEqualByComparingTo("50000");
+        assertThat(sinVentas.diferencia()).isNull();
+        ResumenCajaDto conVentas = historial.get(1);
+        assertThat(conVentas.ventas().total()).isEqualByComparingTo("280000");
+        assertThat(conVentas.esperadoEnCaja()).isEqualByComparingTo("350000");
+        assertThat(conVentas.diferencia()).isEqualByComparingTo("-10000");
+        verify(ventaRepository, never()).findByCajaId(any());
+    }
+
     // --- helper ---
 
     private Usuario usuarioBuilder() {
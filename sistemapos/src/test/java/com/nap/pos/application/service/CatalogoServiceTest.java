@@ -0,0 +1,100 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.application.event.ProductosModificadosEvent;
+import com.nap.pos.domain.model.Producto;
+import com.nap.pos.domain.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogoServiceTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogoService catalogo;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = new CatalogoService(productoRepository, transactionManager);
+    }
+
+    @Test
+    void buscarPorCodigoBarras_cargaUnaSolaVez() {
+        when(productoRepository.findAllActivos()).thenReturn(List.of(producto(1L, "111", 5, true)));
+
+        assertThat(catalogo.buscarPorCodigoBarras("111")).map(Producto::getId).contains(1L);
+        assertThat(catalogo.buscarPorCodigoBarras("999")).isEmpty();
+
+        verify(productoRepository, times(1)).findAllActivos();
+    }
+
+    @Test
+    void onProductosModificados_releeSoloLosAfectados() {
+        when(productoRepository.findAllActivos()).thenReturn(List.of(
+                producto(1L, "111", 5, true), producto(2L, "222", 7, true)));
+        catalogo.findAllActivos();
+        when(productoRepository.findAllByIds(Set.of(1L))).thenReturn(List.of(producto(1L, "333", 2, true)));
+
+        catalogo.onProductosModificados(ProductosModificadosEvent.de(1L));
+
+        // Stock nuevo y código de barras reindexado; el resto del catálogo no se tocó
+        assertThat(catalogo.buscarPorId(1L)).map(Producto::getStock).contains(2);
+        assertThat(catalogo.buscarPorCodigoBarras("111")).isEmpty();
+        assertThat(catalogo.buscarPorCodigoBarras("333")).isPresent();
+        assertThat(catalogo.buscarPorId(2L)).isPresent();
+        verify(productoRepository, times(1)).findAllActivos();
+    }
+
+    @Test
+    void onProductosModificados_productoDesactivado_saleDelCatalogo() {
+        when(productoRepository.findAllActivos()).thenReturn(List.of(producto(1L, "111", 5, true)));
+        catalogo.findAllActivos();
+        when(productoRepository.findAllByIds(Set.of(1L))).thenReturn(List.of(producto(1L, "111", 5, false)));
+
+        catalogo.onProductosModificados(ProductosModificadosEvent.de(1L));
+
+        assertThat(catalogo.findAllActivos()).isEmpty();
+        assertThat(catalogo.buscarPorCodigoBarras("111")).isEmpty();
+    }
+
+    @Test
+    void buscar_devuelveElStockVigenteTrasUnCambio() {
+        when(productoRepository.findAllActivos()).thenReturn(List.of(
+                producto(1L, "111", 5, true), producto(2L, "222", 7, true)));
+        assertThat(catalogo.buscar("producto 1", null, 10)).extracting(Producto::getId).containsExactly(1L);
+        when(productoRepository.findAllByIds(Set.of(1L))).thenReturn(List.of(producto(1L, "111", 2, true)));
+
+        catalogo.onProductosModificados(ProductosModificadosEvent.de(1L));
+
+        assertThat(catalogo.buscar("111", null, 10)).extracting(Producto::getStock).containsExactly(2);
+    }
+
+    @Test
+    void onProductosModificados_catalogoSinCargar_noConsultaBD() {
+        catalogo.onProductosModificados(ProductosModificadosEvent.de(1L));
+
+        verifyNoInteractions(productoRepository);
+    }
+
+    private Producto producto(Long id, String codigo, int stock, boolean activo) {
+        return Producto.builder()
+                .id(id).codigoBarras(codigo).nombre("Producto " + codigo)
+                .precioVenta(new BigDecimal("1000"))
+                .stock(stock).activo(activo).build();
+    }
+}
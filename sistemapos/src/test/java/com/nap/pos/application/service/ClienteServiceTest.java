@@ -1,5 +1,6 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ClientesModificadosEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Cliente;
 import com.nap.pos.domain.model.enums.PlazoPago;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -25,6 +27,9 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -69,6 +74,8 @@ class ClienteServiceTest {
         verify(clienteRepository).save(argThat(c ->
                 c.getSaldoUtilizado().compareTo(new BigDecimal("150000")) == 0
         ));
+        // Las alertas de pago se enteran del abono tras el commit
+        verify(eventPublisher).publishEvent(ClientesModificadosEvent.de(1L));
     }
 
     @Test
@@ -0,0 +1,97 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.domain.exception.TechnicalException;
+import com.nap.pos.domain.model.Venta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColaImpresionServiceTest {
+
+    @Mock
+    private ImpresionService impresionService;
+
+    private ColaImpresionService cola;
+
+    private final Venta venta = Venta.builder().id(1L).numeroComprobante(7L).build();
+
+    @BeforeEach
+    void setUp() {
+        cola = new ColaImpresionService(impresionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cola.detener();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ── encolar ───────────────────────────────────────────────────────────
+
+    @Test
+    void encolar_sinTransaccion_imprimeEnSegundoPlano() {
+        cola.encolar(venta, new BigDecimal("5000"), true);
+
+        verify(impresionService, timeout(2000)).imprimirTicket(venta, new BigDecimal("5000"), true);
+    }
+
+    @Test
+    void encolar_conTransaccion_esperaAlCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cola.encolar(venta, null, false);
+        verify(impresionService, after(200).never()).imprimirTicket(any(), any(), anyBoolean());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(impresionService, timeout(2000)).imprimirTicket(venta, null, false);
+    }
+
+    @Test
+    void encolar_transaccionConRollback_noImprime() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cola.encolar(venta, null, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(impresionService, after(200).never()).imprimirTicket(any(), any(), anyBoolean());
+    }
+
+    // ── fallidos ──────────────────────────────────────────────────────────
+
+    @Test
+    void fallo_seReintentaAntesDeMarcarseFallido() {
+        doThrow(new TechnicalException("Impresora desconectada"))
+                .doNothing()
+                .when(impresionService).imprimirTicket(venta, null, false);
+
+        cola.encolar(venta, null, false);
+
+        // Primer intento falla, el reintento (tras ESPERA_BASE_MS) tiene éxito
+        verify(impresionService, timeout(ColaImpresionService.ESPERA_BASE_MS + 2000).times(2))
+                .imprimirTicket(venta, null, false);
+        assertThat(cola.contarFallidos()).isZero();
+    }
+
+    @Test
+    void reintentar_idInexistente_noHaceNada() {
+        cola.reintentar(99L);
+
+        verify(impresionService, after(200).never()).imprimirTicket(any(), any(), anyBoolean());
+        assertThat(cola.getFallidos()).isEmpty();
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -33,6 +34,7 @@ class CompraServiceTest {
     @Mock private ProductoRepository productoRepository;
     @Mock private ProveedorRepository proveedorRepository;
     @Mock private UsuarioRepository usuarioRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CompraService compraService;
@@ -1,5 +1,6 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ConfiguracionActualizadaEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.ConfiguracionTienda;
 import com.nap.pos.domain.model.enums.TipoPersona;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -22,6 +24,9 @@ class ConfiguracionServiceTest {
     @Mock
     private ConfiguracionRepository configuracionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ConfiguracionService configuracionService;
 
@@ -51,6 +56,7 @@ class ConfiguracionServiceTest {
         ConfiguracionTienda resultado = configuracionService.guardar(config);
 
         verify(configuracionRepository).guardar(config);
+        verify(eventPublisher).publishEvent(new ConfiguracionActualizadaEvent(config));
         assertThat(resultado.getNombreTienda()).isEqualTo("Tienda Test");
         assertThat(resultado.getTipoPersona()).isEqualTo(TipoPersona.NATURAL);
     }
@@ -94,6 +100,33 @@ class ConfiguracionServiceTest {
         assertThrows(BusinessException.class, () -> configuracionService.obtener());
     }
 
+    @Test
+    void obtener_variasVeces_consultaLaBaseUnaSolaVez() {
+        ConfiguracionTienda config = configNatural();
+        when(configuracionRepository.obtener()).thenReturn(Optional.of(config));
+
+        configuracionService.esPrimeraEjecucion();
+        configuracionService.obtener();
+        ConfiguracionTienda resultado = configuracionService.obtener();
+
+        assertThat(resultado).isSameAs(config);
+        verify(configuracionRepository, times(1)).obtener();
+    }
+
+    @Test
+    void guardar_reemplazaLaConfiguracionEnMemoriaSinReleerLaBase() {
+        when(configuracionRepository.obtener()).thenReturn(Optional.empty());
+        assertThat(configuracionService.esPrimeraEjecucion()).isTrue();
+        ConfiguracionTienda nueva = configNatural();
+        when(configuracionRepository.guardar(nueva)).thenReturn(nueva);
+
+        configuracionService.guardar(nueva);
+
+        assertThat(configuracionService.esPrimeraEjecucion()).isFalse();
+        assertThat(configuracionService.obtener()).isSameAs(nueva);
+        verify(configuracionRepository, times(1)).obtener();
+    }
+
     // ── helper ────────────────────────────────────────────────────────────
 
     private ConfiguracionTienda configNatural() {
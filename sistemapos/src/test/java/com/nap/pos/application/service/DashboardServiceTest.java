@@ -0,0 +1,67 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.application.dto.ResumenDashboardDto;
+import com.nap.pos.domain.model.ResumenVentaDiario;
+import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.domain.repository.CajaRepository;
+import com.nap.pos.domain.repository.ClienteRepository;
+import com.nap.pos.domain.repository.ProductoRepository;
+import com.nap.pos.domain.repository.ResumenVentaRepository;
+import com.nap.pos.domain.repository.VentaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock private ProductoRepository productoRepository;
+    @Mock private ClienteRepository clienteRepository;
+    @Mock private CajaRepository cajaRepository;
+    @Mock private VentaRepository ventaRepository;
+    @Mock private ResumenVentaRepository resumenVentaRepository;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @Test
+    void obtenerResumen_usaConteosYAgrupaLasVentasDeHoyPorHora() {
+        LocalDate hoy = LocalDate.now();
+        when(productoRepository.contarActivos()).thenReturn(120L);
+        when(productoRepository.contarActivosSinStock()).thenReturn(3L);
+        when(clienteRepository.contar()).thenReturn(45L);
+        when(cajaRepository.existeCajaAbierta()).thenReturn(true);
+        when(ventaRepository.findUltimas(DashboardService.ULTIMAS_VENTAS)).thenReturn(List.of());
+        when(resumenVentaRepository.findVentasEntre(hoy, hoy)).thenReturn(List.of(
+                new ResumenVentaDiario(hoy, 9, 1L, MetodoPago.EFECTIVO, 2, 0, new BigDecimal("15000")),
+                new ResumenVentaDiario(hoy, 9, 1L, MetodoPago.TRANSFERENCIA, 1, 1, new BigDecimal("5000")),
+                new ResumenVentaDiario(hoy, 17, 1L, MetodoPago.EFECTIVO, 4, 0, new BigDecimal("32000"))));
+
+        ResumenDashboardDto resumen = dashboardService.obtenerResumen();
+
+        assertThat(resumen.productosActivos()).isEqualTo(120);
+        assertThat(resumen.productosSinStock()).isEqualTo(3);
+        assertThat(resumen.clientes()).isEqualTo(45);
+        assertThat(resumen.cajaAbierta()).isTrue();
+        assertThat(resumen.ventasHoy()).isEqualTo(7);
+        assertThat(resumen.totalHoy()).isEqualByComparingTo("52000");
+        assertThat(resumen.totalPorHora()).hasSize(24);
+        assertThat(resumen.totalPorHora().get(9)).isEqualByComparingTo("20000");
+        assertThat(resumen.totalPorHora().get(17)).isEqualByComparingTo("32000");
+        assertThat(resumen.totalPorHora().get(12)).isEqualByComparingTo("0");
+        // Nunca se cargan listas completas para contar
+        verify(productoRepository, never()).findAllActivos();
+        verify(clienteRepository, never()).findAll();
+    }
+}
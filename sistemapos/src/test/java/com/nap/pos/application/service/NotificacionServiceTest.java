@@ -0,0 +1,188 @@
+package com.nap.pos.application.service;
+
+import com.nap.pos.application.event.CambioProductos;
+import com.nap.pos.application.event.ClientesModificadosEvent;
+import com.nap.pos.application.event.ConfiguracionActualizadaEvent;
+import com.nap.pos.application.event.PrecioModificadoEvent;
+import com.nap.pos.application.event.StockModificadoEvent;
+import com.nap.pos.domain.model.Cliente;
+import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.Notificacion;
+import com.nap.pos.domain.model.Producto;
+import com.nap.pos.domain.model.enums.PlazoPago;
+import com.nap.pos.domain.model.enums.TipoNotificacion;
+import com.nap.pos.domain.repository.ClienteRepository;
+import com.nap.pos.domain.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificacionServiceTest {
+
+    // Día 27: dentro de la ventana del vencimiento del 30
+    private static final Clock DIA_27 = Clock.fixed(
+            LocalDate.of(2026, 3, 27).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+    @Mock private ProductoRepository   productoRepository;
+    @Mock private ClienteRepository    clienteRepository;
+    @Mock private ConfiguracionService configuracionService;
+    @Mock private ColaImpresionService colaImpresionService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private NotificacionService servicio;
+
+    @BeforeEach
+    void setUp() {
+        servicio = new NotificacionService(productoRepository, clienteRepository, configuracionService,
+                colaImpresionService, transactionManager, DIA_27);
+        lenient().when(configuracionService.obtener()).thenReturn(ConfiguracionTienda.builder().stockMinimoGlobal(5).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        servicio.detener();
+    }
+
+    @Test
+    void contarNotificaciones_cargaUnaSolaVezYDespuesCuentaDesdeMemoria() {
+        when(productoRepository.findByStockBajoYActivo(5)).thenReturn(List.of(producto(1L, 0, true)));
+        when(clienteRepository.findAllActivos()).thenReturn(List.of(deudor(7L, "20000"), deudor(8L, "0")));
+        when(colaImpresionService.contarFallidos()).thenReturn(1);
+
+        assertThat(servicio.contarNotificaciones()).isEqualTo(3);
+        assertThat(servicio.contarNotificaciones()).isEqualTo(3);
+        assertThat(servicio.getNotificaciones()).extracting(Notificacion::tipo)
+                .containsExactly(TipoNotificacion.STOCK_BAJO, TipoNotificacion.PAGO_CREDITO_PROXIMO);
+
+        verify(productoRepository, times(1)).findByStockBajoYActivo(5);
+        verify(clienteRepository, times(1)).findAllActivos();
+    }
+
+    @Test
+    void alCambiarProductos_actualizaSoloLosAfectadosYAvisaElNuevoTotal() {
+        when(productoRepository.findByStockBajoYActivo(5)).thenReturn(List.of(producto(1L, 2, true)));
+        when(clienteRepository.findAllActivos()).thenReturn(List.of());
+        servicio.contarNotificaciones();
+        List<Integer> avisados = new ArrayList<>();
+        servicio.suscribir(avisados::add);
+
+        // El 1 se repuso y el 2 bajó del mínimo
+        when(productoRepository.findAllByIds(Set.of(1L, 2L)))
+                .thenReturn(List.of(producto(1L, 40, true), producto(2L, 3, true)));
+        servicio.alCambiarProductos(List.<CambioProductos>of(StockModificadoEvent.de(1L), StockModificadoEvent.de(2L)));
+
+        assertThat(servicio.getNotificaciones()).extracting(Notificacion::referenciaId).containsExactly(2L);
+        assertThat(avisados).containsExactly(1);
+        verify(productoRepository, times(1)).findByStockBajoYActivo(anyInt());
+    }
+
+    @Test
+    void alCambiarClientes_unAbonoTotalQuitaLaAlertaDePago() {
+        when(productoRepository.findByStockBajoYActivo(5)).thenReturn(List.of());
+        when(clienteRepository.findAllActivos()).thenReturn(List.of(deudor(7L, "20000")));
+        assertThat(servicio.contarNotificaciones()).isEqualTo(1);
+
+        when(clienteRepository.findById(7L)).thenReturn(Optional.of(deudor(7L, "0")));
+        servicio.alCambiarClientes(List.of(ClientesModificadosEvent.de(7L)));
+
+        assertThat(servicio.contarNotificaciones()).isZero();
+        verify(clienteRepository, times(1)).findAllActivos();
+    }
+
+    @Test
+    void alCambiarConfiguracion_nuevoStockMinimo_recalculaLasAlertasDeStock() {
+        when(productoRepository.findByStockBajoYActivo(5)).thenReturn(List.of());
+        when(clienteRepository.findAllActivos()).thenReturn(List.of());
+        servicio.contarNotificaciones();
+
+        ConfiguracionTienda nueva = ConfiguracionTienda.builder().stockMinimoGlobal(10).build();
+        when(configuracionService.obtener()).thenReturn(nueva);
+        when(productoRepository.findByStockBajoYActivo(10)).thenReturn(List.of(producto(3L, 8, true)));
+        servicio.alCambiarConfiguracion(List.of(new ConfiguracionActualizadaEvent(nueva)));
+
+        assertThat(servicio.contarNotificaciones()).isEqualTo(1);
+    }
+
+    @Test
+    void alCambiarProductos_soloPrecio_noReleeProductos() {
+        when(productoRepository.findByStockBajoYActivo(5)).thenReturn(List.of());
+        when(clienteRepository.findAllActivos()).thenReturn(List.of());
+        servicio.contarNotificaciones();
+
+        servicio.alCambiarProductos(List.<CambioProductos>of(PrecioModificadoEvent.de(List.of(1L))));
+
+        verify(productoRepository, never()).findAllByIds(any());
+    }
+
+    @Test
+    void alCambiarProductos_duranteLaCargaInicial_esperaYAplicaElLote() throws Exception {
+        // La carga lee el stock antes del commit que baja el producto 2
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch seguir  = new CountDownLatch(1);
+        when(productoRepository.findByStockBajoYActivo(5)).thenAnswer(inv -> {
+            leyendo.countDown();
+            seguir.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(clienteRepository.findAllActivos()).thenReturn(List.of());
+        when(productoRepository.findAllByIds(Set.of(2L))).thenReturn(List.of(producto(2L, 0, true)));
+
+        Thread carga = new Thread(servicio::contarNotificaciones);
+        carga.start();
+        assertThat(leyendo.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread lote = new Thread(() ->
+                servicio.alCambiarProductos(List.<CambioProductos>of(StockModificadoEvent.de(2L))));
+        lote.start();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lote.getState() != Thread.State.BLOCKED && lote.isAlive() && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        seguir.countDown();
+        carga.join(5_000);
+        lote.join(5_000);
+
+        assertThat(servicio.contarNotificaciones()).isEqualTo(1);
+    }
+
+    @Test
+    void eventos_antesDeLaPrimeraConsulta_noLeenLaBase() {
+        servicio.alCambiarProductos(List.<CambioProductos>of(StockModificadoEvent.de(1L)));
+        servicio.alCambiarClientes(List.of(ClientesModificadosEvent.de(7L)));
+
+        verifyNoInteractions(productoRepository, clienteRepository);
+    }
+
+    // --- helpers ---
+
+    private Producto producto(Long id, int stock, boolean activo) {
+        return Producto.builder()
+                .id(id).nombre("Producto " + id).precioVenta(new BigDecimal("1000"))
+                .stock(stock).activo(activo).build();
+    }
+
+    private Cliente deudor(Long id, String saldo) {
+        return Cliente.builder()
+                .id(id).nombre("Cliente " + id).cedula(String.valueOf(id))
+                .montoCredito(new BigDecimal("500000")).plazoPago(PlazoPago.TREINTA_DIAS)
+                .saldoUtilizado(new BigDecimal(saldo)).activo(true).build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.nap.pos.application.service;
 
+import com.nap.pos.application.event.ImagenProductoActualizadaEvent;
+import com.nap.pos.application.event.StockModificadoEvent;
 import com.nap.pos.domain.exception.BusinessException;
 import com.nap.pos.domain.model.Producto;
 import com.nap.pos.domain.model.Proveedor;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -25,6 +28,9 @@ class ProductoServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductoService productoService;
 
@@ -78,6 +84,33 @@ class ProductoServiceTest {
         verify(productoRepository).save(argThat(p -> !p.isActivo()));
     }
 
+    // --- ajustarStock ---
+
+    @Test
+    void ajustarStock_entrada_incrementaYPublicaCambio() {
+        Producto producto = productoBuilder(1L, "111", true, 5).build();
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        productoService.ajustarStock(1L, 3, true);
+
+        verify(productoRepository).save(argThat(p -> p.getStock() == 8));
+        verify(eventPublisher).publishEvent(StockModificadoEvent.de(1L));
+    }
+
+    // --- actualizarImagen ---
+
+    @Test
+    void actualizarImagen_avisaRutaAnteriorYNueva() {
+        Producto producto = productoBuilder(1L, "111", true, 5).imagenPath("/img/viejo.png").build();
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        productoService.actualizarImagen(1L, "/img/nuevo.png");
+
+        verify(eventPublisher).publishEvent(new ImagenProductoActualizadaEvent(1L, "/img/viejo.png", "/img/nuevo.png"));
+    }
+
     // --- findById ---
 
     @Test
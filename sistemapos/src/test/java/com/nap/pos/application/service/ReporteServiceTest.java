@@ -13,11 +13,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +34,7 @@ class ReporteServiceTest {
     @Mock private ProveedorRepository proveedorRepository;
     @Mock private ProductoRepository productoRepository;
     @Mock private GastoRepository gastoRepository;
+    @Mock private ResumenVentaRepository resumenVentaRepository;
 
     @InjectMocks
     private ReporteService reporteService;
@@ -353,63 +358,6 @@ class ReporteServiceTest {
         assertThat(reporte.clientes().get(0).nombre()).isEqualTo("Carlos Ruiz");
     }
 
-    @Test
-    void historialComprasCliente_retornaSoloCreditoYOrdenadasDesc() {
-        Cliente ana = clienteBuilder(1L, "Ana López", "111",
-                new BigDecimal("500000"), new BigDecimal("150000"));
-        Cliente bruno = clienteBuilder(2L, "Bruno Díaz", "222",
-                new BigDecimal("500000"), new BigDecimal("50000"));
-
-        Venta anaReciente = Venta.builder()
-                .id(11L)
-                .cliente(ana)
-                .fecha(LocalDateTime.of(2026, 4, 15, 11, 0))
-                .metodoPago(MetodoPago.CREDITO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("120000"))
-                .detalles(List.of())
-                .build();
-
-        Venta anaAnterior = Venta.builder()
-                .id(10L)
-                .cliente(ana)
-                .fecha(LocalDateTime.of(2026, 4, 10, 9, 0))
-                .metodoPago(MetodoPago.CREDITO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("85000"))
-                .detalles(List.of())
-                .build();
-
-        Venta anaContado = Venta.builder()
-                .id(13L)
-                .cliente(ana)
-                .fecha(LocalDateTime.of(2026, 4, 12, 8, 30))
-                .metodoPago(MetodoPago.EFECTIVO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("50000"))
-                .detalles(List.of())
-                .build();
-
-        Venta otroCliente = Venta.builder()
-                .id(12L)
-                .cliente(bruno)
-                .fecha(LocalDateTime.of(2026, 4, 20, 14, 0))
-                .metodoPago(MetodoPago.CREDITO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("95000"))
-                .detalles(List.of())
-                .build();
-
-                when(ventaRepository.findAll()).thenReturn(List.of(anaContado, anaAnterior, otroCliente, anaReciente));
-
-        List<Venta> historial = reporteService.historialComprasCliente(1L);
-
-        assertThat(historial).hasSize(2);
-        assertThat(historial.get(0).getId()).isEqualTo(11L);
-        assertThat(historial.get(1).getId()).isEqualTo(10L);
-                assertThat(historial).allMatch(v -> MetodoPago.CREDITO.equals(v.getMetodoPago()));
-    }
-
     // ----------------------------------------------------------------
     // reporteInventario
     // ----------------------------------------------------------------
@@ -462,19 +410,15 @@ class ReporteServiceTest {
     // reporteRentabilidad
     // ----------------------------------------------------------------
 
+    private static final YearMonth FEB_2026 = YearMonth.of(2026, 2);
+
     @Test
     void reporteRentabilidad_conGanancia_calculaMargenYGanancia() {
-        // Compra del mes: 500.000
-        Compra c1 = compraConFecha(new BigDecimal("500000"), LocalDateTime.of(2026, 2, 10, 9, 0));
-        // Venta completada del mes: 800.000
-        Venta v1 = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("800000"), LocalDateTime.of(2026, 2, 15, 14, 0));
-        // Venta de otro mes — no debe contar
-        Venta v2 = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("200000"), LocalDateTime.of(2026, 1, 20, 10, 0));
-
-        when(compraRepository.findAll()).thenReturn(List.of(c1));
-        when(ventaRepository.findAll()).thenReturn(List.of(v1, v2));
+        // Compras del mes: 500.000 — ventas completadas del mes: 800.000
+        when(compraRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("500000")));
+        when(resumenVentaRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("800000")));
 
         ReporteRentabilidadDto reporte = reporteService.reporteRentabilidad(2026, 2);
 
@@ -489,12 +433,10 @@ class ReporteServiceTest {
 
     @Test
     void reporteRentabilidad_conPerdida_detectaPerdida() {
-        Compra c1 = compraConFecha(new BigDecimal("1000000"), LocalDateTime.of(2026, 2, 5, 9, 0));
-        Venta v1 = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("600000"), LocalDateTime.of(2026, 2, 20, 14, 0));
-
-        when(compraRepository.findAll()).thenReturn(List.of(c1));
-        when(ventaRepository.findAll()).thenReturn(List.of(v1));
+        when(compraRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("1000000")));
+        when(resumenVentaRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("600000")));
 
         ReporteRentabilidadDto reporte = reporteService.reporteRentabilidad(2026, 2);
 
@@ -504,29 +446,26 @@ class ReporteServiceTest {
     }
 
     @Test
-    void reporteRentabilidad_ventasAnuladasNoSuman() {
-        Compra c1 = compraConFecha(new BigDecimal("200000"), LocalDateTime.of(2026, 2, 1, 9, 0));
-        // Venta COMPLETADA: sí suma
-        Venta v1 = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("300000"), LocalDateTime.of(2026, 2, 10, 12, 0));
-        // Venta ANULADA: NO debe sumar aunque esté en el mismo mes
-        Venta v2 = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.ANULADA,
-                new BigDecimal("500000"), LocalDateTime.of(2026, 2, 15, 15, 0));
-
-        when(compraRepository.findAll()).thenReturn(List.of(c1));
-        when(ventaRepository.findAll()).thenReturn(List.of(v1, v2));
+    void reporteRentabilidad_conGastos_restaGastosDelMes() {
+        when(compraRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("200000")));
+        when(resumenVentaRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("300000")));
+        when(gastoRepository.sumarMontoPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("40000")));
 
         ReporteRentabilidadDto reporte = reporteService.reporteRentabilidad(2026, 2);
 
-        // Solo cuenta v1=300.000, v2 ANULADA es ignorada
-        assertThat(reporte.totalVendido()).isEqualByComparingTo("300000");
+        assertThat(reporte.totalGastos()).isEqualByComparingTo("40000");
+        // Ganancia: 300.000 - 200.000 - 40.000 = 60.000
+        assertThat(reporte.gananciaBruta()).isEqualByComparingTo("60000");
     }
 
     @Test
     void reporteRentabilidad_sinVentas_margenEsNulo() {
-        Compra c1 = compraConFecha(new BigDecimal("500000"), LocalDateTime.of(2026, 2, 1, 9, 0));
-        when(compraRepository.findAll()).thenReturn(List.of(c1));
-        when(ventaRepository.findAll()).thenReturn(List.of());
+        when(compraRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                .thenReturn(Map.of(FEB_2026, new BigDecimal("500000")));
+        when(resumenVentaRepository.sumarTotalPorMes(FEB_2026, FEB_2026)).thenReturn(Map.of());
 
         ReporteRentabilidadDto reporte = reporteService.reporteRentabilidad(2026, 2);
 
@@ -535,10 +474,19 @@ class ReporteServiceTest {
         assertThat(reporte.tuvoPerdida()).isTrue();      // invertimos sin vender nada
     }
 
+    @Test
+    void reporteRentabilidad_consultaSoloElRangoDelMes() {
+        reporteService.reporteRentabilidad(2026, 2);
+
+        verify(cajaRepository).findCerradasEntre(
+                LocalDateTime.of(2026, 2, 1, 0, 0), LocalDateTime.of(2026, 3, 1, 0, 0));
+        verify(ventaRepository, never()).findAll();
+        verify(compraRepository, never()).findAll();
+        verify(gastoRepository, never()).findAll();
+    }
+
         @Test
         void reporteRentabilidad_conDesajusteNegativo_reduceGananciaBruta() {
-                Compra c1 = compraConFecha(new BigDecimal("500000"), LocalDateTime.of(2026, 2, 10, 9, 0));
-
                 Caja caja = Caja.builder()
                                 .id(101L)
                                 .estado(EstadoCaja.CERRADA)
@@ -548,18 +496,16 @@ class ReporteServiceTest {
                                 .montoFinal(new BigDecimal("850000"))
                                 .build();
 
-                Venta v1 = Venta.builder()
-                                .metodoPago(MetodoPago.EFECTIVO)
-                                .estado(EstadoVenta.COMPLETADA)
-                                .total(new BigDecimal("800000"))
-                                .fecha(LocalDateTime.of(2026, 2, 10, 14, 0))
-                                .caja(caja)
-                                .detalles(List.of())
-                                .build();
+                LocalDateTime inicio = LocalDateTime.of(2026, 2, 1, 0, 0);
+                LocalDateTime fin    = LocalDateTime.of(2026, 3, 1, 0, 0);
 
-                when(compraRepository.findAll()).thenReturn(List.of(c1));
-                when(ventaRepository.findAll()).thenReturn(List.of(v1));
-                when(cajaRepository.findAll()).thenReturn(List.of(caja));
+                when(compraRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                                .thenReturn(Map.of(FEB_2026, new BigDecimal("500000")));
+                when(resumenVentaRepository.sumarTotalPorMes(FEB_2026, FEB_2026))
+                                .thenReturn(Map.of(FEB_2026, new BigDecimal("800000")));
+                when(cajaRepository.findCerradasEntre(inicio, fin)).thenReturn(List.of(caja));
+                when(resumenVentaRepository.sumarTotalPorCaja(List.of(101L), MetodoPago.EFECTIVO))
+                                .thenReturn(Map.of(101L, new BigDecimal("800000")));
 
                 ReporteRentabilidadDto reporte = reporteService.reporteRentabilidad(2026, 2);
 
@@ -575,24 +521,19 @@ class ReporteServiceTest {
     // reporteRentabilidadAnual
     // ----------------------------------------------------------------
 
+    private static final YearMonth ENE_2026 = YearMonth.of(2026, 1);
+    private static final YearMonth DIC_2026 = YearMonth.of(2026, 12);
+
     @Test
     void reporteRentabilidadAnual_conActividadEnDosesMeses_calculaTotalesYMeses() {
         // Febrero: compra 500.000, venta 800.000  → ganancia 300.000
-        Compra cFeb = compraConFecha(new BigDecimal("500000"), LocalDateTime.of(2026, 2, 10, 9, 0));
-        Venta  vFeb = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("800000"), LocalDateTime.of(2026, 2, 20, 14, 0));
-
-        // Junio: compra 200.000, venta 350.000   → ganancia 150.000
-        Compra cJun = compraConFecha(new BigDecimal("200000"), LocalDateTime.of(2026, 6, 5, 9, 0));
-        Venta  vJun = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("350000"), LocalDateTime.of(2026, 6, 15, 14, 0));
-
-        // Venta de otro año — no debe contar
-        Venta vOtro = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("999000"), LocalDateTime.of(2025, 6, 1, 10, 0));
-
-        when(compraRepository.findAll()).thenReturn(List.of(cFeb, cJun));
-        when(ventaRepository.findAll()).thenReturn(List.of(vFeb, vJun, vOtro));
+        // Junio:   compra 200.000, venta 350.000  → ganancia 150.000
+        when(compraRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of(
+                FEB_2026, new BigDecimal("500000"),
+                YearMonth.of(2026, 6), new BigDecimal("200000")));
+        when(resumenVentaRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of(
+                FEB_2026, new BigDecimal("800000"),
+                YearMonth.of(2026, 6), new BigDecimal("350000")));
 
         ReporteRentabilidadAnualDto reporte = reporteService.reporteRentabilidadAnual(2026);
 
@@ -627,9 +568,6 @@ class ReporteServiceTest {
 
     @Test
     void reporteRentabilidadAnual_conDesajustes_muestraAjusteYGananciaAjustadaEnMeses() {
-        Compra cFeb = compraConFecha(new BigDecimal("500000"), LocalDateTime.of(2026, 2, 10, 9, 0));
-        Compra cJun = compraConFecha(new BigDecimal("200000"), LocalDateTime.of(2026, 6, 5, 9, 0));
-
         Caja cajaFeb = Caja.builder()
                 .id(201L)
                 .estado(EstadoCaja.CERRADA)
@@ -648,27 +586,19 @@ class ReporteServiceTest {
                 .montoFinal(new BigDecimal("420000"))
                 .build();
 
-        Venta vFeb = Venta.builder()
-                .metodoPago(MetodoPago.EFECTIVO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("800000"))
-                .fecha(LocalDateTime.of(2026, 2, 10, 14, 0))
-                .caja(cajaFeb)
-                .detalles(List.of())
-                .build();
-
-        Venta vJun = Venta.builder()
-                .metodoPago(MetodoPago.EFECTIVO)
-                .estado(EstadoVenta.COMPLETADA)
-                .total(new BigDecimal("350000"))
-                .fecha(LocalDateTime.of(2026, 6, 15, 14, 0))
-                .caja(cajaJun)
-                .detalles(List.of())
-                .build();
+        LocalDateTime inicio = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime fin    = LocalDateTime.of(2027, 1, 1, 0, 0);
 
-        when(compraRepository.findAll()).thenReturn(List.of(cFeb, cJun));
-        when(ventaRepository.findAll()).thenReturn(List.of(vFeb, vJun));
-        when(cajaRepository.findAll()).thenReturn(List.of(cajaFeb, cajaJun));
+        when(compraRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of(
+                FEB_2026, new BigDecimal("500000"),
+                YearMonth.of(2026, 6), new BigDecimal("200000")));
+        when(resumenVentaRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of(
+                FEB_2026, new BigDecimal("800000"),
+                YearMonth.of(2026, 6), new BigDecimal("350000")));
+        when(cajaRepository.findCerradasEntre(inicio, fin)).thenReturn(List.of(cajaFeb, cajaJun));
+        when(resumenVentaRepository.sumarTotalPorCaja(List.of(201L, 202L), MetodoPago.EFECTIVO)).thenReturn(Map.of(
+                201L, new BigDecimal("800000"),
+                202L, new BigDecimal("350000")));
 
         ReporteRentabilidadAnualDto reporte = reporteService.reporteRentabilidadAnual(2026);
 
@@ -691,12 +621,11 @@ class ReporteServiceTest {
     @Test
     void reporteRentabilidadAnual_mesConPerdida_setuvoPerdidaEnEseMes() {
         // Marzo: invierte mucho, vende poco → pérdida
-        Compra cMar = compraConFecha(new BigDecimal("1000000"), LocalDateTime.of(2026, 3, 1, 9, 0));
-        Venta  vMar = ventaConFecha(MetodoPago.EFECTIVO, EstadoVenta.COMPLETADA,
-                new BigDecimal("400000"), LocalDateTime.of(2026, 3, 20, 14, 0));
-
-        when(compraRepository.findAll()).thenReturn(List.of(cMar));
-        when(ventaRepository.findAll()).thenReturn(List.of(vMar));
+        YearMonth mar2026 = YearMonth.of(2026, 3);
+        when(compraRepository.sumarTotalPorMes(ENE_2026, DIC_2026))
+                .thenReturn(Map.of(mar2026, new BigDecimal("1000000")));
+        when(resumenVentaRepository.sumarTotalPorMes(ENE_2026, DIC_2026))
+                .thenReturn(Map.of(mar2026, new BigDecimal("400000")));
 
         ReporteRentabilidadAnualDto reporte = reporteService.reporteRentabilidadAnual(2026);
 
@@ -712,8 +641,8 @@ class ReporteServiceTest {
 
     @Test
     void reporteRentabilidadAnual_sinActividad_retorna12MesesEnCeroYMargenNulo() {
-        when(compraRepository.findAll()).thenReturn(List.of());
-        when(ventaRepository.findAll()).thenReturn(List.of());
+        when(compraRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of());
+        when(resumenVentaRepository.sumarTotalPorMes(ENE_2026, DIC_2026)).thenReturn(Map.of());
 
         ReporteRentabilidadAnualDto reporte = reporteService.reporteRentabilidadAnual(2026);
 
@@ -789,18 +718,4 @@ class ReporteServiceTest {
                 .precioCompra(new BigDecimal("1000")).precioVenta(new BigDecimal("1300"))
                 .proveedorPrincipal(proveedor).stock(stock).activo(true).build();
     }
-
-    private Compra compraConFecha(BigDecimal total, LocalDateTime fecha) {
-        return Compra.builder()
-                .total(total).fecha(fecha)
-                .detalles(List.of()).build();
-    }
-
-    private Venta ventaConFecha(MetodoPago metodo, EstadoVenta estado,
-                                BigDecimal total, LocalDateTime fecha) {
-        return Venta.builder()
-                .metodoPago(metodo).estado(estado)
-                .total(total).fecha(fecha)
-                .detalles(List.of()).build();
-    }
 }
@@ -9,10 +9,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,8 +31,11 @@ class VentaServiceTest {
     @Mock private ClienteRepository    clienteRepository;
     @Mock private UsuarioRepository    usuarioRepository;
     @Mock private CajaRepository       cajaRepository;
+    @Mock private ResumenVentaRepository resumenVentaRepository;
+    @Mock private SecuenciaComprobanteRepository secuenciaComprobanteRepository;
     @Mock private ConfiguracionService configuracionService;
-    @Mock private ImpresionService     impresionService;
+    @Mock private ColaImpresionService colaImpresionService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private VentaService ventaService;
@@ -48,7 +53,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(ventaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 3));
@@ -58,12 +63,15 @@ class VentaServiceTest {
         // Total = 2000 × 3 = 6000
         assertThat(resultado.getTotal()).isEqualByComparingTo("6000");
 
-        // Stock descontado: 10 - 3 = 7
-        verify(productoRepository).save(argThat(p -> p.getStock() == 7));
+        // Stock descontado en lote: 3 unidades del producto 1
+        verify(productoRepository).descontarStock(Map.of(1L, 3));
+        verify(productoRepository, never()).save(any());
 
         // Venta guardada — nunca se tocó el repositorio de clientes
         verify(ventaRepository).save(any(Venta.class));
         verify(clienteRepository, never()).save(any());
+        verify(resumenVentaRepository).acumular(any(Venta.class));
+        verify(colaImpresionService).encolar(resultado, new BigDecimal("10000"), true);
     }
 
     @Test
@@ -76,7 +84,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(clienteRepository.findById(2L)).thenReturn(Optional.of(cliente));
         when(clienteRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
         when(ventaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -88,8 +96,8 @@ class VentaServiceTest {
         verify(clienteRepository).save(argThat(c ->
                 c.getSaldoUtilizado().compareTo(new BigDecimal("2000")) == 0
         ));
-        // Stock descontado: 5 - 2 = 3
-        verify(productoRepository).save(argThat(p -> p.getStock() == 3));
+        // Stock descontado en lote: 2 unidades del producto 1
+        verify(productoRepository).descontarStock(Map.of(1L, 2));
     }
 
     @Test
@@ -100,7 +108,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(99L)).thenReturn(Optional.empty());
+        when(productoRepository.findAllByIds(List.of(99L))).thenReturn(List.of());
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(99L, 1));
 
@@ -127,7 +135,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(cajaCerrada));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 1));
 
@@ -150,7 +158,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 5)); // pide 5
 
@@ -158,7 +166,53 @@ class VentaServiceTest {
                 () -> ventaService.registrarVenta(1L, 1L, null, MetodoPago.EFECTIVO, items,
                     new BigDecimal("10000")));
         verify(ventaRepository, never()).save(any());
-        verify(productoRepository, never()).save(any());
+        verify(productoRepository, never()).descontarStock(any());
+    }
+
+    /**
+     * Si otra caja vendió el mismo producto entre la lectura y el descuento,
+     * el UPDATE condicional no afecta filas y la venta completa se rechaza.
+     */
+    @Test
+    void registrarVenta_stockConsumidoConcurrentemente_lanzaBusinessException() {
+        Caja caja       = cajaBuilder(1L, EstadoCaja.ABIERTA);
+        Usuario usuario  = usuarioBuilder(1L);
+        Producto producto = productoBuilder(1L, 5, new BigDecimal("1000"));
+
+        stubComprobanteBase();
+        when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
+        when(productoRepository.descontarStock(Map.of(1L, 4))).thenReturn(List.of(1L));
+
+        List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 4));
+
+        assertThrows(BusinessException.class,
+                () -> ventaService.registrarVenta(1L, 1L, null, MetodoPago.EFECTIVO, items,
+                    new BigDecimal("10000")));
+        verify(ventaRepository, never()).save(any());
+        verify(resumenVentaRepository, never()).acumular(any());
+    }
+
+    /** Varias líneas del mismo producto se cargan una vez y se descuentan sumadas. */
+    @Test
+    void registrarVenta_lineasRepetidas_descuentaCantidadAgregada() {
+        Caja caja       = cajaBuilder(1L, EstadoCaja.ABIERTA);
+        Usuario usuario  = usuarioBuilder(1L);
+        Producto producto = productoBuilder(1L, 10, new BigDecimal("1000"));
+
+        stubComprobanteBase();
+        when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
+        when(ventaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<VentaService.ItemVenta> items = List.of(
+                new VentaService.ItemVenta(1L, 2), new VentaService.ItemVenta(1L, 3));
+        ventaService.registrarVenta(1L, 1L, null, MetodoPago.EFECTIVO, items, new BigDecimal("10000"));
+
+        verify(productoRepository).findAllByIds(List.of(1L));
+        verify(productoRepository).descontarStock(Map.of(1L, 5));
     }
 
     /**
@@ -197,7 +251,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(clienteRepository.findById(3L)).thenReturn(Optional.of(sinCredito));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 1));
@@ -223,7 +277,7 @@ class VentaServiceTest {
         stubComprobanteBase();
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(clienteRepository.findById(4L)).thenReturn(Optional.of(clienteConDeuda));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 1)); // venta de 10.000
@@ -237,7 +291,7 @@ class VentaServiceTest {
     /**
      * Criterio PRD: "El ticket debe incluir [...] número de comprobante
      * (prefijo + número secuencial)."
-     * Cuando ya existen ventas anteriores, el siguiente comprobante es MAX + 1.
+     * Cuando el contador ya existe, el número sale de él sin leer la configuración.
      */
     @Test
     void registrarVenta_asignaNumeroComprobanteSecuencialmente() {
@@ -245,11 +299,11 @@ class VentaServiceTest {
         Usuario usuario  = usuarioBuilder(1L);
         Producto producto = productoBuilder(1L, 10, new BigDecimal("1000"));
 
-        // Simula que el último comprobante registrado fue el 5 → próximo = 6
-        when(ventaRepository.findMaxNumeroComprobante()).thenReturn(Optional.of(5L));
+        // Simula que el último comprobante registrado fue el 5 → el contador reserva el 6
+        when(secuenciaComprobanteRepository.siguiente()).thenReturn(Optional.of(6L));
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(ventaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 1));
@@ -257,11 +311,13 @@ class VentaServiceTest {
             new BigDecimal("10000"));
 
         assertThat(resultado.getNumeroComprobante()).isEqualTo(6L);
+        verify(secuenciaComprobanteRepository, never()).inicializarYReservar(anyLong());
+        verify(configuracionService, never()).obtener();
     }
 
     /**
      * Criterio PRD: "número de comprobante [...] prefijo + número secuencial"
-     * Cuando no hay ventas previas, se usa el número inicial configurado en la tienda.
+     * Cuando el contador aún no existe, se inicializa con el número configurado en la tienda.
      */
     @Test
     void registrarVenta_primerVenta_usaNumeroInicialDeConfiguracion() {
@@ -269,8 +325,9 @@ class VentaServiceTest {
         Usuario usuario  = usuarioBuilder(1L);
         Producto producto = productoBuilder(1L, 10, new BigDecimal("1000"));
 
-        // Sin ventas previas → usa numeroInicialComprobante = 100 de la config
-        when(ventaRepository.findMaxNumeroComprobante()).thenReturn(Optional.empty());
+        // Contador sin inicializar → arranca en numeroInicialComprobante = 100 de la config
+        when(secuenciaComprobanteRepository.siguiente()).thenReturn(Optional.empty());
+        when(secuenciaComprobanteRepository.inicializarYReservar(100L)).thenReturn(100L);
         when(configuracionService.obtener()).thenReturn(
                 ConfiguracionTienda.builder()
                         .id(1L).nombreTienda("MEKTOS")
@@ -280,7 +337,7 @@ class VentaServiceTest {
         );
         when(cajaRepository.findById(1L)).thenReturn(Optional.of(caja));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.findAllByIds(List.of(1L))).thenReturn(List.of(producto));
         when(ventaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         List<VentaService.ItemVenta> items = List.of(new VentaService.ItemVenta(1L, 1));
@@ -317,6 +374,7 @@ class VentaServiceTest {
         // Stock restaurado: 8 + 2 = 10
         verify(productoRepository).save(argThat(p -> p.getStock() == 10));
         verify(clienteRepository, never()).save(any()); // no era a crédito
+        verify(resumenVentaRepository).revertir(venta);
     }
 
     @Test
@@ -356,6 +414,7 @@ class VentaServiceTest {
 
         assertThrows(BusinessException.class, () -> ventaService.anularVenta(1L));
         verify(ventaRepository, never()).save(any());
+        verify(resumenVentaRepository, never()).revertir(any());
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -375,7 +434,7 @@ class VentaServiceTest {
 
         ventaService.reimprimirTicket(1L, new BigDecimal("12000"));
 
-        verify(impresionService).imprimirTicket(venta, new BigDecimal("12000"));
+        verify(colaImpresionService).encolar(venta, new BigDecimal("12000"), false);
     }
 
     @Test
@@ -383,7 +442,7 @@ class VentaServiceTest {
         when(ventaRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> ventaService.reimprimirTicket(1L, null));
-        verify(impresionService, never()).imprimirTicket(any(), any());
+        verify(colaImpresionService, never()).encolar(any(), any(), anyBoolean());
     }
 
     @Test
@@ -397,7 +456,7 @@ class VentaServiceTest {
         when(ventaRepository.findById(1L)).thenReturn(Optional.of(ventaAnulada));
 
         assertThrows(BusinessException.class, () -> ventaService.reimprimirTicket(1L, new BigDecimal("12000")));
-        verify(impresionService, never()).imprimirTicket(any(), any());
+        verify(colaImpresionService, never()).encolar(any(), any(), anyBoolean());
     }
 
     @Test
@@ -411,16 +470,17 @@ class VentaServiceTest {
         when(ventaRepository.findById(1L)).thenReturn(Optional.of(venta));
 
         assertThrows(BusinessException.class, () -> ventaService.reimprimirTicket(1L, new BigDecimal("9000")));
-        verify(impresionService, never()).imprimirTicket(any(), any());
+        verify(colaImpresionService, never()).encolar(any(), any(), anyBoolean());
     }
 
     // ─────────────────────────────────────────────────────────────────────────
     // Helpers
     // ─────────────────────────────────────────────────────────────────────────
 
-    /** Stub por defecto para generación de comprobantes: sin ventas previas, comienza en 1. */
+    /** Stub por defecto para generación de comprobantes: contador sin inicializar, comienza en 1. */
     private void stubComprobanteBase() {
-        when(ventaRepository.findMaxNumeroComprobante()).thenReturn(Optional.empty());
+        when(secuenciaComprobanteRepository.siguiente()).thenReturn(Optional.empty());
+        when(secuenciaComprobanteRepository.inicializarYReservar(1L)).thenReturn(1L);
         when(configuracionService.obtener()).thenReturn(
                 ConfiguracionTienda.builder()
                         .id(1L).nombreTienda("MEKTOS").prefijoComprobante("FAC-")
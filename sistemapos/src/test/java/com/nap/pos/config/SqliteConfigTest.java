@@ -0,0 +1,152 @@
+package com.nap.pos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqliteConfigTest {
+
+    @TempDir
+    Path dir;
+
+    private HikariDataSource escritor;
+    private HikariDataSource lectores;
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate lectura;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceProperties propiedades = new DataSourceProperties();
+        propiedades.setUrl("jdbc:sqlite:" + dir.resolve("pos.db"));
+        propiedades.setDriverClassName("org.sqlite.JDBC");
+        PerfilSqlite perfil = new PerfilSqlite("WAL", "NORMAL", 1_048_576, -2000, "MEMORY", 1500, 2);
+
+        SqliteConfig config = new SqliteConfig();
+        escritor = config.sqliteEscritor(propiedades, perfil);
+        lectores = config.sqliteLectores(propiedades, perfil);
+        dataSource = config.dataSource(escritor, lectores);
+
+        jdbc = new JdbcTemplate(dataSource);
+        lectura = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lectores.close();
+        escritor.close();
+    }
+
+    @Test
+    void escritor_abreConLosPragmasDelPerfil() {
+        assertThat(jdbc.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+        assertThat(jdbc.queryForObject("PRAGMA synchronous", Integer.class)).isEqualTo(1);   // NORMAL
+        assertThat(jdbc.queryForObject("PRAGMA temp_store", Integer.class)).isEqualTo(2);    // MEMORY
+        assertThat(jdbc.queryForObject("PRAGMA cache_size", Integer.class)).isEqualTo(-2000);
+        assertThat(jdbc.queryForObject("PRAGMA busy_timeout", Integer.class)).isEqualTo(1500);
+        assertThat(escritor.getMaximumPoolSize()).isEqualTo(1);
+    }
+
+    @Test
+    void transaccionReadOnly_usaUnLectorQueNoPuedeEscribir() {
+        jdbc.execute("CREATE TABLE t (id INTEGER PRIMARY KEY)");
+        jdbc.update("INSERT INTO t (id) VALUES (1)");
+
+        Integer soloLectura = lectura.execute(s -> jdbc.queryForObject("PRAGMA query_only", Integer.class));
+        Integer filas       = lectura.execute(s -> jdbc.queryForObject("SELECT COUNT(*) FROM t", Integer.class));
+        assertThat(soloLectura).isEqualTo(1);
+        assertThat(filas).isEqualTo(1);
+        assertThrows(RuntimeException.class,
+                () -> lectura.executeWithoutResult(s -> jdbc.update("INSERT INTO t (id) VALUES (2)")));
+        assertThat(jdbc.queryForObject("PRAGMA query_only", Integer.class)).isZero();
+    }
+
+    @Test
+    void jpa_transaccionReadOnlyUsaUnLectorYLaEscrituraElEscritor() {
+        // Lo que usan los servicios: @Transactional de JPA sobre el proxy perezoso
+        LocalContainerEntityManagerFactoryBean fabrica = fabricaJpa();
+        try {
+            EntityManagerFactory emf = fabrica.getObject();
+            EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+            TransactionTemplate escritura = new TransactionTemplate(new JpaTransactionManager(emf));
+            TransactionTemplate lecturaJpa = new TransactionTemplate(new JpaTransactionManager(emf));
+            lecturaJpa.setReadOnly(true);
+
+            Integer soloLecturaAlEscribir = escritura.execute(s -> {
+                em.persist(new Nota("cobro"));
+                em.flush();
+                assertThat(escritor.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+                assertThat(lectores.getHikariPoolMXBean().getActiveConnections()).isZero();
+                return ((Number) em.createNativeQuery("PRAGMA query_only").getSingleResult()).intValue();
+            });
+            Integer soloLecturaAlLeer = lecturaJpa.execute(s -> {
+                Long notas = em.createQuery("SELECT COUNT(n) FROM Nota n", Long.class).getSingleResult();
+                assertThat(notas).isEqualTo(1);
+                assertThat(lectores.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+                assertThat(escritor.getHikariPoolMXBean().getActiveConnections()).isZero();
+                return ((Number) em.createNativeQuery("PRAGMA query_only").getSingleResult()).intValue();
+            });
+
+            assertThat(soloLecturaAlEscribir).isZero();
+            assertThat(soloLecturaAlLeer).isEqualTo(1);
+            assertThrows(RuntimeException.class, () -> lecturaJpa.executeWithoutResult(s ->
+                    em.createNativeQuery("INSERT INTO nota (texto) VALUES ('x')").executeUpdate()));
+        } finally {
+            fabrica.destroy();
+        }
+    }
+
+    private LocalContainerEntityManagerFactoryBean fabricaJpa() {
+        LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(dataSource);
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setManagedTypes(PersistenceManagedTypes.of(Nota.class.getName()));
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", SQLiteDialect.class.getName(),
+                "hibernate.hbm2ddl.auto", "create"));
+        fabrica.afterPropertiesSet();
+        return fabrica;
+    }
+
+    @Entity(name = "Nota")
+    @Table(name = "nota")
+    static class Nota {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String texto;
+
+        protected Nota() {}
+
+        Nota(String texto) {
+            this.texto = texto;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nap.pos.infrastructure.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlmacenMiniaturasTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void obtener_imagenGrande_generaMiniaturaReducida() throws Exception {
+        AlmacenMiniaturas almacen = new AlmacenMiniaturas(dir.resolve("cache"));
+        Path original = imagen("foto.png", 1024, 512);
+
+        Path miniatura = almacen.obtener(original.toString());
+
+        assertThat(miniatura).isNotEqualTo(original).startsWith(dir.resolve("cache"));
+        BufferedImage leida = ImageIO.read(miniatura.toFile());
+        assertThat(leida.getWidth()).isEqualTo(AlmacenMiniaturas.LADO_MAXIMO);
+        assertThat(leida.getHeight()).isEqualTo(AlmacenMiniaturas.LADO_MAXIMO / 2);
+        // La segunda vez se reutiliza la miniatura existente
+        assertThat(almacen.obtener(original.toString())).isEqualTo(miniatura);
+    }
+
+    @Test
+    void obtener_originalReemplazado_regeneraMiniatura() throws Exception {
+        AlmacenMiniaturas almacen = new AlmacenMiniaturas(dir.resolve("cache"));
+        Path original = imagen("foto.png", 1024, 512);
+        Path miniatura = almacen.obtener(original.toString());
+        Files.setLastModifiedTime(miniatura, FileTime.fromMillis(0));
+
+        imagen("foto.png", 512, 1024);
+        almacen.obtener(original.toString());
+
+        assertThat(ImageIO.read(miniatura.toFile()).getHeight()).isEqualTo(AlmacenMiniaturas.LADO_MAXIMO);
+    }
+
+    @Test
+    void obtener_imagenPequenaOInexistente_noGeneraMiniatura() throws Exception {
+        AlmacenMiniaturas almacen = new AlmacenMiniaturas(dir.resolve("cache"));
+        Path pequena = imagen("icono.png", 64, 64);
+
+        assertThat(almacen.obtener(pequena.toString())).isEqualTo(pequena);
+        assertThat(almacen.obtener(dir.resolve("no-existe.png").toString())).isNull();
+    }
+
+    @Test
+    void obtener_imagenPequena_noVuelveALeerElOriginalHastaQueCambie() throws Exception {
+        AlmacenMiniaturas almacen = new AlmacenMiniaturas(dir.resolve("cache"));
+        Path original = imagen("icono.png", 64, 64);
+        assertThat(almacen.obtener(original.toString())).isEqualTo(original);
+
+        // Se reemplaza por una grande con fecha anterior a la marca: la marca manda y no se relee
+        imagen("icono.png", 1024, 1024);
+        Files.setLastModifiedTime(original, FileTime.fromMillis(0));
+        assertThat(almacen.obtener(original.toString())).isEqualTo(original);
+
+        // Con fecha nueva el original se considera cambiado y se genera la miniatura
+        Files.setLastModifiedTime(original, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        assertThat(almacen.obtener(original.toString())).isNotEqualTo(original);
+    }
+
+    @Test
+    void obtener_formatoNoLegible_devuelveElOriginalYDejaLaMarca() throws Exception {
+        Path cache = dir.resolve("cache");
+        AlmacenMiniaturas almacen = new AlmacenMiniaturas(cache);
+        Path original = Files.writeString(dir.resolve("foto.webp"), "RIFF....WEBPVP8 ");
+
+        assertThat(almacen.obtener(original.toString())).isEqualTo(original);
+        try (Stream<Path> archivos = Files.list(cache)) {
+            assertThat(archivos.map(p -> p.getFileName().toString())).singleElement()
+                    .satisfies(nombre -> assertThat(nombre).endsWith(".original"));
+        }
+    }
+
+    private Path imagen(String nombre, int ancho, int alto) throws Exception {
+        Path ruta = dir.resolve(nombre);
+        ImageIO.write(new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB), "png", ruta.toFile());
+        return ruta;
+    }
+}
@@ -0,0 +1,99 @@
+package com.nap.pos.infrastructure.io;
+
+import com.nap.pos.domain.exception.BusinessException;
+import com.nap.pos.domain.exception.TechnicalException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LectorArchivoTest {
+
+    private final LectorArchivo lector = new LectorArchivo();
+
+    @TempDir
+    Path dir;
+
+    // ── CSV ───────────────────────────────────────────────────────────────
+
+    @Test
+    void csv_entregaFilasConNumeroDeFila() throws Exception {
+        File csv = dir.resolve("productos.csv").toFile();
+        Files.writeString(csv.toPath(), "nombre,precio\nArroz,2500\nAzúcar,3100\n");
+
+        List<String> filas = new ArrayList<>();
+        lector.recorrerFilas(csv, (fila, numFila) -> filas.add(numFila + ":" + String.join("|", fila)));
+
+        assertThat(lector.leerEncabezados(csv)).containsExactly("nombre", "precio");
+        assertThat(filas).containsExactly("2:Arroz|2500", "3:Azúcar|3100");
+    }
+
+    @Test
+    void csv_llevaCadaFilaAlAnchoDelEncabezado() throws Exception {
+        File csv = dir.resolve("productos.csv").toFile();
+        Files.writeString(csv.toPath(), "nombre,codigo,precio\nArroz\nAzúcar,77,3100,sobra\n");
+
+        List<String[]> filas = new ArrayList<>();
+        lector.recorrerFilas(csv, (fila, numFila) -> filas.add(fila));
+
+        assertThat(filas).hasSize(2);
+        assertThat(filas.get(0)).containsExactly("Arroz", "", "");
+        assertThat(filas.get(1)).containsExactly("Azúcar", "77", "3100");
+    }
+
+    // ── XLSX ──────────────────────────────────────────────────────────────
+
+    @Test
+    void xlsx_rellenaCeldasVaciasYRecortaValores() throws Exception {
+        File xlsx = dir.resolve("productos.xlsx").toFile();
+        try (XSSFWorkbook wb = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(xlsx)) {
+            XSSFSheet hoja = wb.createSheet();
+            var enc = hoja.createRow(0);
+            enc.createCell(0).setCellValue("nombre");
+            enc.createCell(1).setCellValue("codigo");
+            enc.createCell(2).setCellValue("stock");
+            var r1 = hoja.createRow(1);
+            r1.createCell(0).setCellValue("  Arroz ");
+            r1.createCell(2).setCellValue(12);
+            wb.write(out);
+        }
+
+        List<String[]> filas = new ArrayList<>();
+        lector.recorrerFilas(xlsx, (fila, numFila) -> filas.add(fila));
+
+        assertThat(lector.leerEncabezados(xlsx)).containsExactly("nombre", "codigo", "stock");
+        assertThat(filas).hasSize(1);
+        assertThat(filas.get(0)).containsExactly("Arroz", "", "12");
+    }
+
+    // ── errores ───────────────────────────────────────────────────────────
+
+    @Test
+    void excepcionDelConsumidor_sePropagaSinEnvolver() throws Exception {
+        File csv = dir.resolve("clientes.csv").toFile();
+        Files.writeString(csv.toPath(), "nombre\nAna\n");
+
+        assertThatThrownBy(() -> lector.recorrerFilas(csv, (fila, numFila) -> {
+            throw new BusinessException("fila inválida");
+        })).isInstanceOf(BusinessException.class).hasMessage("fila inválida");
+    }
+
+    @Test
+    void formatoNoSoportado_lanzaTechnicalException() {
+        File txt = dir.resolve("datos.txt").toFile();
+
+        assertThatThrownBy(() -> lector.leerEncabezados(txt))
+                .isInstanceOf(TechnicalException.class)
+                .hasMessageContaining("Formato no soportado");
+    }
+}
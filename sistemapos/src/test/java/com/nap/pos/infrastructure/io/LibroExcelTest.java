@@ -0,0 +1,106 @@
+package com.nap.pos.infrastructure.io;
+
+import com.nap.pos.domain.exception.BusinessException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LibroExcelTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void guardar_escribeMasFilasQueLaVentanaEnMemoriaConEstilosCompartidos() throws Exception {
+        int filas = LibroExcel.FILAS_EN_MEMORIA * 5;
+        File archivo = dir.resolve("ventas.xlsx").toFile();
+        try (LibroExcel libro = new LibroExcel()) {
+            LibroExcel.Hoja hoja = libro.hoja("Ventas", "Producto", "Unidades", "Subtotal");
+            for (int i = 1; i <= filas; i++) {
+                hoja.fila(i % 2 == 0).texto("Producto " + i).numero(i).moneda(new BigDecimal(i));
+            }
+            libro.guardar(archivo);
+        }
+
+        try (XSSFWorkbook wb = new XSSFWorkbook(new FileInputStream(archivo))) {
+            Sheet hoja = wb.getSheet("Ventas");
+            assertThat(hoja.getLastRowNum()).isEqualTo(filas);
+            assertThat(hoja.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Producto");
+            Row ultima = hoja.getRow(filas);
+            assertThat(ultima.getCell(0).getStringCellValue()).isEqualTo("Producto " + filas);
+            assertThat(ultima.getCell(2).getNumericCellValue()).isEqualTo(filas);
+            assertThat(ultima.getCell(2).getCellStyle().getDataFormatString()).isEqualTo("$#,##0.00");
+            // Encabezado + texto/moneda/grupo + sus alternos + el de por defecto
+            assertThat(wb.getNumCellStyles()).isLessThanOrEqualTo(8);
+        }
+    }
+
+    @Test
+    void combinar_yFormula_quedanEnElArchivo() throws Exception {
+        File archivo = dir.resolve("bloques.xlsx").toFile();
+        try (LibroExcel libro = new LibroExcel()) {
+            LibroExcel.Hoja hoja = libro.hoja("Detalle", "Venta", "Cantidad", "Precio", "Subtotal");
+            int inicio = hoja.fila().grupo("V-1").numero(2).moneda(new BigDecimal("1500")).formulaMoneda("B2*C2").indice();
+            hoja.fila().grupo("V-1").numero(1).moneda(new BigDecimal("800")).formulaMoneda("B3*C3");
+            hoja.combinar(inicio, hoja.filas(), 0);
+            libro.guardar(archivo);
+        }
+
+        try (XSSFWorkbook wb = new XSSFWorkbook(new FileInputStream(archivo))) {
+            Sheet hoja = wb.getSheet("Detalle");
+            assertThat(hoja.getMergedRegions()).containsExactly(new CellRangeAddress(1, 2, 0, 0));
+            assertThat(hoja.getRow(1).getCell(3).getCellFormula()).isEqualTo("B2*C2");
+        }
+    }
+
+    @Test
+    void avance_informaLasFilasYCortaAlCancelar() {
+        List<Long> informadas = new ArrayList<>();
+        boolean[] cancelar = { false };
+        LibroExcel.Avance avance = new LibroExcel.Avance() {
+            @Override public void filas(long escritas, long previstas) {
+                informadas.add(escritas);
+                cancelar[0] = escritas >= 1000;
+            }
+            @Override public boolean cancelado() { return cancelar[0]; }
+        };
+
+        try (LibroExcel libro = new LibroExcel(avance)) {
+            libro.prever(10_000);
+            LibroExcel.Hoja hoja = libro.hoja("Datos", "N");
+            assertThrows(CancellationException.class, () -> {
+                for (int i = 0; i < 10_000; i++) hoja.fila().numero(i);
+            });
+            assertThat(libro.escritas()).isLessThan(10_000);
+        }
+        assertThat(informadas).containsExactly(500L, 1000L);
+    }
+
+    @Test
+    void fila_alLlegarAlLimiteDeLaHoja_cortaConUnMensajeClaro() {
+        try (LibroExcel libro = new LibroExcel(LibroExcel.Avance.NINGUNO, 4)) {
+            LibroExcel.Hoja hoja = libro.hoja("Líneas", "N");
+            for (int i = 0; i < 3; i++) hoja.fila().numero(i);
+
+            BusinessException error = assertThrows(BusinessException.class, hoja::fila);
+
+            assertThat(error.getMessage()).contains("\"Líneas\"").contains("Acote el rango");
+            assertThat(hoja.filas()).isEqualTo(3);
+        }
+        assertThat(LibroExcel.FILAS_POR_HOJA).isEqualTo(1_048_576);
+    }
+}
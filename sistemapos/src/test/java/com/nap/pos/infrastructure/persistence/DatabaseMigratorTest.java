@@ -0,0 +1,85 @@
+package com.nap.pos.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatabaseMigratorTest {
+
+    @TempDir
+    Path dir;
+
+    private SQLiteDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private Path scripts;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        scripts = Files.createDirectories(dir.resolve("scripts"));
+    }
+
+    @Test
+    void migrate_aplicaLosScriptsPendientesEnOrdenUnaSolaVez() throws Exception {
+        script("V2__add_index.sql", "CREATE INDEX ix_items_nombre ON items (nombre);");
+        script("V1__create_items.sql", """
+                CREATE TABLE items (id INTEGER PRIMARY KEY, nombre TEXT);
+                INSERT INTO items (nombre) VALUES ('a');
+                """);
+
+        migrator().migrate();
+        migrator().migrate();
+
+        assertThat(jdbc.queryForList("SELECT version FROM schema_version ORDER BY version", Integer.class))
+                .containsExactly(1, 2);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = 'ix_items_nombre'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void migrate_scriptFallido_noQuedaRegistradoNiAplicadoAMedias() throws Exception {
+        script("V1__create_items.sql", "CREATE TABLE items (id INTEGER PRIMARY KEY);");
+        script("V2__broken.sql", """
+                CREATE TABLE otros (id INTEGER PRIMARY KEY);
+                INSERT INTO no_existe VALUES (1);
+                """);
+
+        assertThrows(RuntimeException.class, () -> migrator().migrate());
+
+        assertThat(jdbc.queryForList("SELECT version FROM schema_version", Integer.class)).containsExactly(1);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'otros'",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void migrate_scriptModificadoDespuesDeAplicarse_fallaAlArrancar() throws Exception {
+        script("V1__create_items.sql", "CREATE TABLE items (id INTEGER PRIMARY KEY);");
+        migrator().migrate();
+
+        script("V1__create_items.sql", "CREATE TABLE items (id INTEGER PRIMARY KEY, extra TEXT);");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> migrator().migrate());
+        assertThat(ex.getMessage()).contains("V1").contains("modified");
+    }
+
+    private DatabaseMigrator migrator() {
+        return new DatabaseMigrator(dataSource, "file:" + scripts + "/V*__*.sql");
+    }
+
+    private void script(String nombre, String sql) throws Exception {
+        Files.writeString(scripts.resolve(nombre), sql);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaCompra;
+import com.nap.pos.domain.model.FiltroCompras;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompraRepositoryImplTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private CompraRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE proveedores (id INTEGER PRIMARY KEY, nombre TEXT)");
+        // Como las escribe Hibernate: la fecha en milisegundos
+        jdbc.execute("""
+                CREATE TABLE compras (id INTEGER PRIMARY KEY, fecha TIMESTAMP, proveedor_id INTEGER,
+                    numero_factura TEXT, total NUMERIC)
+                """);
+        jdbc.execute("CREATE TABLE detalle_compras (id INTEGER PRIMARY KEY, compra_id INTEGER, producto_id INTEGER)");
+        jdbc.update("INSERT INTO proveedores VALUES (1, 'Postobón'), (2, 'Alpina')");
+
+        repository = new CompraRepositoryImpl(null, null, new NamedParameterJdbcTemplate(jdbc));
+    }
+
+    @Test
+    void buscarHistorial_recorreTodoSinRepetirNiSaltarComprasDeLaMismaFecha() {
+        compra(1, DIA, 1, "F-1");
+        compra(2, DIA, 2, "F-2");
+        compra(3, DIA, 1, "F-3");
+        compra(4, DIA.plusDays(1), 2, "F-4");
+        compra(5, DIA.minusDays(1), 1, "F-5");
+
+        List<Long> vistas = new ArrayList<>();
+        CursorHistorial cursor = null;
+        int tramos = 0;
+        do {
+            Tramo<FilaCompra> tramo = repository.buscarHistorial(null, cursor, 2);
+            tramo.elementos().forEach(f -> vistas.add(f.id()));
+            cursor = tramo.siguiente();
+            tramos++;
+        } while (cursor != null);
+
+        assertThat(vistas).containsExactly(4L, 3L, 2L, 1L, 5L);
+        assertThat(tramos).isEqualTo(3);
+    }
+
+    @Test
+    void buscarHistorial_aplicaProveedorTextoYRangoDeFechas() {
+        compra(1, DIA, 1, "F-1");
+        compra(2, DIA.plusDays(1), 1, "F-2");
+        compra(3, DIA.plusDays(2), 1, "F-3");
+        compra(4, DIA.plusDays(1), 2, "F-4");
+        jdbc.update("INSERT INTO detalle_compras (compra_id, producto_id) VALUES (2, 7), (2, 8)");
+
+        Tramo<FilaCompra> porProveedor = repository.buscarHistorial(
+                new FiltroCompras(1L, null, DIA.plusDays(1), DIA.plusDays(2)), null, 10);
+        Tramo<FilaCompra> porTexto = repository.buscarHistorial(FiltroCompras.porTexto("alpi"), null, 10);
+
+        assertThat(porProveedor.elementos()).extracting(FilaCompra::id).containsExactly(2L);
+        assertThat(porProveedor.elementos().get(0).numeroProductos()).isEqualTo(2);
+        assertThat(porProveedor.elementos().get(0).fecha()).isEqualTo(DIA.plusDays(1));
+        assertThat(porProveedor.hayMas()).isFalse();
+        assertThat(porTexto.elementos()).extracting(FilaCompra::proveedor).containsExactly("Alpina");
+    }
+
+    @Test
+    void totalizarHistorial_sumaEnLaBaseConElMismoFiltro() {
+        compra(1, DIA, 1, "F-1");
+        compra(2, DIA, 2, "F-2");
+        compra(3, DIA, 1, "F-3");
+
+        TotalesHistorial totales = repository.totalizarHistorial(new FiltroCompras(1L, null, null, null));
+
+        assertThat(totales.cantidad()).isEqualTo(2);
+        assertThat(totales.total()).isEqualByComparingTo("4000");
+    }
+
+    private void compra(long id, LocalDateTime fecha, long proveedorId, String factura) {
+        jdbc.update("INSERT INTO compras VALUES (?, ?, ?, ?, ?)",
+                id, Timestamp.valueOf(fecha), proveedorId, factura, id * 1000);
+    }
+}
@@ -0,0 +1,123 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.ConsultaPagina;
+import com.nap.pos.domain.model.FilaProducto;
+import com.nap.pos.domain.model.Pagina;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductoRepositoryImplTest {
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private ProductoRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE categorias (id INTEGER PRIMARY KEY, nombre TEXT)");
+        jdbc.execute("CREATE TABLE subcategorias (id INTEGER PRIMARY KEY, nombre TEXT, categoria_id INTEGER)");
+        jdbc.execute("""
+                CREATE TABLE productos (id INTEGER PRIMARY KEY, codigo_barras TEXT, nombre TEXT,
+                    precio_venta NUMERIC, stock INTEGER, activo BOOLEAN, imagen_path TEXT, subcategoria_id INTEGER)
+                """);
+        jdbc.update("INSERT INTO categorias VALUES (1, 'Bebidas'), (2, 'Aseo')");
+        jdbc.update("INSERT INTO subcategorias VALUES (10, 'Gaseosas', 1), (20, 'Jabones', 2)");
+
+        repository = new ProductoRepositoryImpl(null, null, jdbc, new NamedParameterJdbcTemplate(jdbc));
+    }
+
+    @Test
+    void buscarFilas_traeNombresDeCategoriaYPaginaEnElOrdenPedido() {
+        producto(1, "Coca Cola", 10, true, 10);
+        producto(2, "agua", 5, true, 10);
+        producto(3, "Jabón Rey", 0, false, 20);
+        producto(4, "Bretaña", 7, true, null);
+
+        Pagina<FilaProducto> primera = repository.buscarFilas(null, null, null,
+                new ConsultaPagina(0, 3, "nombre", true));
+        Pagina<FilaProducto> segunda = repository.buscarFilas(null, null, null,
+                new ConsultaPagina(1, 3, "nombre", true));
+
+        assertThat(primera.total()).isEqualTo(4);
+        assertThat(primera.totalPaginas()).isEqualTo(2);
+        assertThat(primera.elementos()).extracting(FilaProducto::nombre)
+                .containsExactly("agua", "Bretaña", "Coca Cola");
+        assertThat(segunda.elementos()).extracting(FilaProducto::nombre).containsExactly("Jabón Rey");
+        assertThat(primera.elementos().get(2).categoria()).isEqualTo("Bebidas");
+        assertThat(primera.elementos().get(2).subcategoria()).isEqualTo("Gaseosas");
+        assertThat(primera.elementos().get(1).categoria()).isNull();
+    }
+
+    @Test
+    void buscarFilas_filtraPorTextoCategoriaYEstado() {
+        producto(1, "Coca Cola", 10, true, 10);
+        producto(2, "Coca Zero", 4, false, 10);
+        producto(3, "Jabón coco", 3, true, 20);
+
+        Pagina<FilaProducto> pagina = repository.buscarFilas("coca", 1L, true,
+                new ConsultaPagina(0, 50, "stock", false));
+
+        assertThat(pagina.total()).isEqualTo(1);
+        assertThat(pagina.elementos()).extracting(FilaProducto::id).containsExactly(1L);
+    }
+
+    @Test
+    void buscarFilas_ignoraTildesEnElTextoYEnElNombre() {
+        producto(1, "Jabón Rey", 3, true, 20);
+        producto(2, "JABÓN AZUL", 2, true, 20);
+        producto(3, "Bretaña", 7, true, 10);
+        producto(4, "Jabonera", 1, true, 20);
+
+        ConsultaPagina consulta = new ConsultaPagina(0, 50, "nombre", true);
+
+        assertThat(repository.buscarFilas("jabon ", null, null, consulta).elementos())
+                .extracting(FilaProducto::id).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(repository.buscarFilas("JABÓN R", null, null, consulta).elementos())
+                .extracting(FilaProducto::id).containsExactly(1L);
+        assertThat(repository.buscarFilas("bretana", null, null, consulta).elementos())
+                .extracting(FilaProducto::id).containsExactly(3L);
+    }
+
+    @Test
+    void buscarFilas_comodinesDelTextoSeBuscanLiteralmente() {
+        producto(1, "Descuento 50%", 1, true, 10);
+        producto(2, "Descuento 500", 1, true, 10);
+
+        Pagina<FilaProducto> pagina = repository.buscarFilas("50%", null, null,
+                new ConsultaPagina(0, 50, "nombre", true));
+
+        assertThat(pagina.elementos()).extracting(FilaProducto::id).containsExactly(1L);
+    }
+
+    @Test
+    void buscarFilas_ordenDesconocidoOPaginaFueraDeRango_usaLosValoresPorDefecto() {
+        producto(1, "B", 1, true, 10);
+        producto(2, "A", 2, true, 10);
+
+        Pagina<FilaProducto> pagina = repository.buscarFilas(null, null, null,
+                new ConsultaPagina(7, 1, "nombre; DROP TABLE productos", true));
+
+        assertThat(pagina.numero()).isEqualTo(1);
+        assertThat(pagina.elementos()).extracting(FilaProducto::nombre).containsExactly("B");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM productos", Integer.class)).isEqualTo(2);
+    }
+
+    private void producto(long id, String nombre, int stock, boolean activo, Integer subcategoriaId) {
+        jdbc.update("INSERT INTO productos VALUES (?, ?, ?, ?, ?, ?, NULL, ?)",
+                id, "77" + id, nombre, new BigDecimal("1000"), stock, activo, subcategoriaId);
+    }
+}
@@ -0,0 +1,180 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.Caja;
+import com.nap.pos.domain.model.DetalleVenta;
+import com.nap.pos.domain.model.Producto;
+import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumenVentaRepositoryImplTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 9, 0);
+    private static final YearMonth MARZO = YearMonth.of(2026, 3);
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private ResumenVentaRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        // Cada sentencia abre su conexión: los hilos de la prueba compiten por el escritor
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(10_000);
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        // Las tablas del resumen, tal como las crea la migración
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__jdbc_tables.sql")).execute(dataSource);
+        // Como las escribe Hibernate: la fecha en milisegundos
+        jdbc.execute("""
+                CREATE TABLE ventas (id INTEGER PRIMARY KEY, fecha TIMESTAMP, total NUMERIC, metodo_pago TEXT,
+                    cliente_id INTEGER, caja_id INTEGER, estado TEXT, numero_comprobante INTEGER)
+                """);
+        jdbc.execute("""
+                CREATE TABLE detalle_ventas (id INTEGER PRIMARY KEY, venta_id INTEGER, producto_id INTEGER,
+                    cantidad INTEGER, precio_unitario NUMERIC, subtotal NUMERIC)
+                """);
+
+        repository = new ResumenVentaRepositoryImpl(jdbc, new NamedParameterJdbcTemplate(jdbc));
+    }
+
+    @Test
+    void reconstruir_dejaFueraDeLaRentabilidadLasVentasAnuladasDelMes() {
+        ventaEnTabla(1, DIA, MetodoPago.EFECTIVO, "COMPLETADA", 1000);
+        ventaEnTabla(2, DIA.plusDays(3), MetodoPago.CREDITO, "COMPLETADA", 2000);
+        ventaEnTabla(3, DIA.plusDays(5), MetodoPago.EFECTIVO, "ANULADA", 5000);
+        ventaEnTabla(4, DIA.plusMonths(1), MetodoPago.EFECTIVO, "COMPLETADA", 700);
+
+        repository.reconstruir();
+
+        assertThat(repository.sumarTotalPorMes(MARZO, MARZO.plusMonths(1)))
+                .containsOnlyKeys(MARZO, MARZO.plusMonths(1));
+        assertThat(repository.sumarTotalPorMes(MARZO, MARZO).get(MARZO)).isEqualByComparingTo("3000");
+        assertThat(repository.sumarTotalPorCaja(List.of(10L), MetodoPago.EFECTIVO).get(10L))
+                .isEqualByComparingTo("1700");
+    }
+
+    @Test
+    void reconstruir_ignoraLaVentaSinCajaComoAlAcumular() {
+        ventaEnTabla(1, DIA, MetodoPago.EFECTIVO, "COMPLETADA", 1000);
+        jdbc.update("INSERT INTO ventas VALUES (2, ?, 400, 'EFECTIVO', NULL, NULL, 'COMPLETADA', 2)",
+                Timestamp.valueOf(DIA));
+        jdbc.update("INSERT INTO detalle_ventas VALUES (1, 2, 7, 1, 400, 400)");
+
+        repository.reconstruir();
+
+        assertThat(jdbc.queryForList("SELECT caja_id FROM resumen_ventas_diario", Long.class)).containsExactly(10L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM resumen_productos_diario", Integer.class)).isZero();
+        assertThat(repository.sumarTotalPorMes(MARZO, MARZO).get(MARZO)).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void revertir_descuentaDelMesLaVentaQueSeAnula() {
+        Venta cobrada = venta(DIA, MetodoPago.EFECTIVO, 7L, 2, "1000");
+        Venta anulada = venta(DIA.plusHours(2), MetodoPago.EFECTIVO, 7L, 5, "1000");
+        repository.acumular(cobrada);
+        repository.acumular(anulada);
+
+        repository.revertir(anulada);
+
+        Map<YearMonth, BigDecimal> porMes = repository.sumarTotalPorMes(MARZO, MARZO);
+        assertThat(porMes.get(MARZO)).isEqualByComparingTo("2000");
+        assertThat(repository.sumarTotalPorCaja(List.of(10L), MetodoPago.EFECTIVO).get(10L))
+                .isEqualByComparingTo("2000");
+        assertThat(jdbc.queryForObject(
+                "SELECT SUM(numero_anuladas) FROM resumen_ventas_diario", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject(
+                "SELECT unidades FROM resumen_productos_diario WHERE producto_id = 7", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void acumular_ventasDeLaMismaClave_seSumanEnUnaSolaFila() {
+        repository.acumular(venta(DIA, MetodoPago.EFECTIVO, 7L, 2, "1000"));
+        repository.acumular(venta(DIA.plusMinutes(20), MetodoPago.EFECTIVO, 7L, 3, "1000"));
+        repository.acumular(venta(DIA.plusMinutes(40), MetodoPago.CREDITO, 7L, 1, "1000"));
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM resumen_ventas_diario", Integer.class)).isEqualTo(2);
+        Map<String, Object> efectivo = jdbc.queryForMap(
+                "SELECT numero_ventas, total FROM resumen_ventas_diario WHERE metodo_pago = 'EFECTIVO'");
+        assertThat(((Number) efectivo.get("numero_ventas")).intValue()).isEqualTo(2);
+        assertThat(new BigDecimal(efectivo.get("total").toString())).isEqualByComparingTo("5000");
+        assertThat(jdbc.queryForObject(
+                "SELECT unidades FROM resumen_productos_diario WHERE metodo_pago = 'EFECTIVO'", Integer.class))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void acumular_desdeVariosHilos_noPierdeIncrementos() throws Exception {
+        int hilos = 8;
+        int ventasPorHilo = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(pool.submit(() -> {
+                    for (int i = 0; i < ventasPorHilo; i++) {
+                        repository.acumular(venta(DIA, MetodoPago.EFECTIVO, 7L, 1, "1000"));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) tarea.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = hilos * ventasPorHilo;
+        assertThat(jdbc.queryForObject("SELECT numero_ventas FROM resumen_ventas_diario", Integer.class))
+                .isEqualTo(total);
+        assertThat(jdbc.queryForObject("SELECT unidades FROM resumen_productos_diario", Integer.class))
+                .isEqualTo(total);
+        assertThat(repository.sumarTotalPorMes(MARZO, MARZO).get(MARZO))
+                .isEqualByComparingTo(BigDecimal.valueOf(total * 1000L));
+    }
+
+    private void ventaEnTabla(long id, LocalDateTime fecha, MetodoPago metodo, String estado, long total) {
+        jdbc.update("INSERT INTO ventas VALUES (?, ?, ?, ?, NULL, 10, ?, ?)",
+                id, Timestamp.valueOf(fecha), total, metodo.name(), estado, id);
+    }
+
+    private static Venta venta(LocalDateTime fecha, MetodoPago metodo, long productoId, int cantidad, String precio) {
+        BigDecimal subtotal = new BigDecimal(precio).multiply(BigDecimal.valueOf(cantidad));
+        DetalleVenta detalle = DetalleVenta.builder()
+                .producto(Producto.builder().id(productoId).build())
+                .cantidad(cantidad)
+                .precioUnitario(new BigDecimal(precio))
+                .subtotal(subtotal)
+                .build();
+        return Venta.builder()
+                .fecha(fecha)
+                .metodoPago(metodo)
+                .caja(Caja.builder().id(10L).build())
+                .detalles(List.of(detalle))
+                .total(subtotal)
+                .build();
+    }
+}
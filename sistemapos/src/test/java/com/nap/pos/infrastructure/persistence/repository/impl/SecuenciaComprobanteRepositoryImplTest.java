@@ -0,0 +1,118 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecuenciaComprobanteRepositoryImplTest {
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transaccion;
+    private SecuenciaComprobanteRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        // Cada sentencia fuera de una transacción abre su conexión: los hilos compiten por el escritor
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(10_000);
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__jdbc_tables.sql")).execute(dataSource);
+        jdbc.execute("CREATE TABLE ventas (id INTEGER PRIMARY KEY, numero_comprobante INTEGER)");
+
+        transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new SecuenciaComprobanteRepositoryImpl(jdbc);
+    }
+
+    @Test
+    void siguiente_sinInicializar_retornaVacio() {
+        assertThat(repository.siguiente()).isEmpty();
+    }
+
+    @Test
+    void inicializarYReservar_continuaDesdeElUltimoComprobanteEmitido() {
+        jdbc.update("INSERT INTO ventas (numero_comprobante) VALUES (40), (41), (NULL)");
+
+        assertThat(repository.inicializarYReservar(1)).isEqualTo(42);
+        assertThat(repository.siguiente()).contains(43L);
+        // Ya inicializado: un segundo arranque no lo reinicia
+        assertThat(repository.inicializarYReservar(1000)).isEqualTo(44);
+    }
+
+    @Test
+    void inicializarYReservar_sinVentas_usaElNumeroInicial() {
+        assertThat(repository.inicializarYReservar(1000)).isEqualTo(1000);
+        assertThat(repository.siguiente()).contains(1001L);
+    }
+
+    @Test
+    void siguiente_conRollback_devuelveElNumeroSinDejarHueco() {
+        repository.inicializarYReservar(1);
+
+        Long descartado = transaccion.execute(s -> {
+            s.setRollbackOnly();
+            return repository.siguiente().orElseThrow();
+        });
+
+        assertThat(descartado).isEqualTo(2);
+        assertThat(repository.siguiente()).contains(2L);
+    }
+
+    @Test
+    void siguiente_desdeVariosHilos_noRepiteNiSaltaNumeros() throws Exception {
+        repository.inicializarYReservar(1);
+        int hilos = 8;
+        int ventasPorHilo = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        List<Future<List<Long>>> tareas = new ArrayList<>();
+        try {
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(pool.submit(() -> {
+                    List<Long> propios = new ArrayList<>();
+                    for (int i = 0; i < ventasPorHilo; i++) {
+                        propios.add(repository.siguiente().orElseThrow());
+                    }
+                    return propios;
+                }));
+            }
+            Set<Long> reservados = new TreeSet<>();
+            int cantidad = 0;
+            for (Future<List<Long>> tarea : tareas) {
+                List<Long> propios = tarea.get();
+                reservados.addAll(propios);
+                cantidad += propios.size();
+            }
+
+            int total = hilos * ventasPorHilo;
+            assertThat(cantidad).isEqualTo(total);
+            assertThat(reservados).isEqualTo(LongStream.rangeClosed(2, total + 1).boxed()
+                    .collect(Collectors.toCollection(TreeSet::new)));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
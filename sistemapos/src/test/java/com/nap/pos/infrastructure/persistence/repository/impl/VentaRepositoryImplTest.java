@@ -0,0 +1,235 @@
+package com.nap.pos.infrastructure.persistence.repository.impl;
+
+import com.nap.pos.domain.model.CursorHistorial;
+import com.nap.pos.domain.model.FilaLineaVenta;
+import com.nap.pos.domain.model.FiltroVentas;
+import com.nap.pos.domain.model.TotalesCaja;
+import com.nap.pos.domain.model.TotalesHistorial;
+import com.nap.pos.domain.model.Tramo;
+import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.infrastructure.persistence.entity.VentaEntity;
+import com.nap.pos.infrastructure.persistence.mapper.CajaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.CategoriaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ClienteMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ProductoMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ProveedorMapper;
+import com.nap.pos.infrastructure.persistence.mapper.SubcategoriaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.UsuarioMapper;
+import com.nap.pos.infrastructure.persistence.mapper.VentaMapper;
+import com.nap.pos.infrastructure.persistence.repository.jpa.JpaVentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VentaRepositoryImplTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private VentaRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE clientes (id INTEGER PRIMARY KEY, nombre TEXT, cedula TEXT)");
+        jdbc.execute("CREATE TABLE productos (id INTEGER PRIMARY KEY, nombre TEXT, codigo_barras TEXT)");
+        // Como las escribe Hibernate: la fecha en milisegundos
+        jdbc.execute("""
+                CREATE TABLE ventas (id INTEGER PRIMARY KEY, fecha TIMESTAMP, total NUMERIC, metodo_pago TEXT,
+                    cliente_id INTEGER, caja_id INTEGER, estado TEXT, numero_comprobante INTEGER)
+                """);
+        jdbc.execute("""
+                CREATE TABLE detalle_ventas (id INTEGER PRIMARY KEY, venta_id INTEGER, producto_id INTEGER,
+                    cantidad INTEGER, precio_unitario NUMERIC, subtotal NUMERIC)
+                """);
+        jdbc.update("INSERT INTO clientes VALUES (1, 'Ana López', '111')");
+        jdbc.update("INSERT INTO productos VALUES (7, 'Agua 500ml', 'P7'), (8, 'Pan', NULL)");
+
+        // El tramo se elige en SQL; la carga por ids (grafo JPA) devuelve las ventas en otro orden
+        JpaVentaRepository jpaVentaRepository = mock(JpaVentaRepository.class);
+        when(jpaVentaRepository.findByIdIn(anyCollection())).thenAnswer(inv -> {
+            List<VentaEntity> entidades = new ArrayList<>();
+            for (Long id : inv.<Collection<Long>>getArgument(0)) {
+                VentaEntity entidad = new VentaEntity();
+                entidad.setId(id);
+                entidades.add(0, entidad);
+            }
+            return entidades;
+        });
+        VentaMapper ventaMapper = new VentaMapper(
+                new ClienteMapper(), new UsuarioMapper(), new CajaMapper(new UsuarioMapper()),
+                new ProductoMapper(new ProveedorMapper(), new SubcategoriaMapper(new CategoriaMapper())));
+
+        repository = new VentaRepositoryImpl(jpaVentaRepository, ventaMapper, new NamedParameterJdbcTemplate(jdbc));
+    }
+
+    @Test
+    void buscarHistorial_recorreTodoSinRepetirNiSaltarVentasDeLaMismaFecha() {
+        venta(1, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(2, DIA, 1L, MetodoPago.CREDITO, 10);
+        venta(3, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(4, DIA.plusDays(1), null, MetodoPago.EFECTIVO, 10);
+        venta(5, DIA.minusDays(1), null, MetodoPago.EFECTIVO, 10);
+
+        List<Long> vistas = new ArrayList<>();
+        CursorHistorial cursor = null;
+        int tramos = 0;
+        do {
+            Tramo<Venta> tramo = repository.buscarHistorial(null, cursor, 2);
+            tramo.elementos().forEach(v -> vistas.add(v.getId()));
+            cursor = tramo.siguiente();
+            tramos++;
+        } while (cursor != null);
+
+        assertThat(vistas).containsExactly(4L, 3L, 2L, 1L, 5L);
+        assertThat(tramos).isEqualTo(3);
+    }
+
+    @Test
+    void buscarHistorial_aplicaCajaClienteMetodoYRangoDeFechas() {
+        historialConFiltros();
+
+        assertThat(idsDelHistorial(new FiltroVentas(10L, null, null, null, null))).containsExactly(5L, 4L, 2L, 1L);
+        assertThat(idsDelHistorial(new FiltroVentas(null, 1L, null, null, null))).containsExactly(5L, 3L, 2L);
+        assertThat(idsDelHistorial(new FiltroVentas(null, null, MetodoPago.TRANSFERENCIA, null, null)))
+                .containsExactly(4L);
+        assertThat(idsDelHistorial(new FiltroVentas(null, null, null, DIA.plusDays(1), DIA.plusDays(3))))
+                .containsExactly(3L, 4L, 2L);
+        assertThat(idsDelHistorial(new FiltroVentas(10L, 1L, MetodoPago.CREDITO, DIA.plusDays(1), DIA.plusDays(3))))
+                .containsExactly(2L);
+    }
+
+    @Test
+    void totalizarHistorial_cuentaYSumaEnLaBaseConElMismoFiltro() {
+        historialConFiltros();
+
+        TotalesHistorial todas = repository.totalizarHistorial(null);
+        assertThat(todas.cantidad()).isEqualTo(5);
+        assertThat(todas.total()).isEqualByComparingTo("15000");
+
+        TotalesHistorial porCliente = repository.totalizarHistorial(new FiltroVentas(null, 1L, null, null, null));
+        assertThat(porCliente.cantidad()).isEqualTo(3);
+        assertThat(porCliente.total()).isEqualByComparingTo("10000");
+
+        TotalesHistorial porCajaYMetodo = repository.totalizarHistorial(
+                new FiltroVentas(10L, null, MetodoPago.EFECTIVO, null, null));
+        assertThat(porCajaYMetodo.cantidad()).isEqualTo(1);
+        assertThat(porCajaYMetodo.total()).isEqualByComparingTo("1000");
+
+        TotalesHistorial porRango = repository.totalizarHistorial(
+                new FiltroVentas(null, null, null, DIA.plusDays(1), DIA.plusDays(3)));
+        assertThat(porRango.cantidad()).isEqualTo(3);
+        assertThat(porRango.total()).isEqualByComparingTo("9000");
+
+        TotalesHistorial sinVentas = repository.totalizarHistorial(
+                new FiltroVentas(99L, null, null, null, null));
+        assertThat(sinVentas.cantidad()).isZero();
+        assertThat(sinVentas.total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void recorrerLineas_entregaLasLineasDeCadaVentaSeguidasDeLaMasRecienteALaMasAntigua() {
+        venta(1, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(2, DIA.plusHours(1), 1L, MetodoPago.CREDITO, 10);
+        venta(3, DIA.plusHours(2), null, MetodoPago.EFECTIVO, 20);
+        linea(1, 1, 7, 2);
+        linea(2, 2, 8, 1);
+        linea(3, 2, 7, 3);
+        linea(4, 1, 8, 4);
+
+        List<FilaLineaVenta> lineas = new ArrayList<>();
+        repository.recorrerLineas(new FiltroVentas(10L, null, null, null, null), lineas::add);
+
+        assertThat(lineas).extracting(FilaLineaVenta::ventaId).containsExactly(2L, 2L, 1L, 1L);
+        assertThat(lineas).extracting(FilaLineaVenta::detalleId).containsExactly(2L, 3L, 1L, 4L);
+        FilaLineaVenta primera = lineas.get(0);
+        assertThat(primera.cliente()).isEqualTo("Ana López");
+        assertThat(primera.metodoPago()).isEqualTo(MetodoPago.CREDITO);
+        assertThat(primera.fecha()).isEqualTo(DIA.plusHours(1));
+        assertThat(primera.producto()).isEqualTo("Pan");
+        assertThat(primera.subtotal()).isEqualByComparingTo("1000");
+        assertThat(repository.contarLineas(new FiltroVentas(10L, null, null, null, null))).isEqualTo(4);
+    }
+
+    @Test
+    void recorrerLineas_dejaUnaFilaSinDetalleParaLasVentasSinLineas() {
+        venta(1, DIA, 1L, MetodoPago.CREDITO, 10);
+
+        List<FilaLineaVenta> lineas = new ArrayList<>();
+        repository.recorrerLineas(FiltroVentas.creditoDeCliente(1L), lineas::add);
+
+        assertThat(lineas).hasSize(1);
+        assertThat(lineas.get(0).detalleId()).isNull();
+        assertThat(lineas.get(0).numeroComprobante()).isEqualTo(101L);
+        assertThat(repository.contarLineas(FiltroVentas.creditoDeCliente(1L))).isEqualTo(1);
+    }
+
+    @Test
+    void totalizarPorCaja_sumaCompletadasPorMetodoYCuentaAnuladasEnUnaConsulta() {
+        venta(1, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(2, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(3, DIA, 1L, MetodoPago.CREDITO, 10);
+        venta(4, DIA, null, MetodoPago.TRANSFERENCIA, 10);
+        jdbc.update("UPDATE ventas SET estado = 'ANULADA' WHERE id = 4");
+        venta(5, DIA, null, MetodoPago.TRANSFERENCIA, 20);
+        venta(6, DIA, null, MetodoPago.EFECTIVO, 30);
+
+        Map<Long, TotalesCaja> totales = repository.totalizarPorCaja(List.of(10L, 20L, 40L));
+
+        assertThat(totales).containsOnlyKeys(10L, 20L);
+        TotalesCaja caja10 = totales.get(10L);
+        assertThat(caja10.completadas()).isEqualTo(3);
+        assertThat(caja10.anuladas()).isEqualTo(1);
+        assertThat(caja10.efectivo()).isEqualByComparingTo("3000");
+        assertThat(caja10.credito()).isEqualByComparingTo("3000");
+        assertThat(caja10.transferencia()).isEqualByComparingTo("0");
+        assertThat(totales.get(20L).transferencia()).isEqualByComparingTo("5000");
+    }
+
+    // Totales: 1000 × id. La hasta del rango es exclusiva: la venta 5 queda fuera de [día+1, día+3)
+    private void historialConFiltros() {
+        venta(1, DIA, null, MetodoPago.EFECTIVO, 10);
+        venta(2, DIA.plusDays(1), 1L, MetodoPago.CREDITO, 10);
+        venta(3, DIA.plusDays(2), 1L, MetodoPago.CREDITO, 20);
+        venta(4, DIA.plusDays(1), null, MetodoPago.TRANSFERENCIA, 10);
+        venta(5, DIA.plusDays(3), 1L, MetodoPago.CREDITO, 10);
+    }
+
+    private List<Long> idsDelHistorial(FiltroVentas filtro) {
+        Tramo<Venta> tramo = repository.buscarHistorial(filtro, null, 50);
+        assertThat(tramo.siguiente()).isNull();
+        return tramo.elementos().stream().map(Venta::getId).toList();
+    }
+
+    private void venta(long id, LocalDateTime fecha, Long clienteId, MetodoPago metodo, long cajaId) {
+        jdbc.update("INSERT INTO ventas VALUES (?, ?, ?, ?, ?, ?, 'COMPLETADA', ?)",
+                id, Timestamp.valueOf(fecha), id * 1000, metodo.name(), clienteId, cajaId, 100 + id);
+    }
+
+    private void linea(long id, long ventaId, long productoId, int cantidad) {
+        jdbc.update("INSERT INTO detalle_ventas VALUES (?, ?, ?, ?, ?, ?)",
+                id, ventaId, productoId, cantidad, 1000, cantidad * 1000);
+    }
+}
@@ -0,0 +1,184 @@
+package com.nap.pos.infrastructure.persistence.repository.jpa;
+
+import com.nap.pos.domain.model.Venta;
+import com.nap.pos.domain.model.enums.EstadoCaja;
+import com.nap.pos.domain.model.enums.EstadoVenta;
+import com.nap.pos.domain.model.enums.MetodoPago;
+import com.nap.pos.domain.model.enums.Rol;
+import com.nap.pos.infrastructure.persistence.entity.CajaEntity;
+import com.nap.pos.infrastructure.persistence.entity.CategoriaEntity;
+import com.nap.pos.infrastructure.persistence.entity.ClienteEntity;
+import com.nap.pos.infrastructure.persistence.entity.DetalleVentaEntity;
+import com.nap.pos.infrastructure.persistence.entity.ProductoEntity;
+import com.nap.pos.infrastructure.persistence.entity.ProveedorEntity;
+import com.nap.pos.infrastructure.persistence.entity.SubcategoriaEntity;
+import com.nap.pos.infrastructure.persistence.entity.UsuarioEntity;
+import com.nap.pos.infrastructure.persistence.entity.VentaEntity;
+import com.nap.pos.infrastructure.persistence.mapper.CajaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.CategoriaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ClienteMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ProductoMapper;
+import com.nap.pos.infrastructure.persistence.mapper.ProveedorMapper;
+import com.nap.pos.infrastructure.persistence.mapper.SubcategoriaMapper;
+import com.nap.pos.infrastructure.persistence.mapper.UsuarioMapper;
+import com.nap.pos.infrastructure.persistence.mapper.VentaMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JpaVentaRepositoryTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    private LocalContainerEntityManagerFactoryBean fabrica;
+    private EntityManager em;
+    private TransactionTemplate transaccion;
+    private Statistics estadisticas;
+    private JpaVentaRepository repository;
+
+    private final VentaMapper ventaMapper = new VentaMapper(
+            new ClienteMapper(), new UsuarioMapper(), new CajaMapper(new UsuarioMapper()),
+            new ProductoMapper(new ProveedorMapper(), new SubcategoriaMapper(new CategoriaMapper())));
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("test.db"));
+        fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(dataSource);
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setPackagesToScan("com.nap.pos.infrastructure.persistence.entity");
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", SQLiteDialect.class.getName(),
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.generate_statistics", "true"));
+        fabrica.afterPropertiesSet();
+
+        EntityManagerFactory emf = fabrica.getObject();
+        em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        transaccion = new TransactionTemplate(new JpaTransactionManager(emf));
+        estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+        repository = new JpaRepositoryFactory(em).getRepository(JpaVentaRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fabrica.destroy();
+    }
+
+    @Test
+    void findByCajaId_mapearVariasVentas_usaUnaSolaConsulta() {
+        Long cajaId = transaccion.execute(s -> cajaConVentas(4, 3));
+        estadisticas.clear();
+
+        List<Venta> ventas = transaccion.execute(s ->
+                repository.findByCajaId(cajaId).stream().map(ventaMapper::toDomain).toList());
+
+        assertThat(ventas).hasSize(4);
+        assertThat(ventas).allSatisfy(v -> {
+            assertThat(v.getDetalles()).hasSize(3);
+            assertThat(v.getCaja().getUsuario().getUsername()).isEqualTo("cajero");
+            assertThat(v.getDetalles().get(0).getProducto().getSubcategoria().getCategoria().getNombre())
+                    .isEqualTo("Bebidas");
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ── Datos de prueba ──────────────────────────────────────────────────
+
+    private Long cajaConVentas(int numeroVentas, int detallesPorVenta) {
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.setUsername("cajero");
+        usuario.setPasswordHash("x");
+        usuario.setRol(Rol.CAJERO);
+        usuario.setActivo(true);
+        em.persist(usuario);
+
+        CajaEntity caja = new CajaEntity();
+        caja.setFechaApertura(DIA);
+        caja.setMontoInicial(BigDecimal.ZERO);
+        caja.setEstado(EstadoCaja.ABIERTA);
+        caja.setUsuario(usuario);
+        em.persist(caja);
+
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Bebidas");
+        categoria.setActivo(true);
+        em.persist(categoria);
+
+        SubcategoriaEntity subcategoria = new SubcategoriaEntity();
+        subcategoria.setNombre("Gaseosas");
+        subcategoria.setCategoria(categoria);
+        subcategoria.setActivo(true);
+        em.persist(subcategoria);
+
+        ProveedorEntity proveedor = new ProveedorEntity();
+        proveedor.setNombre("Distribuidora");
+        proveedor.setPorcentajeGanancia(BigDecimal.ZERO);
+        proveedor.setActivo(true);
+        em.persist(proveedor);
+
+        ClienteEntity cliente = new ClienteEntity();
+        cliente.setNombre("Ana");
+        cliente.setCedula("100");
+        cliente.setSaldoUtilizado(BigDecimal.ZERO);
+        cliente.setActivo(true);
+        em.persist(cliente);
+
+        for (int v = 0; v < numeroVentas; v++) {
+            VentaEntity venta = new VentaEntity();
+            venta.setFecha(DIA.plusMinutes(v));
+            venta.setTotal(BigDecimal.valueOf(1000L * detallesPorVenta));
+            venta.setMetodoPago(MetodoPago.EFECTIVO);
+            venta.setEstado(EstadoVenta.COMPLETADA);
+            venta.setCliente(cliente);
+            venta.setUsuario(usuario);
+            venta.setCaja(caja);
+            for (int d = 0; d < detallesPorVenta; d++) {
+                // Un producto distinto por línea: cada uno sería una consulta sin el grafo
+                ProductoEntity producto = new ProductoEntity();
+                producto.setNombre("Producto " + v + "-" + d);
+                producto.setPrecioVenta(BigDecimal.valueOf(1000));
+                producto.setPrecioCompra(BigDecimal.valueOf(600));
+                producto.setProveedorPrincipal(proveedor);
+                producto.setSubcategoria(subcategoria);
+                producto.setActivo(true);
+                em.persist(producto);
+
+                DetalleVentaEntity detalle = new DetalleVentaEntity();
+                detalle.setVenta(venta);
+                detalle.setProducto(producto);
+                detalle.setCantidad(1);
+                detalle.setPrecioUnitario(BigDecimal.valueOf(1000));
+                detalle.setSubtotal(BigDecimal.valueOf(1000));
+                venta.getDetalles().add(detalle);
+            }
+            em.persist(venta);
+        }
+        return caja.getId();
+    }
+}
@@ -0,0 +1,109 @@
+package com.nap.pos.infrastructure.printing;
+
+import com.nap.pos.domain.model.ConfiguracionTienda;
+import com.nap.pos.domain.model.Ticket;
+import com.nap.pos.domain.model.enums.TipoImpresora;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EscPosTicketPrinterTest {
+
+    private static final Charset PC850 = Charset.forName("IBM850");
+
+    @TempDir
+    Path carpeta;
+
+    private final EscPosTicketPrinter impresora = new EscPosTicketPrinter();
+
+    @Test
+    void imprimir_enCarpeta_escribeComandosYTextoEnPc850() throws IOException {
+        byte[] bytes = imprimir(ticket(true));
+
+        // Inicializa la impresora y selecciona la página PC850
+        assertThat(bytes).startsWith(0x1B, '@', 0x1B, 't', 2);
+        String texto = new String(bytes, PC850);
+        assertThat(texto)
+                .contains("Café Molido")
+                .contains("¡Gracias por su compra!")
+                .contains("TOTAL:");
+        // Cajón monedero, código de barras CODE128 del comprobante y corte parcial
+        assertThat(indexOf(bytes, 0x1B, 'p', 0)).isPositive();
+        assertThat(indexOf(bytes, 0x1D, 'k', 73, 12, '{', 'B')).isPositive();
+        assertThat(texto).contains("FAC-000007");
+        assertThat(indexOf(bytes, 0x1D, 'V', 66)).isPositive();
+    }
+
+    @Test
+    void imprimir_sinAbrirCajon_noEnviaPulso() throws IOException {
+        byte[] bytes = imprimir(ticket(false));
+
+        assertThat(indexOf(bytes, 0x1B, 'p', 0)).isNegative();
+    }
+
+    @Test
+    void imprimir_totalDestacado_usaNegritaYDobleAlto() throws IOException {
+        byte[] bytes = imprimir(ticket(false));
+
+        int total = indexOf(bytes, "TOTAL:".getBytes(PC850));
+        int dobleAlto = indexOf(bytes, 0x1D, '!', 0x01);
+        assertThat(dobleAlto).isPositive().isLessThan(total);
+    }
+
+    @Test
+    void imprimir_reutilizaBuffer_entreTickets() throws IOException {
+        byte[] primero = imprimir(ticket(false));
+        byte[] segundo = imprimir(ticket(false));
+
+        assertThat(segundo).isEqualTo(primero);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private byte[] imprimir(Ticket ticket) throws IOException {
+        ConfiguracionTienda config = ConfiguracionTienda.builder()
+                .tipoImpresora(TipoImpresora.ESC_POS)
+                .destinoImpresora(carpeta.toString())
+                .build();
+        impresora.imprimir(ticket, config);
+        return Files.readAllBytes(carpeta.resolve(ticket.nombreArchivo() + ".bin"));
+    }
+
+    private Ticket ticket(boolean abrirCajon) {
+        return new Ticket(
+                "FAC000007", "FAC-000007",
+                List.of("Tienda Prueba", "Calle 1 # 2-3"),
+                List.of("NIT: 900123", "No responsable de IVA"),
+                List.of(new Ticket.Fila("Comprobante N°:", "FAC-000007")),
+                List.of(new Ticket.Linea("Café Molido", 2, "$ 5.000", "$ 10.000")),
+                List.of(new Ticket.Fila("TOTAL:", "$ 10.000", true)),
+                List.of(new Ticket.Fila("Forma de pago:", "Efectivo")),
+                List.of(new Ticket.Fila("Recibido:", "$ 20.000"), new Ticket.Fila("Cambio:", "$ 10.000")),
+                "No somos responsables del IVA",
+                abrirCajon);
+    }
+
+    private static int indexOf(byte[] datos, int... patron) {
+        byte[] p = new byte[patron.length];
+        for (int i = 0; i < patron.length; i++) p[i] = (byte) patron[i];
+        return indexOf(datos, p);
+    }
+
+    private static int indexOf(byte[] datos, byte[] patron) {
+        outer:
+        for (int i = 0; i <= datos.length - patron.length; i++) {
+            for (int j = 0; j < patron.length; j++) {
+                if (datos[i + j] != patron[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.nap.pos.ui.component;
+
+import javafx.concurrent.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TareasUITest {
+
+    private final TareasUI tareasUI = new TareasUI();
+
+    @AfterEach
+    void tearDown() {
+        tareasUI.detener();
+    }
+
+    @Test
+    void ejecutar_dosFilasDistintasEnCurso_cadaUnaConservaSuTarea() {
+        Task<String> filaA = tarea("A");
+        Task<String> filaB = tarea("B");
+
+        // Se abre la fila A y, antes de que responda, la fila B: no comparten la consulta
+        Task<String> enCursoA = tareasUI.ejecutar("inventario.detalle:" + 1L, filaA, r -> {}, e -> {});
+        Task<String> enCursoB = tareasUI.ejecutar("inventario.detalle:" + 2L, filaB, r -> {}, e -> {});
+
+        assertThat(enCursoA).isSameAs(filaA);
+        assertThat(enCursoB).isSameAs(filaB);
+    }
+
+    @Test
+    void ejecutar_mismaClaveEnCurso_seUneALaTareaQueYaCorre() {
+        Task<String> primera = tarea("A");
+        tareasUI.ejecutar("inventario.detalle:" + 1L, primera, r -> {}, e -> {});
+
+        Task<String> enCurso = tareasUI.ejecutar("inventario.detalle:" + 1L, tarea("A"), r -> {}, e -> {});
+
+        assertThat(enCurso).isSameAs(primera);
+    }
+
+    // Sin toolkit de JavaFX la tarea nunca llega a terminar: queda en curso durante toda la prueba
+    private static Task<String> tarea(String resultado) {
+        return new Task<>() {
+            @Override
+            protected String call() {
+                return resultado;
+            }
+        };
+    }
+}